@@ -0,0 +1,103 @@
+package de.rondiplomatico.nds;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link NDSBatch} conversions against converting one object at a time.
+ *
+ * Scores are per batch of {@link #size} coordinates. Add "--jvmArgsAppend --add-modules=jdk.incubator.vector" on
+ * Java 17+ to measure the vector kernels.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+
+    @Param({ "RANDOM", "MORTON_SORTED" })
+    public InputDistribution distribution;
+
+    @Param({ "4096", "1048576" })
+    public int size;
+
+    private double[] lon;
+    private double[] lat;
+    private int[] ndsLon;
+    private int[] ndsLat;
+    private long[] morton;
+    private int[] ids;
+
+    @Setup
+    public void setup() {
+        NDSCoordinate[] coords = distribution.coordinates(size, 42L);
+        lon = new double[size];
+        lat = new double[size];
+        ndsLon = new int[size];
+        ndsLat = new int[size];
+        morton = new long[size];
+        ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            WGS84Coordinate w = coords[i].toWGS84();
+            lon[i] = w.getLongitude();
+            lat[i] = w.getLatitude();
+        }
+    }
+
+    @Benchmark
+    public int[] toNDSObjects() {
+        for (int i = 0; i < size; i++) {
+            NDSCoordinate c = new NDSCoordinate(lon[i], lat[i]);
+            ndsLon[i] = c.getLongitude();
+            ndsLat[i] = c.getLatitude();
+        }
+        return ndsLat;
+    }
+
+    @Benchmark
+    public int[] toNDSBatch() {
+        NDSBatch.toNDS(lon, lat, 0, ndsLon, ndsLat, 0, size);
+        return ndsLat;
+    }
+
+    @Benchmark
+    public double[] toWGS84Batch() {
+        NDSBatch.toWGS84(ndsLon, ndsLat, 0, lon, lat, 0, size);
+        return lat;
+    }
+
+    @Benchmark
+    public long[] mortonCodesBatch() {
+        NDSBatch.mortonCodes(ndsLon, ndsLat, 0, morton, 0, size);
+        return morton;
+    }
+
+    @Benchmark
+    public int[] packedIdsObjects() {
+        for (int i = 0; i < size; i++) {
+            ids[i] = new NDSTile(13, new WGS84Coordinate(lon[i], lat[i])).packedId();
+        }
+        return ids;
+    }
+
+    @Benchmark
+    public int[] packedIdsBatch() {
+        NDSBatch.packedIdsFromWgs84(13, lon, lat, 0, ids, 0, size);
+        return ids;
+    }
+}
@@ -0,0 +1,30 @@
+package de.rondiplomatico.nds;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar.
+ *
+ * Accepts the usual JMH command line options, but always attaches the GC profiler so that the allocation rate
+ * (gc.alloc.rate.norm, bytes per operation) is reported along with the timings.
+ *
+ * Example:
+ *
+ * <pre>
+ * java -jar target/jmh/nds-tiles-1.0-benchmarks.jar TileBenchmark -p distribution=RANDOM
+ * </pre>
+ *
+ * @since 15.10.2026
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder().parent(cmd).addProfiler(GCProfiler.class).build()).run();
+    }
+}
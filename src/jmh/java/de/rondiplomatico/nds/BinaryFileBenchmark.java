@@ -0,0 +1,71 @@
+package de.rondiplomatico.nds;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writing and reading a binary tile file with {@link NDSBinaryWriter} and {@link NDSBinaryReader}.
+ *
+ * The file holds the level 15 tiles covering Germany, about 2.4 million sorted tiles. The files are cached by the
+ * operating system after setup.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFileBenchmark {
+
+    private int[] ids;
+    private Path read;
+    private Path written;
+
+    @Setup
+    public void setup() throws IOException {
+        ids = NDSTileCover.stream(new WGS84BBox(55.1, 15.1, 47.2, 5.8), 15).toArray();
+        read = Files.createTempFile("nds-binary-benchmark", ".nds");
+        written = Files.createTempFile("nds-binary-benchmark", ".nds");
+        try (NDSBinaryWriter w = NDSBinaryWriter.tiles(read)) {
+            w.tiles(ids, 0, ids.length);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(read);
+        Files.delete(written);
+    }
+
+    @Benchmark
+    public void writeTiles() throws IOException {
+        try (NDSBinaryWriter w = NDSBinaryWriter.tiles(written)) {
+            w.tiles(ids, 0, ids.length);
+        }
+    }
+
+    @Benchmark
+    public long readTiles() throws IOException {
+        long[] sum = new long[1];
+        try (NDSBinaryReader r = NDSBinaryReader.open(read)) {
+            r.forEachTile(id -> sum[0] += id);
+        }
+        return sum[0];
+    }
+}
@@ -0,0 +1,94 @@
+package de.rondiplomatico.nds;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares sorting coordinates by morton code as {@link NDSCoordinateArray} with the radix sort against sorting an
+ * array of {@link NDSCoordinate} objects and a long[] of morton codes with the JDK sorts.
+ *
+ * The inputs are copied before every invocation, which is excluded from the measurement.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinateArrayBenchmark {
+
+    @Param({ "100000", "1000000" })
+    public int size;
+
+    @Param({ "RANDOM", "CLUSTERED" })
+    public InputDistribution distribution;
+
+    private NDSCoordinate[] coords;
+    private int[] lon;
+    private int[] lat;
+
+    private NDSCoordinate[] objects;
+    private NDSCoordinateArray array;
+    private long[] codes;
+
+    @Setup
+    public void setup() {
+        coords = distribution.coordinates(size, 42L);
+        lon = new int[size];
+        lat = new int[size];
+        for (int i = 0; i < size; i++) {
+            lon[i] = coords[i].getLongitude();
+            lat[i] = coords[i].getLatitude();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        objects = coords.clone();
+        array = new NDSCoordinateArray(size, true);
+        array.addAll(lon, lat, 0, size);
+        codes = new long[size];
+    }
+
+    @Benchmark
+    public void radixSort(Blackhole bh) {
+        array.sortByMorton();
+        bh.consume(array);
+    }
+
+    @Benchmark
+    public void objectSort(Blackhole bh) {
+        Arrays.sort(objects, Comparator.comparingLong(NDSCoordinate::getMortonCode));
+        bh.consume(objects);
+    }
+
+    @Benchmark
+    public void objectParallelSort(Blackhole bh) {
+        Arrays.parallelSort(objects, Comparator.comparingLong(NDSCoordinate::getMortonCode));
+        bh.consume(objects);
+    }
+
+    @Benchmark
+    public void mortonCodeSort(Blackhole bh) {
+        NDSBatch.mortonCodes(lon, lat, 0, codes, 0, size);
+        Arrays.sort(codes);
+        bh.consume(codes);
+    }
+}
@@ -0,0 +1,92 @@
+package de.rondiplomatico.nds;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the {@link NDSCoordinate} conversions.
+ *
+ * All benchmarks process {@link #SIZE} inputs per invocation, so the reported scores are per single call.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinateBenchmark {
+
+    /**
+     * The number of inputs per invocation
+     */
+    public static final int SIZE = 4096;
+
+    @Param({ "RANDOM", "CLUSTERED", "MORTON_SORTED" })
+    public InputDistribution distribution;
+
+    private double[] lon;
+    private double[] lat;
+    private long[] morton;
+    private NDSCoordinate[] coords;
+
+    @Setup
+    public void setup() {
+        coords = distribution.coordinates(SIZE, 42L);
+        lon = new double[SIZE];
+        lat = new double[SIZE];
+        morton = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            WGS84Coordinate w = coords[i].toWGS84();
+            lon[i] = w.getLongitude();
+            lat[i] = w.getLatitude();
+            morton[i] = coords[i].getMortonCode();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void fromWGS84(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(new NDSCoordinate(lon[i], lat[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void fromMortonCode(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(new NDSCoordinate(morton[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void getMortonCode(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(coords[i].getMortonCode());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void toWGS84(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(coords[i].toWGS84());
+        }
+    }
+}
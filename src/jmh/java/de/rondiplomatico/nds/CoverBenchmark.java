@@ -0,0 +1,62 @@
+package de.rondiplomatico.nds;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the enumeration of the tiles covering a country-sized bounding box with {@link NDSTileCover}.
+ *
+ * Scores are per complete cover.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoverBenchmark {
+
+    /**
+     * Roughly the bounding box of Germany
+     */
+    public static final WGS84BBox GERMANY = new WGS84BBox(55.1, 15.1, 47.2, 5.8);
+
+    @Param({ "9", "11", "13" })
+    public int level;
+
+    private NDSBBox bbox;
+
+    @Setup
+    public void setup() {
+        bbox = new NDSBBox(NDSCoordinate.fromWGS84Latitude(GERMANY.getNorth()), NDSCoordinate.fromWGS84Longitude(GERMANY.getEast()),
+                        NDSCoordinate.fromWGS84Latitude(GERMANY.getSouth()), NDSCoordinate.fromWGS84Longitude(GERMANY.getWest()));
+    }
+
+    @Benchmark
+    public long coverSequential() {
+        return NDSTileCover.stream(bbox, level).asLongStream().sum();
+    }
+
+    @Benchmark
+    public long coverParallel() {
+        return NDSTileCover.stream(bbox, level).parallel().asLongStream().sum();
+    }
+
+    @Benchmark
+    public long count() {
+        return NDSTileCover.count(bbox, level);
+    }
+}
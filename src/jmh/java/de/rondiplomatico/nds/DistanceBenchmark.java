@@ -0,0 +1,108 @@
+package de.rondiplomatico.nds;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@link NDSDistance} kernels against converting to {@link WGS84Coordinate} objects and computing the
+ * haversine distance on degrees.
+ *
+ * Scores are per batch of {@link #size} distances to a single coordinate.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceBenchmark {
+
+    @Param({ "CLUSTERED" })
+    public InputDistribution distribution;
+
+    @Param({ "4096" })
+    public int size;
+
+    private NDSCoordinate[] coords;
+    private NDSCoordinate query;
+    private int[] lon;
+    private int[] lat;
+    private double[] dest;
+
+    @Setup
+    public void setup() {
+        coords = distribution.coordinates(size, 42L);
+        query = coords[0];
+        lon = new int[size];
+        lat = new int[size];
+        dest = new double[size];
+        for (int i = 0; i < size; i++) {
+            lon[i] = coords[i].getLongitude();
+            lat[i] = coords[i].getLatitude();
+        }
+    }
+
+    @Benchmark
+    public double[] haversineWGS84Objects() {
+        WGS84Coordinate q = query.toWGS84();
+        for (int i = 0; i < size; i++) {
+            WGS84Coordinate c = coords[i].toWGS84();
+            double phi1 = Math.toRadians(q.getLatitude());
+            double phi2 = Math.toRadians(c.getLatitude());
+            double sinDPhi = Math.sin((phi2 - phi1) / 2);
+            double sinDLambda = Math.sin(Math.toRadians(c.getLongitude() - q.getLongitude()) / 2);
+            double a = sinDPhi * sinDPhi + Math.cos(phi1) * Math.cos(phi2) * sinDLambda * sinDLambda;
+            dest[i] = 2 * NDSDistance.EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+        }
+        return dest;
+    }
+
+    @Benchmark
+    public double[] haversine() {
+        for (int i = 0; i < size; i++) {
+            dest[i] = NDSDistance.haversine(query.getLongitude(), query.getLatitude(), lon[i], lat[i]);
+        }
+        return dest;
+    }
+
+    @Benchmark
+    public double[] haversineBatch() {
+        NDSDistance.haversine(query.getLongitude(), query.getLatitude(), lon, lat, 0, dest, 0, size);
+        return dest;
+    }
+
+    @Benchmark
+    public double[] equirectangular() {
+        for (int i = 0; i < size; i++) {
+            dest[i] = NDSDistance.equirectangular(query.getLongitude(), query.getLatitude(), lon[i], lat[i]);
+        }
+        return dest;
+    }
+
+    @Benchmark
+    public double[] equirectangularBatch() {
+        NDSDistance.equirectangular(query.getLongitude(), query.getLatitude(), lon, lat, 0, dest, 0, size);
+        return dest;
+    }
+
+    @Benchmark
+    public double[] bearing() {
+        for (int i = 0; i < size; i++) {
+            dest[i] = NDSDistance.bearing(query.getLongitude(), query.getLatitude(), lon[i], lat[i]);
+        }
+        return dest;
+    }
+}
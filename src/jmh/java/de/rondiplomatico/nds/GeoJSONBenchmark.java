@@ -0,0 +1,100 @@
+package de.rondiplomatico.nds;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the GeoJSON output of all classes.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoJSONBenchmark {
+
+    /**
+     * The number of inputs per invocation
+     */
+    public static final int SIZE = 1024;
+
+    @Param({ "RANDOM", "CLUSTERED", "MORTON_SORTED" })
+    public InputDistribution distribution;
+
+    private NDSCoordinate[] coords;
+    private WGS84Coordinate[] wgs84;
+    private NDSTile[] tiles;
+    private NDSBBox[] bboxes;
+    private WGS84BBox[] wgs84BBoxes;
+
+    @Setup
+    public void setup() {
+        coords = distribution.coordinates(SIZE, 42L);
+        wgs84 = new WGS84Coordinate[SIZE];
+        tiles = new NDSTile[SIZE];
+        bboxes = new NDSBBox[SIZE];
+        wgs84BBoxes = new WGS84BBox[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            wgs84[i] = coords[i].toWGS84();
+            tiles[i] = new NDSTile(13, coords[i]);
+            bboxes[i] = tiles[i].getBBox();
+            wgs84BBoxes[i] = bboxes[i].toWGS84();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void ndsCoordinate(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(coords[i].toGeoJSON());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void wgs84Coordinate(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(wgs84[i].toGeoJSON());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void ndsTile(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(tiles[i].toGeoJSON());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void ndsBBox(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(bboxes[i].toGeoJSON());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void wgs84BBox(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(wgs84BBoxes[i].toGeoJSON());
+        }
+    }
+}
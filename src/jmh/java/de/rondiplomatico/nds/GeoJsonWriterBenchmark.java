@@ -0,0 +1,98 @@
+package de.rondiplomatico.nds;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the output throughput of {@link GeoJsonWriter} for a FeatureCollection of the tiles covering a
+ * country-sized bounding box.
+ *
+ * The "bytes" counter gives the throughput in bytes per second, i.e. MB/s after dividing by 10^6.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoJsonWriterBenchmark {
+
+    @Param({ "6", "9" })
+    public int precision;
+
+    private int[] tiles;
+    private final StringBuilder sb = new StringBuilder();
+
+    /**
+     * The written bytes, reported per second
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Bytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    /**
+     * Discards the output, counting the bytes only.
+     */
+    private static final class CountingStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        tiles = NDSTileCover.stream(CoverBenchmark.GERMANY, 11).toArray();
+    }
+
+    @Benchmark
+    public long outputStream(Bytes counter) {
+        CountingStream out = new CountingStream();
+        write(new GeoJsonWriter(out));
+        counter.bytes += out.count;
+        return out.count;
+    }
+
+    @Benchmark
+    public int stringBuilder(Bytes counter) {
+        sb.setLength(0);
+        write(new GeoJsonWriter(sb));
+        counter.bytes += sb.length();
+        return sb.length();
+    }
+
+    private void write(GeoJsonWriter w) {
+        w.precision(precision).properties(GeoJsonWriter.Property.PACKED_ID, GeoJsonWriter.Property.LEVEL);
+        w.beginFeatureCollection().tiles(tiles, 0, tiles.length).endFeatureCollection().flush();
+    }
+}
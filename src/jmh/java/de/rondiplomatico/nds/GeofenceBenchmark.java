@@ -0,0 +1,125 @@
+package de.rondiplomatico.nds;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares point-in-polygon queries with a {@link NDSGeofenceIndex} against ray casting over all polygons, with and
+ * without a bounding box test first.
+ *
+ * The {@link #polygons} star shaped geofences have 8 to 64 vertices and radii of about 300 meters to 10 kilometers,
+ * spread over an area of about 300 x 200 kilometers around Stuttgart. The query points are spread over the same area.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeofenceBenchmark {
+
+    private static final int QUERIES = 1 << 16;
+
+    @Param({ "5000" })
+    public int polygons;
+
+    @Param({ "13", "15" })
+    public int level;
+
+    private NDSGeofenceIndex index;
+    private int[] bboxes;
+    private final int[] lon = new int[QUERIES];
+    private final int[] lat = new int[QUERIES];
+    private final int[] dest = new int[QUERIES];
+    private int query;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        int centerLon = NDSCoordinate.fromWGS84Longitude(9.18);
+        int centerLat = NDSCoordinate.fromWGS84Latitude(48.78);
+        int spread = NDSCoordinate.fromWGS84Latitude(1);
+        NDSGeofenceIndex.Builder builder = NDSGeofenceIndex.builder(level);
+        bboxes = new int[4 * polygons];
+        for (int p = 0; p < polygons; p++) {
+            int x = centerLon + (int) ((rnd.nextDouble() * 2 - 1) * 2 * spread);
+            int y = centerLat + (int) ((rnd.nextDouble() * 2 - 1) * spread);
+            double radius = NDSCoordinate.fromWGS84Latitude(0.003 + 0.09 * Math.pow(rnd.nextDouble(), 3));
+            int n = 8 + rnd.nextInt(57);
+            int[] ringLon = new int[n];
+            int[] ringLat = new int[n];
+            bboxes[4 * p] = Integer.MIN_VALUE;
+            bboxes[4 * p + 1] = Integer.MIN_VALUE;
+            bboxes[4 * p + 2] = Integer.MAX_VALUE;
+            bboxes[4 * p + 3] = Integer.MAX_VALUE;
+            for (int i = 0; i < n; i++) {
+                double angle = 2 * Math.PI * (i + rnd.nextDouble() * 0.9) / n;
+                double r = radius * (0.3 + 0.7 * rnd.nextDouble());
+                ringLon[i] = x + (int) (Math.cos(angle) * r * 1.5);
+                ringLat[i] = y + (int) (Math.sin(angle) * r);
+                bboxes[4 * p] = Math.max(bboxes[4 * p], ringLat[i]);
+                bboxes[4 * p + 1] = Math.max(bboxes[4 * p + 1], ringLon[i]);
+                bboxes[4 * p + 2] = Math.min(bboxes[4 * p + 2], ringLat[i]);
+                bboxes[4 * p + 3] = Math.min(bboxes[4 * p + 3], ringLon[i]);
+            }
+            builder.addPolygon(ringLon, ringLat, 0, n);
+        }
+        index = builder.build();
+        for (int q = 0; q < QUERIES; q++) {
+            lon[q] = centerLon + (int) ((rnd.nextDouble() * 2 - 1) * 2 * spread);
+            lat[q] = centerLat + (int) ((rnd.nextDouble() * 2 - 1) * spread);
+        }
+    }
+
+    @Benchmark
+    public int index() {
+        int q = query++ & QUERIES - 1;
+        return index.firstContaining(lon[q], lat[q]);
+    }
+
+    @Benchmark
+    public int naive() {
+        int q = query++ & QUERIES - 1;
+        for (int p = 0; p < polygons; p++) {
+            if (index.contains(p, lon[q], lat[q])) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public int naiveBBox() {
+        int q = query++ & QUERIES - 1;
+        int x = lon[q];
+        int y = lat[q];
+        for (int p = 0; p < polygons; p++) {
+            int b = 4 * p;
+            if (y <= bboxes[b] && x <= bboxes[b + 1] && y >= bboxes[b + 2] && x >= bboxes[b + 3] && index.contains(p, x, y)) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int[] indexBatch() {
+        index.firstContaining(lon, lat, 0, dest, 0, QUERIES);
+        return dest;
+    }
+}
@@ -0,0 +1,101 @@
+package de.rondiplomatico.nds;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Input distributions for the JMH benchmarks.
+ *
+ * The distributions differ in their memory access and branch patterns:
+ * Uniformly random points touch the whole tile space, clustered points mimic GPS fixes around a few cities
+ * and morton sorted points are the best case for any locality dependent code path.
+ *
+ * @since 15.10.2026
+ */
+public enum InputDistribution {
+
+    /**
+     * Uniformly distributed points on the whole WGS84 range
+     */
+    RANDOM,
+
+    /**
+     * Points normally distributed around a few city centers
+     */
+    CLUSTERED,
+
+    /**
+     * Uniformly distributed points, sorted by their morton code
+     */
+    MORTON_SORTED;
+
+    /*
+     * Longitude/latitude pairs of the cluster centers (Stuttgart, Barcelona, New York, Sao Paulo, Sydney, Tokyo)
+     */
+    private static final double[][] CLUSTER_CENTERS = { { 9.18, 48.78 }, { 2.17, 41.39 }, { -74.0, 40.71 }, { -46.63, -23.55 },
+                    { 151.21, -33.86 }, { 139.69, 35.69 } };
+
+    /*
+     * Standard deviation of the clustered points in degrees (roughly 10km)
+     */
+    private static final double CLUSTER_SIGMA = 0.1;
+
+    /**
+     * Creates n random NDS coordinates following this distribution.
+     *
+     * The same seed always produces the same coordinates.
+     *
+     * @param n
+     *                 the number of coordinates
+     * @param seed
+     *                 the random seed
+     * @return NDSCoordinate[]
+     */
+    public NDSCoordinate[] coordinates(int n, long seed) {
+        Random rnd = new Random(seed);
+        NDSCoordinate[] res = new NDSCoordinate[n];
+        for (int i = 0; i < n; i++) {
+            res[i] = this == CLUSTERED ? clustered(rnd) : uniform(rnd);
+        }
+        if (this == MORTON_SORTED) {
+            long[] codes = new long[n];
+            for (int i = 0; i < n; i++) {
+                codes[i] = res[i].getMortonCode();
+            }
+            Arrays.sort(codes);
+            for (int i = 0; i < n; i++) {
+                res[i] = new NDSCoordinate(codes[i]);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Creates n random WGS84 coordinates following this distribution.
+     *
+     * @param n
+     *                 the number of coordinates
+     * @param seed
+     *                 the random seed
+     * @return WGS84Coordinate[]
+     */
+    public WGS84Coordinate[] wgs84Coordinates(int n, long seed) {
+        NDSCoordinate[] nds = coordinates(n, seed);
+        WGS84Coordinate[] res = new WGS84Coordinate[n];
+        for (int i = 0; i < n; i++) {
+            res[i] = nds[i].toWGS84();
+        }
+        return res;
+    }
+
+    private static NDSCoordinate uniform(Random rnd) {
+        return new NDSCoordinate(rnd.nextDouble() * 360.0 - 180.0, rnd.nextDouble() * 180.0 - 90.0);
+    }
+
+    private static NDSCoordinate clustered(Random rnd) {
+        double[] c = CLUSTER_CENTERS[rnd.nextInt(CLUSTER_CENTERS.length)];
+        double lon = Math.max(-180.0, Math.min(180.0, c[0] + rnd.nextGaussian() * CLUSTER_SIGMA));
+        double lat = Math.max(-90.0, Math.min(90.0, c[1] + rnd.nextGaussian() * CLUSTER_SIGMA));
+        return new NDSCoordinate(lon, lat);
+    }
+}
@@ -0,0 +1,120 @@
+package de.rondiplomatico.nds;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the overhead of {@link NDSMetrics} on a scalar conversion, a small batch conversion and a small tile cover.
+ *
+ * Each operation runs in a fork with the instrumentation disabled (the default), with the counters enabled and with
+ * the counters and JFR events enabled, without a recording. The scalar conversion is also compared against the
+ * uninstrumented static conversion functions.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+    private static final String ENABLED = "-Dnds.metrics=true";
+    private static final String JFR = "-Dnds.metrics.jfr=true";
+    private static final int N = 1024;
+    private static final int BATCH = 256;
+
+    private final double[] lon = new double[N];
+    private final double[] lat = new double[N];
+    private final int[] ndsLon = new int[BATCH];
+    private final int[] ndsLat = new int[BATCH];
+    private NDSBBox bbox;
+    private int i;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        for (int k = 0; k < N; k++) {
+            lon[k] = rnd.nextDouble() * 360 - 180;
+            lat[k] = rnd.nextDouble() * 180 - 90;
+        }
+        // 4 x 4 level 13 tiles
+        int west = NDSCoordinate.fromWGS84Longitude(9.18);
+        int south = NDSCoordinate.fromWGS84Latitude(48.78);
+        bbox = new NDSBBox(south + 3 * (1 << 18), west + 3 * (1 << 18), south, west);
+    }
+
+    @Benchmark
+    public long coordinateBaseline() {
+        int k = i++ & N - 1;
+        return NDSCoordinate.fromWGS84Longitude(lon[k]) + (long) NDSCoordinate.fromWGS84Latitude(lat[k]);
+    }
+
+    @Benchmark
+    public long coordinate() {
+        int k = i++ & N - 1;
+        NDSCoordinate c = new NDSCoordinate(lon[k], lat[k]);
+        return c.getLongitude() + (long) c.getLatitude();
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = ENABLED)
+    public long coordinateEnabled() {
+        return coordinate();
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = { ENABLED, JFR })
+    public long coordinateEnabledJfr() {
+        return coordinate();
+    }
+
+    @Benchmark
+    public int[] batch() {
+        NDSBatch.toNDS(lon, lat, i++ & N - BATCH, ndsLon, ndsLat, 0, BATCH);
+        return ndsLon;
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = ENABLED)
+    public int[] batchEnabled() {
+        return batch();
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = { ENABLED, JFR })
+    public int[] batchEnabledJfr() {
+        return batch();
+    }
+
+    @Benchmark
+    public int cover() {
+        int[] sum = { 0 };
+        NDSTileCover.forEach(bbox, 13, id -> sum[0] += id);
+        return sum[0];
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = ENABLED)
+    public int coverEnabled() {
+        return cover();
+    }
+
+    @Benchmark
+    @Fork(jvmArgsAppend = { ENABLED, JFR })
+    public int coverEnabledJfr() {
+        return cover();
+    }
+}
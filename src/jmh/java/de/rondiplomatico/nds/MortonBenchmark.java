@@ -0,0 +1,141 @@
+package de.rondiplomatico.nds;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the {@link MortonCodec} against the former bit-by-bit loops of {@link NDSCoordinate}.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MortonBenchmark {
+
+    /**
+     * The number of inputs per invocation
+     */
+    public static final int SIZE = 4096;
+
+    @Param({ "RANDOM", "CLUSTERED", "MORTON_SORTED" })
+    public InputDistribution distribution;
+
+    private int[] lon;
+    private int[] lat;
+    private long[] morton;
+
+    @Setup
+    public void setup() {
+        NDSCoordinate[] coords = distribution.coordinates(SIZE, 42L);
+        lon = new int[SIZE];
+        lat = new int[SIZE];
+        morton = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            lon[i] = coords[i].getLongitude();
+            lat[i] = coords[i].getLatitude();
+            morton[i] = coords[i].getMortonCode();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void encodeLoop(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(loopEncode(lon[i], lat[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void encodeCodec(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(MortonCodec.encode(lon[i], lat[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void decodeLoop(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(loopDecodeLon(morton[i]));
+            bh.consume(loopDecodeLat(morton[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void decodeCodec(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(MortonCodec.decodeLon(morton[i]));
+            bh.consume(MortonCodec.decodeLat(morton[i]));
+        }
+    }
+
+    /*
+     * The former loop of NDSCoordinate.getMortonCode()
+     */
+    private static long loopEncode(int longitude, int latitude) {
+        long res = 0L;
+        for (int pos = 0; pos < 31; pos++) {
+            if ((longitude & 1 << pos) > 0) {
+                res |= 1L << (2 * pos);
+            }
+            if ((latitude & 1 << pos) > 0) {
+                res |= 1L << (2 * pos + 1);
+            }
+        }
+        if (longitude < 0) {
+            res |= 1L << 62;
+        }
+        if (latitude < 0) {
+            res |= 1L << 61;
+        }
+        return res;
+    }
+
+    /*
+     * The former loop of NDSCoordinate(long), longitude part
+     */
+    private static int loopDecodeLon(long code) {
+        int lon = 0;
+        for (int pos = 0; pos < 32; ++pos) {
+            if ((code & 1L << (pos * 2)) != 0L) {
+                lon |= 1 << pos;
+            }
+        }
+        return lon;
+    }
+
+    /*
+     * The former loop of NDSCoordinate(long), latitude part
+     */
+    private static int loopDecodeLat(long code) {
+        int lat = 0;
+        for (int pos = 0; pos < 31; ++pos) {
+            if ((code & 1L << (pos * 2 + 1)) != 0L) {
+                lat |= 1 << pos;
+            }
+        }
+        if ((lat & 1 << 30) > 0) {
+            lat |= 1 << 31;
+        }
+        return lat;
+    }
+}
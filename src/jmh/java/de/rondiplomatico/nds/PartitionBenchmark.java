@@ -0,0 +1,85 @@
+package de.rondiplomatico.nds;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares partitioning synthetic WGS84 points by their level 13 tiles with {@link NDSTilePartition} against
+ * {@code Collectors.groupingBy}.
+ *
+ * The points are clustered around a few hundred centers within Germany. For the 100M points run, restrict the
+ * benchmarks to the primitive ones, as the grouping baseline does not fit into the heap; the scaling across cores is
+ * measured by limiting the common pool:
+ *
+ * <pre>
+ * java -jar target/jmh/nds-tiles-1.0-benchmarks.jar "PartitionBenchmark.partition" -p points=100000000 \
+ *     -jvmArgsAppend -Djava.util.concurrent.ForkJoinPool.common.parallelism=4
+ * </pre>
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PartitionBenchmark {
+
+    @Param({ "1000000" })
+    public int points;
+
+    @Param({ "13" })
+    public int level;
+
+    private double[] lon;
+    private double[] lat;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        lon = new double[points];
+        lat = new double[points];
+        double[] centers = new double[2 * 500];
+        for (int c = 0; c < centers.length; c += 2) {
+            centers[c] = 5.8 + rnd.nextDouble() * 9.3;
+            centers[c + 1] = 47.2 + rnd.nextDouble() * 7.9;
+        }
+        for (int i = 0; i < points; i++) {
+            int c = 2 * rnd.nextInt(centers.length / 2);
+            lon[i] = Math.max(-180, Math.min(180, centers[c] + rnd.nextGaussian() * 0.1));
+            lat[i] = Math.max(-90, Math.min(90, centers[c + 1] + rnd.nextGaussian() * 0.1));
+        }
+    }
+
+    @Benchmark
+    public NDSTilePartition partitionArrays() {
+        return NDSTilePartition.ofWgs84(level, lon, lat, 0, points);
+    }
+
+    @Benchmark
+    public NDSTilePartition partitionCollector() {
+        return IntStream.range(0, points).parallel().mapToObj(i -> new WGS84Coordinate(lon[i], lat[i])).collect(NDSTilePartition.collector(level));
+    }
+
+    @Benchmark
+    public Map<NDSTile, List<Integer>> groupingBy() {
+        return IntStream.range(0, points).parallel().boxed().collect(Collectors.groupingByConcurrent(i -> new NDSTile(level, new WGS84Coordinate(lon[i], lat[i]))));
+    }
+}
@@ -0,0 +1,305 @@
+package de.rondiplomatico.nds;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares radius and k-nearest-neighbour queries of {@link NDSPointIndex} against a brute force scan and a KD-tree.
+ *
+ * The KD-tree partitions the points as unit vectors in 3D, so that the chord distance orders the points like the
+ * great-circle distance. The query points are points of the set moved by up to a kilometer. All
+ * variants compute the great-circle distances of the points found.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PointIndexBenchmark {
+
+    private static final int QUERIES = 1024;
+
+    @Param({ "1000000" })
+    public int points;
+
+    @Param({ "CLUSTERED", "RANDOM" })
+    public InputDistribution distribution;
+
+    @Param({ "500" })
+    public double meters;
+
+    @Param({ "10" })
+    public int k;
+
+    private int[] lon;
+    private int[] lat;
+    private final int[] qLon = new int[QUERIES];
+    private final int[] qLat = new int[QUERIES];
+    private NDSPointIndex index;
+    private KdTree kdTree;
+    private int query;
+    private int[] ids;
+    private double[] distances;
+
+    @Setup
+    public void setup() {
+        NDSCoordinate[] coords = distribution.coordinates(points, 42);
+        lon = new int[points];
+        lat = new int[points];
+        for (int i = 0; i < points; i++) {
+            lon[i] = coords[i].getLongitude();
+            lat[i] = coords[i].getLatitude();
+        }
+        Random rnd = new Random(42);
+        for (int q = 0; q < QUERIES; q++) {
+            int i = rnd.nextInt(points);
+            // About a kilometer in NDS units
+            qLon[q] = lon[i] + rnd.nextInt(2 * 107000) - 107000;
+            qLat[q] = Math.max(NDSCoordinate.MIN_LATITUDE, Math.min(NDSCoordinate.MAX_LATITUDE, lat[i] + rnd.nextInt(2 * 107000) - 107000));
+        }
+        index = NDSPointIndex.of(lon, lat, 0, points);
+        kdTree = new KdTree(lon, lat);
+        ids = new int[k];
+        distances = new double[k];
+    }
+
+    @Benchmark
+    public double radiusIndex() {
+        int q = query++ & QUERIES - 1;
+        double[] sum = { 0 };
+        index.forEachWithin(qLon[q], qLat[q], meters, (id, d) -> sum[0] += d);
+        return sum[0];
+    }
+
+    @Benchmark
+    public double radiusKdTree() {
+        int q = query++ & QUERIES - 1;
+        return kdTree.within(qLon[q], qLat[q], meters);
+    }
+
+    @Benchmark
+    public double radiusBruteForce() {
+        int q = query++ & QUERIES - 1;
+        double sum = 0;
+        for (int i = 0; i < points; i++) {
+            double d = NDSDistance.haversine(qLon[q], qLat[q], lon[i], lat[i]);
+            if (d <= meters) {
+                sum += d;
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int nearestIndex() {
+        int q = query++ & QUERIES - 1;
+        return index.nearest(qLon[q], qLat[q], k, ids, distances);
+    }
+
+    @Benchmark
+    public double nearestKdTree() {
+        int q = query++ & QUERIES - 1;
+        return kdTree.nearest(qLon[q], qLat[q], k);
+    }
+
+    @Benchmark
+    public double nearestBruteForce() {
+        int q = query++ & QUERIES - 1;
+        // A max-heap of the k smallest distances
+        int n = 0;
+        for (int i = 0; i < points; i++) {
+            double d = NDSDistance.haversine(qLon[q], qLat[q], lon[i], lat[i]);
+            if (n < k) {
+                int pos = n++;
+                while (pos > 0 && distances[pos - 1 >>> 1] < d) {
+                    distances[pos] = distances[pos - 1 >>> 1];
+                    pos = pos - 1 >>> 1;
+                }
+                distances[pos] = d;
+            } else if (d < distances[0]) {
+                KdTree.replaceMax(distances, k, d);
+            }
+        }
+        return distances[0];
+    }
+
+    /**
+     * A balanced KD-tree of unit vectors, stored implicitly by recursive median partitioning.
+     */
+    static final class KdTree {
+
+        private final double[] x;
+        private final double[] y;
+        private final double[] z;
+        private final double[] heap = new double[1024];
+
+        KdTree(int[] lon, int[] lat) {
+            int n = lon.length;
+            x = new double[n];
+            y = new double[n];
+            z = new double[n];
+            for (int i = 0; i < n; i++) {
+                double phi = lat[i] * NDSDistance.RADIANS;
+                double lambda = lon[i] * NDSDistance.RADIANS;
+                x[i] = Math.cos(phi) * Math.cos(lambda);
+                y[i] = Math.cos(phi) * Math.sin(lambda);
+                z[i] = Math.sin(phi);
+            }
+            build(0, n, 0);
+        }
+
+        /*
+         * The sum of the great-circle distances of the points within the radius
+         */
+        double within(int lon, int lat, double meters) {
+            double chord = 2 * Math.sin(Math.min(Math.PI, meters / NDSDistance.EARTH_RADIUS) / 2);
+            double phi = lat * NDSDistance.RADIANS;
+            double lambda = lon * NDSDistance.RADIANS;
+            return within(0, x.length, 0, Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi), chord * chord);
+        }
+
+        double nearest(int lon, int lat, int k) {
+            double phi = lat * NDSDistance.RADIANS;
+            double lambda = lon * NDSDistance.RADIANS;
+            int[] size = { 0 };
+            nearest(0, x.length, 0, Math.cos(phi) * Math.cos(lambda), Math.cos(phi) * Math.sin(lambda), Math.sin(phi), k, size);
+            // The great-circle distance of the k-th nearest point
+            return 2 * NDSDistance.EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(heap[0]) / 2));
+        }
+
+        private double within(int from, int to, int axis, double qx, double qy, double qz, double r2) {
+            if (from >= to) {
+                return 0;
+            }
+            int mid = from + to >>> 1;
+            double d2 = dist2(mid, qx, qy, qz);
+            double n = d2 <= r2 ? 2 * NDSDistance.EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(d2) / 2)) : 0;
+            double diff = coord(axis, mid) - (axis == 0 ? qx : axis == 1 ? qy : qz);
+            int next = (axis + 1) % 3;
+            if (diff >= 0 || diff * diff <= r2) {
+                n += within(from, mid, next, qx, qy, qz, r2);
+            }
+            if (diff <= 0 || diff * diff <= r2) {
+                n += within(mid + 1, to, next, qx, qy, qz, r2);
+            }
+            return n;
+        }
+
+        private void nearest(int from, int to, int axis, double qx, double qy, double qz, int k, int[] size) {
+            if (from >= to) {
+                return;
+            }
+            int mid = from + to >>> 1;
+            double d = dist2(mid, qx, qy, qz);
+            if (size[0] < k) {
+                int pos = size[0]++;
+                while (pos > 0 && heap[pos - 1 >>> 1] < d) {
+                    heap[pos] = heap[pos - 1 >>> 1];
+                    pos = pos - 1 >>> 1;
+                }
+                heap[pos] = d;
+            } else if (d < heap[0]) {
+                replaceMax(heap, k, d);
+            }
+            double diff = (axis == 0 ? qx : axis == 1 ? qy : qz) - coord(axis, mid);
+            int next = (axis + 1) % 3;
+            int nearFrom = diff < 0 ? from : mid + 1;
+            int nearTo = diff < 0 ? mid : to;
+            nearest(nearFrom, nearTo, next, qx, qy, qz, k, size);
+            if (size[0] < k || diff * diff < heap[0]) {
+                nearest(diff < 0 ? mid + 1 : from, diff < 0 ? to : mid, next, qx, qy, qz, k, size);
+            }
+        }
+
+        static void replaceMax(double[] heap, int size, double d) {
+            int pos = 0;
+            for (int child = 1; child < size; child = 2 * pos + 1) {
+                if (child + 1 < size && heap[child + 1] > heap[child]) {
+                    child++;
+                }
+                if (heap[child] <= d) {
+                    break;
+                }
+                heap[pos] = heap[child];
+                pos = child;
+            }
+            heap[pos] = d;
+        }
+
+        private double dist2(int i, double qx, double qy, double qz) {
+            double dx = x[i] - qx;
+            double dy = y[i] - qy;
+            double dz = z[i] - qz;
+            return dx * dx + dy * dy + dz * dz;
+        }
+
+        private double coord(int axis, int i) {
+            return axis == 0 ? x[i] : axis == 1 ? y[i] : z[i];
+        }
+
+        /*
+         * Moves the median by the axis to the middle of the range, with smaller coordinates before and larger after
+         */
+        private void build(int from, int to, int axis) {
+            if (to - from <= 1) {
+                return;
+            }
+            int mid = from + to >>> 1;
+            int lo = from;
+            int hi = to - 1;
+            while (lo < hi) {
+                double pivot = coord(axis, lo + hi >>> 1);
+                int i = lo;
+                int j = hi;
+                while (i <= j) {
+                    while (coord(axis, i) < pivot) {
+                        i++;
+                    }
+                    while (coord(axis, j) > pivot) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                if (mid <= j) {
+                    hi = j;
+                } else if (mid >= i) {
+                    lo = i;
+                } else {
+                    break;
+                }
+            }
+            int next = (axis + 1) % 3;
+            build(from, mid, next);
+            build(mid + 1, to, next);
+        }
+
+        private void swap(int i, int j) {
+            double t = x[i];
+            x[i] = x[j];
+            x[j] = t;
+            t = y[i];
+            y[i] = y[j];
+            y[j] = t;
+            t = z[i];
+            z[i] = z[j];
+            z[j] = t;
+        }
+    }
+}
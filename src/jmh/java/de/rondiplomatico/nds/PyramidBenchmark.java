@@ -0,0 +1,98 @@
+package de.rondiplomatico.nds;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares aggregating point counts and value sums for all levels 0..15 with a single {@link NDSTilePyramid} pass
+ * against one {@link NDSTilePartition} pass per level.
+ *
+ * The points follow the {@link InputDistribution}. The spilling variant limits the pyramid to 64k tiles in memory.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PyramidBenchmark {
+
+    @Param({ "1000000" })
+    public int points;
+
+    @Param({ "CLUSTERED", "RANDOM" })
+    public InputDistribution distribution;
+
+    private int[] lon;
+    private int[] lat;
+    private double[] values;
+    private Path spillDir;
+
+    @Setup
+    public void setup() throws Exception {
+        NDSCoordinate[] coords = distribution.coordinates(points, 42);
+        Random rnd = new Random(42);
+        lon = new int[points];
+        lat = new int[points];
+        values = new double[points];
+        for (int i = 0; i < points; i++) {
+            lon[i] = coords[i].getLongitude();
+            lat[i] = coords[i].getLatitude();
+            values[i] = rnd.nextInt(100);
+        }
+        spillDir = Files.createTempDirectory("nds-pyramid-benchmark");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(spillDir);
+    }
+
+    @Benchmark
+    public void pyramid(Blackhole bh) {
+        try (NDSTilePyramid p = new NDSTilePyramid(15)) {
+            p.addAll(lon, lat, values, 0, points);
+            p.emit((id, count, sum) -> bh.consume(sum));
+        }
+    }
+
+    @Benchmark
+    public void pyramidSpilling(Blackhole bh) {
+        try (NDSTilePyramid p = new NDSTilePyramid(15, 1 << 16, spillDir)) {
+            p.addAll(lon, lat, values, 0, points);
+            p.emit((id, count, sum) -> bh.consume(sum));
+        }
+    }
+
+    @Benchmark
+    public void partitionPerLevel(Blackhole bh) {
+        for (int level = 0; level <= 15; level++) {
+            NDSTilePartition p = NDSTilePartition.of(level, lon, lat, 0, points);
+            p.forEach((id, indices, from, to) -> {
+                double sum = 0;
+                for (int i = from; i < to; i++) {
+                    sum += values[indices[i]];
+                }
+                bh.consume(sum);
+            });
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package de.rondiplomatico.nds;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the morton range decomposition of {@link NDSMortonRanges} against enumerating the covering tiles of a
+ * level with {@link NDSTileCover} and merging their morton ranges.
+ *
+ * Scores are per planned query of a country-sized bounding box.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeBenchmark {
+
+    @Param({ "16", "256", "4096" })
+    public int maxRanges;
+
+    @Param({ "9", "13" })
+    public int level;
+
+    private NDSBBox bbox;
+
+    @Setup
+    public void setup() {
+        bbox = NDSTileCover.toNDS(CoverBenchmark.GERMANY);
+    }
+
+    @Benchmark
+    public long[] decompose() {
+        return NDSMortonRanges.decompose(bbox, maxRanges);
+    }
+
+    /**
+     * The brute force approach: one range per tile of the level, adjacent ranges merged.
+     *
+     * @return the ranges
+     */
+    @Benchmark
+    public long[] tileEnumeration() {
+        int shift = 62 - 2 * level;
+        long[] res = new long[64];
+        int n = 0;
+        for (PrimitiveIterator.OfInt it = NDSTileCover.iterator(bbox, level); it.hasNext();) {
+            long min = (long) NDSTiles.tileNumberOf(it.nextInt()) << shift;
+            long max = min + (1L << shift) - 1;
+            if (n > 0 && res[n - 1] == min - 1) {
+                res[n - 1] = max;
+                continue;
+            }
+            if (n == res.length) {
+                res = Arrays.copyOf(res, 2 * n);
+            }
+            res[n++] = min;
+            res[n++] = max;
+        }
+        return Arrays.copyOf(res, n);
+    }
+}
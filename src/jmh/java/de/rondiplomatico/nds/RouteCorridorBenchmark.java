@@ -0,0 +1,96 @@
+package de.rondiplomatico.nds;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares advancing a {@link NDSRouteCorridor} by one segment per GPS update against recomputing the corridor of the
+ * look-ahead window with {@link NDSBBox} and {@link NDSTile} objects, as the extended bounding boxes of its segments.
+ *
+ * The route has {@link #points} points spaced about 100 meters apart. When the end of the route is reached, the
+ * vehicle starts over.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteCorridorBenchmark {
+
+    private static final int LEVEL = 13;
+    private static final double WIDTH = 200;
+    private static final double AHEAD = 5000;
+
+    @Param({ "100000" })
+    public int points;
+
+    private int[] lon;
+    private int[] lat;
+    private NDSRouteCorridor corridor;
+    private int progress;
+    private int changes;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        lon = new int[points];
+        lat = new int[points];
+        lon[0] = NDSCoordinate.fromWGS84Longitude(9.18);
+        lat[0] = NDSCoordinate.fromWGS84Latitude(48.78);
+        double heading = 0;
+        double step = 100 / NDSDistance.EARTH_RADIUS / NDSDistance.RADIANS;
+        for (int i = 1; i < points; i++) {
+            heading += rnd.nextGaussian() * 0.2;
+            lat[i] = lat[i - 1] + (int) (Math.cos(heading) * step);
+            lon[i] = lon[i - 1] + (int) (Math.sin(heading) * step / Math.cos(lat[i - 1] * NDSDistance.RADIANS));
+        }
+        corridor = new NDSRouteCorridor(LEVEL, WIDTH, AHEAD);
+        corridor.route(lon, lat, 0, points, (id, entered) -> changes++);
+    }
+
+    @Benchmark
+    public int advance() {
+        if (++progress == points - 1) {
+            progress = 0;
+            corridor.route(lon, lat, 0, points, (id, entered) -> changes++);
+        } else {
+            corridor.advance(progress, (id, entered) -> changes++);
+        }
+        return changes;
+    }
+
+    @Benchmark
+    public int recompute() {
+        if (++progress == points - 1) {
+            progress = 0;
+        }
+        int extent = (int) Math.ceil(WIDTH / NDSDistance.EARTH_RADIUS / NDSDistance.RADIANS);
+        Set<NDSTile> tiles = new HashSet<>();
+        double length = 0;
+        for (int s = progress; s < points - 1 && length < AHEAD; s++) {
+            length += NDSDistance.haversine(lon[s], lat[s], lon[s + 1], lat[s + 1]);
+            int lonExtent = (int) (extent / Math.cos(lat[s] * NDSDistance.RADIANS));
+            NDSBBox bbox = new NDSBBox(Math.max(lat[s], lat[s + 1]) + extent, Math.max(lon[s], lon[s + 1]) + lonExtent,
+                            Math.min(lat[s], lat[s + 1]) - extent, Math.min(lon[s], lon[s + 1]) - lonExtent);
+            NDSTileCover.forEach(bbox, LEVEL, id -> tiles.add(new NDSTile(id)));
+        }
+        return tiles.size();
+    }
+}
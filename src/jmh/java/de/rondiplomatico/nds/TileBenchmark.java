@@ -0,0 +1,145 @@
+package de.rondiplomatico.nds;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks for the {@link NDSTile} construction and geometry methods.
+ *
+ * The tiles are created fresh for every input in the construction benchmarks only.
+ * The geometry benchmarks operate on pre-built tiles, which for {@link NDSTile#getCenter()} means the
+ * cached center is measured after the first invocation.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileBenchmark {
+
+    /**
+     * The number of inputs per invocation
+     */
+    public static final int SIZE = 4096;
+
+    @Param({ "RANDOM", "CLUSTERED", "MORTON_SORTED" })
+    public InputDistribution distribution;
+
+    @Param({ "13" })
+    public int level;
+
+    private NDSCoordinate[] coords;
+    private int[] packedIds;
+    private NDSTile[] tiles;
+    private int[] lon;
+    private int[] lat;
+    private int[] dest;
+
+    @Setup
+    public void setup() {
+        coords = distribution.coordinates(SIZE, 42L);
+        packedIds = new int[SIZE];
+        tiles = new NDSTile[SIZE];
+        lon = new int[SIZE];
+        lat = new int[SIZE];
+        dest = new int[4];
+        for (int i = 0; i < SIZE; i++) {
+            lon[i] = coords[i].getLongitude();
+            lat[i] = coords[i].getLatitude();
+            tiles[i] = new NDSTile(level, coords[i]);
+            packedIds[i] = tiles[i].packedId();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void fromCoordinate(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(new NDSTile(level, coords[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void fromPackedId(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(new NDSTile(packedIds[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void contains(Blackhole bh) {
+        /*
+         * Checks every tile against the coordinate of its neighbour in the input array, so both outcomes occur
+         */
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(tiles[i].contains(coords[(i + 1) & SIZE - 1]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void getBBox(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(tiles[i].getBBox());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void getCenter(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(tiles[i].getCenter());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void packedId(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(tiles[i].packedId());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void packedIdStatic(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(NDSTiles.packedId(level, lon[i], lat[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void levelOfStatic(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(NDSTiles.levelOf(packedIds[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void bboxStatic(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            NDSTiles.bbox(packedIds[i], dest, 0);
+            bh.consume(dest[0]);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package de.rondiplomatico.nds;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the contention of {@link NDSTile#of(int)} and the shared {@link NDSTileCache}, compared to creating the
+ * tiles and their bounding boxes freshly.
+ *
+ * All threads look up the same tiles from one shared cache, starting at different offsets. The working set of "hot"
+ * fits into the cache, the one of "cold" exceeds it by far, so that most lookups miss and replace slots.
+ *
+ * The main method runs the benchmark for 1, 2, 4, ..., 64 threads, passing any further JMH options:
+ *
+ * <pre>
+ * java -cp target/jmh/nds-tiles-1.0-benchmarks.jar de.rondiplomatico.nds.TileCacheBenchmark
+ * </pre>
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileCacheBenchmark {
+
+    /**
+     * The number of lookups per invocation
+     */
+    public static final int SIZE = 1024;
+
+    /**
+     * The largest number of threads run by {@link #main(String[])}
+     */
+    public static final int MAX_THREADS = 64;
+
+    @Param({ "hot", "cold" })
+    public String workingSet;
+
+    private int[] packedIds;
+
+    /**
+     * The position of a thread within the shared tiles
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int pos;
+
+        @Setup
+        public void setup() {
+            pos = (int) (Thread.currentThread().getId() * 7919);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        int count = "hot".equals(workingSet) ? NDSTileCache.DEFAULT_CAPACITY / 4 : NDSTileCache.DEFAULT_CAPACITY * 16;
+        NDSCoordinate[] coords = InputDistribution.RANDOM.coordinates(count, 42L);
+        packedIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            packedIds[i] = new NDSTile(13, coords[i]).packedId();
+        }
+        NDSTileCache.shared().clear();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void cached(Cursor c, Blackhole bh) {
+        int n = packedIds.length;
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(NDSTile.of(packedIds[Math.floorMod(c.pos++, n)]).getBBox());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void uncached(Cursor c, Blackhole bh) {
+        int n = packedIds.length;
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(new NDSTile(packedIds[Math.floorMod(c.pos++, n)]).getBBox());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        for (int threads = 1; threads <= MAX_THREADS; threads *= 2) {
+            new Runner(new OptionsBuilder().parent(cmd).include(TileCacheBenchmark.class.getSimpleName()).threads(threads).addProfiler(GCProfiler.class)
+                            .build()).run();
+        }
+    }
+}
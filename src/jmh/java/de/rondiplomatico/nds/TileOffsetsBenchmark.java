@@ -0,0 +1,113 @@
+package de.rondiplomatico.nds;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares decoding tile relative coordinates with {@link NDSTileOffsets} against adding offsets to the tile's south
+ * west corner by {@link NDSCoordinate#add(int, int)}.
+ *
+ * Scores are per polyline of {@link #vertices} vertices within a level 13 tile, encoded with fixed width offsets of
+ * {@link NDSTileOffsets#fixedWidth(int)} and four bytes and as varints.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileOffsetsBenchmark {
+
+    @Param({ "4096" })
+    public int vertices;
+
+    @Param({ "true", "false" })
+    public boolean direct;
+
+    private int packedId;
+    private int width;
+    private ByteBuffer fixed;
+    private ByteBuffer fixed4;
+    private ByteBuffer varint;
+    private int[] lon;
+    private int[] lat;
+
+    @Setup
+    public void setup() {
+        packedId = NDSTiles.packedIdFromWgs84(13, 9.18, 48.78);
+        width = NDSTileOffsets.fixedWidth(13);
+        int[] bbox = new int[4];
+        NDSTiles.bbox(packedId, bbox, 0);
+        lon = new int[vertices];
+        lat = new int[vertices];
+        Random rnd = new Random(42);
+        int x = (bbox[1] - bbox[3]) / 2;
+        int y = (bbox[0] - bbox[2]) / 2;
+        for (int i = 0; i < vertices; i++) {
+            // A random walk with steps of up to about 10 m
+            x = Math.max(0, Math.min(bbox[1] - bbox[3], x + rnd.nextInt(2001) - 1000));
+            y = Math.max(0, Math.min(bbox[0] - bbox[2], y + rnd.nextInt(2001) - 1000));
+            lon[i] = bbox[3] + x;
+            lat[i] = bbox[2] + y;
+        }
+        fixed = allocate(2 * width * vertices);
+        NDSTileOffsets.encodeFixed(packedId, width, lon, lat, 0, vertices, fixed);
+        fixed4 = allocate(8 * vertices).order(ByteOrder.LITTLE_ENDIAN);
+        NDSTileOffsets.encodeFixed(packedId, 4, lon, lat, 0, vertices, fixed4);
+        varint = allocate(NDSTileOffsets.MAX_VARINT_COORDINATE_LENGTH * vertices);
+        NDSTileOffsets.encodeVarint(packedId, lon, lat, 0, vertices, varint);
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+    }
+
+    @Benchmark
+    public int[] addObjects() {
+        NDSBBox bbox = NDSTile.of(packedId).getBBox();
+        NDSCoordinate southWest = new NDSCoordinate(bbox.getWest(), bbox.getSouth());
+        for (int i = 0; i < vertices; i++) {
+            NDSCoordinate c = southWest.add(fixed4.getInt(8 * i), fixed4.getInt(8 * i + 4));
+            lon[i] = c.getLongitude();
+            lat[i] = c.getLatitude();
+        }
+        return lat;
+    }
+
+    @Benchmark
+    public int[] decodeFixed() {
+        fixed.rewind();
+        NDSTileOffsets.decodeFixed(packedId, width, fixed, lon, lat, 0, vertices);
+        return lat;
+    }
+
+    @Benchmark
+    public int[] decodeFixed4() {
+        fixed4.rewind();
+        NDSTileOffsets.decodeFixed(packedId, 4, fixed4, lon, lat, 0, vertices);
+        return lat;
+    }
+
+    @Benchmark
+    public int[] decodeVarint() {
+        varint.rewind();
+        NDSTileOffsets.decodeVarint(packedId, varint, lon, lat, 0, vertices);
+        return lat;
+    }
+}
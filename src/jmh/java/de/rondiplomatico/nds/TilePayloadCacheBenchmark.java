@@ -0,0 +1,184 @@
+package de.rondiplomatico.nds;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time per step of {@link #vehicles} vehicles driving across level 13 tiles, which look up the payload of
+ * the tile of their position in a {@link NDSTilePayloadCache}, with and without prefetching.
+ *
+ * The payloads are copied to the heap from a {@link NDSTileStore}, with an additional latency of {@link #latency}
+ * microseconds for each load to simulate slow storage. Each step moves a vehicle by an eighth of a tile height along its
+ * heading. With prefetching, a vehicle entering a tile prefetches its neighbours and two tile heights ahead. The
+ * "hits" and "misses" counters give the lookups of all measurement iterations, i.e. the hit rate is hits / (hits +
+ * misses).
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TilePayloadCacheBenchmark {
+
+    private static final int LEVEL = 13;
+    private static final int EXTENT = 100;
+
+    @Param({ "false", "true" })
+    public boolean prefetch;
+
+    @Param({ "64" })
+    public int vehicles;
+
+    @Param({ "200" })
+    public int latency;
+
+    @Param({ "8388608", "1048576" })
+    public long maxBytes;
+
+    private Path dir;
+    private NDSTileStore store;
+    private ExecutorService pool;
+    private NDSTilePayloadCache<byte[]> cache;
+    private int center;
+    private int centerLon;
+    private int centerLat;
+    private int tileHeight;
+    private int[] lon;
+    private int[] lat;
+    private double[] heading;
+    private int[] tile;
+    private int vehicle;
+    private final Random rnd = new Random(42);
+
+    /**
+     * The lookups of the iteration's cache, summed over the iterations
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Lookups {
+        public long hits;
+        public long misses;
+
+        @TearDown(Level.Iteration)
+        public void record(TilePayloadCacheBenchmark benchmark) {
+            hits = benchmark.cache.getHits();
+            misses = benchmark.cache.getMisses();
+        }
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("payloads");
+        center = NDSTiles.packedIdFromWgs84(LEVEL, 9.18, 48.78);
+        centerLon = NDSTiles.west(LEVEL, NDSTiles.tileNumberOf(center));
+        centerLat = NDSTiles.south(LEVEL, NDSTiles.tileNumberOf(center));
+        tileHeight = 1 << 31 - LEVEL;
+        byte[] payload = new byte[1024];
+        rnd.nextBytes(payload);
+        // The tiles within EXTENT columns and rows around the center
+        int side = 2 * EXTENT + 1;
+        Iterator<Map.Entry<Integer, ByteBuffer>> it = new Iterator<Map.Entry<Integer, ByteBuffer>>() {
+
+            int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < side * side;
+            }
+
+            @Override
+            public Map.Entry<Integer, ByteBuffer> next() {
+                int id = NDSTiles.neighbour(center, i % side - EXTENT, i / side - EXTENT);
+                i++;
+                return new SimpleImmutableEntry<>(id, ByteBuffer.wrap(payload, 0, 256 + (id & 511)));
+            }
+        };
+        NDSTileStore.build(dir, it);
+        store = NDSTileStore.open(dir);
+        pool = Executors.newFixedThreadPool(4);
+        lon = new int[vehicles];
+        lat = new int[vehicles];
+        heading = new double[vehicles];
+        tile = new int[vehicles];
+    }
+
+    @Setup(Level.Iteration)
+    public void setupIteration() {
+        cache = new NDSTilePayloadCache<>(maxBytes, b -> b.length, id -> {
+            ByteBuffer blob = store.get(id);
+            if (blob == null) {
+                return null;
+            }
+            byte[] b = new byte[blob.remaining()];
+            blob.get(b);
+            LockSupport.parkNanos(latency * 1000L);
+            return b;
+        }, pool);
+        for (int v = 0; v < vehicles; v++) {
+            start(v);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        store.close();
+        Files.delete(dir.resolve(NDSTileStore.DATA_FILE));
+        Files.delete(dir.resolve(NDSTileStore.INDEX_FILE));
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public int step(Lookups lookups) {
+        int v = vehicle++ % vehicles;
+        double rad = Math.toRadians(heading[v]);
+        lon[v] += (int) (Math.sin(rad) * tileHeight / 8 / Math.cos(lat[v] * NDSDistance.RADIANS));
+        lat[v] += (int) (Math.cos(rad) * tileHeight / 8);
+        if (Math.abs((long) lon[v] - centerLon) > (long) (EXTENT - 4) * tileHeight
+                || Math.abs((long) lat[v] - centerLat) > (long) (EXTENT - 4) * tileHeight) {
+            start(v);
+        }
+        int id = NDSTiles.packedId(LEVEL, lon[v], lat[v]);
+        if (prefetch && id != tile[v]) {
+            cache.prefetch(lon[v], lat[v], heading[v], LEVEL, 1, 2);
+        }
+        tile[v] = id;
+        return cache.get(id).join().length;
+    }
+
+    private void start(int v) {
+        // A random position near the center and a random heading
+        lon[v] = centerLon + rnd.nextInt(20 * tileHeight) - 10 * tileHeight;
+        lat[v] = centerLat + rnd.nextInt(20 * tileHeight) - 10 * tileHeight;
+        heading[v] = rnd.nextDouble() * 360;
+        tile[v] = 0;
+    }
+}
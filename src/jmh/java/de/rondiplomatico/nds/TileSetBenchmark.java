@@ -0,0 +1,80 @@
+package de.rondiplomatico.nds;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the set operations of {@link NDSTileSet} against a {@link HashSet} of {@link NDSTile}s.
+ *
+ * The sets are the tiles covering two overlapping halves of a country-sized bounding box. Scores are per set
+ * operation.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileSetBenchmark {
+
+    @Param({ "11", "13" })
+    public int level;
+
+    private NDSTileSet west;
+    private NDSTileSet east;
+    private Set<NDSTile> westTiles;
+    private Set<NDSTile> eastTiles;
+
+    @Setup
+    public void setup() {
+        NDSBBox bbox = NDSTileCover.toNDS(CoverBenchmark.GERMANY);
+        int third = (bbox.getEast() - bbox.getWest()) / 3;
+        NDSBBox w = new NDSBBox(bbox.getNorth(), bbox.getEast() - third, bbox.getSouth(), bbox.getWest());
+        NDSBBox e = new NDSBBox(bbox.getNorth(), bbox.getEast(), bbox.getSouth(), bbox.getWest() + third);
+        west = NDSTileSet.of(NDSTileCover.stream(w, level).toArray());
+        east = NDSTileSet.of(NDSTileCover.stream(e, level).toArray());
+        westTiles = new HashSet<>();
+        NDSTileCover.forEach(w, level, id -> westTiles.add(new NDSTile(id)));
+        eastTiles = new HashSet<>();
+        NDSTileCover.forEach(e, level, id -> eastTiles.add(new NDSTile(id)));
+    }
+
+    @Benchmark
+    public NDSTileSet tileSetIntersection() {
+        return west.intersection(east);
+    }
+
+    @Benchmark
+    public NDSTileSet tileSetUnion() {
+        return west.union(east);
+    }
+
+    @Benchmark
+    public Set<NDSTile> hashSetIntersection() {
+        Set<NDSTile> res = new HashSet<>(westTiles);
+        res.retainAll(eastTiles);
+        return res;
+    }
+
+    @Benchmark
+    public Set<NDSTile> hashSetUnion() {
+        Set<NDSTile> res = new HashSet<>(westTiles);
+        res.addAll(eastTiles);
+        return res;
+    }
+}
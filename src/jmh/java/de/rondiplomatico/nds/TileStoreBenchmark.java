@@ -0,0 +1,168 @@
+package de.rondiplomatico.nds;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares lookups in a {@link NDSTileStore} against positional reads from the data file with an index on the heap,
+ * and against a {@link HashMap} of byte arrays, and measures opening a store and morton interval scans.
+ *
+ * The store holds {@link #tiles} level 13 tiles with blobs of 1 to {@link #maxBlob} bytes. Lookups read the first and
+ * last byte of the blob. The files are cached by the operating system after setup.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileStoreBenchmark {
+
+    private static final int QUERIES = 1 << 16;
+
+    @Param({ "1000000" })
+    public int tiles;
+
+    @Param({ "512" })
+    public int maxBlob;
+
+    private Path dir;
+    private NDSTileStore store;
+    private FileChannel data;
+    private int[] ids;
+    private long[] offsets;
+    private int[] lengths;
+    private HashMap<Integer, byte[]> map;
+    private final int[] queries = new int[QUERIES];
+    private final ByteBuffer buf = ByteBuffer.allocate(1 << 16);
+    private int query;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("store");
+        Random rnd = new Random(42);
+        int[] lens = new int[tiles];
+        byte[] payload = new byte[maxBlob];
+        rnd.nextBytes(payload);
+        // Tiles spread over Europe, written in random order
+        ids = new int[tiles];
+        int base = NDSTiles.packedIdFromWgs84(13, -10, 35);
+        for (int i = 0; i < tiles; i++) {
+            ids[i] = base + i * 3;
+            lens[i] = 1 + rnd.nextInt(maxBlob);
+        }
+        Iterator<Map.Entry<Integer, ByteBuffer>> it = new Iterator<Map.Entry<Integer, ByteBuffer>>() {
+
+            int i;
+
+            @Override
+            public boolean hasNext() {
+                return i < tiles;
+            }
+
+            @Override
+            public Map.Entry<Integer, ByteBuffer> next() {
+                int t = i++;
+                return new SimpleImmutableEntry<>(ids[t], ByteBuffer.wrap(payload, 0, lens[t]));
+            }
+        };
+        NDSTileStore.build(dir, it);
+        store = NDSTileStore.open(dir);
+
+        // The baselines: the index on the heap, and all blobs on the heap
+        data = FileChannel.open(dir.resolve(NDSTileStore.DATA_FILE), StandardOpenOption.READ);
+        offsets = new long[tiles];
+        lengths = new int[tiles];
+        map = new HashMap<>();
+        long offset = 0;
+        for (int i = 0; i < tiles; i++) {
+            offsets[i] = offset;
+            lengths[i] = lens[i];
+            offset += lens[i];
+            map.put(ids[i], Arrays.copyOf(payload, lens[i]));
+        }
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = ids[rnd.nextInt(tiles)];
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        data.close();
+        Files.delete(dir.resolve(NDSTileStore.DATA_FILE));
+        Files.delete(dir.resolve(NDSTileStore.INDEX_FILE));
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public int getStore() {
+        ByteBuffer b = store.get(queries[query++ & QUERIES - 1]);
+        return b.get(0) + b.get(b.limit() - 1);
+    }
+
+    @Benchmark
+    public int getChannelRead() throws IOException {
+        int i = Arrays.binarySearch(ids, queries[query++ & QUERIES - 1]);
+        buf.clear().limit(lengths[i]);
+        data.read(buf, offsets[i]);
+        return buf.get(0) + buf.get(lengths[i] - 1);
+    }
+
+    @Benchmark
+    public int getHashMap() {
+        byte[] b = map.get(queries[query++ & QUERIES - 1]);
+        return b[0] + b[b.length - 1];
+    }
+
+    @Benchmark
+    public int rangeStore() {
+        // The tiles within a morton interval of about 256 level 13 tiles
+        int id = queries[query++ & QUERIES - 1];
+        long min = NDSTiles.southWestAsMorton(13, NDSTiles.tileNumberOf(id));
+        int[] sum = { 0 };
+        store.forEachInRange(13, min, min + (256L << 36) - 1, (packedId, blob) -> sum[0] += blob.get(0));
+        return sum[0];
+    }
+
+    /*
+     * Single shots, as the mappings are only released by the garbage collector and a tight loop exhausts the maximum
+     * number of mappings of the process
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 20)
+    @Measurement(iterations = 50)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int open() throws IOException {
+        try (NDSTileStore s = NDSTileStore.open(dir)) {
+            return s.size();
+        }
+    }
+}
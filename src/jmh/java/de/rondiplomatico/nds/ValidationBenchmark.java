@@ -0,0 +1,92 @@
+package de.rondiplomatico.nds;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the packed Tile ID conversion of dirty WGS84 input with a given ratio of NaN and out-of-range values.
+ *
+ * Compares the validating batch conversion and the scalar {@link NDSTiles#tryPackedIdFromWgs84(int, double, double)}
+ * against the throwing scalar path, which catches an {@link IllegalArgumentException} per invalid value.
+ *
+ * @since 15.10.2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+    /**
+     * The number of inputs per invocation
+     */
+    public static final int SIZE = 4096;
+
+    @Param({ "0", "0.01", "0.05", "0.2" })
+    public double garbage;
+
+    private final double[] lon = new double[SIZE];
+    private final double[] lat = new double[SIZE];
+    private final int[] dest = new int[SIZE];
+    private final long[] valid = new long[SIZE / 64];
+    private final NDSRejects rejects = new NDSRejects();
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        double[] invalid = { Double.NaN, 180.5, -200, 91, -90.25 };
+        for (int i = 0; i < SIZE; i++) {
+            lon[i] = rnd.nextDouble() * 360 - 180;
+            lat[i] = rnd.nextDouble() * 180 - 90;
+            if (rnd.nextDouble() < garbage) {
+                if (rnd.nextBoolean()) {
+                    lon[i] = invalid[rnd.nextInt(invalid.length)];
+                } else {
+                    lat[i] = invalid[rnd.nextInt(invalid.length)];
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int batch() {
+        return NDSBatch.tryPackedIdsFromWgs84(13, lon, lat, 0, dest, 0, SIZE, valid, rejects);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void scalarTry(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            bh.consume(NDSTiles.tryPackedIdFromWgs84(13, lon[i], lat[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void scalarCatch(Blackhole bh) {
+        for (int i = 0; i < SIZE; i++) {
+            try {
+                bh.consume(new NDSTile(13, new WGS84Coordinate(lon[i], lat[i])).packedId());
+            } catch (IllegalArgumentException e) {
+                bh.consume(e);
+            }
+        }
+    }
+}
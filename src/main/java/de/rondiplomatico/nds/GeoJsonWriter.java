@@ -0,0 +1,567 @@
+package de.rondiplomatico.nds;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.EnumSet;
+import java.util.function.Consumer;
+
+/**
+ * Writes tiles, bounding boxes and points as GeoJSON features, optionally within a "FeatureCollection", directly to an
+ * {@link Appendable} or {@link OutputStream}.
+ *
+ * The output is compact ASCII JSON without whitespace. Numbers are written with a fixed maximum number of decimal
+ * places (see {@link #precision(int)}) without trailing zeros, and the characters are collected in an internal buffer,
+ * so no intermediate Strings are created. Features written outside of a collection are separated by newlines. The
+ * toGeoJSON() methods of the coordinate, bounding box and tile classes, which delegate to this writer, do not round,
+ * but write all non-integral numbers as {@link Double#toString(double)} does.
+ *
+ * The tile features can carry the packed Tile ID, level and tile number as properties (see
+ * {@link #properties(Property...)}). A tile's polygon is its bounding box (see {@link NDSTile#getBBox()}).
+ *
+ * Write errors of the target are thrown as {@link UncheckedIOException}. Instances are not thread-safe.
+ *
+ * @since 15.10.2026
+ */
+public final class GeoJsonWriter implements Closeable, Flushable {
+
+    /**
+     * The default number of decimal places, which resolves NDS coordinates (about 8.4E-8 degrees) exactly enough
+     */
+    public static final int DEFAULT_PRECISION = 9;
+
+    /**
+     * The maximum number of decimal places
+     */
+    public static final int MAX_PRECISION = 12;
+
+    /**
+     * The optional properties of tile features.
+     */
+    public enum Property {
+        /**
+         * The packed Tile ID, as "packedId"
+         */
+        PACKED_ID,
+        /**
+         * The Tile level, as "level"
+         */
+        LEVEL,
+        /**
+         * The tile number, as "tileNumber"
+         */
+        TILE_NUMBER
+    }
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final String[] NO_NAMES = {};
+    private static final double[] NO_VALUES = {};
+
+    /*
+     * The longest number: sign, 4 integer digits, point, MAX_PRECISION decimals
+     */
+    private static final int MAX_NUMBER_LENGTH = 24;
+
+    /*
+     * The bound of scaled values, below which they are rounded to a long without overflow
+     */
+    private static final double MAX_SCALED = 0x1p62;
+
+    private final Appendable appendable;
+    private final OutputStream stream;
+    private final char[] buf = new char[BUFFER_SIZE];
+    private final byte[] bytes;
+    private final char[] digits = new char[20];
+    private final int[] bbox = new int[4];
+    private int pos;
+
+    private int precision;
+    private long scale;
+    /*
+     * Whether the numbers are written without rounding, for the toGeoJSON methods
+     */
+    private boolean exact;
+    private EnumSet<Property> properties = EnumSet.noneOf(Property.class);
+
+    private boolean inCollection;
+    private boolean first = true;
+
+    /**
+     * Creates a new writer to an {@link Appendable}, e.g. a {@link StringBuilder} or {@link Writer}.
+     *
+     * @param out
+     */
+    public GeoJsonWriter(Appendable out) {
+        appendable = out;
+        stream = null;
+        bytes = null;
+        precision(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Creates a new writer to an {@link OutputStream}. The output is ASCII, i.e. valid UTF-8.
+     *
+     * @param out
+     */
+    public GeoJsonWriter(OutputStream out) {
+        appendable = null;
+        stream = out;
+        bytes = new byte[BUFFER_SIZE];
+        precision(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Sets the maximum number of decimal places of the coordinates.
+     *
+     * @param decimals
+     *                     within [0, {@link #MAX_PRECISION}]
+     * @return this writer
+     */
+    public GeoJsonWriter precision(int decimals) {
+        if (decimals < 0 || decimals > MAX_PRECISION) {
+            throw new IllegalArgumentException("The precision " + decimals + " exceeds the range [0, " + MAX_PRECISION + "].");
+        }
+        precision = decimals;
+        long s = 1;
+        for (int i = 0; i < decimals; i++) {
+            s *= 10;
+        }
+        scale = s;
+        return this;
+    }
+
+    /**
+     * Sets the properties written for tile features.
+     *
+     * @param props
+     *                  the properties, none for empty properties
+     * @return this writer
+     */
+    public GeoJsonWriter properties(Property... props) {
+        properties = EnumSet.noneOf(Property.class);
+        for (Property p : props) {
+            properties.add(p);
+        }
+        return this;
+    }
+
+    /**
+     * Starts a "FeatureCollection". All features until {@link #endFeatureCollection()} are written into it.
+     *
+     * @return this writer
+     */
+    public GeoJsonWriter beginFeatureCollection() {
+        if (inCollection) {
+            throw new IllegalStateException("Feature collections can not be nested.");
+        }
+        separate();
+        put("{\"type\":\"FeatureCollection\",\"features\":[");
+        inCollection = true;
+        first = true;
+        return this;
+    }
+
+    /**
+     * Ends the current "FeatureCollection".
+     *
+     * @return this writer
+     */
+    public GeoJsonWriter endFeatureCollection() {
+        if (!inCollection) {
+            throw new IllegalStateException("There is no feature collection to end.");
+        }
+        put("]}");
+        inCollection = false;
+        return this;
+    }
+
+    /**
+     * Writes a tile as "Polygon" feature, with the configured properties.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID
+     * @return this writer
+     */
+    public GeoJsonWriter tile(int packedId) {
+        return tile(packedId, NO_NAMES, NO_VALUES);
+    }
+
+    /**
+     * Writes a tile as "Polygon" feature, with the configured properties followed by numeric properties. Integral values
+     * are written without decimals, all others with the configured precision.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID
+     * @param names
+     *                     the names of the numeric properties, written without escaping
+     * @param values
+     *                     the finite values of the numeric properties
+     * @return this writer
+     */
+    public GeoJsonWriter tile(int packedId, String[] names, double[] values) {
+        if (names.length != values.length) {
+            throw new IllegalArgumentException("The number of property names " + names.length + " differs from the number of values " + values.length);
+        }
+        NDSTiles.bbox(packedId, bbox, 0);
+        beginFeature();
+        put('{');
+        boolean comma = false;
+        if (properties.contains(Property.PACKED_ID)) {
+            put("\"packedId\":");
+            integer(packedId);
+            comma = true;
+        }
+        if (properties.contains(Property.LEVEL)) {
+            put(comma ? ",\"level\":" : "\"level\":");
+            integer(NDSTiles.levelOf(packedId));
+            comma = true;
+        }
+        if (properties.contains(Property.TILE_NUMBER)) {
+            put(comma ? ",\"tileNumber\":" : "\"tileNumber\":");
+            integer(NDSTiles.tileNumberOf(packedId));
+            comma = true;
+        }
+        for (int i = 0; i < names.length; i++) {
+            put(comma ? ",\"" : "\"");
+            put(names[i]);
+            put("\":");
+            value(values[i]);
+            comma = true;
+        }
+        put('}');
+        polygon(NDSCoordinate.toWGS84Latitude(bbox[0]), NDSCoordinate.toWGS84Longitude(bbox[1]), NDSCoordinate.toWGS84Latitude(bbox[2]),
+                        NDSCoordinate.toWGS84Longitude(bbox[3]));
+        return this;
+    }
+
+    /**
+     * Writes a tile as "Polygon" feature, with the configured properties.
+     *
+     * @param tile
+     * @return this writer
+     */
+    public GeoJsonWriter tile(NDSTile tile) {
+        return tile(tile.packedId());
+    }
+
+    /**
+     * Writes the tiles of a packed Tile ID array as "Polygon" features.
+     *
+     * @param packedIds
+     * @param offset
+     * @param length
+     * @return this writer
+     */
+    public GeoJsonWriter tiles(int[] packedIds, int offset, int length) {
+        NDSBatch.checkRange(packedIds.length, offset, length);
+        NDSMetrics.Timer timer = NDSMetrics.start(NDSMetrics.Operation.SERIALISATION);
+        for (int i = offset; i < offset + length; i++) {
+            tile(packedIds[i]);
+        }
+        NDSMetrics.stop(timer, length);
+        return this;
+    }
+
+    /**
+     * Writes the tiles of a tile set as "Polygon" features, in morton order.
+     *
+     * @param set
+     * @return this writer
+     */
+    public GeoJsonWriter tiles(NDSTileSet set) {
+        NDSMetrics.Timer timer = NDSMetrics.start(NDSMetrics.Operation.SERIALISATION);
+        set.forEach(this::tile);
+        NDSMetrics.stop(timer, set.size());
+        return this;
+    }
+
+    /**
+     * Writes a bounding box as "Polygon" feature.
+     *
+     * @param north
+     * @param east
+     * @param south
+     * @param west
+     * @return this writer
+     */
+    public GeoJsonWriter bbox(double north, double east, double south, double west) {
+        beginFeature();
+        put("{}");
+        polygon(north, east, south, west);
+        return this;
+    }
+
+    /**
+     * Writes a bounding box as "Polygon" feature.
+     *
+     * @param b
+     * @return this writer
+     */
+    public GeoJsonWriter bbox(WGS84BBox b) {
+        return bbox(b.getNorth(), b.getEast(), b.getSouth(), b.getWest());
+    }
+
+    /**
+     * Writes a bounding box as "Polygon" feature.
+     *
+     * @param b
+     * @return this writer
+     */
+    public GeoJsonWriter bbox(NDSBBox b) {
+        return bbox(NDSCoordinate.toWGS84Latitude(b.getNorth()), NDSCoordinate.toWGS84Longitude(b.getEast()), NDSCoordinate.toWGS84Latitude(b.getSouth()),
+                        NDSCoordinate.toWGS84Longitude(b.getWest()));
+    }
+
+    /**
+     * Writes a coordinate as "Point" feature.
+     *
+     * @param lon
+     *                the WGS84 longitude
+     * @param lat
+     *                the WGS84 latitude
+     * @return this writer
+     */
+    public GeoJsonWriter point(double lon, double lat) {
+        beginFeature();
+        put("{},\"geometry\":{\"type\":\"Point\",\"coordinates\":");
+        position(lon, lat);
+        put("}}");
+        return this;
+    }
+
+    /**
+     * Writes a coordinate as "Point" feature.
+     *
+     * @param c
+     * @return this writer
+     */
+    public GeoJsonWriter point(WGS84Coordinate c) {
+        return point(c.getLongitude(), c.getLatitude());
+    }
+
+    /**
+     * Writes a coordinate as "Point" feature.
+     *
+     * @param c
+     * @return this writer
+     */
+    public GeoJsonWriter point(NDSCoordinate c) {
+        return point(NDSCoordinate.toWGS84Longitude(c.getLongitude()), NDSCoordinate.toWGS84Latitude(c.getLatitude()));
+    }
+
+    /**
+     * Writes the buffered output to the target, and flushes the target if it is {@link Flushable}.
+     */
+    @Override
+    public void flush() {
+        drain();
+        try {
+            if (stream != null) {
+                stream.flush();
+            } else if (appendable instanceof Flushable) {
+                ((Flushable) appendable).flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Flushes this writer and closes the target if it is {@link Closeable}. An open feature collection is not ended.
+     */
+    @Override
+    public void close() {
+        drain();
+        try {
+            if (stream != null) {
+                stream.close();
+            } else if (appendable instanceof Closeable) {
+                ((Closeable) appendable).close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+     * Creates the GeoJSON String of a single feature, for the toGeoJSON methods of the other classes.
+     */
+    static String toGeoJSON(Consumer<GeoJsonWriter> feature) {
+        StringBuilder sb = new StringBuilder(192);
+        GeoJsonWriter w = new GeoJsonWriter(sb);
+        w.exact = true;
+        feature.accept(w);
+        w.drain();
+        return sb.toString();
+    }
+
+    private void separate() {
+        if (!first) {
+            put(inCollection ? ',' : '\n');
+        }
+        first = false;
+    }
+
+    /*
+     * Writes everything up to the properties' value
+     */
+    private void beginFeature() {
+        NDSMetrics.count(NDSMetrics.Counter.GEOJSON_FEATURES);
+        separate();
+        put("{\"type\":\"Feature\",\"properties\":");
+    }
+
+    /*
+     * Writes the geometry and the end of the feature
+     */
+    private void polygon(double north, double east, double south, double west) {
+        put(",\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[");
+        position(west, south);
+        put(',');
+        position(east, south);
+        put(',');
+        position(east, north);
+        put(',');
+        position(west, north);
+        put(',');
+        position(west, south);
+        put("]]}}");
+    }
+
+    private void position(double lon, double lat) {
+        put('[');
+        number(lon);
+        put(',');
+        number(lat);
+        put(']');
+    }
+
+    private void number(double v) {
+        if (Double.isNaN(v) || Double.isInfinite(v)) {
+            throw new IllegalArgumentException("GeoJSON numbers must be finite, got " + v);
+        }
+        if (exact) {
+            if (v == Math.rint(v) && Math.abs(v) < 1L << 53) {
+                integer((long) v);
+            } else {
+                put(Double.toString(v));
+            }
+            return;
+        }
+        double a = Math.abs(v);
+        long integral;
+        long fraction;
+        if (a * scale < MAX_SCALED) {
+            long scaled = Math.round(a * scale);
+            integral = scaled / scale;
+            fraction = scaled % scale;
+        } else if (a < MAX_SCALED) {
+            // Scale the fraction only, as the scaled value would overflow. The fraction is a multiple of the ulp of a,
+            // which exceeds 1 / scale here, so it does not round up to 1.
+            integral = (long) a;
+            fraction = Math.round((a - integral) * scale);
+        } else {
+            put(Double.toString(v));
+            return;
+        }
+        ensure(MAX_NUMBER_LENGTH);
+        if ((integral != 0 || fraction != 0) && v < 0) {
+            buf[pos++] = '-';
+        }
+        integer(integral);
+        if (fraction != 0) {
+            ensure(precision + 1);
+            int decimals = precision;
+            while (fraction % 10 == 0) {
+                fraction /= 10;
+                decimals--;
+            }
+            buf[pos++] = '.';
+            for (int i = pos + decimals - 1; i >= pos; i--) {
+                buf[i] = (char) ('0' + fraction % 10);
+                fraction /= 10;
+            }
+            pos += decimals;
+        }
+    }
+
+    /*
+     * Writes integral values exactly, as the scaling of number(double) would overflow for large counts
+     */
+    private void value(double v) {
+        if (v == Math.rint(v) && Math.abs(v) < 1L << 53) {
+            integer((long) v);
+        } else {
+            number(v);
+        }
+    }
+
+    private void integer(long v) {
+        ensure(digits.length + 1);
+        if (v < 0) {
+            buf[pos++] = '-';
+        }
+        int n = 0;
+        do {
+            // Negated digits work for Long.MIN_VALUE, too
+            digits[n++] = (char) ('0' + Math.abs(v % 10));
+            v /= 10;
+        } while (v != 0);
+        while (n > 0) {
+            buf[pos++] = digits[--n];
+        }
+    }
+
+    private void put(char c) {
+        ensure(1);
+        buf[pos++] = c;
+    }
+
+    private void put(String s) {
+        int n = s.length();
+        int from = 0;
+        while (from < n) {
+            if (pos == buf.length) {
+                drain();
+            }
+            int len = Math.min(n - from, buf.length - pos);
+            s.getChars(from, from + len, buf, pos);
+            pos += len;
+            from += len;
+        }
+    }
+
+    private void ensure(int n) {
+        if (pos + n > buf.length) {
+            drain();
+        }
+    }
+
+    private void drain() {
+        if (pos == 0) {
+            return;
+        }
+        try {
+            if (stream != null) {
+                for (int i = 0; i < pos; i++) {
+                    bytes[i] = (byte) buf[i];
+                }
+                stream.write(bytes, 0, pos);
+            } else if (appendable instanceof StringBuilder) {
+                ((StringBuilder) appendable).append(buf, 0, pos);
+            } else if (appendable instanceof Writer) {
+                ((Writer) appendable).write(buf, 0, pos);
+            } else {
+                appendable.append(CharBuffer.wrap(buf, 0, pos));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        pos = 0;
+    }
+}
@@ -0,0 +1,243 @@
+package de.rondiplomatico.nds;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An open addressing hash map from int keys to int values with linear probing, shared by the tile maps of several
+ * classes.
+ *
+ * The keys must not be zero, which marks the empty slots. Packed Tile IDs are never zero, so they can be used as keys
+ * directly. The table is kept at most half full and doubles when exceeded. Removals shift back the following keys of
+ * their probe sequence, so no deleted markers are left behind. Missing keys have the value zero for the updating
+ * methods.
+ *
+ * @since 15.10.2026
+ */
+final class IntIntMap {
+
+    private static final int MIN_CAPACITY = 16;
+
+    /*
+     * The largest table, as the capacity doubles to at most 2^30 slots
+     */
+    private static final int MAX_SIZE = 1 << 29;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Creates an empty map.
+     */
+    IntIntMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    /**
+     * Creates an empty map holding a number of keys without growing.
+     *
+     * @param expectedSize
+     *                         the expected number of keys, within [0, 2^29]
+     */
+    IntIntMap(int expectedSize) {
+        if (expectedSize < 0 || expectedSize > MAX_SIZE) {
+            throw new IllegalArgumentException("The expected size " + expectedSize + " exceeds the range [0, 2^29].");
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2 * expectedSize) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * @param key
+     * @param missing
+     *                    the value returned for a missing key
+     * @return the value of the key, or missing
+     */
+    int get(int key, int missing) {
+        int s = find(key);
+        return s < 0 ? missing : values[s];
+    }
+
+    void put(int key, int value) {
+        // The slot is computed first, as it may grow the arrays
+        int s = insert(key);
+        values[s] = value;
+    }
+
+    /**
+     * Adds to the value of a key, inserting it if missing.
+     *
+     * @param key
+     * @param delta
+     * @return the previous value
+     */
+    int getAndAdd(int key, int delta) {
+        int s = insert(key);
+        int v = values[s];
+        values[s] = v + delta;
+        return v;
+    }
+
+    /**
+     * Adds to the value of a key, inserting it if missing.
+     *
+     * @param key
+     * @param delta
+     * @return the new value
+     */
+    int addAndGet(int key, int delta) {
+        int s = insert(key);
+        return values[s] += delta;
+    }
+
+    /**
+     * Replaces the value of a contained key.
+     *
+     * @param key
+     * @param value
+     * @return the previous value, zero for missing keys, which are not inserted
+     */
+    int replace(int key, int value) {
+        int s = find(key);
+        if (s < 0) {
+            return 0;
+        }
+        int old = values[s];
+        values[s] = value;
+        return old;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key
+     * @return the value of the key, zero for missing keys
+     */
+    int remove(int key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return 0;
+        }
+        int old = values[slot];
+        int mask = keys.length - 1;
+        int free = slot;
+        for (int s = free + 1 & mask; keys[s] != 0; s = s + 1 & mask) {
+            // Moves the key back unless its home slot lies cyclically within (free, s]
+            int home = hash(keys[s]) & mask;
+            if (free <= s ? free >= home || home > s : free >= home && home > s) {
+                keys[free] = keys[s];
+                values[free] = values[s];
+                free = s;
+            }
+        }
+        keys[free] = 0;
+        size--;
+        return old;
+    }
+
+    /**
+     * Removes all keys, keeping the capacity.
+     */
+    void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    /**
+     * Passes all keys to an action, in no particular order.
+     *
+     * @param action
+     */
+    void forEachKey(IntConsumer action) {
+        for (int k : keys) {
+            if (k != 0) {
+                action.accept(k);
+            }
+        }
+    }
+
+    /**
+     * @return the keys in ascending order
+     */
+    int[] sortedKeys() {
+        int[] res = new int[size];
+        int n = 0;
+        for (int k : keys) {
+            if (k != 0) {
+                res[n++] = k;
+            }
+        }
+        Arrays.sort(res);
+        return res;
+    }
+
+    private int find(int key) {
+        int mask = keys.length - 1;
+        for (int s = hash(key) & mask;; s = s + 1 & mask) {
+            if (keys[s] == key) {
+                return s;
+            }
+            if (keys[s] == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /*
+     * The slot of a key, inserting it with value zero if missing
+     */
+    private int insert(int key) {
+        int mask = keys.length - 1;
+        int s = hash(key) & mask;
+        while (keys[s] != key) {
+            if (keys[s] == 0) {
+                if (2 * (size + 1) > keys.length) {
+                    grow();
+                    return insert(key);
+                }
+                keys[s] = key;
+                values[s] = 0;
+                size++;
+                return s;
+            }
+            s = s + 1 & mask;
+        }
+        return s;
+    }
+
+    private void grow() {
+        int[] k = keys;
+        int[] v = values;
+        keys = new int[2 * k.length];
+        values = new int[2 * k.length];
+        int mask = keys.length - 1;
+        for (int i = 0; i < k.length; i++) {
+            if (k[i] != 0) {
+                int s = hash(k[i]) & mask;
+                while (keys[s] != 0) {
+                    s = s + 1 & mask;
+                }
+                keys[s] = k[i];
+                values[s] = v[i];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+}
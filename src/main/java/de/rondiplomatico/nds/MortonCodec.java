@@ -0,0 +1,96 @@
+package de.rondiplomatico.nds;
+
+/**
+ * Static encoder/decoder for NDS morton codes, according to the NDS Format Specification, Version 2.5.4, §7.2.1.
+ *
+ * The morton code interleaves the bits of the longitude (even bit positions) and latitude (odd bit positions) of a
+ * NDS coordinate. The longitude is a 32-bit signed integer, while the latitude is considered a 31-bit signed
+ * integer. Hence, bit 63 of a morton code is always zero.
+ *
+ * Instead of walking bit by bit through the coordinates, the bits are spread/compacted with the usual
+ * "magic number" masks in five branch-free steps.
+ *
+ * @since 15.10.2026
+ */
+public final class MortonCodec {
+
+    private static final long MASK_32 = 0x00000000FFFFFFFFL;
+    private static final long MASK_16 = 0x0000FFFF0000FFFFL;
+    private static final long MASK_8 = 0x00FF00FF00FF00FFL;
+    private static final long MASK_4 = 0x0F0F0F0F0F0F0F0FL;
+    private static final long MASK_2 = 0x3333333333333333L;
+    private static final long MASK_1 = 0x5555555555555555L;
+
+    private MortonCodec() {
+        // Static methods only
+    }
+
+    /**
+     * Computes the morton code of a NDS coordinate.
+     *
+     * @param lon
+     *                the NDS longitude
+     * @param lat
+     *                the NDS latitude (31-bit signed integer)
+     * @return long the morton code
+     */
+    public static long encode(int lon, int lat) {
+        /*
+         * For 31-bit signed integers the 32st bit needs to be copied to the 31st bit in case of negative numbers.
+         */
+        return spread(lon) | spread(lat & Integer.MAX_VALUE) << 1 | (long) (lat >>> 31) << 61;
+    }
+
+    /**
+     * Extracts the NDS longitude of a morton code.
+     *
+     * @param mortonCode
+     * @return int the NDS longitude
+     */
+    public static int decodeLon(long mortonCode) {
+        return compact(mortonCode);
+    }
+
+    /**
+     * Extracts the NDS latitude of a morton code.
+     *
+     * With NDS, the latitude value is considered a 31-bit signed integer, so the 31st bit is extended to the
+     * 32st bit for native java 32bit signed integers.
+     *
+     * @param mortonCode
+     * @return int the NDS latitude
+     */
+    public static int decodeLat(long mortonCode) {
+        return compact(mortonCode >>> 1) << 1 >> 1;
+    }
+
+    /**
+     * Spreads the 32 bits of the argument to the even bit positions of a long.
+     *
+     * @param v
+     * @return long
+     */
+    static long spread(int v) {
+        long x = v & MASK_32;
+        x = (x | x << 16) & MASK_16;
+        x = (x | x << 8) & MASK_8;
+        x = (x | x << 4) & MASK_4;
+        x = (x | x << 2) & MASK_2;
+        return (x | x << 1) & MASK_1;
+    }
+
+    /**
+     * Collects the even bits of the argument into an int, inverse of {@link #spread(int)}.
+     *
+     * @param v
+     * @return int
+     */
+    static int compact(long v) {
+        long x = v & MASK_1;
+        x = (x | x >>> 1) & MASK_2;
+        x = (x | x >>> 2) & MASK_4;
+        x = (x | x >>> 4) & MASK_8;
+        x = (x | x >>> 8) & MASK_16;
+        return (int) (x | x >>> 16);
+    }
+}
@@ -94,7 +94,7 @@ public class NDSBBox {
      * @return String
      */
     public String toGeoJSON() {
-        return toWGS84().toGeoJSON();
+        return GeoJsonWriter.toGeoJSON(w -> w.bbox(this));
     }
 
 }
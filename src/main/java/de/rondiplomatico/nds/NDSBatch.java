@@ -0,0 +1,646 @@
+package de.rondiplomatico.nds;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar batch conversions between WGS84 coordinates, NDS coordinates, morton codes and packed Tile IDs.
+ *
+ * All functions operate on primitive input/output arrays with offset and length and compute exactly the same values
+ * as the scalar {@link NDSCoordinate} and {@link NDSTile} paths. The integer inputs are validated chunk-wise in a
+ * separate pass right before their conversion, so that the conversion loops stay free of branches and can be
+ * auto-vectorised by the JIT. Invalid values cause the same exceptions as on the scalar path; the output is
+ * unspecified in that case.
+ *
+ * Batches with at least {@link #getParallelThreshold()} elements are split across the common {@link ForkJoinPool}.
+ * The threshold defaults to 65536 and can be changed via the system property "nds.batch.parallelThreshold" or
+ * {@link #setParallelThreshold(int)}.
+ *
+ * On Java 17+ with the "jdk.incubator.vector" module added, the multi-release jar uses an explicit vector
+ * implementation of the NDS to WGS84, morton code and packed Tile ID kernels. Set the system property
+ * "nds.batch.vector" to false to disable it.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSBatch {
+
+    /*
+     * The smallest chunk of a batch that is processed by a single fork join task
+     */
+    private static final int MIN_CHUNK = 4096;
+
+    /*
+     * The block size for kernels combining two conversions via temporary buffers
+     */
+    private static final int BLOCK = 1024;
+
+    /*
+     * The reject reasons, not cloned by each validating call
+     */
+    private static final NDSRejects.Reason[] REASONS = NDSRejects.Reason.values();
+
+    private static final boolean VECTOR = Boolean.parseBoolean(System.getProperty("nds.batch.vector", "true")) && vectorAvailable();
+
+    private static volatile int parallelThreshold = Integer.getInteger("nds.batch.parallelThreshold", 1 << 16);
+
+    private NDSBatch() {
+        // Static methods only
+    }
+
+    /**
+     * Returns the minimum batch length for which the work is split across the common fork join pool.
+     *
+     * @return int
+     */
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the minimum batch length for which the work is split across the common fork join pool.
+     *
+     * @param threshold
+     *                      Use {@link Integer#MAX_VALUE} to disable parallel processing
+     */
+    public static void setParallelThreshold(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("The parallel threshold " + threshold + " must be positive.");
+        }
+        parallelThreshold = threshold;
+    }
+
+    /**
+     * Returns whether the explicit vector implementation is in use.
+     *
+     * @return boolean
+     */
+    public static boolean isVectorized() {
+        return VECTOR;
+    }
+
+    /**
+     * Converts WGS84 coordinates to NDS coordinates.
+     *
+     * @param lon
+     *                       the longitudes within [-180, 180]
+     * @param lat
+     *                       the latitudes within [-90, 90]
+     * @param srcOffset
+     *                       the first input position
+     * @param ndsLon
+     *                       the NDS longitude output
+     * @param ndsLat
+     *                       the NDS latitude output
+     * @param destOffset
+     *                       the first output position
+     * @param length
+     *                       the number of coordinates
+     * @see NDSCoordinate#NDSCoordinate(double, double)
+     */
+    public static void toNDS(double[] lon, double[] lat, int srcOffset, int[] ndsLon, int[] ndsLat, int destOffset, int length) {
+        checkRange(lon.length, srcOffset, length);
+        checkRange(lat.length, srcOffset, length);
+        checkRange(ndsLon.length, destOffset, length);
+        checkRange(ndsLat.length, destOffset, length);
+        run(length, (from, to) -> {
+            if (VECTOR) {
+                VectorKernels.toNDS(lon, lat, srcOffset + from, ndsLon, ndsLat, destOffset + from, to - from);
+            } else {
+                toNDSKernel(lon, lat, srcOffset + from, ndsLon, ndsLat, destOffset + from, to - from);
+            }
+        });
+    }
+
+    /**
+     * Converts NDS coordinates to WGS84 coordinates.
+     *
+     * @param ndsLon
+     *                       the NDS longitudes
+     * @param ndsLat
+     *                       the NDS latitudes
+     * @param srcOffset
+     *                       the first input position
+     * @param lon
+     *                       the longitude output
+     * @param lat
+     *                       the latitude output
+     * @param destOffset
+     *                       the first output position
+     * @param length
+     *                       the number of coordinates
+     * @see NDSCoordinate#toWGS84()
+     */
+    public static void toWGS84(int[] ndsLon, int[] ndsLat, int srcOffset, double[] lon, double[] lat, int destOffset, int length) {
+        checkRange(ndsLon.length, srcOffset, length);
+        checkRange(ndsLat.length, srcOffset, length);
+        checkRange(lon.length, destOffset, length);
+        checkRange(lat.length, destOffset, length);
+        run(length, (from, to) -> {
+            checkNDS(ndsLat, srcOffset + from, to - from);
+            if (VECTOR) {
+                VectorKernels.toWGS84(ndsLon, ndsLat, srcOffset + from, lon, lat, destOffset + from, to - from);
+            } else {
+                toWGS84Kernel(ndsLon, ndsLat, srcOffset + from, lon, lat, destOffset + from, to - from);
+            }
+        });
+    }
+
+    /**
+     * Computes the morton codes of NDS coordinates.
+     *
+     * @param ndsLon
+     *                       the NDS longitudes
+     * @param ndsLat
+     *                       the NDS latitudes
+     * @param srcOffset
+     *                       the first input position
+     * @param dest
+     *                       the morton code output
+     * @param destOffset
+     *                       the first output position
+     * @param length
+     *                       the number of coordinates
+     * @see NDSCoordinate#getMortonCode()
+     */
+    public static void mortonCodes(int[] ndsLon, int[] ndsLat, int srcOffset, long[] dest, int destOffset, int length) {
+        checkRange(ndsLon.length, srcOffset, length);
+        checkRange(ndsLat.length, srcOffset, length);
+        checkRange(dest.length, destOffset, length);
+        run(length, (from, to) -> {
+            checkNDS(ndsLat, srcOffset + from, to - from);
+            if (VECTOR) {
+                VectorKernels.mortonCodes(ndsLon, ndsLat, srcOffset + from, dest, destOffset + from, to - from);
+            } else {
+                mortonCodesKernel(ndsLon, ndsLat, srcOffset + from, dest, destOffset + from, to - from);
+            }
+        });
+    }
+
+    /**
+     * Computes the packed Tile IDs of the tiles of a level containing the NDS coordinates.
+     *
+     * @param level
+     *                       Must be in range 0..15
+     * @param ndsLon
+     *                       the NDS longitudes
+     * @param ndsLat
+     *                       the NDS latitudes
+     * @param srcOffset
+     *                       the first input position
+     * @param dest
+     *                       the packed Tile ID output
+     * @param destOffset
+     *                       the first output position
+     * @param length
+     *                       the number of coordinates
+     * @see NDSTile#NDSTile(int, NDSCoordinate)
+     */
+    public static void packedIds(int level, int[] ndsLon, int[] ndsLat, int srcOffset, int[] dest, int destOffset, int length) {
+        NDSTiles.checkLevel(level);
+        checkRange(ndsLon.length, srcOffset, length);
+        checkRange(ndsLat.length, srcOffset, length);
+        checkRange(dest.length, destOffset, length);
+        run(length, (from, to) -> {
+            checkNDS(ndsLat, srcOffset + from, to - from);
+            if (VECTOR) {
+                VectorKernels.packedIds(level, ndsLon, ndsLat, srcOffset + from, dest, destOffset + from, to - from);
+            } else {
+                packedIdsKernel(level, ndsLon, ndsLat, srcOffset + from, dest, destOffset + from, to - from);
+            }
+        });
+    }
+
+    /**
+     * Computes the packed Tile IDs of the tiles of a level containing the WGS84 coordinates.
+     *
+     * @param level
+     *                       Must be in range 0..15
+     * @param lon
+     *                       the longitudes within [-180, 180]
+     * @param lat
+     *                       the latitudes within [-90, 90]
+     * @param srcOffset
+     *                       the first input position
+     * @param dest
+     *                       the packed Tile ID output
+     * @param destOffset
+     *                       the first output position
+     * @param length
+     *                       the number of coordinates
+     * @see NDSTile#NDSTile(int, WGS84Coordinate)
+     */
+    public static void packedIdsFromWgs84(int level, double[] lon, double[] lat, int srcOffset, int[] dest, int destOffset, int length) {
+        NDSTiles.checkLevel(level);
+        checkRange(lon.length, srcOffset, length);
+        checkRange(lat.length, srcOffset, length);
+        checkRange(dest.length, destOffset, length);
+        run(length, (from, to) -> {
+            if (VECTOR) {
+                /*
+                 * Converts blocks of coordinates into temporary NDS coordinate buffers, to make use of the vector
+                 * packed Tile ID kernel
+                 */
+                int[] ndsLon = new int[Math.min(BLOCK, to - from)];
+                int[] ndsLat = new int[ndsLon.length];
+                for (int pos = from; pos < to; pos += BLOCK) {
+                    int n = Math.min(BLOCK, to - pos);
+                    toNDSKernel(lon, lat, srcOffset + pos, ndsLon, ndsLat, 0, n);
+                    VectorKernels.packedIds(level, ndsLon, ndsLat, 0, dest, destOffset + pos, n);
+                }
+            } else {
+                packedIdsFromWgs84Kernel(level, lon, lat, srcOffset + from, dest, destOffset + from, to - from);
+            }
+        });
+    }
+
+    /*
+     * Validating conversions. They do not throw for invalid input values, but write a validity bitmap and count the
+     * rejected values per reason. Invalid values take the same code path as valid ones: the kernels compute the
+     * outputs of zero inputs for them and mask the results, so dirty input costs no more than clean input.
+     */
+
+    /**
+     * Converts WGS84 coordinates to NDS coordinates, rejecting NaN and out-of-range values instead of throwing.
+     * Rejected coordinates are converted to (0, 0).
+     *
+     * @param lon
+     *                       the longitudes
+     * @param lat
+     *                       the latitudes
+     * @param srcOffset
+     *                       the first input position
+     * @param ndsLon
+     *                       the NDS longitude output
+     * @param ndsLat
+     *                       the NDS latitude output
+     * @param destOffset
+     *                       the first output position
+     * @param length
+     *                       the number of coordinates
+     * @param valid
+     *                       the validity bitmap output, with bit i%64 of word i/64 set if the i-th coordinate of the
+     *                       batch is valid. May be null. The bits after the last coordinate in its word are cleared.
+     * @param rejects
+     *                       the reject counters to add to, may be null
+     * @return the number of valid coordinates
+     */
+    public static int tryToNDS(double[] lon, double[] lat, int srcOffset, int[] ndsLon, int[] ndsLat, int destOffset, int length, long[] valid,
+                    NDSRejects rejects) {
+        checkRange(lon.length, srcOffset, length);
+        checkRange(lat.length, srcOffset, length);
+        checkRange(ndsLon.length, destOffset, length);
+        checkRange(ndsLat.length, destOffset, length);
+        return runValidating(length, valid, rejects, (from, to, counts) -> tryWgs84Kernel(-1, lon, lat, srcOffset, ndsLon, ndsLat, null, destOffset, from,
+                        to, valid, counts));
+    }
+
+    /**
+     * Computes the packed Tile IDs of the tiles of a level containing WGS84 coordinates, rejecting NaN and
+     * out-of-range values instead of throwing. Rejected coordinates give {@link NDSTiles#INVALID_PACKED_ID}.
+     *
+     * @param level
+     *                       Must be in range 0..15
+     * @param lon
+     *                       the longitudes
+     * @param lat
+     *                       the latitudes
+     * @param srcOffset
+     *                       the first input position
+     * @param dest
+     *                       the packed Tile ID output
+     * @param destOffset
+     *                       the first output position
+     * @param length
+     *                       the number of coordinates
+     * @param valid
+     *                       the validity bitmap output as for
+     *                       {@link #tryToNDS(double[], double[], int, int[], int[], int, int, long[], NDSRejects)}, may
+     *                       be null
+     * @param rejects
+     *                       the reject counters to add to, may be null
+     * @return the number of valid coordinates
+     */
+    public static int tryPackedIdsFromWgs84(int level, double[] lon, double[] lat, int srcOffset, int[] dest, int destOffset, int length, long[] valid,
+                    NDSRejects rejects) {
+        NDSTiles.checkLevel(level);
+        checkRange(lon.length, srcOffset, length);
+        checkRange(lat.length, srcOffset, length);
+        checkRange(dest.length, destOffset, length);
+        return runValidating(length, valid, rejects,
+                        (from, to, counts) -> tryWgs84Kernel(level, lon, lat, srcOffset, null, null, dest, destOffset, from, to, valid, counts));
+    }
+
+    /**
+     * Computes the packed Tile IDs of the tiles of a level containing NDS coordinates, rejecting latitudes outside of
+     * the 31 bit range instead of throwing. Rejected coordinates give {@link NDSTiles#INVALID_PACKED_ID}.
+     *
+     * @param level
+     *                       Must be in range 0..15
+     * @param ndsLon
+     *                       the NDS longitudes
+     * @param ndsLat
+     *                       the NDS latitudes
+     * @param srcOffset
+     *                       the first input position
+     * @param dest
+     *                       the packed Tile ID output
+     * @param destOffset
+     *                       the first output position
+     * @param length
+     *                       the number of coordinates
+     * @param valid
+     *                       the validity bitmap output as for
+     *                       {@link #tryToNDS(double[], double[], int, int[], int[], int, int, long[], NDSRejects)}, may
+     *                       be null
+     * @param rejects
+     *                       the reject counters to add to, may be null
+     * @return the number of valid coordinates
+     */
+    public static int tryPackedIds(int level, int[] ndsLon, int[] ndsLat, int srcOffset, int[] dest, int destOffset, int length, long[] valid,
+                    NDSRejects rejects) {
+        NDSTiles.checkLevel(level);
+        checkRange(ndsLon.length, srcOffset, length);
+        checkRange(ndsLat.length, srcOffset, length);
+        checkRange(dest.length, destOffset, length);
+        return runValidating(length, valid, rejects, (from, to, counts) -> tryPackedIdsKernel(level, ndsLon, ndsLat, srcOffset, dest, destOffset, from, to,
+                        valid, counts));
+    }
+
+    /*
+     * The scalar kernels. They are also used by the vector kernels to process the remaining elements.
+     *
+     * The WGS84 kernels check the value ranges inline, as the floating point conversion can not be vectorised anyways
+     * and a separate validation pass costs more than the well-predicted branch. All other kernels are validated by
+     * a separate pass.
+     */
+
+    static void toNDSKernel(double[] lon, double[] lat, int srcOffset, int[] ndsLon, int[] ndsLat, int destOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            double x = lon[srcOffset + i];
+            double y = lat[srcOffset + i];
+            if (x < -180 || x > 180 || y < -90 || y > 90) {
+                checkWGS84(x, y);
+            }
+            ndsLon[destOffset + i] = NDSCoordinate.floorToInt(x / 360.0 * NDSCoordinate.LONGITUDE_RANGE);
+            ndsLat[destOffset + i] = NDSCoordinate.floorToInt(y / 180.0 * NDSCoordinate.LATITUDE_RANGE);
+        }
+    }
+
+    static void toWGS84Kernel(int[] ndsLon, int[] ndsLat, int srcOffset, double[] lon, double[] lat, int destOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            lon[destOffset + i] = NDSCoordinate.toWGS84Longitude(ndsLon[srcOffset + i]);
+            lat[destOffset + i] = NDSCoordinate.toWGS84Latitude(ndsLat[srcOffset + i]);
+        }
+    }
+
+    static void mortonCodesKernel(int[] ndsLon, int[] ndsLat, int srcOffset, long[] dest, int destOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = MortonCodec.encode(ndsLon[srcOffset + i], ndsLat[srcOffset + i]);
+        }
+    }
+
+    static void packedIdsKernel(int level, int[] ndsLon, int[] ndsLat, int srcOffset, int[] dest, int destOffset, int length) {
+        int shift = 32 + (NDSTile.MAX_LEVEL - level) * 2;
+        int levelBit = 1 << (16 + level);
+        for (int i = 0; i < length; i++) {
+            dest[destOffset + i] = (int) (MortonCodec.encode(ndsLon[srcOffset + i], ndsLat[srcOffset + i]) >> shift) + levelBit;
+        }
+    }
+
+    static void packedIdsFromWgs84Kernel(int level, double[] lon, double[] lat, int srcOffset, int[] dest, int destOffset, int length) {
+        int shift = 32 + (NDSTile.MAX_LEVEL - level) * 2;
+        int levelBit = 1 << (16 + level);
+        for (int i = 0; i < length; i++) {
+            double x = lon[srcOffset + i];
+            double y = lat[srcOffset + i];
+            if (x < -180 || x > 180 || y < -90 || y > 90) {
+                checkWGS84(x, y);
+            }
+            int ndsLon = NDSCoordinate.floorToInt(x / 360.0 * NDSCoordinate.LONGITUDE_RANGE);
+            int ndsLat = NDSCoordinate.floorToInt(y / 180.0 * NDSCoordinate.LATITUDE_RANGE);
+            dest[destOffset + i] = (int) (MortonCodec.encode(ndsLon, ndsLat) >> shift) + levelBit;
+        }
+    }
+
+    /*
+     * The validating WGS84 kernel for the batch elements [from, to), with from being a multiple of 64. Writes NDS
+     * coordinates if level is negative, and packed Tile IDs otherwise.
+     */
+    static void tryWgs84Kernel(int level, double[] lon, double[] lat, int srcOffset, int[] ndsLon, int[] ndsLat, int[] dest, int destOffset, int from, int to,
+                    long[] valid, long[] counts) {
+        int shift = level < 0 ? 0 : 32 + (NDSTile.MAX_LEVEL - level) * 2;
+        int levelBit = level < 0 ? 0 : 1 << (16 + level);
+        long nan = 0;
+        long lonRange = 0;
+        long latRange = 0;
+        for (int word = from; word < to; word += 64) {
+            int end = Math.min(to, word + 64);
+            long bits = 0;
+            for (int i = word; i < end; i++) {
+                double x = lon[srcOffset + i];
+                double y = lat[srcOffset + i];
+                // One reason per value: NaN first, then the longitude range, then the latitude range
+                int isNaN = x != x | y != y ? 1 : 0;
+                int badLon = (x < -180 | x > 180 ? 1 : 0) & ~isNaN;
+                int badLat = (y < -90 | y > 90 ? 1 : 0) & ~isNaN & ~badLon;
+                int ok = 1 ^ (isNaN | badLon | badLat);
+                nan += isNaN;
+                lonRange += badLon;
+                latRange += badLat;
+                bits |= (long) ok << i - word;
+                // Converts zero for invalid values, so that the same arithmetic runs
+                int nx = NDSCoordinate.floorToInt((ok == 1 ? x : 0) / 360.0 * NDSCoordinate.LONGITUDE_RANGE);
+                int ny = NDSCoordinate.floorToInt((ok == 1 ? y : 0) / 180.0 * NDSCoordinate.LATITUDE_RANGE);
+                if (dest != null) {
+                    dest[destOffset + i] = ((int) (MortonCodec.encode(nx, ny) >> shift) + levelBit) & -ok;
+                } else {
+                    ndsLon[destOffset + i] = nx;
+                    ndsLat[destOffset + i] = ny;
+                }
+            }
+            if (valid != null) {
+                valid[word >>> 6] = bits;
+            }
+        }
+        counts[NDSRejects.Reason.NOT_A_NUMBER.ordinal()] += nan;
+        counts[NDSRejects.Reason.LONGITUDE_RANGE.ordinal()] += lonRange;
+        counts[NDSRejects.Reason.LATITUDE_RANGE.ordinal()] += latRange;
+    }
+
+    /*
+     * The validating NDS packed Tile ID kernel for the batch elements [from, to), with from being a multiple of 64
+     */
+    static void tryPackedIdsKernel(int level, int[] ndsLon, int[] ndsLat, int srcOffset, int[] dest, int destOffset, int from, int to, long[] valid,
+                    long[] counts) {
+        int shift = 32 + (NDSTile.MAX_LEVEL - level) * 2;
+        int levelBit = 1 << (16 + level);
+        long latRange = 0;
+        for (int word = from; word < to; word += 64) {
+            int end = Math.min(to, word + 64);
+            long bits = 0;
+            for (int i = word; i < end; i++) {
+                int y = ndsLat[srcOffset + i];
+                int ok = y >= NDSCoordinate.MIN_LATITUDE & y <= NDSCoordinate.MAX_LATITUDE ? 1 : 0;
+                latRange += 1 ^ ok;
+                bits |= (long) ok << i - word;
+                dest[destOffset + i] = ((int) (MortonCodec.encode(ndsLon[srcOffset + i], y) >> shift) + levelBit) & -ok;
+            }
+            if (valid != null) {
+                valid[word >>> 6] = bits;
+            }
+        }
+        counts[NDSRejects.Reason.LATITUDE_RANGE.ordinal()] += latRange;
+    }
+
+    /*
+     * Validation passes. The first invalid value of the range is reported with the same message as by the scalar path.
+     */
+
+    private static void checkWGS84(double lon, double lat) {
+        NDSCoordinate.fromWGS84Longitude(lon);
+        NDSCoordinate.fromWGS84Latitude(lat);
+    }
+
+    static void checkNDS(int[] ndsLat, int offset, int length) {
+        boolean invalid = false;
+        for (int i = offset; i < offset + length; i++) {
+            invalid |= ndsLat[i] < NDSCoordinate.MIN_LATITUDE | ndsLat[i] > NDSCoordinate.MAX_LATITUDE;
+        }
+        if (invalid) {
+            for (int i = offset; i < offset + length; i++) {
+                NDSTiles.checkLatitude(ndsLat[i]);
+            }
+        }
+    }
+
+    static void checkRange(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new ArrayIndexOutOfBoundsException("Range [" + offset + ", " + offset + " + " + length + ") out of bounds for length " + arrayLength);
+        }
+    }
+
+    /*
+     * Parallel execution
+     */
+
+    /**
+     * A kernel processing the batch elements [from, to).
+     */
+    @FunctionalInterface
+    interface RangeKernel {
+        void apply(int from, int to);
+    }
+
+    /**
+     * A kernel processing the elements [from, to) of the chunk with the given number.
+     */
+    @FunctionalInterface
+    interface ChunkKernel {
+        void apply(int chunk, int from, int to);
+    }
+
+    /**
+     * Returns the number of chunks for algorithms with state per chunk: one per worker of the common fork join pool
+     * for batches of at least the parallel threshold, one otherwise.
+     */
+    static int chunks(int length) {
+        return length < parallelThreshold ? 1 : Math.max(1, ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Splits a batch into chunks of equal size and runs the kernel for each one, in parallel if there are several.
+     */
+    static void runChunks(int length, int chunks, ChunkKernel kernel) {
+        if (chunks == 1) {
+            kernel.apply(0, 0, length);
+        } else {
+            int size = (length + chunks - 1) / chunks;
+            IntStream.range(0, chunks).parallel().forEach(c -> kernel.apply(c, Math.min(length, c * size), Math.min(length, (c + 1) * size)));
+        }
+    }
+
+    /**
+     * A validating kernel processing the batch elements [from, to), adding its rejects to the counts per reason.
+     */
+    @FunctionalInterface
+    interface ValidatingKernel {
+        void apply(int from, int to, long[] counts);
+    }
+
+    /*
+     * Runs a validating kernel in chunks of whole bitmap words, so that no two chunks write the same word
+     */
+    private static int runValidating(int length, long[] valid, NDSRejects rejects, ValidatingKernel kernel) {
+        int words = (length + 63) >>> 6;
+        if (valid != null) {
+            checkRange(valid.length, 0, words);
+        }
+        NDSMetrics.Timer timer = NDSMetrics.start(NDSMetrics.Operation.BATCH);
+        int chunks = chunks(length);
+        long[][] counts = new long[chunks][REASONS.length];
+        runChunks(words, chunks, (c, from, to) -> kernel.apply(from << 6, Math.min(length, to << 6), counts[c]));
+        NDSMetrics.stop(timer, length);
+        long rejected = 0;
+        for (NDSRejects.Reason r : REASONS) {
+            long sum = 0;
+            for (long[] cnt : counts) {
+                sum += cnt[r.ordinal()];
+            }
+            if (rejects != null) {
+                rejects.add(r, sum);
+            }
+            NDSMetrics.rejected(r, sum);
+            rejected += sum;
+        }
+        return length - (int) rejected;
+    }
+
+    static void run(int length, RangeKernel kernel) {
+        NDSMetrics.Timer timer = NDSMetrics.start(NDSMetrics.Operation.BATCH);
+        if (length < parallelThreshold) {
+            kernel.apply(0, length);
+        } else {
+            ForkJoinPool pool = ForkJoinPool.commonPool();
+            int chunk = Math.max(MIN_CHUNK, length / (4 * pool.getParallelism()));
+            pool.invoke(new RangeTask(kernel, 0, length, chunk));
+        }
+        NDSMetrics.stop(timer, length);
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final RangeKernel kernel;
+        private final int from;
+        private final int to;
+        private final int chunk;
+
+        RangeTask(RangeKernel kernel, int from, int to, int chunk) {
+            this.kernel = kernel;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                kernel.apply(from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RangeTask(kernel, from, mid, chunk), new RangeTask(kernel, mid, to, chunk));
+            }
+        }
+    }
+
+    private static boolean vectorAvailable() {
+        try {
+            return VectorKernels.isAvailable();
+        } catch (LinkageError e) {
+            // The vector classes are present, but the jdk.incubator.vector module is not
+            return false;
+        }
+    }
+}
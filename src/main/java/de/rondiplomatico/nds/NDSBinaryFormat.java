@@ -0,0 +1,98 @@
+package de.rondiplomatico.nds;
+
+/**
+ * Describes the binary file format for sorted packed Tile IDs and for sequences of NDS coordinates, as written by
+ * {@link NDSBinaryWriter} and read by {@link NDSBinaryReader}.
+ *
+ * All numbers are little endian. A file consists of
+ * <ul>
+ * <li>the file header (16 bytes): magic "NDSB" (int), version (short), content (short, see {@link Content}), the
+ * maximum number of values per block (int) and a reserved int</li>
+ * <li>the blocks, each with a block header (32 bytes): minimum and maximum morton code within the block (long each),
+ * number of values (int), payload length in bytes (int) and the first value (two ints, the second one is zero for
+ * tiles), followed by the payload with the deltas of the remaining values</li>
+ * <li>the footer index with one entry per block (32 bytes): block offset (long), minimum and maximum morton code (long
+ * each), number of values (int) and the first packed Tile ID or longitude (int)</li>
+ * <li>the trailer (24 bytes): index offset (long), total number of values (long), number of blocks (int) and the magic
+ * (int)</li>
+ * </ul>
+ *
+ * The payload of tile files holds the unsigned differences of consecutive packed Tile IDs as unsigned LEB128 varints.
+ * The morton codes of a tile block are the minimum morton code of the tiles' south west corners and the maximum morton
+ * code within the tiles, i.e. all coordinates within the block's tiles have morton codes within. The payload of
+ * coordinate files holds the zigzag-encoded longitude and latitude differences of consecutive coordinates as varints,
+ * where the longitude differences wrap around at the antimeridian. The morton codes of a coordinate block are the
+ * minimum and maximum morton code of its coordinates (see {@link NDSCoordinate#getMortonCode()}).
+ *
+ * @since 15.10.2026
+ */
+public final class NDSBinaryFormat {
+
+    /**
+     * The contents of a binary file.
+     */
+    public enum Content {
+        /**
+         * Packed Tile IDs, sorted ascending
+         */
+        TILES,
+        /**
+         * A sequence of NDS coordinates
+         */
+        COORDINATES
+    }
+
+    /**
+     * The default maximum number of values per block
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    static final int MAGIC = 0x4253444E; // "NDSB", little endian
+    static final short VERSION = 1;
+
+    static final int FILE_HEADER_SIZE = 16;
+    static final int BLOCK_HEADER_SIZE = 32;
+    static final int INDEX_ENTRY_SIZE = 32;
+    static final int TRAILER_SIZE = 24;
+
+    /*
+     * The maximum length of an unsigned varint of 32 bits
+     */
+    static final int MAX_VARINT_LENGTH = 5;
+
+    private NDSBinaryFormat() {
+        // Constants only
+    }
+
+    /**
+     * Encodes an int for the varint encoding of signed values, such that small absolute values give small unsigned
+     * values.
+     *
+     * @param v
+     * @return the zigzag encoded value
+     */
+    static int zigzag(int v) {
+        return v << 1 ^ v >> 31;
+    }
+
+    /**
+     * Decodes a zigzag encoded value.
+     *
+     * @param v
+     * @return the decoded value
+     */
+    static int unzigzag(int v) {
+        return v >>> 1 ^ -(v & 1);
+    }
+
+    /**
+     * Computes the morton code of the last coordinate within a tile.
+     *
+     * @param level
+     * @param nr
+     * @return the morton code
+     */
+    static long lastMortonOfTile(int level, int nr) {
+        return NDSTiles.southWestAsMorton(level, nr) + (1L << 32 + (NDSTile.MAX_LEVEL - level) * 2) - 1;
+    }
+}
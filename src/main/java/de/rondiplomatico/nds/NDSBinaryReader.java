@@ -0,0 +1,409 @@
+package de.rondiplomatico.nds;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+import de.rondiplomatico.nds.NDSBinaryFormat.Content;
+
+/**
+ * Reads binary files of packed Tile IDs or NDS coordinates (see {@link NDSBinaryFormat}) from a memory mapped file.
+ *
+ * The values are decoded on the fly from the mapped file, without copying the file into the heap. The footer index
+ * allows to seek packed Tile IDs by binary search over the blocks, and to skip blocks outside of a bounding box by their
+ * morton code ranges. Files are limited to 2 GB.
+ *
+ * A reader is safe for concurrent use by multiple threads, while each iterator must be used by one thread only. As
+ * Java can not unmap files explicitly, the mapping is released by the garbage collector after {@link #close()}.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSBinaryReader implements Closeable {
+
+    /**
+     * Receives NDS coordinates.
+     */
+    @FunctionalInterface
+    public interface CoordinateConsumer {
+
+        /**
+         * @param ndsLon
+         *                   the NDS longitude
+         * @param ndsLat
+         *                   the NDS latitude
+         */
+        void accept(int ndsLon, int ndsLat);
+    }
+
+    /*
+     * The maximum number of morton ranges for skipping blocks outside of a bounding box
+     */
+    private static final int MAX_RANGES = 64;
+
+    private final FileChannel channel;
+    private final ByteBuffer buf;
+    private final Content content;
+    private final long size;
+    private final int blocks;
+    private final int indexOffset;
+
+    private NDSBinaryReader(FileChannel channel, ByteBuffer buf, Content content, long size, int blocks, int indexOffset) {
+        this.channel = channel;
+        this.buf = buf;
+        this.content = content;
+        this.size = size;
+        this.blocks = blocks;
+        this.indexOffset = indexOffset;
+    }
+
+    /**
+     * Opens a binary file.
+     *
+     * @param file
+     * @return the reader
+     * @throws IOException
+     *                         if the file can not be read or is no valid binary file
+     */
+    public static NDSBinaryReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("The file " + file + " exceeds the maximum size of 2 GB.");
+            }
+            if (length < NDSBinaryFormat.FILE_HEADER_SIZE + NDSBinaryFormat.TRAILER_SIZE) {
+                throw new IOException("The file " + file + " is too short for a binary NDS file.");
+            }
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+            int end = (int) length;
+            if (buf.getInt(0) != NDSBinaryFormat.MAGIC || buf.getInt(end - 4) != NDSBinaryFormat.MAGIC) {
+                throw new IOException("The file " + file + " is no binary NDS file or has not been closed.");
+            }
+            if (buf.getShort(4) != NDSBinaryFormat.VERSION) {
+                throw new IOException("The file " + file + " has the unsupported version " + buf.getShort(4) + ".");
+            }
+            int type = buf.getShort(6);
+            if (type < 0 || type >= Content.values().length) {
+                throw new IOException("The file " + file + " has the unknown content type " + type + ".");
+            }
+            int trailer = end - NDSBinaryFormat.TRAILER_SIZE;
+            long indexOffset = buf.getLong(trailer);
+            int blocks = buf.getInt(trailer + 16);
+            if (blocks < 0 || indexOffset < NDSBinaryFormat.FILE_HEADER_SIZE || indexOffset + (long) blocks * NDSBinaryFormat.INDEX_ENTRY_SIZE != trailer) {
+                throw new IOException("The file " + file + " has a corrupt footer.");
+            }
+            return new NDSBinaryReader(channel, buf, Content.values()[type], buf.getLong(trailer + 8), blocks, (int) indexOffset);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the content of the file
+     */
+    public Content getContent() {
+        return content;
+    }
+
+    /**
+     * @return the number of tiles or coordinates in the file
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return the number of blocks
+     */
+    public int getBlockCount() {
+        return blocks;
+    }
+
+    /**
+     * @param block
+     * @return the number of values in the block
+     */
+    public int getBlockSize(int block) {
+        return buf.getInt(entry(block) + 24);
+    }
+
+    /**
+     * @param block
+     * @return the minimum morton code of the block (see {@link NDSBinaryFormat})
+     */
+    public long getBlockMinMorton(int block) {
+        return buf.getLong(entry(block) + 8);
+    }
+
+    /**
+     * @param block
+     * @return the maximum morton code of the block (see {@link NDSBinaryFormat})
+     */
+    public long getBlockMaxMorton(int block) {
+        return buf.getLong(entry(block) + 16);
+    }
+
+    /**
+     * Iterates all packed Tile IDs of a tile file, in ascending order.
+     *
+     * @return the iterator
+     */
+    public PrimitiveIterator.OfInt tiles() {
+        check(Content.TILES);
+        return new TileIterator(0);
+    }
+
+    /**
+     * Iterates the packed Tile IDs of a tile file, which are greater or equal to a packed Tile ID, in ascending order.
+     *
+     * @param fromPackedId
+     *                         the packed Tile ID to seek
+     * @return the iterator
+     */
+    public PrimitiveIterator.OfInt tiles(int fromPackedId) {
+        check(Content.TILES);
+        // Starts at the last block beginning below the packed Tile ID, as the previous block may end with duplicates
+        TileIterator it = new TileIterator(fromPackedId == Integer.MIN_VALUE ? 0 : Math.max(0, floorBlock(fromPackedId - 1)));
+        while (it.hasNext && it.next < fromPackedId) {
+            it.advance();
+        }
+        return it;
+    }
+
+    /**
+     * Passes all packed Tile IDs of a tile file to an action, in ascending order.
+     *
+     * @param action
+     */
+    public void forEachTile(IntConsumer action) {
+        check(Content.TILES);
+        for (int b = 0; b < blocks; b++) {
+            int pos = payload(b);
+            int value = first(b);
+            action.accept(value);
+            for (int i = getBlockSize(b) - 1; i > 0; i--) {
+                long r = readVarint(pos);
+                value += (int) r;
+                pos = (int) (r >>> 32);
+                action.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Checks if a tile file contains a packed Tile ID, by a binary search over the blocks and a scan of one block.
+     *
+     * @param packedId
+     * @return true, if the file contains the packed Tile ID
+     */
+    public boolean containsTile(int packedId) {
+        check(Content.TILES);
+        int b = floorBlock(packedId);
+        if (b < 0) {
+            return false;
+        }
+        int pos = payload(b);
+        int value = first(b);
+        for (int i = getBlockSize(b) - 1; value < packedId && i > 0; i--) {
+            long r = readVarint(pos);
+            value += (int) r;
+            pos = (int) (r >>> 32);
+        }
+        return value == packedId;
+    }
+
+    /**
+     * Passes all coordinates of a coordinate file to an action, in the order of the file.
+     *
+     * @param action
+     */
+    public void forEachCoordinate(CoordinateConsumer action) {
+        check(Content.COORDINATES);
+        for (int b = 0; b < blocks; b++) {
+            decodeCoordinates(b, null, action);
+        }
+    }
+
+    /**
+     * Passes the coordinates of a coordinate file within a bounding box (boundaries included) to an action, in the
+     * order of the file. Blocks whose morton code range does not intersect the bounding box are skipped.
+     *
+     * @param bbox
+     *                   the bounding box, may cross the antimeridian
+     * @param action
+     */
+    public void forEachCoordinate(NDSBBox bbox, CoordinateConsumer action) {
+        check(Content.COORDINATES);
+        long[] ranges = NDSMortonRanges.decompose(bbox, MAX_RANGES);
+        for (int b = 0; b < blocks; b++) {
+            if (overlaps(ranges, getBlockMinMorton(b), getBlockMaxMorton(b))) {
+                decodeCoordinates(b, bbox, action);
+            }
+        }
+    }
+
+    /**
+     * Closes the file channel.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void decodeCoordinates(int b, NDSBBox bbox, CoordinateConsumer action) {
+        int pos = payload(b);
+        int lon = first(b);
+        // The first latitude is the last int of the block header
+        int lat = buf.getInt(pos - 4);
+        for (int i = getBlockSize(b); i > 0; i--) {
+            if (bbox == null || contains(bbox, lon, lat)) {
+                action.accept(lon, lat);
+            }
+            if (i > 1) {
+                long r = readVarint(pos);
+                lon += NDSBinaryFormat.unzigzag((int) r);
+                r = readVarint((int) (r >>> 32));
+                lat += NDSBinaryFormat.unzigzag((int) r);
+                pos = (int) (r >>> 32);
+            }
+        }
+    }
+
+    private static boolean contains(NDSBBox bbox, int lon, int lat) {
+        if (lat < bbox.getSouth() || lat > bbox.getNorth()) {
+            return false;
+        }
+        return bbox.getWest() <= bbox.getEast() ? bbox.getWest() <= lon && lon <= bbox.getEast() : bbox.getWest() <= lon || lon <= bbox.getEast();
+    }
+
+    /*
+     * Checks if one of the sorted, disjoint ranges intersects [min, max]
+     */
+    private static boolean overlaps(long[] ranges, long min, long max) {
+        int lo = 0;
+        int hi = ranges.length / 2;
+        // The first range with an upper bound >= min
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ranges[2 * mid + 1] < min) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo < ranges.length / 2 && ranges[2 * lo] <= max;
+    }
+
+    private void check(Content expected) {
+        if (content != expected) {
+            throw new IllegalStateException("The file contains " + content + ", not " + expected + ".");
+        }
+    }
+
+    /*
+     * The last block whose first packed Tile ID is less or equal to the packed Tile ID, -1 if there is none
+     */
+    private int floorBlock(int packedId) {
+        int lo = 0;
+        int hi = blocks;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (first(mid) <= packedId) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - 1;
+    }
+
+    private int entry(int block) {
+        if (block < 0 || block >= blocks) {
+            throw new IndexOutOfBoundsException("Block " + block + " exceeds the range [0, " + blocks + ").");
+        }
+        return indexOffset + block * NDSBinaryFormat.INDEX_ENTRY_SIZE;
+    }
+
+    private int first(int block) {
+        return buf.getInt(entry(block) + 28);
+    }
+
+    private int payload(int block) {
+        return (int) buf.getLong(entry(block)) + NDSBinaryFormat.BLOCK_HEADER_SIZE;
+    }
+
+    /*
+     * Reads an unsigned varint of 32 bits. Returns the position after the varint in the upper and the value in the
+     * lower 32 bits.
+     */
+    private long readVarint(int pos) {
+        int v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buf.get(pos++);
+            v |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return (long) pos << 32 | v & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Iterates the packed Tile IDs from the start of a block, with one value look-ahead.
+     */
+    private final class TileIterator implements PrimitiveIterator.OfInt {
+
+        private int block;
+        private int remaining;
+        private int pos;
+
+        boolean hasNext;
+        int next;
+
+        TileIterator(int block) {
+            this.block = block - 1;
+            advance();
+        }
+
+        void advance() {
+            if (remaining > 0) {
+                long r = readVarint(pos);
+                next += (int) r;
+                pos = (int) (r >>> 32);
+                remaining--;
+            } else if (block + 1 < blocks) {
+                block++;
+                next = first(block);
+                pos = payload(block);
+                remaining = getBlockSize(block) - 1;
+            } else {
+                hasNext = false;
+                return;
+            }
+            hasNext = true;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasNext;
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext) {
+                throw new NoSuchElementException();
+            }
+            int res = next;
+            advance();
+            return res;
+        }
+    }
+}
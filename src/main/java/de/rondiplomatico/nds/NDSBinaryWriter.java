@@ -0,0 +1,315 @@
+package de.rondiplomatico.nds;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import de.rondiplomatico.nds.NDSBinaryFormat.Content;
+
+/**
+ * Writes sorted packed Tile IDs or sequences of NDS coordinates into a binary file (see {@link NDSBinaryFormat}).
+ *
+ * The values are collected into blocks of a fixed maximum size, and each full block is encoded and written at once.
+ * The footer index is written on {@link #close()}, so a file is only readable after the writer has been closed.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSBinaryWriter implements Closeable {
+
+    private final OutputStream out;
+    private final Content content;
+    private final int blockSize;
+
+    /*
+     * The values of the current block; the latitudes are only used for coordinates
+     */
+    private final int[] values;
+    private final int[] lats;
+    private int count;
+    private int lastTile;
+
+    private final byte[] buf;
+    private byte[] index = new byte[16 * NDSBinaryFormat.INDEX_ENTRY_SIZE];
+    private int blocks;
+    private long offset;
+    private long total;
+    private boolean closed;
+
+    private NDSBinaryWriter(Path file, Content content, int blockSize) throws IOException {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("The block size must be at least 1, got " + blockSize);
+        }
+        this.content = content;
+        this.blockSize = blockSize;
+        values = new int[blockSize];
+        lats = content == Content.COORDINATES ? new int[blockSize] : null;
+        int perValue = content == Content.COORDINATES ? 2 * NDSBinaryFormat.MAX_VARINT_LENGTH : NDSBinaryFormat.MAX_VARINT_LENGTH;
+        buf = new byte[Math.max(NDSBinaryFormat.BLOCK_HEADER_SIZE + blockSize * perValue, NDSBinaryFormat.TRAILER_SIZE)];
+        out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+
+        int n = putInt(buf, 0, NDSBinaryFormat.MAGIC);
+        n = putShort(buf, n, NDSBinaryFormat.VERSION);
+        n = putShort(buf, n, (short) content.ordinal());
+        n = putInt(buf, n, blockSize);
+        n = putInt(buf, n, 0);
+        write(n);
+    }
+
+    /**
+     * Creates a writer for packed Tile IDs with the default block size.
+     *
+     * @param file
+     *                 the file to create or overwrite
+     * @return the writer
+     * @throws IOException
+     */
+    public static NDSBinaryWriter tiles(Path file) throws IOException {
+        return tiles(file, NDSBinaryFormat.DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a writer for packed Tile IDs.
+     *
+     * @param file
+     *                      the file to create or overwrite
+     * @param blockSize
+     *                      the maximum number of tiles per block
+     * @return the writer
+     * @throws IOException
+     */
+    public static NDSBinaryWriter tiles(Path file, int blockSize) throws IOException {
+        return new NDSBinaryWriter(file, Content.TILES, blockSize);
+    }
+
+    /**
+     * Creates a writer for NDS coordinates with the default block size.
+     *
+     * @param file
+     *                 the file to create or overwrite
+     * @return the writer
+     * @throws IOException
+     */
+    public static NDSBinaryWriter coordinates(Path file) throws IOException {
+        return coordinates(file, NDSBinaryFormat.DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Creates a writer for NDS coordinates.
+     *
+     * @param file
+     *                      the file to create or overwrite
+     * @param blockSize
+     *                      the maximum number of coordinates per block
+     * @return the writer
+     * @throws IOException
+     */
+    public static NDSBinaryWriter coordinates(Path file, int blockSize) throws IOException {
+        return new NDSBinaryWriter(file, Content.COORDINATES, blockSize);
+    }
+
+    /**
+     * Appends a tile.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID, not less than the previous one
+     * @throws IOException
+     */
+    public void tile(int packedId) throws IOException {
+        check(Content.TILES);
+        NDSTiles.checkLevel(NDSTiles.levelOf(packedId));
+        if (total + count > 0 && packedId < lastTile) {
+            throw new IllegalArgumentException("The packed Tile IDs must be sorted ascending, got " + packedId + " after " + lastTile);
+        }
+        values[count++] = packedId;
+        lastTile = packedId;
+        if (count == blockSize) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Appends tiles.
+     *
+     * @param packedIds
+     *                      valid packed Tile IDs, sorted ascending
+     * @param offset
+     * @param length
+     * @throws IOException
+     */
+    public void tiles(int[] packedIds, int offset, int length) throws IOException {
+        NDSBatch.checkRange(packedIds.length, offset, length);
+        NDSMetrics.Timer timer = NDSMetrics.start(NDSMetrics.Operation.SERIALISATION);
+        for (int i = offset; i < offset + length; i++) {
+            tile(packedIds[i]);
+        }
+        NDSMetrics.stop(timer, length);
+    }
+
+    /**
+     * Appends a coordinate.
+     *
+     * @param ndsLon
+     *                   the NDS longitude
+     * @param ndsLat
+     *                   the NDS latitude
+     * @throws IOException
+     */
+    public void coordinate(int ndsLon, int ndsLat) throws IOException {
+        check(Content.COORDINATES);
+        NDSTiles.checkLatitude(ndsLat);
+        values[count] = ndsLon;
+        lats[count++] = ndsLat;
+        if (count == blockSize) {
+            flushBlock();
+        }
+    }
+
+    /**
+     * Appends coordinates.
+     *
+     * @param ndsLon
+     *                   the NDS longitudes
+     * @param ndsLat
+     *                   the NDS latitudes
+     * @param offset
+     * @param length
+     * @throws IOException
+     */
+    public void coordinates(int[] ndsLon, int[] ndsLat, int offset, int length) throws IOException {
+        NDSBatch.checkRange(ndsLon.length, offset, length);
+        NDSBatch.checkRange(ndsLat.length, offset, length);
+        NDSMetrics.Timer timer = NDSMetrics.start(NDSMetrics.Operation.SERIALISATION);
+        for (int i = offset; i < offset + length; i++) {
+            coordinate(ndsLon[i], ndsLat[i]);
+        }
+        NDSMetrics.stop(timer, length);
+    }
+
+    /**
+     * Writes the last block and the footer, and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flushBlock();
+            long indexOffset = offset;
+            out.write(index, 0, blocks * NDSBinaryFormat.INDEX_ENTRY_SIZE);
+            offset += blocks * NDSBinaryFormat.INDEX_ENTRY_SIZE;
+            int n = putLong(buf, 0, indexOffset);
+            n = putLong(buf, n, total);
+            n = putInt(buf, n, blocks);
+            n = putInt(buf, n, NDSBinaryFormat.MAGIC);
+            write(n);
+        } finally {
+            closed = true;
+            out.close();
+        }
+    }
+
+    private void check(Content expected) {
+        if (closed) {
+            throw new IllegalStateException("The writer has been closed.");
+        }
+        if (content != expected) {
+            throw new IllegalStateException("Can not write " + expected + " into a file of " + content + ".");
+        }
+    }
+
+    private void flushBlock() throws IOException {
+        if (count == 0) {
+            return;
+        }
+        long min;
+        long max;
+        int n = NDSBinaryFormat.BLOCK_HEADER_SIZE;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+        if (content == Content.TILES) {
+            for (int i = 0; i < count; i++) {
+                int level = NDSTiles.levelOf(values[i]);
+                int nr = NDSTiles.tileNumberOf(values[i]);
+                min = Math.min(min, NDSTiles.southWestAsMorton(level, nr));
+                max = Math.max(max, NDSBinaryFormat.lastMortonOfTile(level, nr));
+                if (i > 0) {
+                    n = putVarint(buf, n, values[i] - values[i - 1]);
+                }
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                long m = MortonCodec.encode(values[i], lats[i]);
+                min = Math.min(min, m);
+                max = Math.max(max, m);
+                if (i > 0) {
+                    n = putVarint(buf, n, NDSBinaryFormat.zigzag(values[i] - values[i - 1]));
+                    n = putVarint(buf, n, NDSBinaryFormat.zigzag(lats[i] - lats[i - 1]));
+                }
+            }
+        }
+        int h = putLong(buf, 0, min);
+        h = putLong(buf, h, max);
+        h = putInt(buf, h, count);
+        h = putInt(buf, h, n - NDSBinaryFormat.BLOCK_HEADER_SIZE);
+        h = putInt(buf, h, values[0]);
+        putInt(buf, h, content == Content.TILES ? 0 : lats[0]);
+
+        if ((blocks + 1) * NDSBinaryFormat.INDEX_ENTRY_SIZE > index.length) {
+            index = Arrays.copyOf(index, 2 * index.length);
+        }
+        int e = putLong(index, blocks * NDSBinaryFormat.INDEX_ENTRY_SIZE, offset);
+        e = putLong(index, e, min);
+        e = putLong(index, e, max);
+        e = putInt(index, e, count);
+        putInt(index, e, values[0]);
+        blocks++;
+        total += count;
+        count = 0;
+        write(n);
+    }
+
+    private void write(int n) throws IOException {
+        out.write(buf, 0, n);
+        offset += n;
+    }
+
+    /*
+     * Little endian encoding
+     */
+
+    private static int putShort(byte[] b, int pos, short v) {
+        b[pos] = (byte) v;
+        b[pos + 1] = (byte) (v >>> 8);
+        return pos + 2;
+    }
+
+    private static int putInt(byte[] b, int pos, int v) {
+        b[pos] = (byte) v;
+        b[pos + 1] = (byte) (v >>> 8);
+        b[pos + 2] = (byte) (v >>> 16);
+        b[pos + 3] = (byte) (v >>> 24);
+        return pos + 4;
+    }
+
+    private static int putLong(byte[] b, int pos, long v) {
+        putInt(b, pos, (int) v);
+        return putInt(b, pos + 4, (int) (v >>> 32));
+    }
+
+    /*
+     * Writes an unsigned varint of 32 bits
+     */
+    private static int putVarint(byte[] b, int pos, int v) {
+        while ((v & ~0x7F) != 0) {
+            b[pos++] = (byte) (v & 0x7F | 0x80);
+            v >>>= 7;
+        }
+        b[pos++] = (byte) v;
+        return pos;
+    }
+}
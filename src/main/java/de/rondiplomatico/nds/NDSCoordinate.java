@@ -57,14 +57,9 @@ public class NDSCoordinate {
      *                the latitude within [-90, 90]
      */
     public NDSCoordinate(double lon, double lat) {
-        if (lon < -180 || lon > 180) {
-            throw new IllegalArgumentException("The longitude value " + lon + " exceeds the valid range of [-180; 180]");
-        }
-        if (lat < -90 || lat > 90) {
-            throw new IllegalArgumentException("The latitude value " + lat + " exceeds the valid range of [-90; 90]");
-        }
-        latitude = (int) Math.floor(lat / 180.0 * LATITUDE_RANGE);
-        longitude = (int) Math.floor(lon / 360.0 * LONGITUDE_RANGE);
+        longitude = fromWGS84Longitude(lon);
+        latitude = fromWGS84Latitude(lat);
+        NDSMetrics.count(NDSMetrics.Counter.WGS84_TO_NDS);
     }
 
     /**
@@ -74,24 +69,8 @@ public class NDSCoordinate {
      * @return
      */
     public NDSCoordinate(long ndsMortonCoordinates) {
-        int lat = 0;
-        int lon = 0;
-        for (int pos = 0; pos < 32; ++pos) {
-            if (pos < 31 && (ndsMortonCoordinates & 1L << (pos * 2 + 1)) != 0L) {
-                lat |= 1 << pos;
-            }
-            if ((ndsMortonCoordinates & 1L << (pos * 2)) != 0L) {
-                lon |= 1 << pos;
-            }
-        }
-        /*
-         * with NDS, the latitude value is considered a 31-bit signed integer.
-         * hence, if the 31st bit is 1, this means we have a negative integer, requiring
-         * to set the 32st bit to 1 for native java 32bit signed integers.
-         */
-        if ((lat & 1 << 30) > 0) {
-            lat |= 1 << 31;
-        }
+        int lat = MortonCodec.decodeLat(ndsMortonCoordinates);
+        int lon = MortonCodec.decodeLon(ndsMortonCoordinates);
         verify(lon, lat);
         latitude = lat;
         longitude = lon;
@@ -105,7 +84,8 @@ public class NDSCoordinate {
 
     /**
      * Adds an offset specified by two int values to the coordinate.
-     * Useful for NDS coordinate decoding using tile offsets.
+     * Useful for NDS coordinate decoding using tile offsets. For decoding whole coordinate sequences without creating
+     * objects, see {@link NDSTileOffsets}.
      *
      * @param deltaLongitude
      * @param deltaLatitude
@@ -123,23 +103,7 @@ public class NDSCoordinate {
      * @return long
      */
     public long getMortonCode() {
-        long res = 0L;
-        for (int pos = 0; pos < 31; pos++) {
-            if ((longitude & 1 << pos) > 0) {
-                res |= 1L << (2 * pos);
-            }
-            if (pos < 31 && (latitude & 1 << pos) > 0) {
-                res |= 1L << (2 * pos + 1);
-            }
-        }
-        if (longitude < 0) {
-            res |= 1L << 62;
-        }
-        // For 31-bit signed integers the 32st bit needs to be copied to the 31st bit in case of negative numbers.
-        if (latitude < 0) {
-            res |= 1L << 61;
-        }
-        return res;
+        return MortonCodec.encode(longitude, latitude);
     }
 
     /**
@@ -149,11 +113,8 @@ public class NDSCoordinate {
      * @return
      */
     public WGS84Coordinate toWGS84() {
-        double lon = longitude >= 0 ? (double) longitude / (double) MAX_LONGITUDE * 180.0D
-                        : (double) longitude / (double) MIN_LONGITUDE * -180.0D;
-        double lat = latitude >= 0 ? (double) latitude / (double) MAX_LATITUDE * 90.0D
-                        : (double) latitude / (double) MIN_LATITUDE * -90.0D;
-        return new WGS84Coordinate(lon, lat);
+        NDSMetrics.count(NDSMetrics.Counter.NDS_TO_WGS84);
+        return new WGS84Coordinate(toWGS84Longitude(longitude), toWGS84Latitude(latitude));
     }
 
     /**
@@ -162,6 +123,70 @@ public class NDSCoordinate {
      * @return
      */
     public String toGeoJSON() {
-        return toWGS84().toGeoJSON();
+        return GeoJsonWriter.toGeoJSON(w -> w.point(this));
+    }
+
+    /**
+     * Converts a WGS84 longitude to a NDS longitude, without creating a coordinate instance.
+     *
+     * @param lon
+     *                the longitude within [-180, 180]
+     * @return int the NDS longitude
+     */
+    public static int fromWGS84Longitude(double lon) {
+        if (lon < -180 || lon > 180) {
+            throw new IllegalArgumentException("The longitude value " + lon + " exceeds the valid range of [-180; 180]");
+        }
+        return floorToInt(lon / 360.0 * LONGITUDE_RANGE);
+    }
+
+    /**
+     * Converts a WGS84 latitude to a NDS latitude, without creating a coordinate instance.
+     *
+     * @param lat
+     *                the latitude within [-90, 90]
+     * @return int the NDS latitude
+     */
+    public static int fromWGS84Latitude(double lat) {
+        if (lat < -90 || lat > 90) {
+            throw new IllegalArgumentException("The latitude value " + lat + " exceeds the valid range of [-90; 90]");
+        }
+        return floorToInt(lat / 180.0 * LATITUDE_RANGE);
+    }
+
+    /**
+     * Converts a NDS longitude to a WGS84 longitude, without creating a coordinate instance.
+     *
+     * @param longitude
+     *                      the NDS longitude
+     * @return double the longitude within [-180, 180]
+     */
+    public static double toWGS84Longitude(int longitude) {
+        return longitude >= 0 ? (double) longitude / (double) MAX_LONGITUDE * 180.0D
+                        : (double) longitude / (double) MIN_LONGITUDE * -180.0D;
+    }
+
+    /**
+     * Converts a NDS latitude to a WGS84 latitude, without creating a coordinate instance.
+     *
+     * @param latitude
+     *                     the NDS latitude
+     * @return double the latitude within [-90, 90]
+     */
+    public static double toWGS84Latitude(int latitude) {
+        return latitude >= 0 ? (double) latitude / (double) MAX_LATITUDE * 90.0D
+                        : (double) latitude / (double) MIN_LATITUDE * -90.0D;
+    }
+
+    /**
+     * Same as (int) Math.floor(x) for all x within the int range, but avoids the (non-intrinsic on older JVMs)
+     * Math.floor call: the truncation towards zero is corrected by one for negative non-integers.
+     *
+     * @param x
+     * @return int
+     */
+    static int floorToInt(double x) {
+        long t = (long) x;
+        return (int) (t > x ? t - 1 : t);
     }
 }
\ No newline at end of file
@@ -0,0 +1,462 @@
+package de.rondiplomatico.nds;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A growable array of NDS coordinates, stored as separate primitive arrays of longitudes and latitudes
+ * (struct-of-arrays). Optionally, each coordinate carries an int payload, by default the index at which it has been
+ * added, which allows to relate the coordinates to external data after sorting.
+ *
+ * Compared to an array of {@link NDSCoordinate} objects, a coordinate takes 8 bytes (12 with payload) instead of about
+ * 28 bytes, and scans read contiguous memory.
+ *
+ * {@link #sortByMorton()} sorts the coordinates by their morton codes with a stable LSD radix sort, which is run in
+ * parallel on the common {@link ForkJoinPool} for at least {@link NDSBatch#getParallelThreshold()} coordinates. On
+ * sorted arrays, {@link #tileRuns(int)} iterates the contiguous index ranges of the coordinates within each tile.
+ *
+ * Instances are not thread-safe.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSCoordinateArray {
+
+    /*
+     * The bits per radix sort digit. The morton codes have 63 bits, so six passes sort them completely.
+     */
+    private static final int RADIX_BITS = 11;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int PASSES = 6;
+
+    /*
+     * The maximum array size supported by most VMs
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private int[] lon;
+    private int[] lat;
+    private int[] payload;
+    private int size;
+    private boolean sorted = true;
+
+    /**
+     * Creates an empty array without payload.
+     */
+    public NDSCoordinateArray() {
+        this(16, false);
+    }
+
+    /**
+     * Creates an empty array.
+     *
+     * @param capacity
+     *                        the initial capacity
+     * @param withPayload
+     *                        whether the coordinates carry a payload
+     */
+    public NDSCoordinateArray(int capacity, boolean withPayload) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity must not be negative, got " + capacity);
+        }
+        lon = new int[capacity];
+        lat = new int[capacity];
+        payload = withPayload ? new int[capacity] : null;
+    }
+
+    /**
+     * Adds a coordinate. With payload, the payload is the index of the coordinate.
+     *
+     * @param ndsLon
+     *                   the NDS longitude
+     * @param ndsLat
+     *                   the NDS latitude
+     */
+    public void add(int ndsLon, int ndsLat) {
+        add(ndsLon, ndsLat, size);
+    }
+
+    /**
+     * Adds a coordinate. With payload, the payload is the index of the coordinate.
+     *
+     * @param coord
+     */
+    public void add(NDSCoordinate coord) {
+        add(coord.getLongitude(), coord.getLatitude(), size);
+    }
+
+    /**
+     * Adds a coordinate with a payload. The payload is ignored if the array has been created without payload.
+     *
+     * @param ndsLon
+     *                    the NDS longitude
+     * @param ndsLat
+     *                    the NDS latitude
+     * @param payload
+     *                    the payload
+     */
+    public void add(int ndsLon, int ndsLat, int payload) {
+        NDSTiles.checkLatitude(ndsLat);
+        ensureCapacity(size + 1L);
+        lon[size] = ndsLon;
+        lat[size] = ndsLat;
+        if (this.payload != null) {
+            this.payload[size] = payload;
+        }
+        size++;
+        sorted = sorted && isOrdered(size - 1);
+    }
+
+    /**
+     * Adds coordinates. With payload, the payloads are the indices of the coordinates.
+     *
+     * @param ndsLon
+     *                   the NDS longitudes
+     * @param ndsLat
+     *                   the NDS latitudes
+     * @param offset
+     * @param length
+     */
+    public void addAll(int[] ndsLon, int[] ndsLat, int offset, int length) {
+        NDSBatch.checkRange(ndsLon.length, offset, length);
+        NDSBatch.checkRange(ndsLat.length, offset, length);
+        NDSBatch.checkNDS(ndsLat, offset, length);
+        if (length == 0) {
+            return;
+        }
+        ensureCapacity((long) size + length);
+        System.arraycopy(ndsLon, offset, lon, size, length);
+        System.arraycopy(ndsLat, offset, lat, size, length);
+        if (payload != null) {
+            for (int i = 0; i < length; i++) {
+                payload[size + i] = size + i;
+            }
+        }
+        int start = size;
+        size += length;
+        for (int i = start; sorted && i < size; i++) {
+            sorted = isOrdered(i);
+        }
+    }
+
+    /**
+     * @return the number of coordinates
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true, if the coordinates carry a payload
+     */
+    public boolean hasPayload() {
+        return payload != null;
+    }
+
+    /**
+     * @param index
+     * @return the NDS longitude of a coordinate
+     */
+    public int getLongitude(int index) {
+        return lon[checkIndex(index)];
+    }
+
+    /**
+     * @param index
+     * @return the NDS latitude of a coordinate
+     */
+    public int getLatitude(int index) {
+        return lat[checkIndex(index)];
+    }
+
+    /**
+     * @param index
+     * @return the payload of a coordinate
+     * @throws IllegalStateException
+     *                                   if the array has been created without payload
+     */
+    public int getPayload(int index) {
+        if (payload == null) {
+            throw new IllegalStateException("The coordinate array has no payload.");
+        }
+        return payload[checkIndex(index)];
+    }
+
+    /**
+     * @param index
+     * @return the morton code of a coordinate
+     * @see NDSCoordinate#getMortonCode()
+     */
+    public long getMortonCode(int index) {
+        return MortonCodec.encode(lon[checkIndex(index)], lat[index]);
+    }
+
+    /**
+     * @param index
+     * @return a new {@link NDSCoordinate} instance of a coordinate
+     */
+    public NDSCoordinate get(int index) {
+        return new NDSCoordinate(lon[checkIndex(index)], lat[index]);
+    }
+
+    /**
+     * Copies the longitudes into an array.
+     *
+     * @param dest
+     * @param destOffset
+     */
+    public void getLongitudes(int[] dest, int destOffset) {
+        NDSBatch.checkRange(dest.length, destOffset, size);
+        System.arraycopy(lon, 0, dest, destOffset, size);
+    }
+
+    /**
+     * Copies the latitudes into an array.
+     *
+     * @param dest
+     * @param destOffset
+     */
+    public void getLatitudes(int[] dest, int destOffset) {
+        NDSBatch.checkRange(dest.length, destOffset, size);
+        System.arraycopy(lat, 0, dest, destOffset, size);
+    }
+
+    /**
+     * Removes all coordinates, keeping the capacity.
+     */
+    public void clear() {
+        size = 0;
+        sorted = true;
+    }
+
+    /**
+     * @return true, if the coordinates are sorted by their morton codes
+     */
+    public boolean isSortedByMorton() {
+        return sorted;
+    }
+
+    /**
+     * Sorts the coordinates by their morton codes. The sort is stable, i.e. equal coordinates keep their order.
+     *
+     * The sort is a LSD radix sort over 11 bit digits, which skips digits that are equal for all coordinates. Its
+     * temporary memory is about 24 bytes per coordinate.
+     */
+    public void sortByMorton() {
+        if (sorted) {
+            return;
+        }
+        int n = size;
+        long[] keys = new long[n];
+        NDSBatch.mortonCodes(lon, lat, 0, keys, 0, n);
+        int[] identity = new int[n];
+
+        int tasks = NDSBatch.chunks(n);
+        NDSBatch.runChunks(n, tasks, (t, from, to) -> {
+            for (int i = from; i < to; i++) {
+                identity[i] = i;
+            }
+        });
+        int[] idx = identity;
+
+        long[] keys2 = new long[n];
+        int[] idx2 = new int[n];
+        int[][] offsets = new int[tasks][RADIX];
+        for (int pass = 0; pass < PASSES; pass++) {
+            int shift = pass * RADIX_BITS;
+            long[] src = keys;
+            long[] dst = keys2;
+            int[] srcIdx = idx;
+            int[] dstIdx = idx2;
+            NDSBatch.runChunks(n, tasks, (t, from, to) -> {
+                int[] count = offsets[t];
+                Arrays.fill(count, 0);
+                for (int i = from; i < to; i++) {
+                    count[(int) (src[i] >>> shift) & RADIX - 1]++;
+                }
+            });
+            // Skips the pass if all keys have the same digit
+            int first = (int) (src[0] >>> shift) & RADIX - 1;
+            int same = 0;
+            for (int t = 0; t < tasks; t++) {
+                same += offsets[t][first];
+            }
+            if (same == n) {
+                continue;
+            }
+            // Turns the counts into the start positions of the chunks' digits, digit by digit
+            int pos = 0;
+            for (int d = 0; d < RADIX; d++) {
+                for (int t = 0; t < tasks; t++) {
+                    int c = offsets[t][d];
+                    offsets[t][d] = pos;
+                    pos += c;
+                }
+            }
+            NDSBatch.runChunks(n, tasks, (t, from, to) -> {
+                int[] next = offsets[t];
+                for (int i = from; i < to; i++) {
+                    int p = next[(int) (src[i] >>> shift) & RADIX - 1]++;
+                    dst[p] = src[i];
+                    dstIdx[p] = srcIdx[i];
+                }
+            });
+            keys = dst;
+            keys2 = src;
+            idx = dstIdx;
+            idx2 = srcIdx;
+        }
+
+        // Applies the permutation, reusing the temporary index array for the longitudes. This trims the capacity.
+        lon = gather(lon, idx, idx2, tasks, n);
+        lat = gather(lat, idx, new int[n], tasks, n);
+        if (payload != null) {
+            payload = gather(payload, idx, new int[n], tasks, n);
+        }
+        sorted = true;
+    }
+
+    /**
+     * Iterates the contiguous index ranges of the coordinates within the tiles of a level, in morton order. The array
+     * must be sorted by {@link #sortByMorton()} before, and not be modified during the iteration.
+     *
+     * <pre>
+     * TileRuns runs = coords.tileRuns(13);
+     * while (runs.next()) {
+     *     process(runs.getPackedId(), runs.getFrom(), runs.getTo());
+     * }
+     * </pre>
+     *
+     * @param level
+     *                  Must be in range 0..15
+     * @return the tile runs
+     * @throws IllegalStateException
+     *                                   if the array is not sorted
+     */
+    public TileRuns tileRuns(int level) {
+        NDSTiles.checkLevel(level);
+        if (!sorted) {
+            throw new IllegalStateException("The coordinate array must be sorted by morton code.");
+        }
+        return new TileRuns(level);
+    }
+
+    @Override
+    public String toString() {
+        return "NDSCoordinateArray(size=" + size + ", payload=" + hasPayload() + ", sorted=" + sorted + ")";
+    }
+
+    /**
+     * An iterator over the runs of coordinates within the same tile.
+     */
+    public final class TileRuns {
+
+        private final int shift;
+        private final int levelBit;
+        private int from;
+        private int to;
+        private int tileNumber;
+
+        private TileRuns(int level) {
+            shift = 32 + 2 * (NDSTile.MAX_LEVEL - level);
+            levelBit = 1 << 16 + level;
+        }
+
+        /**
+         * Advances to the next run.
+         *
+         * @return true, if there is a next run
+         */
+        public boolean next() {
+            if (to >= size) {
+                from = to;
+                return false;
+            }
+            from = to;
+            tileNumber = tileNumber(from);
+            to = from + 1;
+            while (to < size && tileNumber(to) == tileNumber) {
+                to++;
+            }
+            return true;
+        }
+
+        /**
+         * @return the packed Tile ID of the current run
+         */
+        public int getPackedId() {
+            check();
+            return tileNumber + levelBit;
+        }
+
+        /**
+         * @return the first index of the current run
+         */
+        public int getFrom() {
+            check();
+            return from;
+        }
+
+        /**
+         * @return the index after the last index of the current run
+         */
+        public int getTo() {
+            check();
+            return to;
+        }
+
+        private int tileNumber(int i) {
+            return (int) (MortonCodec.encode(lon[i], lat[i]) >> shift);
+        }
+
+        private void check() {
+            if (from == to) {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+
+    /*
+     * Helpers
+     */
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+
+    private void ensureCapacity(long capacity) {
+        if (capacity > lon.length) {
+            if (capacity > MAX_CAPACITY) {
+                throw new IllegalStateException("The coordinate array exceeds the maximum capacity of " + MAX_CAPACITY);
+            }
+            int c = (int) Math.min(MAX_CAPACITY, Math.max(capacity, lon.length + (lon.length >> 1) + 1L));
+            lon = Arrays.copyOf(lon, c);
+            lat = Arrays.copyOf(lat, c);
+            if (payload != null) {
+                payload = Arrays.copyOf(payload, c);
+            }
+        }
+    }
+
+    /*
+     * Checks if the coordinate at the index has no smaller morton code than its predecessor
+     */
+    private boolean isOrdered(int index) {
+        return index == 0 || MortonCodec.encode(lon[index - 1], lat[index - 1]) <= MortonCodec.encode(lon[index], lat[index]);
+    }
+
+    /*
+     * Writes the values in the order of the permutation into the destination array
+     */
+    private static int[] gather(int[] values, int[] perm, int[] dest, int tasks, int n) {
+        NDSBatch.runChunks(n, tasks, (t, from, to) -> {
+            for (int i = from; i < to; i++) {
+                dest[i] = values[perm[i]];
+            }
+        });
+        return dest;
+    }
+}
@@ -0,0 +1,519 @@
+package de.rondiplomatico.nds;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable index of geofence polygons for point-in-polygon queries, accelerated by the tiles of one level.
+ *
+ * On construction, the tiles of each polygon's bounding box are classified as boundary tiles, which touch an edge of
+ * the polygon, or as inside or outside tiles. Each edge marks the tiles of its bounding box it intersects. The other
+ * tiles of a row form runs between boundary tiles, which are entirely inside or outside of the polygon, so a single
+ * ray casting test at the center of the run's first tile classifies the whole run. The inside and boundary tiles are
+ * kept in an inverted list from packed Tile IDs to the polygons, found by an open addressing hash table.
+ *
+ * A query looks up the tile of the point and reports the polygons of inside entries directly. Only the polygons of
+ * boundary entries are tested by ray casting. Points within no indexed tile cost a single lookup.
+ *
+ * Polygons consist of an outer ring and any number of holes, and contain the points with an odd number of ring
+ * crossings (even-odd rule). Rings are closed implicitly and must not cross the antimeridian. The polygons are
+ * identified by the order in which they are added to the {@link Builder}, starting at 0. Whether points on an edge
+ * are contained is not specified. Queries do not modify the index, so it may be used by any number of threads
+ * concurrently.
+ *
+ * <pre>
+ * NDSGeofenceIndex index = NDSGeofenceIndex.builder(15)
+ *                 .addPolygon(ndsLon, ndsLat, 0, n)
+ *                 .addHole(holeLon, holeLat, 0, m)
+ *                 .build();
+ * int fence = index.firstContaining(lon, lat);
+ * </pre>
+ *
+ * @since 15.10.2026
+ */
+public final class NDSGeofenceIndex {
+
+    /**
+     * The maximum number of tiles of a polygon's bounding box on the index level
+     */
+    public static final int MAX_TILES_PER_POLYGON = 1 << 28;
+
+    /**
+     * Collects the polygons of a {@link NDSGeofenceIndex}. Builders are not thread-safe.
+     */
+    public static final class Builder {
+
+        private final int level;
+        private int[] lon = new int[256];
+        private int[] lat = new int[256];
+        private int points;
+        private int[] ringStart = new int[16];
+        private int rings;
+        private int[] polygonStart = new int[16];
+        private int polygons;
+
+        private Builder(int level) {
+            this.level = NDSTiles.checkLevel(level);
+        }
+
+        /**
+         * Adds a polygon with its outer ring.
+         *
+         * @param ndsLon
+         *                     the NDS longitudes of the ring
+         * @param ndsLat
+         *                     the NDS latitudes of the ring
+         * @param offset
+         *                     the index of the first coordinate
+         * @param length
+         *                     the number of coordinates, at least 3
+         * @return this builder
+         */
+        public Builder addPolygon(int[] ndsLon, int[] ndsLat, int offset, int length) {
+            checkRing(ndsLon, ndsLat, offset, length);
+            if (polygons + 1 == polygonStart.length) {
+                polygonStart = Arrays.copyOf(polygonStart, 2 * polygonStart.length);
+            }
+            polygonStart[polygons++] = rings;
+            addRing(ndsLon, ndsLat, offset, length);
+            return this;
+        }
+
+        /**
+         * Adds a hole to the polygon added last.
+         *
+         * @param ndsLon
+         *                     the NDS longitudes of the ring
+         * @param ndsLat
+         *                     the NDS latitudes of the ring
+         * @param offset
+         *                     the index of the first coordinate
+         * @param length
+         *                     the number of coordinates, at least 3
+         * @return this builder
+         */
+        public Builder addHole(int[] ndsLon, int[] ndsLat, int offset, int length) {
+            if (polygons == 0) {
+                throw new IllegalArgumentException("A hole needs a polygon to be added first.");
+            }
+            checkRing(ndsLon, ndsLat, offset, length);
+            addRing(ndsLon, ndsLat, offset, length);
+            return this;
+        }
+
+        /**
+         * @return the number of polygons added
+         */
+        public int size() {
+            return polygons;
+        }
+
+        /**
+         * Classifies the tiles of all polygons and creates the index.
+         *
+         * @return the index
+         */
+        public NDSGeofenceIndex build() {
+            int[] rs = Arrays.copyOf(ringStart, rings + 1);
+            rs[rings] = points;
+            int[] ps = Arrays.copyOf(polygonStart, polygons + 1);
+            ps[polygons] = rings;
+            return new NDSGeofenceIndex(level, Arrays.copyOf(lon, points), Arrays.copyOf(lat, points), rs, ps);
+        }
+
+        private static void checkRing(int[] ndsLon, int[] ndsLat, int offset, int length) {
+            NDSBatch.checkRange(ndsLon.length, offset, length);
+            NDSBatch.checkRange(ndsLat.length, offset, length);
+            if (length < 3) {
+                throw new IllegalArgumentException("A ring needs at least 3 coordinates, but has " + length + ".");
+            }
+            for (int i = offset; i < offset + length; i++) {
+                NDSTiles.checkLatitude(ndsLat[i]);
+            }
+        }
+
+        private void addRing(int[] ndsLon, int[] ndsLat, int offset, int length) {
+            if (rings + 1 == ringStart.length) {
+                ringStart = Arrays.copyOf(ringStart, 2 * ringStart.length);
+            }
+            ringStart[rings++] = points;
+            if (points + length > lon.length) {
+                int capacity = Math.max(2 * lon.length, points + length);
+                lon = Arrays.copyOf(lon, capacity);
+                lat = Arrays.copyOf(lat, capacity);
+            }
+            System.arraycopy(ndsLon, offset, lon, points, length);
+            System.arraycopy(ndsLat, offset, lat, points, length);
+            points += length;
+        }
+    }
+
+    /*
+     * The grid states of the tiles during classification
+     */
+    private static final byte BOUNDARY = 1;
+
+    private final int level;
+    private final int[] lon;
+    private final int[] lat;
+    private final int[] ringStart;
+    private final int[] polygonStart;
+
+    /*
+     * The groups of entries by packed Tile ID
+     */
+    private final IntIntMap groups;
+    /*
+     * The entries of group g are entries[offsets[g]] to entries[offsets[g + 1] - 1], each the polygon shifted left by
+     * one, with the lowest bit set for boundary tiles. The polygons of a group are sorted.
+     */
+    private final int[] offsets;
+    private final int[] entries;
+
+    private NDSGeofenceIndex(int level, int[] lon, int[] lat, int[] ringStart, int[] polygonStart) {
+        this.level = level;
+        this.lon = lon;
+        this.lat = lat;
+        this.ringStart = ringStart;
+        this.polygonStart = polygonStart;
+
+        LongList list = new LongList();
+        for (int p = 0; p < polygonStart.length - 1; p++) {
+            classify(p, list);
+        }
+        long[] sorted = list.sort();
+        int n = sorted.length;
+        entries = new int[n];
+        int[] ids = new int[n];
+        int[] starts = new int[n + 1];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int id = (int) (sorted[i] >> 32);
+            if (count == 0 || ids[count - 1] != id) {
+                ids[count] = id;
+                starts[count++] = i;
+            }
+            entries[i] = (int) sorted[i];
+        }
+        starts[count] = n;
+        offsets = Arrays.copyOf(starts, count + 1);
+
+        groups = new IntIntMap(count);
+        for (int g = 0; g < count; g++) {
+            groups.put(ids[g], g);
+        }
+    }
+
+    /**
+     * Creates a builder for an index on a tile level.
+     *
+     * Finer levels make the queries cheaper, as fewer tiles are on polygon boundaries, but take more memory for the
+     * inside tiles of large polygons.
+     *
+     * @param level
+     *                  the tile level, within 0..15
+     * @return the builder
+     */
+    public static Builder builder(int level) {
+        return new Builder(level);
+    }
+
+    /**
+     * @return the tile level of the index
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * @return the number of polygons
+     */
+    public int size() {
+        return polygonStart.length - 1;
+    }
+
+    /**
+     * @return the number of tiles with inside or boundary entries
+     */
+    public int getTileCount() {
+        return offsets.length - 1;
+    }
+
+    /**
+     * @return the number of entries of polygons in tiles
+     */
+    public int getEntryCount() {
+        return entries.length;
+    }
+
+    /**
+     * Passes the polygons containing a point in ascending order.
+     *
+     * @param ndsLon
+     *                     the NDS longitude
+     * @param ndsLat
+     *                     the NDS latitude
+     * @param action
+     *                     receives the polygons
+     * @return the number of polygons containing the point
+     */
+    public int forEachContaining(int ndsLon, int ndsLat, IntConsumer action) {
+        int g = group(NDSTiles.packedId(level, ndsLon, ndsLat));
+        if (g < 0) {
+            return 0;
+        }
+        int n = 0;
+        for (int i = offsets[g]; i < offsets[g + 1]; i++) {
+            int e = entries[i];
+            if ((e & 1) == 0 || crossings(e >>> 1, ndsLon, ndsLat)) {
+                action.accept(e >>> 1);
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Finds the first polygon containing a point.
+     *
+     * @param ndsLon
+     *                     the NDS longitude
+     * @param ndsLat
+     *                     the NDS latitude
+     * @return the smallest polygon containing the point, -1 if none
+     */
+    public int firstContaining(int ndsLon, int ndsLat) {
+        int g = group(NDSTiles.packedId(level, ndsLon, ndsLat));
+        if (g >= 0) {
+            for (int i = offsets[g]; i < offsets[g + 1]; i++) {
+                int e = entries[i];
+                if ((e & 1) == 0 || crossings(e >>> 1, ndsLon, ndsLat)) {
+                    return e >>> 1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the first polygon containing each point of a batch, in parallel for long batches (see
+     * {@link NDSBatch#setParallelThreshold(int)}).
+     *
+     * @param ndsLon
+     *                       the NDS longitudes
+     * @param ndsLat
+     *                       the NDS latitudes
+     * @param srcOffset
+     *                       the first input position
+     * @param dest
+     *                       receives the smallest polygon containing each point, -1 if none
+     * @param destOffset
+     *                       the first output position
+     * @param length
+     *                       the number of points
+     * @see #firstContaining(int, int)
+     */
+    public void firstContaining(int[] ndsLon, int[] ndsLat, int srcOffset, int[] dest, int destOffset, int length) {
+        NDSBatch.checkRange(ndsLon.length, srcOffset, length);
+        NDSBatch.checkRange(ndsLat.length, srcOffset, length);
+        NDSBatch.checkRange(dest.length, destOffset, length);
+        NDSBatch.run(length, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                dest[destOffset + i] = firstContaining(ndsLon[srcOffset + i], ndsLat[srcOffset + i]);
+            }
+        });
+    }
+
+    /**
+     * Tests whether a polygon contains a point by ray casting over all its edges, without the tiles.
+     *
+     * @param polygon
+     *                     the polygon
+     * @param ndsLon
+     *                     the NDS longitude
+     * @param ndsLat
+     *                     the NDS latitude
+     * @return true if the polygon contains the point
+     */
+    public boolean contains(int polygon, int ndsLon, int ndsLat) {
+        if (polygon < 0 || polygon >= size()) {
+            throw new IllegalArgumentException("The polygon " + polygon + " is not within [0, " + size() + ").");
+        }
+        return crossings(polygon, ndsLon, ndsLat);
+    }
+
+    @Override
+    public String toString() {
+        return "NDSGeofenceIndex(level=" + level + ", polygons=" + size() + ", tiles=" + getTileCount() + ", entries=" + getEntryCount() + ")";
+    }
+
+    private int group(int packedId) {
+        return groups.get(packedId, -1);
+    }
+
+    /*
+     * Whether the number of ring crossings of a ray from the point to the east is odd. The products of coordinate
+     * differences are below 2^63 in magnitude, so the comparisons are exact.
+     */
+    private boolean crossings(int polygon, long x, long y) {
+        boolean inside = false;
+        for (int r = polygonStart[polygon]; r < polygonStart[polygon + 1]; r++) {
+            int first = ringStart[r];
+            int last = ringStart[r + 1] - 1;
+            for (int i = first, j = last; i <= last; j = i++) {
+                long yi = lat[i];
+                long yj = lat[j];
+                if (yi > y != yj > y) {
+                    // Whether the point is west of the crossing, without dividing by the latitude difference
+                    long a = (x - lon[i]) * (yj - yi);
+                    long b = (lon[j] - (long) lon[i]) * (y - yi);
+                    if (yj > yi ? a < b : a > b) {
+                        inside = !inside;
+                    }
+                }
+            }
+        }
+        return inside;
+    }
+
+    /*
+     * Adds the entries of the inside and boundary tiles of a polygon
+     */
+    private void classify(int polygon, LongList list) {
+        int first = ringStart[polygonStart[polygon]];
+        int last = ringStart[polygonStart[polygon + 1]];
+        long west = Long.MAX_VALUE;
+        long east = Long.MIN_VALUE;
+        long south = Long.MAX_VALUE;
+        long north = Long.MIN_VALUE;
+        for (int i = first; i < last; i++) {
+            west = Math.min(west, lon[i]);
+            east = Math.max(east, lon[i]);
+            south = Math.min(south, lat[i]);
+            north = Math.max(north, lat[i]);
+        }
+        int shift = 31 - level;
+        long column = west >> shift;
+        long row = NDSTiles.clampRow(level, south >> shift);
+        long columns = (east >> shift) - column + 1;
+        long rows = NDSTiles.clampRow(level, north >> shift) - row + 1;
+        if (columns * rows > MAX_TILES_PER_POLYGON) {
+            throw new IllegalArgumentException("The polygon " + polygon + " spans " + columns * rows + " tiles of level " + level + ", more than "
+                            + MAX_TILES_PER_POLYGON + ". Use a coarser level.");
+        }
+        byte[] grid = new byte[(int) (columns * rows)];
+
+        // Each edge marks the tiles it intersects, including their borders
+        long size = 1L << shift;
+        for (int r = polygonStart[polygon]; r < polygonStart[polygon + 1]; r++) {
+            int end = ringStart[r + 1] - 1;
+            for (int i = ringStart[r], j = end; i <= end; j = i++) {
+                long ax = lon[j];
+                long ay = lat[j];
+                long bx = lon[i];
+                long by = lat[i];
+                long c0 = (Math.min(ax, bx) >> shift) - column;
+                long c1 = (Math.max(ax, bx) >> shift) - column;
+                long r0 = NDSTiles.clampRow(level, Math.min(ay, by) >> shift) - row;
+                long r1 = NDSTiles.clampRow(level, Math.max(ay, by) >> shift) - row;
+                for (long y = r0; y <= r1; y++) {
+                    long tileSouth = rowSouth(row + y);
+                    long tileNorth = rowNorth(row + y);
+                    for (long x = c0; x <= c1; x++) {
+                        long tileWest = (column + x) << shift;
+                        if (c0 == c1 && r0 == r1 || intersects(ax, ay, bx, by, tileWest, tileSouth, tileWest + size - 1, tileNorth)) {
+                            grid[(int) (y * columns + x)] = BOUNDARY;
+                        }
+                    }
+                }
+            }
+        }
+
+        // The runs of other tiles are classified by the center of their first tile
+        for (long y = 0; y < rows; y++) {
+            long centerLat = (rowSouth(row + y) + rowNorth(row + y) + 1) / 2;
+            boolean inside = false;
+            for (long x = 0; x < columns; x++) {
+                long tileWest = (column + x) << shift;
+                int id = NDSTiles.packedIdOfCell(level, (int) (column + x), (int) (row + y));
+                if (grid[(int) (y * columns + x)] == BOUNDARY) {
+                    list.add((long) id << 32 | polygon << 1 | 1);
+                    continue;
+                }
+                if (x == 0 || grid[(int) (y * columns + x - 1)] == BOUNDARY) {
+                    inside = crossings(polygon, tileWest + size / 2, centerLat);
+                }
+                if (inside) {
+                    list.add((long) id << 32 | polygon << 1);
+                }
+            }
+        }
+    }
+
+    /*
+     * The southernmost latitude of a tile row. The single row of level 0 spans all latitudes.
+     */
+    private long rowSouth(long row) {
+        return level == 0 ? NDSCoordinate.MIN_LATITUDE : row << 31 - level;
+    }
+
+    /*
+     * The northernmost latitude of a tile row
+     */
+    private long rowNorth(long row) {
+        return level == 0 ? NDSCoordinate.MAX_LATITUDE : (row + 1 << 31 - level) - 1;
+    }
+
+    /*
+     * Whether a segment intersects a rectangle, extended by one unit against rounding, by clipping the segment to the
+     * slabs of the rectangle
+     */
+    private static boolean intersects(long ax, long ay, long bx, long by, long west, long south, long east, long north) {
+        double dx = bx - ax;
+        double dy = by - ay;
+        double t0 = 0;
+        double t1 = 1;
+        if (dx == 0) {
+            if (ax < west - 1 || ax > east + 1) {
+                return false;
+            }
+        } else {
+            double ta = (west - 1 - ax) / dx;
+            double tb = (east + 1 - ax) / dx;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        if (dy == 0) {
+            if (ay < south - 1 || ay > north + 1) {
+                return false;
+            }
+        } else {
+            double ta = (south - 1 - ay) / dy;
+            double tb = (north + 1 - ay) / dy;
+            t0 = Math.max(t0, Math.min(ta, tb));
+            t1 = Math.min(t1, Math.max(ta, tb));
+        }
+        return t0 <= t1;
+    }
+
+    /**
+     * A growable long array of the entries during construction.
+     */
+    private static final class LongList {
+
+        private long[] values = new long[64];
+        private int size;
+
+        void add(long v) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = v;
+        }
+
+        long[] sort() {
+            Arrays.sort(values, 0, size);
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package de.rondiplomatico.nds;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in counters and timings of coordinate conversions, tile operations and serialisation, with optional Java Flight
+ * Recorder events for the bulk operations.
+ *
+ * The instrumentation is off by default. The system property "nds.metrics" set to true enables the counters and
+ * timings, and "nds.metrics.jfr" set to true enables the JFR events of type "de.rondiplomatico.nds.Operation" on JVMs
+ * providing the jdk.jfr API. Both are read once, when this class is initialised, into constants, so the JIT removes
+ * the instrumentation entirely while it is disabled.
+ *
+ * The counters are {@link LongAdder}s, so threads counting concurrently do not contend. {@link #snapshot()} sums them
+ * up into an immutable {@link Snapshot}, which may be exported as a map of plain names to values. A snapshot taken
+ * while other threads are counting need not be consistent across counters.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSMetrics {
+
+    /**
+     * The counted events.
+     */
+    public enum Counter {
+        /**
+         * WGS84 coordinates converted to NDS coordinates by {@link NDSCoordinate#NDSCoordinate(double, double)}
+         */
+        WGS84_TO_NDS,
+        /**
+         * NDS coordinates converted to WGS84 coordinates by {@link NDSCoordinate#toWGS84()}
+         */
+        NDS_TO_WGS84,
+        /**
+         * Tiles constructed, see {@link NDSTile}
+         */
+        TILES,
+        /**
+         * Hits of all {@link NDSTileCache}s
+         */
+        TILE_CACHE_HITS,
+        /**
+         * Misses of all {@link NDSTileCache}s
+         */
+        TILE_CACHE_MISSES,
+        /**
+         * Hits of all {@link NDSTilePayloadCache}s
+         */
+        PAYLOAD_CACHE_HITS,
+        /**
+         * Misses of all {@link NDSTilePayloadCache}s
+         */
+        PAYLOAD_CACHE_MISSES,
+        /**
+         * Features written by all {@link GeoJsonWriter}s
+         */
+        GEOJSON_FEATURES
+    }
+
+    /**
+     * The timed bulk operations.
+     */
+    public enum Operation {
+        /**
+         * Batch conversions and kernels of {@link NDSBatch}, sized by the number of elements
+         */
+        BATCH,
+        /**
+         * Tile enumerations of {@link NDSTileCover#forEach}, sized by the number of tiles
+         */
+        COVER,
+        /**
+         * Partitions of points by {@link NDSTilePartition}, sized by the number of points
+         */
+        PARTITION,
+        /**
+         * Bulk writes of tiles and coordinates by {@link GeoJsonWriter} and {@link NDSBinaryWriter}, sized by the
+         * number of values written
+         */
+        SERIALISATION
+    }
+
+    private static final Counter[] COUNTERS = Counter.values();
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final NDSRejects.Reason[] REASONS = NDSRejects.Reason.values();
+
+    /*
+     * Whether the counters and timings are enabled
+     */
+    static final boolean ENABLED = Boolean.getBoolean("nds.metrics");
+
+    /*
+     * Whether the JFR events are enabled
+     */
+    static final boolean JFR = Boolean.getBoolean("nds.metrics.jfr") && jfrAvailable();
+
+    private static final Registry REGISTRY = new Registry();
+
+    private NDSMetrics() {
+        // Static methods only
+    }
+
+    /**
+     * @return true if the counters and timings are enabled by the system property "nds.metrics"
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * @return true if the JFR events are enabled by the system property "nds.metrics.jfr" and supported by the JVM
+     */
+    public static boolean isJfrEnabled() {
+        return JFR;
+    }
+
+    /**
+     * Sums up the current counts.
+     *
+     * @return the snapshot, all zero if disabled
+     */
+    public static Snapshot snapshot() {
+        return REGISTRY.snapshot();
+    }
+
+    /**
+     * Resets all counts to zero.
+     */
+    public static void reset() {
+        REGISTRY.reset();
+    }
+
+    /*
+     * Counts an event
+     */
+    static void count(Counter counter) {
+        if (ENABLED) {
+            REGISTRY.add(counter, 1);
+        }
+    }
+
+    /*
+     * Counts a number of events
+     */
+    static void count(Counter counter, long n) {
+        if (ENABLED) {
+            REGISTRY.add(counter, n);
+        }
+    }
+
+    /*
+     * Counts inputs rejected for a reason
+     */
+    static void rejected(NDSRejects.Reason reason, long n) {
+        if (ENABLED) {
+            REGISTRY.rejected(reason, n);
+        }
+    }
+
+    /*
+     * Starts timing a bulk operation, null if disabled
+     */
+    static Timer start(Operation operation) {
+        return ENABLED || JFR ? new Timer(operation) : null;
+    }
+
+    /*
+     * Stops timing a bulk operation
+     */
+    static void stop(Timer timer, long size) {
+        if (timer != null) {
+            timer.stop(size);
+        }
+    }
+
+    private static boolean jfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * A running timing of a bulk operation.
+     */
+    static final class Timer {
+
+        private final Operation operation;
+        private final long start;
+        /*
+         * The JFR event, typed as Object so that this class links without the jdk.jfr API
+         */
+        private final Object event;
+
+        Timer(Operation operation) {
+            this.operation = operation;
+            event = JFR ? NDSOperationEvent.begin(operation) : null;
+            start = System.nanoTime();
+        }
+
+        void stop(long size) {
+            long nanos = System.nanoTime() - start;
+            if (ENABLED) {
+                REGISTRY.operation(operation, size, nanos);
+            }
+            if (event != null) {
+                NDSOperationEvent.commit(event, size);
+            }
+        }
+    }
+
+    /**
+     * The counters, package-private for tests independent of the system properties.
+     */
+    static final class Registry {
+
+        private final LongAdder[] counts = adders(COUNTERS.length);
+        private final LongAdder[] rejects = adders(REASONS.length);
+        private final LongAdder[] operations = adders(OPERATIONS.length);
+        private final LongAdder[] sizes = adders(OPERATIONS.length);
+        private final LongAdder[] nanos = adders(OPERATIONS.length);
+        private final LongAccumulator[] maxSizes = new LongAccumulator[OPERATIONS.length];
+
+        Registry() {
+            for (int i = 0; i < maxSizes.length; i++) {
+                maxSizes[i] = new LongAccumulator(Math::max, 0);
+            }
+        }
+
+        void add(Counter counter, long n) {
+            counts[counter.ordinal()].add(n);
+        }
+
+        void rejected(NDSRejects.Reason reason, long n) {
+            if (n != 0) {
+                rejects[reason.ordinal()].add(n);
+            }
+        }
+
+        void operation(Operation operation, long size, long duration) {
+            int i = operation.ordinal();
+            operations[i].increment();
+            sizes[i].add(size);
+            nanos[i].add(duration);
+            maxSizes[i].accumulate(size);
+        }
+
+        Snapshot snapshot() {
+            long[] values = new long[COUNTERS.length + REASONS.length + 4 * OPERATIONS.length];
+            int n = 0;
+            for (LongAdder a : counts) {
+                values[n++] = a.sum();
+            }
+            for (LongAdder a : rejects) {
+                values[n++] = a.sum();
+            }
+            for (int i = 0; i < OPERATIONS.length; i++) {
+                values[n++] = operations[i].sum();
+                values[n++] = sizes[i].sum();
+                values[n++] = maxSizes[i].get();
+                values[n++] = nanos[i].sum();
+            }
+            return new Snapshot(values);
+        }
+
+        void reset() {
+            for (LongAdder[] group : new LongAdder[][] { counts, rejects, operations, sizes, nanos }) {
+                for (LongAdder a : group) {
+                    a.reset();
+                }
+            }
+            for (LongAccumulator a : maxSizes) {
+                a.reset();
+            }
+        }
+
+        private static LongAdder[] adders(int n) {
+            LongAdder[] res = new LongAdder[n];
+            for (int i = 0; i < n; i++) {
+                res[i] = new LongAdder();
+            }
+            return res;
+        }
+    }
+
+    /**
+     * The counts at one point in time.
+     */
+    public static final class Snapshot {
+
+        private static final int REJECTS = COUNTERS.length;
+        private static final int OPERATION = REJECTS + REASONS.length;
+
+        private final long[] values;
+
+        private Snapshot(long[] values) {
+            this.values = values;
+        }
+
+        /**
+         * @param counter
+         * @return the number of counted events
+         */
+        public long getCount(Counter counter) {
+            return values[counter.ordinal()];
+        }
+
+        /**
+         * @param reason
+         * @return the number of inputs rejected by the validating conversions of {@link NDSBatch} for the reason
+         */
+        public long getRejects(NDSRejects.Reason reason) {
+            return values[REJECTS + reason.ordinal()];
+        }
+
+        /**
+         * @param operation
+         * @return the number of operations
+         */
+        public long getOperations(Operation operation) {
+            return values[OPERATION + 4 * operation.ordinal()];
+        }
+
+        /**
+         * @param operation
+         * @return the total size of the operations
+         */
+        public long getSize(Operation operation) {
+            return values[OPERATION + 4 * operation.ordinal() + 1];
+        }
+
+        /**
+         * @param operation
+         * @return the size of the largest operation
+         */
+        public long getMaxSize(Operation operation) {
+            return values[OPERATION + 4 * operation.ordinal() + 2];
+        }
+
+        /**
+         * @param operation
+         * @return the total duration of the operations in nanoseconds
+         */
+        public long getNanos(Operation operation) {
+            return values[OPERATION + 4 * operation.ordinal() + 3];
+        }
+
+        /**
+         * Exports the snapshot with names like "counter.TILES", "rejects.NOT_A_NUMBER", "operation.COVER.count",
+         * "operation.COVER.size", "operation.COVER.maxSize" and "operation.COVER.nanos".
+         *
+         * @return the values by name, in a fixed order
+         */
+        public Map<String, Long> toMap() {
+            Map<String, Long> res = new LinkedHashMap<>();
+            for (Counter c : COUNTERS) {
+                res.put("counter." + c, getCount(c));
+            }
+            for (NDSRejects.Reason r : REASONS) {
+                res.put("rejects." + r, getRejects(r));
+            }
+            for (Operation o : OPERATIONS) {
+                res.put("operation." + o + ".count", getOperations(o));
+                res.put("operation." + o + ".size", getSize(o));
+                res.put("operation." + o + ".maxSize", getMaxSize(o));
+                res.put("operation." + o + ".nanos", getNanos(o));
+            }
+            return res;
+        }
+
+        @Override
+        public String toString() {
+            return "NDSMetrics.Snapshot" + toMap();
+        }
+    }
+}
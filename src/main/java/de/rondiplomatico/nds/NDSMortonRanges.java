@@ -0,0 +1,305 @@
+package de.rondiplomatico.nds;
+
+import java.util.Arrays;
+
+/**
+ * Decomposes bounding boxes into contiguous ranges of morton codes (see {@link NDSCoordinate#getMortonCode()}), for
+ * range scans in stores sorted by morton code.
+ *
+ * The ranges are returned as a primitive long[] of inclusive bounds [min0, max0, min1, max1, ...], sorted ascending,
+ * disjoint and not adjacent. Every coordinate within the bounding box (boundaries included) has a morton code within
+ * one of the ranges. With a limited number of ranges, the ranges also contain the codes of some coordinates outside of
+ * the bounding box (false positives), which have to be filtered after the scan.
+ *
+ * The decomposition refines the morton curve along the quadtree, level by level: each partially covered cell is
+ * split into its two halves, and halves outside of the bounding box open gaps between the ranges (the LITMAX/BIGMIN
+ * jumps of the range query). As cells on the same level have the same size, the largest gaps are found first. The
+ * refinement stops as soon as another gap would exceed the given maximum number of ranges, or when the bounding box
+ * has been decomposed exactly. Finally, each range is trimmed to its BIGMIN/LITMAX, i.e. to the first and last
+ * morton code within the bounding box.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSMortonRanges {
+
+    /*
+     * Bounds the number of partially covered cells per range, which keeps the planning time linear in maxRanges for
+     * bounding boxes whose boundary cells keep splitting without opening new gaps.
+     */
+    private static final int MAX_CELLS_PER_RANGE = 16;
+    private static final int MIN_CELLS = 4096;
+
+    /*
+     * The number of bits of a morton code (bit 63 is always zero)
+     */
+    private static final int BITS = 63;
+
+    private static final int OUTSIDE = 0;
+    private static final int PARTIAL = 1;
+    private static final int FULL = 2;
+
+    private NDSMortonRanges() {
+        // Static methods only
+    }
+
+    /**
+     * Decomposes a bounding box into at most maxRanges ranges of morton codes.
+     *
+     * @param bbox
+     * @param maxRanges
+     *                      the maximum number of ranges, at least 1
+     * @return the inclusive ranges as [min0, max0, min1, max1, ...]
+     */
+    public static long[] decompose(NDSBBox bbox, int maxRanges) {
+        if (maxRanges < 1) {
+            throw new IllegalArgumentException("The maximum number of ranges must be at least 1, got " + maxRanges);
+        }
+        return new Planner(NDSTileCover.rectangles(bbox, 0), maxRanges).plan();
+    }
+
+    /**
+     * Decomposes a WGS84 bounding box into at most maxRanges ranges of morton codes.
+     *
+     * @param bbox
+     * @param maxRanges
+     *                      the maximum number of ranges, at least 1
+     * @return the inclusive ranges as [min0, max0, min1, max1, ...]
+     */
+    public static long[] decompose(WGS84BBox bbox, int maxRanges) {
+        return decompose(NDSTileCover.toNDS(bbox), maxRanges);
+    }
+
+    /**
+     * Checks if a morton code is contained in one of the ranges, using a binary search.
+     *
+     * @param ranges
+     *                       as returned by {@link #decompose(NDSBBox, int)}
+     * @param mortonCode
+     * @return true if contained
+     */
+    public static boolean contains(long[] ranges, long mortonCode) {
+        int lo = 0;
+        int hi = ranges.length / 2 - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ranges[2 * mid + 1] < mortonCode) {
+                lo = mid + 1;
+            } else if (ranges[2 * mid] > mortonCode) {
+                hi = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes the number of morton codes within the ranges.
+     *
+     * As there are 2^63 morton codes, the number is capped at Long.MAX_VALUE.
+     *
+     * @param ranges
+     *                   as returned by {@link #decompose(NDSBBox, int)}
+     * @return long
+     */
+    public static long size(long[] ranges) {
+        long res = ranges.length / 2;
+        for (int i = 0; i < ranges.length; i += 2) {
+            res += ranges[i + 1] - ranges[i];
+        }
+        return res < 0 ? Long.MAX_VALUE : res;
+    }
+
+    /**
+     * The level by level refinement of the cells along the morton curve.
+     *
+     * The current cells are kept in morton order as [start, end] with the number of free bits of partially covered
+     * cells, or -1 for fully covered (merged) cells. Outside cells are dropped. The number of ranges is the number of
+     * runs of adjacent cells.
+     */
+    private static final class Planner {
+
+        private final long[] rects;
+        private final long[] zmin;
+        private final long[] zmax;
+        private final int maxRanges;
+        private final int maxCells;
+
+        private long[] start = new long[16];
+        private long[] end = new long[16];
+        private int[] bits = new int[16];
+        private int n;
+
+        private long[] nstart = new long[16];
+        private long[] nend = new long[16];
+        private int[] nbits = new int[16];
+        private int nn;
+
+        private int runs;
+        private int partials;
+
+        Planner(long[] rects, int maxRanges) {
+            this.rects = rects;
+            this.maxRanges = maxRanges;
+            zmin = new long[rects.length / 4];
+            zmax = new long[rects.length / 4];
+            for (int r = 0; r < zmin.length; r++) {
+                zmin[r] = MortonCodec.spread((int) rects[4 * r]) | MortonCodec.spread((int) rects[4 * r + 2]) << 1;
+                zmax[r] = MortonCodec.spread((int) rects[4 * r + 1]) | MortonCodec.spread((int) rects[4 * r + 3]) << 1;
+            }
+            maxCells = (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_CELLS, (long) maxRanges * MAX_CELLS_PER_RANGE));
+        }
+
+        long[] plan() {
+            int root = classify(0, BITS);
+            if (root == OUTSIDE) {
+                return new long[0];
+            }
+            start[0] = 0;
+            end[0] = Long.MAX_VALUE;
+            bits[0] = root == FULL ? -1 : BITS;
+            n = 1;
+            runs = 1;
+            partials = root == FULL ? 0 : 1;
+
+            boolean done = false;
+            while (partials > 0 && !done) {
+                nn = 0;
+                int pending = partials;
+                partials = 0;
+                for (int i = 0; i < n; i++) {
+                    if (bits[i] < 0 || done) {
+                        append(start[i], end[i], bits[i]);
+                        continue;
+                    }
+                    pending--;
+                    long s = start[i];
+                    long e = end[i];
+                    int b = bits[i] - 1;
+                    long m = s + (1L << b);
+                    int c0 = classify(s, b);
+                    int c1 = classify(m, b);
+                    /*
+                     * An outside half opens a new gap if the cell is adjacent to its neighbour on that side
+                     */
+                    int delta = 0;
+                    if (c0 == OUTSIDE && nn > 0 && nend[nn - 1] == s - 1) {
+                        delta++;
+                    }
+                    if (c1 == OUTSIDE && i + 1 < n && start[i + 1] == e + 1) {
+                        delta++;
+                    }
+                    if (runs + delta > maxRanges || partials + pending + 2 > maxCells) {
+                        done = true;
+                        append(s, e, bits[i]);
+                        continue;
+                    }
+                    runs += delta;
+                    if (c0 != OUTSIDE) {
+                        append(s, m - 1, c0 == FULL ? -1 : b);
+                    }
+                    if (c1 != OUTSIDE) {
+                        append(m, e, c1 == FULL ? -1 : b);
+                    }
+                }
+                swap();
+            }
+            return toRanges();
+        }
+
+        /*
+         * Appends a cell to the next level, merging adjacent fully covered cells
+         */
+        private void append(long s, long e, int b) {
+            if (b < 0 && nn > 0 && nbits[nn - 1] < 0 && nend[nn - 1] == s - 1) {
+                nend[nn - 1] = e;
+                return;
+            }
+            if (nn == nstart.length) {
+                nstart = Arrays.copyOf(nstart, 2 * nn);
+                nend = Arrays.copyOf(nend, 2 * nn);
+                nbits = Arrays.copyOf(nbits, 2 * nn);
+            }
+            nstart[nn] = s;
+            nend[nn] = e;
+            nbits[nn] = b;
+            nn++;
+            if (b >= 0) {
+                partials++;
+            }
+        }
+
+        private void swap() {
+            long[] t = start;
+            start = nstart;
+            nstart = t;
+            t = end;
+            end = nend;
+            nend = t;
+            int[] tb = bits;
+            bits = nbits;
+            nbits = tb;
+            n = nn;
+        }
+
+        /*
+         * Merges the runs of adjacent cells to ranges, and trims each range to its first and last code within the
+         * bounding box
+         */
+        private long[] toRanges() {
+            long[] res = new long[2 * runs];
+            int r = -1;
+            for (int i = 0; i < n; i++) {
+                if (r >= 0 && res[2 * r + 1] == start[i] - 1) {
+                    res[2 * r + 1] = end[i];
+                } else {
+                    r++;
+                    res[2 * r] = start[i];
+                    res[2 * r + 1] = end[i];
+                }
+            }
+            for (int i = 0; i <= r; i++) {
+                res[2 * i] = bigmin(res[2 * i]);
+                res[2 * i + 1] = litmax(res[2 * i + 1]);
+            }
+            return r + 1 == runs ? res : Arrays.copyOf(res, 2 * (r + 1));
+        }
+
+        private long bigmin(long z) {
+            long res = Long.MAX_VALUE;
+            for (int r = 0; r < zmin.length; r++) {
+                res = Math.min(res, NDSTileCover.bigmin(z, zmin[r], zmax[r], BITS - 1));
+            }
+            return res;
+        }
+
+        private long litmax(long z) {
+            long res = -1;
+            for (int r = 0; r < zmin.length; r++) {
+                res = Math.max(res, NDSTileCover.litmax(z, zmin[r], zmax[r], BITS - 1));
+            }
+            return res;
+        }
+
+        /*
+         * Classifies the cell of the morton codes [z, z + 2^b - 1] against the rectangles. The cell has (b+1)/2 free
+         * longitude (even) bits and b/2 free latitude (odd) bits.
+         */
+        private int classify(long z, int b) {
+            long x0 = MortonCodec.compact(z) & 0xFFFFFFFFL;
+            long y0 = MortonCodec.compact(z >>> 1) & 0xFFFFFFFFL;
+            long x1 = x0 + (1L << (b + 1) / 2) - 1;
+            long y1 = y0 + (1L << b / 2) - 1;
+            int res = OUTSIDE;
+            for (int r = 0; r < rects.length; r += 4) {
+                if (x0 <= rects[r + 1] && rects[r] <= x1 && y0 <= rects[r + 3] && rects[r + 2] <= y1) {
+                    if (rects[r] <= x0 && x1 <= rects[r + 1] && rects[r + 2] <= y0 && y1 <= rects[r + 3]) {
+                        return FULL;
+                    }
+                    res = PARTIAL;
+                }
+            }
+            return res;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package de.rondiplomatico.nds;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR event of a bulk operation, with its duration and size. Only loaded if enabled by {@link NDSMetrics}.
+ *
+ * @since 15.10.2026
+ */
+@Name("de.rondiplomatico.nds.Operation")
+@Label("NDS Operation")
+@Category("NDS")
+@Description("A bulk operation of the NDS tiles library")
+final class NDSOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Size")
+    @Description("The number of elements, tiles, points or values")
+    long size;
+
+    static Object begin(NDSMetrics.Operation operation) {
+        NDSOperationEvent e = new NDSOperationEvent();
+        e.operation = operation.name();
+        e.begin();
+        return e;
+    }
+
+    static void commit(Object event, long size) {
+        NDSOperationEvent e = (NDSOperationEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.size = size;
+            e.commit();
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package de.rondiplomatico.nds;
+
+import java.util.Arrays;
+
+/**
+ * An immutable spatial index of points for radius and k-nearest-neighbour queries by great-circle distance.
+ *
+ * The points are sorted by their morton code (see {@link NDSCoordinate#getMortonCode()}), so the points of every tile
+ * of the quadtree below the NDS tiles form a contiguous range. On construction, the non-empty tiles are linked into a
+ * compressed quadtree starting at the level 1 tiles: tiles with a single non-empty child are skipped, and tiles with
+ * few points are leaves which are scanned linearly. The queries prune all tiles outside of the bounding box of the
+ * search circle, which is derived from the great-circle radius, with integer comparisons only. Nearest neighbour
+ * queries visit the closest tiles first, i.e. in rings of increasing distance around the query point, and shrink the
+ * search circle to the current k-th distance.
+ *
+ * Each point is identified by an int id, which is its index in the input or its payload. The index takes about 18
+ * bytes per point. Queries do not modify the index, so it may be used by any number of threads concurrently. A query
+ * allocates a few small arrays only, independent of the number of points.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSPointIndex {
+
+    /**
+     * Receives the points found by a radius query.
+     */
+    @FunctionalInterface
+    public interface PointConsumer {
+
+        /**
+         * @param id
+         *                     the id of the point
+         * @param distance
+         *                     the distance to the query point in meters
+         */
+        void accept(int id, double distance);
+    }
+
+    /*
+     * Tiles with at most this number of points are scanned linearly
+     */
+    private static final int LEAF_SIZE = 16;
+
+    /*
+     * The shift of the level 1 tiles, which fix the sign bits of both longitude and latitude, so that each tile covers
+     * a rectangle of NDS coordinates
+     */
+    private static final int ROOT_SHIFT = 60;
+
+    /*
+     * The node layout: the range of points, the first child node and number of children (none for leaves) and the
+     * bounding box
+     */
+    private static final int FROM = 0;
+    private static final int TO = 1;
+    private static final int FIRST = 2;
+    private static final int CHILDREN = 3;
+    private static final int NORTH = 4;
+    private static final int EAST = 5;
+    private static final int SOUTH = 6;
+    private static final int WEST = 7;
+    private static final int NODE = 8;
+
+    /*
+     * The maximum size of the radius search stack: three siblings per level of the quadtree plus the root's children
+     */
+    private static final int STACK_SIZE = 3 * ROOT_SHIFT / 2 + 16;
+
+    private final long[] codes;
+    private final int[] ids;
+    private final int[] nodes;
+
+    private NDSPointIndex(NDSCoordinateArray sorted) {
+        int n = sorted.size();
+        codes = new long[n];
+        ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            codes[i] = sorted.getMortonCode(i);
+            ids[i] = sorted.getPayload(i);
+        }
+        nodes = build();
+    }
+
+    /**
+     * Creates an index of coordinates.
+     *
+     * @param coords
+     *                   the coordinates. The ids are their payloads, or their indices if they have no payload.
+     * @return the index
+     */
+    public static NDSPointIndex of(NDSCoordinateArray coords) {
+        NDSCoordinateArray copy = new NDSCoordinateArray(coords.size(), true);
+        for (int i = 0; i < coords.size(); i++) {
+            copy.add(coords.getLongitude(i), coords.getLatitude(i), coords.hasPayload() ? coords.getPayload(i) : i);
+        }
+        copy.sortByMorton();
+        return new NDSPointIndex(copy);
+    }
+
+    /**
+     * Creates an index of coordinates given as NDS longitude and latitude arrays.
+     *
+     * @param ndsLon
+     *                   the NDS longitudes
+     * @param ndsLat
+     *                   the NDS latitudes
+     * @param offset
+     * @param length
+     * @return the index, with the ids being the indices in the input arrays
+     */
+    public static NDSPointIndex of(int[] ndsLon, int[] ndsLat, int offset, int length) {
+        NDSBatch.checkRange(ndsLon.length, offset, length);
+        NDSBatch.checkNDS(ndsLat, offset, length);
+        NDSCoordinateArray copy = new NDSCoordinateArray(length, true);
+        for (int i = offset; i < offset + length; i++) {
+            copy.add(ndsLon[i], ndsLat[i], i);
+        }
+        copy.sortByMorton();
+        return new NDSPointIndex(copy);
+    }
+
+    /**
+     * Creates an index of coordinates.
+     *
+     * @param coords
+     * @return the index, with the ids being the indices in the input array
+     */
+    public static NDSPointIndex of(NDSCoordinate... coords) {
+        NDSCoordinateArray copy = new NDSCoordinateArray(coords.length, true);
+        for (int i = 0; i < coords.length; i++) {
+            copy.add(coords[i].getLongitude(), coords[i].getLatitude(), i);
+        }
+        copy.sortByMorton();
+        return new NDSPointIndex(copy);
+    }
+
+    /**
+     * @return the number of points
+     */
+    public int size() {
+        return codes.length;
+    }
+
+    /**
+     * Passes all points within a radius around a coordinate to an action, in no particular order.
+     *
+     * @param ndsLon
+     *                   the NDS longitude of the query point
+     * @param ndsLat
+     *                   the NDS latitude of the query point
+     * @param meters
+     *                   the radius in meters, not negative
+     * @param action
+     * @return the number of points found
+     */
+    public int forEachWithin(int ndsLon, int ndsLat, double meters, PointConsumer action) {
+        checkQuery(ndsLat, meters);
+        double phi = ndsLat * NDSDistance.RADIANS;
+        double cosPhi = Math.cos(phi);
+        Window window = new Window(ndsLon, ndsLat, cosPhi, meters);
+        int[] stack = new int[STACK_SIZE];
+        int top = 0;
+        stack[top++] = 0;
+        int found = 0;
+        while (top > 0) {
+            int node = stack[--top] * NODE;
+            if (!window.intersects(nodes, node)) {
+                continue;
+            }
+            int children = nodes[node + CHILDREN];
+            if (children > 0) {
+                int first = nodes[node + FIRST];
+                for (int c = 0; c < children; c++) {
+                    stack[top++] = first + c;
+                }
+                continue;
+            }
+            for (int i = nodes[node + FROM]; i < nodes[node + TO]; i++) {
+                int lat = MortonCodec.decodeLat(codes[i]);
+                int lon = MortonCodec.decodeLon(codes[i]);
+                if (window.contains(lon, lat)) {
+                    double d = NDSDistance.haversine(phi, cosPhi, ndsLon, lat * NDSDistance.RADIANS, lon);
+                    if (d <= meters) {
+                        action.accept(ids[i], d);
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds all points within a radius around a coordinate.
+     *
+     * @param ndsLon
+     *                   the NDS longitude of the query point
+     * @param ndsLat
+     *                   the NDS latitude of the query point
+     * @param meters
+     *                   the radius in meters, not negative
+     * @return the ids of the points, in no particular order
+     */
+    public int[] within(int ndsLon, int ndsLat, double meters) {
+        int[][] res = { new int[16] };
+        int n = forEachWithin(ndsLon, ndsLat, meters, new PointConsumer() {
+            private int size;
+
+            @Override
+            public void accept(int id, double distance) {
+                if (size == res[0].length) {
+                    res[0] = Arrays.copyOf(res[0], 2 * size);
+                }
+                res[0][size++] = id;
+            }
+        });
+        return Arrays.copyOf(res[0], n);
+    }
+
+    /**
+     * Finds the k nearest points to a coordinate.
+     *
+     * @param ndsLon
+     *                      the NDS longitude of the query point
+     * @param ndsLat
+     *                      the NDS latitude of the query point
+     * @param k
+     *                      the maximum number of points to find, at least 0
+     * @param ids
+     *                      receives the ids of the points from index 0, by ascending distance
+     * @param distances
+     *                      receives the distances of the points in meters from index 0
+     * @return the number of points found, i.e. the minimum of k and {@link #size()}
+     */
+    public int nearest(int ndsLon, int ndsLat, int k, int[] ids, double[] distances) {
+        return nearest(ndsLon, ndsLat, k, Double.POSITIVE_INFINITY, ids, distances);
+    }
+
+    /**
+     * Finds the k nearest points within a radius around a coordinate.
+     *
+     * @param ndsLon
+     *                      the NDS longitude of the query point
+     * @param ndsLat
+     *                      the NDS latitude of the query point
+     * @param k
+     *                      the maximum number of points to find, at least 0
+     * @param meters
+     *                      the radius in meters, not negative
+     * @param ids
+     *                      receives the ids of the points from index 0, by ascending distance
+     * @param distances
+     *                      receives the distances of the points in meters from index 0
+     * @return the number of points found
+     */
+    public int nearest(int ndsLon, int ndsLat, int k, double meters, int[] ids, double[] distances) {
+        checkQuery(ndsLat, meters);
+        if (k < 0 || k > ids.length || k > distances.length) {
+            throw new IllegalArgumentException("The number of points " + k + " exceeds the range [0, " + Math.min(ids.length, distances.length) + "].");
+        }
+        if (k == 0) {
+            return 0;
+        }
+        double phi = ndsLat * NDSDistance.RADIANS;
+        double cosPhi = Math.cos(phi);
+        Window window = new Window(ndsLon, ndsLat, cosPhi, meters);
+        int[] stack = new int[STACK_SIZE];
+        double[] keys = new double[8];
+        int top = 0;
+        stack[top++] = 0;
+
+        // The found points form a max-heap by distance until sorted at the end
+        int found = 0;
+        double limit = meters;
+        while (top > 0) {
+            int node = stack[--top] * NODE;
+            if (!window.intersects(nodes, node)) {
+                continue;
+            }
+            int children = nodes[node + CHILDREN];
+            if (children > 0) {
+                // Pushes the children by descending distance estimate, so that the closest one is visited first
+                int first = nodes[node + FIRST];
+                for (int c = 0; c < children; c++) {
+                    double key = estimate(ndsLon, ndsLat, cosPhi, (first + c) * NODE);
+                    int pos = c;
+                    while (pos > 0 && keys[pos - 1] < key) {
+                        keys[pos] = keys[pos - 1];
+                        stack[top + pos] = stack[top + pos - 1];
+                        pos--;
+                    }
+                    keys[pos] = key;
+                    stack[top + pos] = first + c;
+                }
+                top += children;
+                continue;
+            }
+            for (int i = nodes[node + FROM]; i < nodes[node + TO]; i++) {
+                int lat = MortonCodec.decodeLat(codes[i]);
+                int lon = MortonCodec.decodeLon(codes[i]);
+                if (!window.contains(lon, lat)) {
+                    continue;
+                }
+                double d = NDSDistance.haversine(phi, cosPhi, ndsLon, lat * NDSDistance.RADIANS, lon);
+                if (d <= limit) {
+                    if (found < k) {
+                        siftUp(ids, distances, found++, this.ids[i], d);
+                    } else if (d < distances[0]) {
+                        siftDown(ids, distances, found, this.ids[i], d);
+                    }
+                }
+            }
+            if (found == k && distances[0] < limit) {
+                limit = distances[0];
+                window = new Window(ndsLon, ndsLat, cosPhi, limit);
+            }
+        }
+
+        // Sorts the heap ascending
+        for (int n = found - 1; n > 0; n--) {
+            int id = ids[0];
+            double d = distances[0];
+            siftDown(ids, distances, n, ids[n], distances[n]);
+            ids[n] = id;
+            distances[n] = d;
+        }
+        return found;
+    }
+
+    @Override
+    public String toString() {
+        return "NDSPointIndex(size=" + codes.length + ", nodes=" + nodes.length / NODE + ")";
+    }
+
+    private static void checkQuery(int ndsLat, double meters) {
+        if (ndsLat < NDSCoordinate.MIN_LATITUDE || ndsLat > NDSCoordinate.MAX_LATITUDE) {
+            throw new IllegalArgumentException("Latitude value " + ndsLat + " exceeds allowed range [" + NDSCoordinate.MIN_LATITUDE + ","
+                            + NDSCoordinate.MAX_LATITUDE + "].");
+        }
+        if (!(meters >= 0)) {
+            throw new IllegalArgumentException("The radius must not be negative, got " + meters);
+        }
+    }
+
+    /*
+     * Builds the compressed quadtree breadth first, so that the children of each node are adjacent. Node 0 is the root
+     * covering the world, with the non-empty level 1 tiles as children.
+     */
+    private int[] build() {
+        int[] res = new int[NODE * Math.max(16, codes.length / 4)];
+        int[] shifts = new int[res.length / NODE];
+        res[TO] = codes.length;
+        res[NORTH] = NDSCoordinate.MAX_LATITUDE;
+        res[EAST] = NDSCoordinate.MAX_LONGITUDE;
+        res[SOUTH] = NDSCoordinate.MIN_LATITUDE;
+        res[WEST] = NDSCoordinate.MIN_LONGITUDE;
+        shifts[0] = ROOT_SHIFT + 2;
+        int count = 1;
+        for (int node = 0; node < count; node++) {
+            int from = res[node * NODE + FROM];
+            int to = res[node * NODE + TO];
+            int shift = shifts[node];
+            if (to - from <= LEAF_SIZE || shift == 0) {
+                continue;
+            }
+            // The root splits into the 8 level 1 tiles, any other tile into its 4 children
+            int childShift = shift - 2;
+            int split = node == 0 ? 8 : 4;
+            long prefix = node == 0 ? 0 : codes[from] >>> shift << 2;
+            res[node * NODE + FIRST] = count;
+            for (int c = 0; c < split; c++) {
+                int end = c == split - 1 ? to : lowerBound(from, to, prefix + c + 1 << childShift);
+                if (from < end) {
+                    if ((count + 1) * NODE > res.length) {
+                        res = Arrays.copyOf(res, 2 * res.length);
+                        shifts = Arrays.copyOf(shifts, 2 * shifts.length);
+                    }
+                    int s = Math.min(childShift, commonShift(from, end));
+                    long min = codes[from] >>> s << s;
+                    long max = min | (1L << s) - 1;
+                    int child = count++ * NODE;
+                    res[child + FROM] = from;
+                    res[child + TO] = end;
+                    res[child + NORTH] = MortonCodec.decodeLat(max);
+                    res[child + EAST] = MortonCodec.decodeLon(max);
+                    res[child + SOUTH] = MortonCodec.decodeLat(min);
+                    res[child + WEST] = MortonCodec.decodeLon(min);
+                    shifts[child / NODE] = s;
+                    res[node * NODE + CHILDREN]++;
+                }
+                from = end;
+            }
+        }
+        return Arrays.copyOf(res, count * NODE);
+    }
+
+    /*
+     * The shift of the smallest quadtree tile containing the non-empty range of points [from, to)
+     */
+    private int commonShift(int from, int to) {
+        int bits = 64 - Long.numberOfLeadingZeros(codes[from] ^ codes[to - 1]);
+        return bits + 1 & ~1;
+    }
+
+    /*
+     * The first index within [from, to) with a morton code of at least the given one
+     */
+    private int lowerBound(int from, int to, long code) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = lo + hi >>> 1;
+            if (codes[mid] < code) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /*
+     * Inserts into the max-heap of the found points with the given size
+     */
+    private static void siftUp(int[] ids, double[] distances, int pos, int id, double d) {
+        while (pos > 0) {
+            int parent = pos - 1 >>> 1;
+            if (distances[parent] >= d) {
+                break;
+            }
+            ids[pos] = ids[parent];
+            distances[pos] = distances[parent];
+            pos = parent;
+        }
+        ids[pos] = id;
+        distances[pos] = d;
+    }
+
+    /*
+     * Replaces the root of the max-heap of the found points with the given size
+     */
+    private static void siftDown(int[] ids, double[] distances, int size, int id, double d) {
+        int pos = 0;
+        for (int child = 1; child < size; child = 2 * pos + 1) {
+            if (child + 1 < size && distances[child + 1] > distances[child]) {
+                child++;
+            }
+            if (distances[child] <= d) {
+                break;
+            }
+            ids[pos] = ids[child];
+            distances[pos] = distances[child];
+            pos = child;
+        }
+        ids[pos] = id;
+        distances[pos] = d;
+    }
+
+    /*
+     * A distance estimate of a node for the visiting order: the squared planar distance to its bounding box in NDS
+     * units, with the longitude difference scaled to the latitude of the query point
+     */
+    private double estimate(int ndsLon, int ndsLat, double cosPhi, int node) {
+        double dLat = Math.max(0, Math.max((long) nodes[node + SOUTH] - ndsLat, (long) ndsLat - nodes[node + NORTH]));
+        int west = nodes[node + WEST];
+        long width = nodes[node + EAST] - west & 0xFFFFFFFFL;
+        long offset = ndsLon - west & 0xFFFFFFFFL;
+        double dLon = offset <= width ? 0 : Math.min(offset - width, (1L << 32) - offset) * cosPhi;
+        return dLon * dLon + dLat * dLat;
+    }
+
+    /**
+     * The bounding box of a search circle, with the longitudes as unsigned width east of the west longitude, which
+     * allows the circle to cross the antimeridian.
+     */
+    private static final class Window {
+        final double south;
+        final double north;
+        final int west;
+        final long width;
+
+        Window(int ndsLon, int ndsLat, double cosPhi, double meters) {
+            double angle = meters / NDSDistance.EARTH_RADIUS;
+            double dLat = angle / NDSDistance.RADIANS + 1;
+            south = ndsLat - dLat;
+            north = ndsLat + dLat;
+            if (south > NDSCoordinate.MIN_LATITUDE && north < NDSCoordinate.MAX_LATITUDE && Math.sin(angle) < cosPhi) {
+                // The meridians tangent to the circle, which does not contain a pole
+                double dLon = Math.asin(Math.sin(angle) / cosPhi) / NDSDistance.RADIANS + 1;
+                west = ndsLon - (int) dLon;
+                width = 2 * (long) dLon;
+            } else {
+                west = NDSCoordinate.MIN_LONGITUDE;
+                width = 0xFFFFFFFFL;
+            }
+        }
+
+        boolean contains(int lon, int lat) {
+            return lat >= south && lat <= north && (lon - west & 0xFFFFFFFFL) <= width;
+        }
+
+        boolean intersects(int[] nodes, int node) {
+            if (nodes[node + SOUTH] > north || nodes[node + NORTH] < south) {
+                return false;
+            }
+            // The intersection of longitude intervals on the circle
+            int nodeWest = nodes[node + WEST];
+            return (nodeWest - west & 0xFFFFFFFFL) <= width || (west - nodeWest & 0xFFFFFFFFL) <= (nodes[node + EAST] - nodeWest & 0xFFFFFFFFL);
+        }
+    }
+}
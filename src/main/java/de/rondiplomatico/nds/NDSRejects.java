@@ -0,0 +1,85 @@
+package de.rondiplomatico.nds;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the inputs rejected by the validating batch conversions of {@link NDSBatch}, per reason.
+ *
+ * An instance accumulates over any number of batches, e.g. for the whole of a GPS feed, and may be shared between
+ * threads. Each rejected input counts for exactly one reason, the first one in the order of {@link Reason}.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSRejects {
+
+    /**
+     * The reasons for rejecting an input.
+     */
+    public enum Reason {
+        /**
+         * The longitude or latitude is NaN
+         */
+        NOT_A_NUMBER,
+        /**
+         * The longitude exceeds [-180, 180]
+         */
+        LONGITUDE_RANGE,
+        /**
+         * The latitude exceeds [-90, 90], or the NDS latitude exceeds the 31 bit range
+         */
+        LATITUDE_RANGE
+    }
+
+    private static final Reason[] REASONS = Reason.values();
+
+    private final AtomicLongArray counts = new AtomicLongArray(REASONS.length);
+
+    /**
+     * @param reason
+     * @return the number of inputs rejected for the reason
+     */
+    public long getCount(Reason reason) {
+        return counts.get(reason.ordinal());
+    }
+
+    /**
+     * @return the number of rejected inputs
+     */
+    public long getTotal() {
+        long total = 0;
+        for (int i = 0; i < REASONS.length; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Adds to the number of inputs rejected for a reason.
+     *
+     * @param reason
+     * @param count
+     */
+    public void add(Reason reason, long count) {
+        if (count != 0) {
+            counts.addAndGet(reason.ordinal(), count);
+        }
+    }
+
+    /**
+     * Resets all counts to zero.
+     */
+    public void reset() {
+        for (int i = 0; i < REASONS.length; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("NDSRejects(");
+        for (int i = 0; i < REASONS.length; i++) {
+            sb.append(i > 0 ? ", " : "").append(REASONS[i]).append('=').append(counts.get(i));
+        }
+        return sb.append(')').toString();
+    }
+}
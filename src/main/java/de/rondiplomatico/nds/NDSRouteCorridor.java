@@ -0,0 +1,370 @@
+package de.rondiplomatico.nds;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * The tiles of a level within a given width of a route, kept up to date incrementally as a vehicle advances along the
+ * route and reroutes.
+ *
+ * The route is a polyline of NDS coordinates, whose segments are straight lines in NDS coordinates not crossing the
+ * antimeridian. The corridor covers a window of segments: the segment of the current progress and the following
+ * segments starting within the look-ahead distance. Each segment contributes the tiles within the width of it, which
+ * are found by testing the tiles of its bounding box, extended by the width, against the segment in a local planar
+ * projection. The projection uses the scale of the latitude furthest from the equator, so no tile within the width is
+ * missed, while long segments far from the equator may add tiles slightly beyond the width.
+ *
+ * The number of window segments covering each tile is counted in a primitive hash map. Advancing adds the segments
+ * entering the window and removes the segments leaving it, and reports the tiles whose count changes from or to zero.
+ * Hence, the work of an update is proportional to the segments passed and entering the window, independent of the
+ * length of the route. The tiles entering are reported before the tiles leaving, and no tile is reported both ways by
+ * the same update.
+ *
+ * Instances are not thread-safe.
+ *
+ * <pre>
+ * NDSRouteCorridor corridor = new NDSRouteCorridor(13, 200, 5000);
+ * corridor.route(ndsLon, ndsLat, 0, n, (packedId, entered) -&gt; ...);
+ * corridor.advance(progress, (packedId, entered) -&gt; ...);
+ * </pre>
+ *
+ * @since 15.10.2026
+ */
+public final class NDSRouteCorridor {
+
+    /**
+     * Receives the tiles entering and leaving the corridor.
+     */
+    @FunctionalInterface
+    public interface ChangeConsumer {
+
+        /**
+         * @param packedId
+         *                     the packed Tile ID
+         * @param entered
+         *                     true if the tile entered the corridor, false if it left
+         */
+        void accept(int packedId, boolean entered);
+    }
+
+    /*
+     * The meters per NDS unit along a meridian
+     */
+    private static final double METERS = NDSDistance.RADIANS * NDSDistance.EARTH_RADIUS;
+
+    /*
+     * The smallest scale of longitudes, close to the poles
+     */
+    private static final double MIN_COS = 1e-6;
+
+    private static final int[] EMPTY = new int[0];
+
+    private final int level;
+    private final double width;
+    private final double ahead;
+    private final long extent;
+    private final IntIntMap counts = new IntIntMap();
+
+    private int[] lon = EMPTY;
+    private int[] lat = EMPTY;
+    private double[] lengths = new double[0];
+    private int segments;
+    private int progress;
+    private int end;
+    private double windowLength;
+
+    /**
+     * Creates an empty corridor.
+     *
+     * @param level
+     *                     the tile level, within 0..15
+     * @param width
+     *                     the width in meters on either side of the route, at least 0
+     * @param ahead
+     *                     the look-ahead distance in meters, greater than 0. {@link Double#POSITIVE_INFINITY} covers the
+     *                     whole remaining route, so tiles enter on reroutes only.
+     */
+    public NDSRouteCorridor(int level, double width, double ahead) {
+        NDSTiles.checkLevel(level);
+        if (!(width >= 0) || width == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("The corridor width " + width + " must be a finite, non-negative number of meters.");
+        }
+        if (!(ahead > 0)) {
+            throw new IllegalArgumentException("The look-ahead distance " + ahead + " must be greater than 0 meters.");
+        }
+        this.level = level;
+        this.width = width;
+        this.ahead = ahead;
+        extent = (long) Math.ceil(width / METERS);
+    }
+
+    /**
+     * Sets a new route, with the progress at its first segment. The previous route's tiles not covered by the new one
+     * leave the corridor.
+     *
+     * @param ndsLon
+     *                     the NDS longitudes of the route
+     * @param ndsLat
+     *                     the NDS latitudes of the route
+     * @param offset
+     *                     the index of the first coordinate
+     * @param length
+     *                     the number of coordinates, at least 2
+     * @param changes
+     *                     receives the tiles entering and leaving the corridor
+     */
+    public void route(int[] ndsLon, int[] ndsLat, int offset, int length, ChangeConsumer changes) {
+        NDSBatch.checkRange(ndsLon.length, offset, length);
+        NDSBatch.checkRange(ndsLat.length, offset, length);
+        if (length < 2) {
+            throw new IllegalArgumentException("A route needs at least 2 coordinates, but has " + length + ".");
+        }
+        for (int i = offset; i < offset + length; i++) {
+            NDSTiles.checkLatitude(ndsLat[i]);
+        }
+        int[] oldLon = lon;
+        int[] oldLat = lat;
+        int oldProgress = progress;
+        int oldEnd = end;
+
+        lon = Arrays.copyOfRange(ndsLon, offset, offset + length);
+        lat = Arrays.copyOfRange(ndsLat, offset, offset + length);
+        lengths = new double[length - 1];
+        segments = length - 1;
+        progress = 0;
+        end = 0;
+        windowLength = 0;
+        extend(changes);
+        for (int s = oldProgress; s < oldEnd; s++) {
+            update(oldLon, oldLat, s, false, changes);
+        }
+    }
+
+    /**
+     * Moves the progress forward along the route.
+     *
+     * @param progress
+     *                     the index of the segment the vehicle is on, i.e. of its start coordinate relative to the
+     *                     route's offset, within the current progress and the number of segments. The number of
+     *                     segments marks the end of the route, where the corridor is empty.
+     * @param changes
+     *                     receives the tiles entering and leaving the corridor
+     */
+    public void advance(int progress, ChangeConsumer changes) {
+        if (progress < this.progress || progress > segments) {
+            throw new IllegalArgumentException(
+                            "The progress " + progress + " is not within the current progress " + this.progress + " and the number of segments " + segments + ".");
+        }
+        int oldProgress = this.progress;
+        int passed = Math.min(progress, end);
+        for (int s = oldProgress; s < passed; s++) {
+            windowLength -= lengths[s];
+        }
+        this.progress = progress;
+        if (progress >= end) {
+            // The window starts over, which also drops any rounding errors of the length
+            end = progress;
+            windowLength = 0;
+        }
+        extend(changes);
+        for (int s = oldProgress; s < passed; s++) {
+            update(lon, lat, s, false, changes);
+        }
+    }
+
+    /**
+     * @return the tile level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * @return the width in meters on either side of the route
+     */
+    public double getWidth() {
+        return width;
+    }
+
+    /**
+     * @return the look-ahead distance in meters
+     */
+    public double getAhead() {
+        return ahead;
+    }
+
+    /**
+     * @return the index of the segment the vehicle is on
+     */
+    public int getProgress() {
+        return progress;
+    }
+
+    /**
+     * @return the index after the last segment of the window
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * @return the number of segments of the route
+     */
+    public int getSegments() {
+        return segments;
+    }
+
+    /**
+     * @return the number of tiles within the corridor
+     */
+    public int size() {
+        return counts.size();
+    }
+
+    /**
+     * @param packedId
+     *                     a packed Tile ID
+     * @return true if the tile is within the corridor
+     */
+    public boolean contains(int packedId) {
+        return counts.containsKey(packedId);
+    }
+
+    /**
+     * Passes the packed Tile IDs of the corridor in no particular order.
+     *
+     * @param action
+     *                   receives the packed Tile IDs
+     */
+    public void forEach(IntConsumer action) {
+        counts.forEachKey(action);
+    }
+
+    /**
+     * @return the sorted packed Tile IDs of the corridor
+     */
+    public int[] toArray() {
+        int[] res = new int[counts.size()];
+        int[] n = { 0 };
+        counts.forEachKey(id -> res[n[0]++] = id);
+        Arrays.sort(res);
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return "NDSRouteCorridor(level=" + level + ", width=" + width + ", ahead=" + ahead + ", progress=" + progress + ", end=" + end + ", segments="
+                        + segments + ", tiles=" + counts.size() + ")";
+    }
+
+    /*
+     * Adds the segments starting within the look-ahead distance to the window
+     */
+    private void extend(ChangeConsumer changes) {
+        while (end < segments && windowLength < ahead) {
+            double len = NDSDistance.haversine(lon[end], lat[end], lon[end + 1], lat[end + 1]);
+            lengths[end] = len;
+            windowLength += len;
+            update(lon, lat, end++, true, changes);
+        }
+    }
+
+    /*
+     * Increments or decrements the counts of the tiles within the width of a segment
+     */
+    private void update(int[] lons, int[] lats, int segment, boolean add, ChangeConsumer changes) {
+        long lon1 = lons[segment];
+        long lat1 = lats[segment];
+        long lon2 = lons[segment + 1];
+        long lat2 = lats[segment + 1];
+        long south = Math.max(NDSCoordinate.MIN_LATITUDE, Math.min(lat1, lat2) - extent);
+        long north = Math.min(NDSCoordinate.MAX_LATITUDE, Math.max(lat1, lat2) + extent);
+        double cos = Math.max(MIN_COS, Math.cos(Math.max(-south, north) * NDSDistance.RADIANS));
+        long lonExtent = (long) Math.min(1L << 32, Math.ceil(extent / cos));
+        long west = Math.max(NDSCoordinate.MIN_LONGITUDE, Math.min(lon1, lon2) - lonExtent);
+        long east = Math.min(NDSCoordinate.MAX_LONGITUDE, Math.max(lon1, lon2) + lonExtent);
+
+        // The tiles of the extended bounding box, in meters relative to the segment start
+        int shift = 31 - level;
+        long size = 1L << shift;
+        long column = west >> shift;
+        long columns = (east >> shift) - column;
+        long row = south >> shift;
+        long rows = (north >> shift) - row;
+        int base = NDSTiles.packedId(level, (int) west, (int) south);
+        double kx = METERS * cos;
+        double bx = (lon2 - lon1) * kx;
+        double by = (lat2 - lat1) * METERS;
+        for (int dy = 0; dy <= rows; dy++) {
+            double y0 = (((row + dy) << shift) - lat1) * METERS;
+            double y1 = y0 + size * METERS;
+            for (int dx = 0; dx <= columns; dx++) {
+                double x0 = (((column + dx) << shift) - lon1) * kx;
+                double x1 = x0 + size * kx;
+                if (distance(bx, by, x0, y0, x1, y1) <= width) {
+                    int id = NDSTiles.neighbour(base, dx, dy);
+                    if (add) {
+                        if (counts.addAndGet(id, 1) == 1) {
+                            changes.accept(id, true);
+                        }
+                    } else if (counts.addAndGet(id, -1) == 0) {
+                        counts.remove(id);
+                        changes.accept(id, false);
+                    }
+                }
+            }
+        }
+    }
+
+    /*
+     * The planar distance from the segment from the origin to (bx, by) to a rectangle
+     */
+    static double distance(double bx, double by, double x0, double y0, double x1, double y1) {
+        if (intersects(bx, by, x0, y0, x1, y1)) {
+            return 0;
+        }
+        // Otherwise, the closest points are an end point of the segment or a corner of the rectangle
+        double d = Math.min(pointToRect(0, 0, x0, y0, x1, y1), pointToRect(bx, by, x0, y0, x1, y1));
+        d = Math.min(d, Math.min(pointToSegment(x0, y0, bx, by), pointToSegment(x1, y0, bx, by)));
+        return Math.min(d, Math.min(pointToSegment(x0, y1, bx, by), pointToSegment(x1, y1, bx, by)));
+    }
+
+    /*
+     * Clips the segment to the slabs of the rectangle, in the parameter range [0, 1] of the segment
+     */
+    private static boolean intersects(double bx, double by, double x0, double y0, double x1, double y1) {
+        double t0 = 0;
+        double t1 = 1;
+        if (bx == 0) {
+            if (x0 > 0 || x1 < 0) {
+                return false;
+            }
+        } else {
+            t0 = Math.max(t0, Math.min(x0 / bx, x1 / bx));
+            t1 = Math.min(t1, Math.max(x0 / bx, x1 / bx));
+        }
+        if (by == 0) {
+            if (y0 > 0 || y1 < 0) {
+                return false;
+            }
+        } else {
+            t0 = Math.max(t0, Math.min(y0 / by, y1 / by));
+            t1 = Math.min(t1, Math.max(y0 / by, y1 / by));
+        }
+        return t0 <= t1;
+    }
+
+    private static double pointToRect(double x, double y, double x0, double y0, double x1, double y1) {
+        double dx = Math.max(0, Math.max(x0 - x, x - x1));
+        double dy = Math.max(0, Math.max(y0 - y, y - y1));
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static double pointToSegment(double x, double y, double bx, double by) {
+        double len = bx * bx + by * by;
+        double t = len == 0 ? 0 : Math.max(0, Math.min(1, (x * bx + y * by) / len));
+        double dx = x - t * bx;
+        double dy = y - t * by;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
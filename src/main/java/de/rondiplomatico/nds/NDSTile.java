@@ -8,6 +8,9 @@ import lombok.ToString;
  * Implementation of the NDS Tile scheme.
  * It follows the NDS Format Specification, Version 2.5.4, §7.3.1.
  * 
+ * Tiles are immutable and thread-safe. The center and bounding box are computed once on first access. For tiles
+ * requested repeatedly, {@link #of(int)} returns shared instances from a bounded cache (see {@link NDSTileCache}).
+ * 
  * No warranties for correctness, use at own risk.
  *
  * @author Daniel Wirtz
@@ -26,7 +29,7 @@ public class NDSTile {
     /*
      * The tile level
      */
-    private int level = -1;
+    private final int level;
 
     /*
      * The tile number.
@@ -34,12 +37,16 @@ public class NDSTile {
      * The tile number is identical to the (2*level+1) most-significant bits of
      * the Morton code of the south-west corner of the tile.
      */
-    private int tileNumber;
+    private final int tileNumber;
 
     /*
-     * Transient center coordinate
+     * Transient center coordinate and bounding box, computed on first access. Both are immutable, so racing threads
+     * compute equal instances and the volatile write publishes them safely.
      */
-    private transient NDSCoordinate center;
+    @ToString.Exclude
+    private transient volatile NDSCoordinate center;
+    @ToString.Exclude
+    private transient volatile NDSBBox bbox;
 
     /**
      * Creates a new {@link NDSTile} instance from a packed Tile id.
@@ -48,12 +55,29 @@ public class NDSTile {
      * @see NDSSpecification 2.5.4: 7.3.3 Generating Packed Tile IDs
      */
     public NDSTile(int packedId) {
-        level = extractLevel(packedId);
-        if (level < 0) {
+        int lvl = NDSTiles.levelOf(packedId);
+        if (lvl < 0) {
             throw new IllegalArgumentException("Invalid packed Tile ID " + packedId + ": No Level bit present.");
         }
-        int level_bit = 1 << (16 + level);
+        int level_bit = 1 << (16 + lvl);
+        level = lvl;
         tileNumber = packedId ^ level_bit;
+        NDSMetrics.count(NDSMetrics.Counter.TILES);
+    }
+
+    /**
+     * Returns the {@link NDSTile} instance for a packed Tile ID from the shared tile cache.
+     *
+     * Use this instead of the constructor for tiles that are requested repeatedly, as the cached instances also
+     * memoize their center and bounding box.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID
+     * @return the tile, possibly shared with other callers
+     * @see NDSTileCache#shared()
+     */
+    public static NDSTile of(int packedId) {
+        return NDSTileCache.shared().get(packedId);
     }
 
     /**
@@ -79,6 +103,7 @@ public class NDSTile {
                             + " are allowed");
         }
         this.tileNumber = nr;
+        NDSMetrics.count(NDSMetrics.Counter.TILES);
     }
 
     /**
@@ -142,18 +167,12 @@ public class NDSTile {
      * @return NDSCoordinate The center of this tile
      */
     public NDSCoordinate getCenter() {
-        if (center == null) {
-            if (level == 0) {
-                return tileNumber == 0 ? new NDSCoordinate(NDSCoordinate.MAX_LONGITUDE / 2, 0)
-                                : new NDSCoordinate(NDSCoordinate.MIN_LONGITUDE / 2, 0);
-            }
-            NDSCoordinate sw = new NDSCoordinate(southWestAsMorton());
-            // Same computation as for bounding box, but for the next lower level
-            int clat = (int) (sw.latitude + Math.floor(NDSCoordinate.LATITUDE_RANGE / (1L << level + 1))) + (sw.latitude < 0 ? 1 : 0);
-            int clon = (int) (sw.longitude + Math.floor(NDSCoordinate.LONGITUDE_RANGE / (1L << level + 2))) + (sw.longitude < 0 ? 1 : 0);
-            center = new NDSCoordinate(clon, clat);
+        NDSCoordinate c = center;
+        if (c == null) {
+            c = new NDSCoordinate(NDSTiles.centerLongitude(level, tileNumber), NDSTiles.centerLatitude(level, tileNumber));
+            center = c;
         }
-        return center;
+        return c;
     }
 
     /**
@@ -164,17 +183,20 @@ public class NDSTile {
      * @return
      */
     public NDSBBox getBBox() {
-        /*
-         * For level 0 there are two tiles.
-         */
-        if (level == 0) {
-            return tileNumber == 0 ? NDSBBox.EAST_HEMISPHERE : NDSBBox.WEST_HEMISPHERE;
+        NDSBBox b = bbox;
+        if (b == null) {
+            /*
+             * For level 0 there are two tiles.
+             */
+            if (level == 0) {
+                b = tileNumber == 0 ? NDSBBox.EAST_HEMISPHERE : NDSBBox.WEST_HEMISPHERE;
+            } else {
+                b = new NDSBBox(NDSTiles.north(level, tileNumber), NDSTiles.east(level, tileNumber), NDSTiles.south(level, tileNumber),
+                                NDSTiles.west(level, tileNumber));
+            }
+            bbox = b;
         }
-        long southWestCornerMorton = southWestAsMorton();
-        NDSCoordinate sw = new NDSCoordinate(southWestCornerMorton);
-        int north = (int) (sw.latitude + Math.floor(NDSCoordinate.LATITUDE_RANGE / (1L << level))) + (sw.latitude < 0 ? 1 : 0);
-        int east = (int) (sw.longitude + Math.floor(NDSCoordinate.LONGITUDE_RANGE / (1L << level + 1))) + (sw.longitude < 0 ? 1 : 0);
-        return new NDSBBox(north, east, sw.latitude, sw.longitude);
+        return b;
     }
 
     /**
@@ -183,24 +205,6 @@ public class NDSTile {
      * @return String
      */
     public String toGeoJSON() {
-        return getBBox().toWGS84().toGeoJSON();
-    }
-
-    private long southWestAsMorton() {
-        int shift = 32 + (MAX_LEVEL - level) * 2;
-        return (long) tileNumber << shift;
-    }
-
-    private int extractLevel(int packedId) {
-        for (int lvl = MAX_LEVEL; lvl > -1; lvl--) {
-            int lvl_bit = 1 << 16 + lvl;
-            if ((packedId & lvl_bit) > 0) {
-                return lvl;
-            }
-            // The 32nd bit can not be checked by java's native integer, as the sign bit is hidden
-            if (packedId < 0 && lvl == MAX_LEVEL)
-                return MAX_LEVEL;
-        }
-        return -1;
+        return GeoJsonWriter.toGeoJSON(w -> w.tile(packedId()));
     }
 }
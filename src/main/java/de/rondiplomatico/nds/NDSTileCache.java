@@ -0,0 +1,143 @@
+package de.rondiplomatico.nds;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of {@link NDSTile} instances by packed Tile ID.
+ *
+ * The cache is two-way set associative: each packed Tile ID hashes to a pair of slots. A miss stores the new tile in the
+ * first slot and moves the previous tile to the second one, evicting the least recently inserted tile of the pair.
+ * Lookups and replacements are plain reads and writes of an {@link AtomicReferenceArray}, so the cache is lock-free and
+ * never blocks readers. Two threads missing the same tile concurrently may both create it, or lose a tile of the pair
+ * when racing on it; as tiles are immutable, all instances are equal and safe to use. Cached tiles memoize
+ * their center and bounding box, so repeated lookups do not allocate.
+ *
+ * The hit and miss counters are {@link LongAdder}s to avoid contention on a shared counter.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSTileCache {
+
+    /**
+     * The capacity of the shared cache
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 14;
+
+    private static final NDSTileCache SHARED = new NDSTileCache(DEFAULT_CAPACITY);
+
+    private final AtomicReferenceArray<NDSTile> slots;
+    private final int shift;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param capacity
+     *                     The maximum number of cached tiles, rounded up to a power of two. Must be in range 2..2^30.
+     */
+    public NDSTileCache(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("The capacity " + capacity + " exceeds the range [2, 2^30].");
+        }
+        int bits = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+        slots = new AtomicReferenceArray<>(1 << bits);
+        shift = 32 - bits;
+    }
+
+    /**
+     * @return the cache used by {@link NDSTile#of(int)}
+     */
+    public static NDSTileCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the tile for a packed Tile ID, creating and caching it on a miss.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID
+     * @return the tile
+     * @throws IllegalArgumentException
+     *                                      if the packed Tile ID is invalid
+     */
+    public NDSTile get(int packedId) {
+        int slot = slot(packedId);
+        NDSTile first = slots.get(slot);
+        if (first != null && first.packedId() == packedId) {
+            hits.increment();
+            NDSMetrics.count(NDSMetrics.Counter.TILE_CACHE_HITS);
+            return first;
+        }
+        NDSTile second = slots.get(slot + 1);
+        if (second != null && second.packedId() == packedId) {
+            hits.increment();
+            NDSMetrics.count(NDSMetrics.Counter.TILE_CACHE_HITS);
+            return second;
+        }
+        NDSTile tile = new NDSTile(packedId);
+        // The final fields of the tiles make them safely published without a full volatile write
+        if (first != null) {
+            slots.lazySet(slot + 1, first);
+        }
+        slots.lazySet(slot, tile);
+        misses.increment();
+        NDSMetrics.count(NDSMetrics.Counter.TILE_CACHE_MISSES);
+        return tile;
+    }
+
+    /**
+     * @return the number of slots, i.e. the maximum number of cached tiles
+     */
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return the number of lookups answered from the cache since creation or the last {@link #clear()}
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that created a tile since creation or the last {@link #clear()}
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the ratio of hits to all lookups, 0 if there has been no lookup
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * Removes all cached tiles and resets the statistics. Concurrent lookups may still insert tiles and count.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+        hits.reset();
+        misses.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "NDSTileCache(capacity=" + getCapacity() + ", hits=" + getHits() + ", misses=" + getMisses() + ")";
+    }
+
+    /*
+     * The first slot of the pair of a packed Tile ID. Fibonacci hashing spreads the packed Tile IDs of neighbouring
+     * tiles, which differ in the low bits only.
+     */
+    private int slot(int packedId) {
+        return (packedId * 0x9E3779B9) >>> shift & ~1;
+    }
+}
@@ -0,0 +1,460 @@
+package de.rondiplomatico.nds;
+
+import java.util.Comparator;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Computes the tiles of a level covering a bounding box.
+ *
+ * A tile covers a bounding box if it contains at least one coordinate of the bounding box, i.e. if
+ * {@link NDSTile#contains(NDSCoordinate)} holds for some coordinate within the bounding box (boundaries included).
+ * Note that for tiles west of the prime meridian or south of the equator, {@link NDSTile#getBBox()} includes the
+ * western/southern boundary of the neighbouring tile; the same goes for {@link NDSBBox#WEST_HEMISPHERE}.
+ * Hence the cover of such a tile's bounding box also contains those neighbours.
+ *
+ * The packed Tile IDs are enumerated lazily in ascending tile number (= morton) order, using BIGMIN jumps over the
+ * parts of the morton curve outside of the bounding box. The memory consumption is constant, and the spliterator
+ * splits along the quadtree with exact sizes for parallel streams.
+ *
+ * Bounding boxes with west &gt; east are considered to cross the antimeridian at 180 degrees longitude.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSTileCover {
+
+    private static final long EVEN_BITS = 0x5555555555555555L;
+    private static final long ODD_BITS = 0xAAAAAAAAAAAAAAAAL;
+
+    /*
+     * Marker for "no further tile"
+     */
+    private static final long NONE = Long.MAX_VALUE;
+
+    private NDSTileCover() {
+        // Static methods only
+    }
+
+    /**
+     * Returns a sequential stream of the packed Tile IDs of all tiles of a level covering a bounding box.
+     *
+     * @param bbox
+     * @param level
+     *                  Must be in range 0..15
+     * @return IntStream
+     */
+    public static IntStream stream(NDSBBox bbox, int level) {
+        return StreamSupport.intStream(spliterator(bbox, level), false);
+    }
+
+    /**
+     * Returns a sequential stream of the packed Tile IDs of all tiles of a level covering a WGS84 bounding box.
+     *
+     * @param bbox
+     * @param level
+     *                  Must be in range 0..15
+     * @return IntStream
+     */
+    public static IntStream stream(WGS84BBox bbox, int level) {
+        return stream(toNDS(bbox), level);
+    }
+
+    /**
+     * Returns an iterator over the packed Tile IDs of all tiles of a level covering a bounding box.
+     *
+     * @param bbox
+     * @param level
+     *                  Must be in range 0..15
+     * @return PrimitiveIterator.OfInt
+     */
+    public static PrimitiveIterator.OfInt iterator(NDSBBox bbox, int level) {
+        return Spliterators.iterator(spliterator(bbox, level));
+    }
+
+    /**
+     * Passes the packed Tile IDs of all tiles of a level covering a bounding box to the specified action.
+     *
+     * @param bbox
+     * @param level
+     *                   Must be in range 0..15
+     * @param action
+     */
+    public static void forEach(NDSBBox bbox, int level, IntConsumer action) {
+        Spliterator.OfInt tiles = spliterator(bbox, level);
+        NDSMetrics.Timer timer = NDSMetrics.start(NDSMetrics.Operation.COVER);
+        long size = timer == null ? 0 : tiles.estimateSize();
+        tiles.forEachRemaining(action);
+        NDSMetrics.stop(timer, size);
+    }
+
+    /**
+     * Computes the number of tiles of a level covering a bounding box, without enumerating them.
+     *
+     * @param bbox
+     * @param level
+     *                  Must be in range 0..15
+     * @return long
+     */
+    public static long count(NDSBBox bbox, int level) {
+        return spliterator(bbox, level).estimateSize();
+    }
+
+    /**
+     * Creates a spliterator over the packed Tile IDs of all tiles of a level covering a bounding box.
+     *
+     * @param bbox
+     * @param level
+     *                  Must be in range 0..15
+     * @return Spliterator.OfInt
+     */
+    public static Spliterator.OfInt spliterator(NDSBBox bbox, int level) {
+        NDSTiles.checkLevel(level);
+        return new CoverSpliterator(level, rectangles(bbox, 31 - level), 0, (1L << 2 * level + 1) - 1);
+    }
+
+    /**
+     * Maps a bounding box to disjoint rectangles in the unsigned column/row space of the morton codes of the given
+     * resolution.
+     *
+     * The columns (rows) are the longitudes (latitudes) shifted right by the given amount, in their unsigned 32-shift
+     * (31-shift) bit two's complement representation. This splits the signed ranges at zero (and the antimeridian), so
+     * that the bounding box becomes up to eight rectangles.
+     *
+     * @param bbox
+     * @param shift
+     *                  31-level for tile numbers, 0 for the morton codes of coordinates
+     * @return the rectangles as sequence of [xmin, xmax, ymin, ymax], sorted by xmin and ymin
+     */
+    static long[] rectangles(NDSBBox bbox, int shift) {
+        if (bbox.getSouth() > bbox.getNorth()) {
+            throw new IllegalArgumentException("The southern boundary of " + bbox + " exceeds the northern boundary.");
+        }
+        NDSTiles.checkLatitude(bbox.getNorth());
+        NDSTiles.checkLatitude(bbox.getSouth());
+
+        int xbits = 32 - shift;
+        long[] xs = new long[8];
+        int nx;
+        long xw = bbox.getWest() >> shift;
+        long xe = bbox.getEast() >> shift;
+        if (bbox.getWest() <= bbox.getEast()) {
+            nx = unsigned(xw, xe, xbits, xs, 0);
+        } else {
+            nx = unsigned(xw, (1L << xbits - 1) - 1, xbits, xs, 0);
+            nx = unsigned(-(1L << xbits - 1), xe, xbits, xs, nx);
+        }
+        long[] ys = new long[4];
+        int ny = unsigned(bbox.getSouth() >> shift, bbox.getNorth() >> shift, xbits - 1, ys, 0);
+        nx = merge(xs, nx);
+        ny = merge(ys, ny);
+
+        long[] rects = new long[4 * nx * ny];
+        for (int i = 0; i < nx; i++) {
+            for (int j = 0; j < ny; j++) {
+                int r = 4 * (i * ny + j);
+                rects[r] = xs[2 * i];
+                rects[r + 1] = xs[2 * i + 1];
+                rects[r + 2] = ys[2 * j];
+                rects[r + 3] = ys[2 * j + 1];
+            }
+        }
+        return rects;
+    }
+
+    static NDSBBox toNDS(WGS84BBox bbox) {
+        return new NDSBBox(NDSCoordinate.fromWGS84Latitude(bbox.getNorth()), NDSCoordinate.fromWGS84Longitude(bbox.getEast()),
+                        NDSCoordinate.fromWGS84Latitude(bbox.getSouth()), NDSCoordinate.fromWGS84Longitude(bbox.getWest()));
+    }
+
+    /*
+     * Converts the signed interval [lo, hi] to one or two intervals of the unsigned bits-bit representation
+     */
+    private static int unsigned(long lo, long hi, int bits, long[] dest, int n) {
+        long mask = (1L << bits) - 1;
+        if (lo < 0 && hi >= 0) {
+            dest[2 * n] = 0;
+            dest[2 * n + 1] = hi & mask;
+            dest[2 * n + 2] = lo & mask;
+            dest[2 * n + 3] = mask;
+            return n + 2;
+        }
+        dest[2 * n] = lo & mask;
+        dest[2 * n + 1] = hi & mask;
+        return n + 1;
+    }
+
+    /*
+     * Sorts and merges overlapping or adjacent intervals in place, returns the new number of intervals
+     */
+    private static int merge(long[] iv, int n) {
+        for (int i = 1; i < n; i++) {
+            for (int j = i; j > 0 && iv[2 * j] < iv[2 * j - 2]; j--) {
+                swap(iv, 2 * j, 2 * j - 2);
+                swap(iv, 2 * j + 1, 2 * j - 1);
+            }
+        }
+        int m = 0;
+        for (int i = 1; i < n; i++) {
+            if (iv[2 * i] <= iv[2 * m + 1] + 1) {
+                iv[2 * m + 1] = Math.max(iv[2 * m + 1], iv[2 * i + 1]);
+            } else {
+                m++;
+                iv[2 * m] = iv[2 * i];
+                iv[2 * m + 1] = iv[2 * i + 1];
+            }
+        }
+        return n == 0 ? 0 : m + 1;
+    }
+
+    private static void swap(long[] a, int i, int j) {
+        long t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /**
+     * The BIGMIN algorithm by Tropf and Herzog: the smallest morton code &gt;= z within the rectangle spanned by the
+     * morton codes min/max. Even bits belong to the column, odd bits to the row.
+     *
+     * @param z
+     * @param min
+     * @param max
+     * @param topBit
+     *                   the most significant bit of the morton codes
+     * @return the smallest morton code &gt;= z within the rectangle, or Long.MAX_VALUE
+     */
+    static long bigmin(long z, long min, long max, int topBit) {
+        long bigmin = NONE;
+        for (int bit = topBit; bit >= 0; bit--) {
+            long m = 1L << bit;
+            int c = ((z & m) != 0 ? 4 : 0) | ((min & m) != 0 ? 2 : 0) | ((max & m) != 0 ? 1 : 0);
+            switch (c) {
+            case 0b001:
+                bigmin = load1000(min, bit);
+                max = load0111(max, bit);
+                break;
+            case 0b011:
+                return min;
+            case 0b100:
+                return bigmin;
+            case 0b101:
+                min = load1000(min, bit);
+                break;
+            default:
+                // 000 and 111: continue; 010 and 110 can not occur for min <= max
+                break;
+            }
+        }
+        return z;
+    }
+
+    /**
+     * The LITMAX counterpart of {@link #bigmin(long, long, long, int)}: the largest morton code &lt;= z within the
+     * rectangle spanned by the morton codes min/max.
+     *
+     * @param z
+     * @param min
+     * @param max
+     * @param topBit
+     *                   the most significant bit of the morton codes
+     * @return the largest morton code &lt;= z within the rectangle, or -1
+     */
+    static long litmax(long z, long min, long max, int topBit) {
+        long litmax = -1;
+        for (int bit = topBit; bit >= 0; bit--) {
+            long m = 1L << bit;
+            int c = ((z & m) != 0 ? 4 : 0) | ((min & m) != 0 ? 2 : 0) | ((max & m) != 0 ? 1 : 0);
+            switch (c) {
+            case 0b001:
+                max = load0111(max, bit);
+                break;
+            case 0b011:
+                return litmax;
+            case 0b100:
+                return max;
+            case 0b101:
+                litmax = load0111(max, bit);
+                min = load1000(min, bit);
+                break;
+            default:
+                // 000 and 111: continue; 010 and 110 can not occur for min <= max
+                break;
+            }
+        }
+        return z;
+    }
+
+    private static long load1000(long v, int bit) {
+        return (v | 1L << bit) & ~sameDimensionBelow(bit);
+    }
+
+    private static long load0111(long v, int bit) {
+        return v & ~(1L << bit) | sameDimensionBelow(bit);
+    }
+
+    private static long sameDimensionBelow(int bit) {
+        return ((bit & 1) == 0 ? EVEN_BITS : ODD_BITS) & (1L << bit) - 1;
+    }
+
+    /**
+     * Spliterator over the tile numbers [cur, end] within a set of disjoint rectangles in tile column/row space.
+     */
+    private static final class CoverSpliterator implements Spliterator.OfInt {
+
+        /*
+         * Below this size no further splits are made
+         */
+        private static final long MIN_SPLIT = 1024;
+
+        private final int levelBit;
+        private final int topBit;
+        /*
+         * The rectangles as sequence of [xmin, xmax, ymin, ymax] and their morton code corners
+         */
+        private final long[] rects;
+        private final long[] zmin;
+        private final long[] zmax;
+
+        private long cur;
+        private long end;
+
+        CoverSpliterator(int level, long[] rects, long cur, long end) {
+            this.levelBit = 1 << (16 + level);
+            this.topBit = 2 * level;
+            this.rects = rects;
+            this.cur = cur;
+            this.end = end;
+            int n = rects.length / 4;
+            zmin = new long[n];
+            zmax = new long[n];
+            for (int r = 0; r < n; r++) {
+                zmin[r] = MortonCodec.spread((int) rects[4 * r]) | MortonCodec.spread((int) rects[4 * r + 2]) << 1;
+                zmax[r] = MortonCodec.spread((int) rects[4 * r + 1]) | MortonCodec.spread((int) rects[4 * r + 3]) << 1;
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            long z = next(cur);
+            if (z > end) {
+                cur = end + 1;
+                return false;
+            }
+            cur = z + 1;
+            action.accept((int) z + levelBit);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            long z = next(cur);
+            long e = end;
+            while (z <= e) {
+                action.accept((int) z + levelBit);
+                z = next(z + 1);
+            }
+            cur = e + 1;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            while (countBetween(cur, end) >= MIN_SPLIT) {
+                /*
+                 * Splits at the quadtree node boundary given by the most significant bit in which cur and end differ
+                 */
+                int h = 63 - Long.numberOfLeadingZeros(cur ^ end);
+                long mid = end >>> h << h;
+                long left = countBetween(cur, mid - 1);
+                if (left == 0) {
+                    cur = mid;
+                } else if (left == countBetween(cur, end)) {
+                    end = mid - 1;
+                } else {
+                    CoverSpliterator prefix = new CoverSpliterator(topBit / 2, rects, cur, mid - 1);
+                    cur = mid;
+                    return prefix;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return countBetween(cur, end);
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SORTED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            // Natural order: the level bit addition preserves the order of the tile numbers, also for level 15
+            return null;
+        }
+
+        /*
+         * Returns the smallest tile number >= z within any of the rectangles, or NONE
+         */
+        private long next(long z) {
+            if (z > end) {
+                return NONE;
+            }
+            int x = MortonCodec.compact(z);
+            int y = MortonCodec.compact(z >>> 1);
+            for (int r = 0; r < rects.length; r += 4) {
+                if (rects[r] <= x && x <= rects[r + 1] && rects[r + 2] <= y && y <= rects[r + 3]) {
+                    return z;
+                }
+            }
+            long res = NONE;
+            for (int r = 0; r < zmin.length; r++) {
+                res = Math.min(res, bigmin(z, zmin[r], zmax[r], topBit));
+            }
+            return res;
+        }
+
+        /*
+         * Counts the tiles within the rectangles with tile number in [from, to]
+         */
+        private long countBetween(long from, long to) {
+            if (from > to) {
+                return 0;
+            }
+            long res = 0;
+            for (int r = 0; r < rects.length; r += 4) {
+                res += countBelow(to + 1, r) - countBelow(from, r);
+            }
+            return res;
+        }
+
+        /*
+         * Counts the tiles within a rectangle with tile number < z.
+         * Every bit set in z denotes a quadtree cell of smaller tile numbers, whose intersection with the rectangle
+         * is counted.
+         */
+        private long countBelow(long z, int r) {
+            long res = 0;
+            for (int bit = topBit + 1; bit >= 0; bit--) {
+                if ((z & 1L << bit) != 0) {
+                    long prefix = z >>> bit + 1 << bit + 1;
+                    int x = MortonCodec.compact(prefix);
+                    int y = MortonCodec.compact(prefix >>> 1);
+                    long w = overlap(rects[r], rects[r + 1], x, x + (1L << (bit + 1) / 2) - 1);
+                    long h = overlap(rects[r + 2], rects[r + 3], y, y + (1L << bit / 2) - 1);
+                    res += w * h;
+                }
+            }
+            return res;
+        }
+
+        private static long overlap(long lo1, long hi1, long lo2, long hi2) {
+            return Math.max(0, Math.min(hi1, hi2) - Math.max(lo1, lo2) + 1);
+        }
+    }
+}
@@ -0,0 +1,330 @@
+package de.rondiplomatico.nds;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Encodes and decodes sequences of NDS coordinates, e.g. the vertices of a tile's geometry, as offsets from the south
+ * west corner of a tile, i.e. from {@link NDSBBox#getWest()} and {@link NDSBBox#getSouth()} of {@link NDSTile#getBBox()}.
+ *
+ * There are two encodings:
+ * <ul>
+ * <li>fixed width: each longitude and latitude offset as a signed little endian value of one to four bytes. Four bytes
+ * hold any coordinate, as the offsets wrap around like the int coordinates. Within a tile of a level, the offsets take
+ * {@link #fixedWidth(int)} bytes.</li>
+ * <li>varint: the zigzag encoded offsets of the first coordinate, followed by the zigzag encoded differences of
+ * consecutive coordinates, each as unsigned LEB128 varint like the coordinate files of {@link NDSBinaryFormat}.
+ * Vertices of lines and polygons are usually close to each other, which takes about two bytes per value on level
+ * 13.</li>
+ * </ul>
+ *
+ * Offsets of coordinates outside of the tile are allowed, so geometries may exceed their tile. The functions read from
+ * and write to heap, direct or memory mapped buffers at the buffer's position, advance the position past the encoded
+ * coordinates and do not allocate per coordinate. Decoded coordinates are not validated.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSTileOffsets {
+
+    /**
+     * The maximum number of bytes of a varint encoded coordinate
+     */
+    public static final int MAX_VARINT_COORDINATE_LENGTH = 2 * NDSBinaryFormat.MAX_VARINT_LENGTH;
+
+    private NDSTileOffsets() {
+        // Static methods only
+    }
+
+    /**
+     * Computes the number of bytes of fixed width offsets, which hold the offsets of all coordinates within a tile of
+     * a level, including its north and east edges.
+     *
+     * @param level
+     *                  the tile level
+     * @return the width in bytes within [1, 4]
+     */
+    public static int fixedWidth(int level) {
+        // The offsets are within [0, 2^(31-level)], plus the sign bit
+        return Math.min(4, (33 - NDSTiles.checkLevel(level) + 7) / 8);
+    }
+
+    /**
+     * Encodes NDS coordinates as fixed width offsets from the south west corner of a tile.
+     *
+     * @param packedId
+     *                      the packed Tile ID
+     * @param width
+     *                      the number of bytes per offset within [1, 4]
+     * @param ndsLon
+     *                      the NDS longitudes
+     * @param ndsLat
+     *                      the NDS latitudes
+     * @param srcOffset
+     * @param length
+     * @param dest
+     *                      receives 2 * width * length bytes
+     * @throws IllegalArgumentException
+     *                                      if an offset exceeds the width, nothing is written then
+     * @throws BufferOverflowException
+     *                                      if the destination buffer has not enough bytes remaining
+     */
+    public static void encodeFixed(int packedId, int width, int[] ndsLon, int[] ndsLat, int srcOffset, int length, ByteBuffer dest) {
+        checkWidth(width);
+        NDSBatch.checkRange(ndsLon.length, srcOffset, length);
+        NDSBatch.checkRange(ndsLat.length, srcOffset, length);
+        int west = west(packedId);
+        int south = south(packedId);
+        int unused = 32 - 8 * width;
+        for (int i = srcOffset; i < srcOffset + length; i++) {
+            int x = ndsLon[i] - west;
+            int y = ndsLat[i] - south;
+            if (x << unused >> unused != x || y << unused >> unused != y) {
+                throw new IllegalArgumentException("The offsets " + x + ", " + y + " of coordinate " + i + " exceed " + width + " bytes.");
+            }
+        }
+        if (dest.remaining() < 2L * width * length) {
+            throw new BufferOverflowException();
+        }
+        int pos = dest.position();
+        for (int i = srcOffset; i < srcOffset + length; i++) {
+            pos = putFixed(dest, pos, width, ndsLon[i] - west);
+            pos = putFixed(dest, pos, width, ndsLat[i] - south);
+        }
+        dest.position(pos);
+    }
+
+    /**
+     * Decodes NDS coordinates from fixed width offsets to the south west corner of a tile.
+     *
+     * @param packedId
+     *                       the packed Tile ID
+     * @param width
+     *                       the number of bytes per offset within [1, 4]
+     * @param src
+     *                       provides 2 * width * length bytes
+     * @param ndsLon
+     *                       receives the NDS longitudes
+     * @param ndsLat
+     *                       receives the NDS latitudes
+     * @param destOffset
+     * @param length
+     * @throws BufferUnderflowException
+     *                                      if the source buffer has not enough bytes remaining
+     */
+    public static void decodeFixed(int packedId, int width, ByteBuffer src, int[] ndsLon, int[] ndsLat, int destOffset, int length) {
+        checkWidth(width);
+        NDSBatch.checkRange(ndsLon.length, destOffset, length);
+        NDSBatch.checkRange(ndsLat.length, destOffset, length);
+        if (src.remaining() < 2L * width * length) {
+            throw new BufferUnderflowException();
+        }
+        int west = west(packedId);
+        int south = south(packedId);
+        int pos = src.position();
+        boolean bigEndian = src.order() == ByteOrder.BIG_ENDIAN;
+        for (int i = destOffset; i < destOffset + length; i++) {
+            ndsLon[i] = west + getFixed(src, pos, width, bigEndian);
+            ndsLat[i] = south + getFixed(src, pos + width, width, bigEndian);
+            pos += 2 * width;
+        }
+        src.position(pos);
+    }
+
+    /**
+     * Encodes NDS coordinates as varint offsets from the south west corner of a tile and from the previous coordinate.
+     *
+     * @param packedId
+     *                      the packed Tile ID
+     * @param ndsLon
+     *                      the NDS longitudes
+     * @param ndsLat
+     *                      the NDS latitudes
+     * @param srcOffset
+     * @param length
+     * @param dest
+     *                      receives at most {@link #MAX_VARINT_COORDINATE_LENGTH} bytes per coordinate
+     * @throws BufferOverflowException
+     *                                     if the destination buffer has not enough bytes remaining, the position is
+     *                                     unchanged then
+     */
+    public static void encodeVarint(int packedId, int[] ndsLon, int[] ndsLat, int srcOffset, int length, ByteBuffer dest) {
+        NDSBatch.checkRange(ndsLon.length, srcOffset, length);
+        NDSBatch.checkRange(ndsLat.length, srcOffset, length);
+        int x = west(packedId);
+        int y = south(packedId);
+        int pos = dest.position();
+        int limit = dest.limit();
+        for (int i = srcOffset; i < srcOffset + length; i++) {
+            if (limit - pos < MAX_VARINT_COORDINATE_LENGTH && limit - pos < varintLength(ndsLon[i] - x) + varintLength(ndsLat[i] - y)) {
+                throw new BufferOverflowException();
+            }
+            pos = putVarint(dest, pos, NDSBinaryFormat.zigzag(ndsLon[i] - x));
+            pos = putVarint(dest, pos, NDSBinaryFormat.zigzag(ndsLat[i] - y));
+            x = ndsLon[i];
+            y = ndsLat[i];
+        }
+        dest.position(pos);
+    }
+
+    /**
+     * Decodes NDS coordinates from varint offsets to the south west corner of a tile and to the previous coordinate.
+     *
+     * @param packedId
+     *                       the packed Tile ID
+     * @param src
+     *                       provides the varints
+     * @param ndsLon
+     *                       receives the NDS longitudes
+     * @param ndsLat
+     *                       receives the NDS latitudes
+     * @param destOffset
+     * @param length
+     * @throws BufferUnderflowException
+     *                                      if the source buffer ends within the coordinates, the position is unchanged
+     *                                      then
+     * @throws IllegalArgumentException
+     *                                      if a varint exceeds 32 bits, the position is unchanged then
+     */
+    public static void decodeVarint(int packedId, ByteBuffer src, int[] ndsLon, int[] ndsLat, int destOffset, int length) {
+        NDSBatch.checkRange(ndsLon.length, destOffset, length);
+        NDSBatch.checkRange(ndsLat.length, destOffset, length);
+        int x = west(packedId);
+        int y = south(packedId);
+        int pos = src.position();
+        int limit = src.limit();
+        for (int i = destOffset; i < destOffset + length; i++) {
+            long r = readVarint(src, pos, limit);
+            x += NDSBinaryFormat.unzigzag((int) r);
+            r = readVarint(src, (int) (r >>> 32), limit);
+            y += NDSBinaryFormat.unzigzag((int) r);
+            pos = (int) (r >>> 32);
+            ndsLon[i] = x;
+            ndsLat[i] = y;
+        }
+        src.position(pos);
+    }
+
+    private static int west(int packedId) {
+        int level = NDSTiles.checkLevel(NDSTiles.levelOf(packedId));
+        return NDSTiles.west(level, NDSTiles.tileNumberOf(packedId));
+    }
+
+    private static int south(int packedId) {
+        int level = NDSTiles.checkLevel(NDSTiles.levelOf(packedId));
+        return NDSTiles.south(level, NDSTiles.tileNumberOf(packedId));
+    }
+
+    private static void checkWidth(int width) {
+        if (width < 1 || width > 4) {
+            throw new IllegalArgumentException("The width " + width + " exceeds the range [1, 4].");
+        }
+    }
+
+    /*
+     * Writes the lowest bytes of a value, little endian
+     */
+    private static int putFixed(ByteBuffer b, int pos, int width, int v) {
+        for (int i = 0; i < width; i++) {
+            b.put(pos + i, (byte) (v >> 8 * i));
+        }
+        return pos + width;
+    }
+
+    /*
+     * Reads a signed little endian value, by short and int reads where possible
+     */
+    private static int getFixed(ByteBuffer b, int pos, int width, boolean bigEndian) {
+        switch (width) {
+            case 1:
+                return b.get(pos);
+            case 2:
+                short s = b.getShort(pos);
+                return bigEndian ? Short.reverseBytes(s) : s;
+            case 3:
+                short lo = b.getShort(pos);
+                return (bigEndian ? Short.reverseBytes(lo) : lo) & 0xFFFF | b.get(pos + 2) << 16;
+            default:
+                int v = b.getInt(pos);
+                return bigEndian ? Integer.reverseBytes(v) : v;
+        }
+    }
+
+    /*
+     * The length of the varint of a value after zigzag encoding
+     */
+    private static int varintLength(int v) {
+        int bits = 32 - Integer.numberOfLeadingZeros(NDSBinaryFormat.zigzag(v) | 1);
+        return (bits + 6) / 7;
+    }
+
+    /*
+     * Writes an unsigned varint of 32 bits
+     */
+    private static int putVarint(ByteBuffer b, int pos, int v) {
+        while ((v & ~0x7F) != 0) {
+            b.put(pos++, (byte) (v & 0x7F | 0x80));
+            v >>>= 7;
+        }
+        b.put(pos++, (byte) v);
+        return pos;
+    }
+
+    /*
+     * Reads an unsigned varint of 32 bits, returns the position after the varint in the upper and the value in the
+     * lower 32 bits
+     */
+    private static long readVarint(ByteBuffer b, int pos, int limit) {
+        if (limit - pos < NDSBinaryFormat.MAX_VARINT_LENGTH) {
+            return readVarintNearLimit(b, pos, limit);
+        }
+        // Unrolled, as most varints of nearby coordinates take one or two bytes
+        int c = b.get(pos);
+        if (c >= 0) {
+            return (long) (pos + 1) << 32 | c;
+        }
+        int v = c & 0x7F;
+        c = b.get(pos + 1);
+        v |= (c & 0x7F) << 7;
+        if (c >= 0) {
+            return (long) (pos + 2) << 32 | v;
+        }
+        c = b.get(pos + 2);
+        v |= (c & 0x7F) << 14;
+        if (c >= 0) {
+            return (long) (pos + 3) << 32 | v;
+        }
+        c = b.get(pos + 3);
+        v |= (c & 0x7F) << 21;
+        if (c >= 0) {
+            return (long) (pos + 4) << 32 | v;
+        }
+        c = b.get(pos + 4);
+        // The fifth byte holds the upper 4 bits, a continuation or higher bits exceed 32 bits
+        if ((c & 0xF0) != 0) {
+            throw new IllegalArgumentException("The varint at position " + pos + " exceeds 32 bits.");
+        }
+        v |= c << 28;
+        return (long) (pos + 5) << 32 | v & 0xFFFFFFFFL;
+    }
+
+    private static long readVarintNearLimit(ByteBuffer b, int pos, int limit) {
+        int start = pos;
+        int v = 0;
+        int shift = 0;
+        byte c;
+        do {
+            if (pos >= limit) {
+                throw new BufferUnderflowException();
+            }
+            c = b.get(pos++);
+            if (shift == 28 && (c & 0xF0) != 0) {
+                throw new IllegalArgumentException("The varint at position " + start + " exceeds 32 bits.");
+            }
+            v |= (c & 0x7F) << shift;
+            shift += 7;
+        } while (c < 0);
+        return (long) pos << 32 | v & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,340 @@
+package de.rondiplomatico.nds;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+import lombok.EqualsAndHashCode;
+
+/**
+ * Groups points by the tile containing them, as buckets of primitive point indices.
+ *
+ * This replaces {@code Collectors.groupingBy(p -> new NDSTile(13, p))} for bulk ingestion without boxing a tile, list
+ * and index per point. The partition is computed in two passes over the packed Tile IDs of the points:
+ * <ol>
+ * <li>each chunk of points counts its tiles in a thread-local primitive hash map, and the counts of all chunks are
+ * merged into the start positions of each chunk's points per tile,</li>
+ * <li>each chunk scatters its point indices to these positions.</li>
+ * </ol>
+ * Both passes run on the common {@link ForkJoinPool} for at least {@link NDSBatch#getParallelThreshold()} points, with
+ * one chunk per worker and no shared mutable state besides the disjoint output positions.
+ *
+ * The buckets are ordered by packed Tile ID, i.e. in morton order for a single level, and the indices within a bucket
+ * are ascending. For streams, the indices are the positions in the encounter order; {@link #collector(int)} is the
+ * corresponding {@link Collector}.
+ *
+ * @since 15.10.2026
+ */
+@EqualsAndHashCode
+public final class NDSTilePartition {
+
+    /**
+     * Receives the buckets of a partition.
+     */
+    @FunctionalInterface
+    public interface BucketConsumer {
+
+        /**
+         * @param packedId
+         *                     the packed Tile ID of the bucket
+         * @param indices
+         *                     the point indices of all buckets, must not be modified
+         * @param from
+         *                     the first position of the bucket's indices
+         * @param to
+         *                     the position after the bucket's indices
+         */
+        void accept(int packedId, int[] indices, int from, int to);
+    }
+
+    private final int[] tiles;
+    private final int[] offsets;
+    private final int[] indices;
+
+    private NDSTilePartition(int[] tiles, int[] offsets, int[] indices) {
+        this.tiles = tiles;
+        this.offsets = offsets;
+        this.indices = indices;
+    }
+
+    /**
+     * Partitions points by the tiles of a level containing them.
+     *
+     * @param level
+     *                   Must be in range 0..15
+     * @param ndsLon
+     *                   the NDS longitudes
+     * @param ndsLat
+     *                   the NDS latitudes
+     * @param offset
+     *                   the first point
+     * @param length
+     *                   the number of points
+     * @return the partition, with the indices of the points in the input arrays
+     */
+    public static NDSTilePartition of(int level, int[] ndsLon, int[] ndsLat, int offset, int length) {
+        int[] ids = new int[length];
+        NDSBatch.packedIds(level, ndsLon, ndsLat, offset, ids, 0, length);
+        return partition(ids, offset);
+    }
+
+    /**
+     * Partitions WGS84 points by the tiles of a level containing them.
+     *
+     * @param level
+     *                   Must be in range 0..15
+     * @param lon
+     *                   the WGS84 longitudes
+     * @param lat
+     *                   the WGS84 latitudes
+     * @param offset
+     *                   the first point
+     * @param length
+     *                   the number of points
+     * @return the partition, with the indices of the points in the input arrays
+     */
+    public static NDSTilePartition ofWgs84(int level, double[] lon, double[] lat, int offset, int length) {
+        int[] ids = new int[length];
+        NDSBatch.packedIdsFromWgs84(level, lon, lat, offset, ids, 0, length);
+        return partition(ids, offset);
+    }
+
+    /**
+     * Partitions the coordinates of an array by the tiles of a level containing them.
+     *
+     * @param level
+     *                   Must be in range 0..15
+     * @param coords
+     * @return the partition, with the indices of the coordinates in the array
+     */
+    public static NDSTilePartition of(int level, NDSCoordinateArray coords) {
+        int[] lon = new int[coords.size()];
+        int[] lat = new int[coords.size()];
+        coords.getLongitudes(lon, 0);
+        coords.getLatitudes(lat, 0);
+        int[] ids = new int[lon.length];
+        NDSBatch.packedIds(level, lon, lat, 0, ids, 0, ids.length);
+        return partition(ids, 0);
+    }
+
+    /**
+     * Partitions a stream of WGS84 points by the tiles of a level containing them. The stream may be parallel.
+     *
+     * @param level
+     *                   Must be in range 0..15
+     * @param points
+     * @return the partition, with the positions of the points in the encounter order of the stream
+     */
+    public static NDSTilePartition of(int level, Stream<WGS84Coordinate> points) {
+        return points.collect(collector(level));
+    }
+
+    /**
+     * Partitions points by their packed Tile IDs. The IDs may be of mixed levels, in which case the tiles are not
+     * merged by containment.
+     *
+     * @param packedIds
+     *                      valid packed Tile IDs
+     * @param offset
+     * @param length
+     * @return the partition, with the indices of the IDs in the input array
+     */
+    public static NDSTilePartition ofPackedIds(int[] packedIds, int offset, int length) {
+        NDSBatch.checkRange(packedIds.length, offset, length);
+        for (int i = offset; i < offset + length; i++) {
+            NDSTiles.checkLevel(NDSTiles.levelOf(packedIds[i]));
+        }
+        return partition(Arrays.copyOfRange(packedIds, offset, offset + length), offset);
+    }
+
+    /**
+     * A collector partitioning WGS84 points by the tiles of a level containing them. The packed Tile IDs are computed
+     * while accumulating, so a parallel stream computes them in parallel.
+     *
+     * @param level
+     *                  Must be in range 0..15
+     * @return the collector, giving the positions of the points in the encounter order of the stream
+     */
+    public static Collector<WGS84Coordinate, ?, NDSTilePartition> collector(int level) {
+        NDSTiles.checkLevel(level);
+        Supplier<IntBuffer> supplier = IntBuffer::new;
+        BiConsumer<IntBuffer, WGS84Coordinate> accumulator = (b, p) -> b
+                        .add(NDSTiles.packedId(level, NDSCoordinate.fromWGS84Longitude(p.getLongitude()), NDSCoordinate.fromWGS84Latitude(p.getLatitude())));
+        BinaryOperator<IntBuffer> combiner = IntBuffer::addAll;
+        Function<IntBuffer, NDSTilePartition> finisher = b -> partition(b.trimmed(), 0);
+        return Collector.of(supplier, accumulator, combiner, finisher);
+    }
+
+    /**
+     * @return the number of points
+     */
+    public int size() {
+        return indices.length;
+    }
+
+    /**
+     * @return the number of tiles, i.e. buckets
+     */
+    public int getTileCount() {
+        return tiles.length;
+    }
+
+    /**
+     * @param bucket
+     *                   the bucket in range [0, {@link #getTileCount()})
+     * @return the packed Tile ID of a bucket
+     */
+    public int getPackedId(int bucket) {
+        return tiles[bucket];
+    }
+
+    /**
+     * @param bucket
+     * @return the number of points in a bucket
+     */
+    public int getBucketSize(int bucket) {
+        return offsets[bucket + 1] - offsets[bucket];
+    }
+
+    /**
+     * @param bucket
+     * @return the ascending point indices of a bucket, as a new array
+     */
+    public int[] getIndices(int bucket) {
+        return Arrays.copyOfRange(indices, offsets[bucket], offsets[bucket + 1]);
+    }
+
+    /**
+     * Finds the bucket of a tile by binary search.
+     *
+     * @param packedId
+     * @return the bucket, or -1 if there are no points in the tile
+     */
+    public int bucketOf(int packedId) {
+        int b = Arrays.binarySearch(tiles, packedId);
+        return b < 0 ? -1 : b;
+    }
+
+    /**
+     * Passes all buckets to an action, in the order of their packed Tile IDs.
+     *
+     * @param action
+     */
+    public void forEach(BucketConsumer action) {
+        for (int b = 0; b < tiles.length; b++) {
+            action.accept(tiles[b], indices, offsets[b], offsets[b + 1]);
+        }
+    }
+
+    /**
+     * @return the tiles containing points
+     */
+    public NDSTileSet toTileSet() {
+        return NDSTileSet.of(tiles.clone());
+    }
+
+    @Override
+    public String toString() {
+        return "NDSTilePartition(points=" + size() + ", tiles=" + getTileCount() + ")";
+    }
+
+    /*
+     * The two pass partition of valid packed Tile IDs, whose indices start at the given base index
+     */
+    private static NDSTilePartition partition(int[] ids, int base) {
+        NDSMetrics.Timer timer = NDSMetrics.start(NDSMetrics.Operation.PARTITION);
+        int n = ids.length;
+        int tasks = NDSBatch.chunks(n);
+        IntIntMap[] counts = new IntIntMap[tasks];
+
+        // Pass 1: Thread-local counts per tile
+        NDSBatch.runChunks(n, tasks, (t, from, to) -> {
+            IntIntMap m = new IntIntMap();
+            for (int i = from; i < to; i++) {
+                m.addAndGet(ids[i], 1);
+            }
+            counts[t] = m;
+        });
+
+        // Merges the tiles of all chunks and turns the counts into the chunks' start positions per tile
+        int[] tiles = counts[0].sortedKeys();
+        for (int t = 1; t < tasks; t++) {
+            tiles = union(tiles, counts[t].sortedKeys());
+        }
+        int[] offsets = new int[tiles.length + 1];
+        int pos = 0;
+        for (int b = 0; b < tiles.length; b++) {
+            offsets[b] = pos;
+            for (int t = 0; t < tasks; t++) {
+                pos += counts[t].replace(tiles[b], pos);
+            }
+        }
+        offsets[tiles.length] = pos;
+
+        // Pass 2: Scatter of the point indices
+        int[] indices = new int[n];
+        NDSBatch.runChunks(n, tasks, (t, from, to) -> {
+            IntIntMap m = counts[t];
+            for (int i = from; i < to; i++) {
+                indices[m.getAndAdd(ids[i], 1)] = base + i;
+            }
+        });
+        NDSMetrics.stop(timer, n);
+        return new NDSTilePartition(tiles, offsets, indices);
+    }
+
+    /*
+     * The sorted union of two sorted arrays of distinct values
+     */
+    private static int[] union(int[] a, int[] b) {
+        int[] res = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || i < a.length && a[i] < b[j]) {
+                res[n++] = a[i++];
+            } else if (i == a.length || b[j] < a[i]) {
+                res[n++] = b[j++];
+            } else {
+                res[n++] = a[i++];
+                j++;
+            }
+        }
+        return n == res.length ? res : Arrays.copyOf(res, n);
+    }
+
+    /**
+     * A growable int array for the collector.
+     */
+    private static final class IntBuffer {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int v) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = v;
+        }
+
+        IntBuffer addAll(IntBuffer other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + other.size, 2 * size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+            return this;
+        }
+
+        int[] trimmed() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,552 @@
+package de.rondiplomatico.nds;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * A cache of tile payloads by packed Tile ID, bounded by the total weight of the payloads in bytes, which loads missing
+ * payloads asynchronously from slow storage.
+ *
+ * Lookups of cached payloads read a {@link ConcurrentHashMap} and never block. Missing payloads are loaded by the
+ * {@link Loader} on the given executor, and concurrent lookups of a tile being loaded share the same
+ * {@link CompletableFuture}, so each tile is loaded once. Failed loads are not cached, including those whose payload
+ * the weigher fails on or weighs negative. Null payloads, i.e. no payload for a tile, and payloads heavier than the
+ * whole cache are returned, but not cached.
+ *
+ * Eviction is segmented LRU: new payloads enter the probation segment, and payloads hit again move to the protected
+ * segment, which holds up to 80% of the weight. Payloads demoted from the protected segment return to the probation
+ * segment, and the least recently used payload of the probation segment is evicted first. Thus, tiles passed once,
+ * e.g. by prefetching, do not evict tiles used repeatedly. The segments are guarded by a lock, which hits only try to
+ * acquire: under contention, a hit is not recorded for the eviction order rather than waiting.
+ *
+ * {@link #prefetch(int, int, double, int, int, int)} loads the tiles around a position and ahead along a heading, so
+ * that a vehicle finds the tiles cached when crossing into them.
+ *
+ * The counters are {@link LongAdder}s like those of {@link NDSTileCache}.
+ *
+ * @since 15.10.2026
+ * @param <V>
+ *                the payload type
+ */
+public final class NDSTilePayloadCache<V> {
+
+    /**
+     * Loads the payload of a tile from storage, usually blocking.
+     *
+     * @param <V>
+     *                the payload type
+     */
+    @FunctionalInterface
+    public interface Loader<V> {
+
+        /**
+         * @param packedId
+         *                     the packed Tile ID
+         * @return the payload, or null if there is no payload for the tile
+         * @throws Exception
+         *                       if loading fails
+         */
+        V load(int packedId) throws Exception;
+    }
+
+    /**
+     * The maximum number of neighbouring columns and rows to prefetch
+     */
+    public static final int MAX_RING = 64;
+
+    /*
+     * The segments of a cached payload; REMOVED after eviction or invalidation
+     */
+    private static final int PROBATION = 0;
+    private static final int PROTECTED = 1;
+    private static final int REMOVED = 2;
+
+    private final long maxBytes;
+    private final long maxProtectedBytes;
+    private final ToIntFunction<? super V> weigher;
+    private final Loader<? extends V> loader;
+    private final Executor executor;
+
+    private final ConcurrentHashMap<Integer, Node<V>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    /*
+     * The segments as doubly linked lists from the most (head) to the least recently used node (tail), guarded by the
+     * lock
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Node<V>[] heads;
+    private final Node<V>[] tails;
+    private final long[] weights = new long[2];
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder prefetches = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final AtomicLong maxLoadNanos = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxBytes
+     *                     the maximum total weight of the cached payloads, at least 1
+     * @param weigher
+     *                     computes the weight of a payload in bytes, e.g. {@code ByteBuffer::remaining}, at least 0
+     * @param loader
+     *                     loads missing payloads
+     * @param executor
+     *                     runs the loader. As loaders usually block, this should not be the common fork join pool.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public NDSTilePayloadCache(long maxBytes, ToIntFunction<? super V> weigher, Loader<? extends V> loader, Executor executor) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("The maximum weight must be at least 1, got " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        maxProtectedBytes = maxBytes / 5 * 4;
+        this.weigher = weigher;
+        this.loader = loader;
+        this.executor = executor;
+        heads = new Node[2];
+        tails = new Node[2];
+    }
+
+    /**
+     * Returns the payload of a tile, loading it if missing.
+     *
+     * @param packedId
+     *                     the packed Tile ID
+     * @return a future of the payload, completed on a hit
+     * @throws IllegalArgumentException
+     *                                      if the packed Tile ID is invalid
+     */
+    public CompletableFuture<V> get(int packedId) {
+        Node<V> n = entries.get(packedId);
+        if (n != null) {
+            hits.increment();
+            NDSMetrics.count(NDSMetrics.Counter.PAYLOAD_CACHE_HITS);
+            touch(n);
+            return CompletableFuture.completedFuture(n.value);
+        }
+        misses.increment();
+        NDSMetrics.count(NDSMetrics.Counter.PAYLOAD_CACHE_MISSES);
+        return load(packedId);
+    }
+
+    /**
+     * Returns the payload of a tile, if cached. Does not load missing payloads.
+     *
+     * @param packedId
+     *                     the packed Tile ID
+     * @return the payload, or null if not cached
+     */
+    public V getIfPresent(int packedId) {
+        Node<V> n = entries.get(packedId);
+        if (n == null) {
+            misses.increment();
+            NDSMetrics.count(NDSMetrics.Counter.PAYLOAD_CACHE_MISSES);
+            return null;
+        }
+        hits.increment();
+        NDSMetrics.count(NDSMetrics.Counter.PAYLOAD_CACHE_HITS);
+        touch(n);
+        return n.value;
+    }
+
+    /**
+     * Loads the payload of a tile, if neither cached nor being loaded. Prefetches do not count as hits or misses.
+     *
+     * @param packedId
+     *                     the packed Tile ID
+     * @return true if a load has been started
+     */
+    public boolean prefetch(int packedId) {
+        if (entries.containsKey(packedId) || loading.containsKey(packedId)) {
+            return false;
+        }
+        load(packedId);
+        prefetches.increment();
+        return true;
+    }
+
+    /**
+     * Loads the payloads of the tiles of a level around a position and ahead along a heading, which are neither cached
+     * nor being loaded.
+     *
+     * These are the tiles within ring columns and rows of the tile of the position (see
+     * {@link NDSTiles#kRing(int, int, int[], int)}), and the tiles on the rhumb line from the position along the
+     * heading over the given number of tile heights.
+     *
+     * @param ndsLon
+     *                     the NDS longitude of the position
+     * @param ndsLat
+     *                     the NDS latitude of the position
+     * @param heading
+     *                     the heading in degrees clockwise from north
+     * @param level
+     *                     the tile level
+     * @param ring
+     *                     the number of neighbouring columns and rows, within [0, {@value #MAX_RING}]
+     * @param ahead
+     *                     the number of tile heights to look ahead, at least 0
+     * @return the number of loads started
+     */
+    public int prefetch(int ndsLon, int ndsLat, double heading, int level, int ring, int ahead) {
+        int center = NDSTiles.packedId(level, ndsLon, ndsLat);
+        if (ring > MAX_RING) {
+            throw new IllegalArgumentException("The ring " + ring + " exceeds the maximum of " + MAX_RING + ".");
+        }
+        if (ahead < 0) {
+            throw new IllegalArgumentException("The number of tiles ahead " + ahead + " must not be negative.");
+        }
+        int[] ids = new int[(2 * ring + 1) * (2 * ring + 1)];
+        int n = 0;
+        int count = NDSTiles.kRing(center, ring, ids, 0);
+        for (int i = 0; i < count; i++) {
+            n += prefetch(ids[i]) ? 1 : 0;
+        }
+        // Samples every half tile height, with the columns narrowing towards the poles
+        double step = (double) (1L << 31 - level) / 2;
+        double rad = Math.toRadians(heading);
+        double dLat = Math.cos(rad) * step;
+        double dLon = Math.sin(rad) * step / Math.max(0.01, Math.cos(ndsLat * NDSDistance.RADIANS));
+        int last = center;
+        for (int k = 1; k <= 2 * ahead; k++) {
+            int lon = (int) (long) (ndsLon + k * dLon);
+            int lat = (int) Math.max(NDSCoordinate.MIN_LATITUDE, Math.min(NDSCoordinate.MAX_LATITUDE, ndsLat + k * dLat));
+            int id = NDSTiles.packedId(level, lon, lat);
+            if (id != last) {
+                n += prefetch(id) ? 1 : 0;
+                last = id;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Removes the payload of a tile. A load in progress is not cancelled and caches its payload.
+     *
+     * @param packedId
+     *                     the packed Tile ID
+     */
+    public void invalidate(int packedId) {
+        lock.lock();
+        try {
+            Node<V> n = entries.remove(packedId);
+            if (n != null) {
+                unlink(n);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all payloads and resets the statistics. Loads in progress are not cancelled and cache their payloads.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            for (int s = PROBATION; s <= PROTECTED; s++) {
+                for (Node<V> n = heads[s]; n != null; n = n.next) {
+                    n.segment = REMOVED;
+                }
+                heads[s] = null;
+                tails[s] = null;
+                weights[s] = 0;
+            }
+        } finally {
+            lock.unlock();
+        }
+        hits.reset();
+        misses.reset();
+        loads.reset();
+        failures.reset();
+        prefetches.reset();
+        evictions.reset();
+        loadNanos.reset();
+        maxLoadNanos.set(0);
+    }
+
+    /**
+     * @return the number of cached payloads
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the total weight of the cached payloads in bytes
+     */
+    public long getWeightedSize() {
+        lock.lock();
+        try {
+            return weights[PROBATION] + weights[PROTECTED];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the maximum total weight of the cached payloads in bytes
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return the number of lookups answered from the cache since creation or the last {@link #clear()}
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups of payloads not cached since creation or the last {@link #clear()}
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the ratio of hits to all lookups, 0 if there has been no lookup
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    /**
+     * @return the number of completed loads, including failed ones
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    /**
+     * @return the number of loads failed with an exception
+     */
+    public long getLoadFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return the number of loads started by prefetching
+     */
+    public long getPrefetches() {
+        return prefetches.sum();
+    }
+
+    /**
+     * @return the number of payloads evicted to stay within the maximum weight
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return the average duration of the completed loads in nanoseconds, 0 if there has been no load
+     */
+    public double getAverageLoadNanos() {
+        long n = loads.sum();
+        return n == 0 ? 0 : (double) loadNanos.sum() / n;
+    }
+
+    /**
+     * @return the maximum duration of a completed load in nanoseconds
+     */
+    public long getMaxLoadNanos() {
+        return maxLoadNanos.get();
+    }
+
+    @Override
+    public String toString() {
+        return "NDSTilePayloadCache(maxBytes=" + maxBytes + ", size=" + size() + ", hits=" + getHits() + ", misses=" + getMisses() + ", loads=" + getLoads()
+                        + ", evictions=" + getEvictions() + ")";
+    }
+
+    /*
+     * Starts a load of a tile or joins the load in progress
+     */
+    private CompletableFuture<V> load(int packedId) {
+        NDSTiles.checkLevel(NDSTiles.levelOf(packedId));
+        CompletableFuture<V> future = loading.get(packedId);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<V> created = new CompletableFuture<>();
+        future = loading.putIfAbsent(packedId, created);
+        if (future != null) {
+            return future;
+        }
+        // A load may have completed since the lookup
+        Node<V> n = entries.get(packedId);
+        if (n != null) {
+            loading.remove(packedId, created);
+            created.complete(n.value);
+            return created;
+        }
+        try {
+            executor.execute(() -> run(packedId, created));
+        } catch (RejectedExecutionException e) {
+            loading.remove(packedId, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    private void run(int packedId, CompletableFuture<V> future) {
+        long start = System.nanoTime();
+        V value;
+        try {
+            value = loader.load(packedId);
+        } catch (Throwable e) {
+            record(start);
+            fail(packedId, future, e);
+            return;
+        }
+        record(start);
+        try {
+            if (value != null) {
+                insert(packedId, value, weigh(packedId, value));
+            }
+        } catch (Throwable e) {
+            fail(packedId, future, e);
+            return;
+        }
+        // The payload is cached before the load is removed, so that lookups find either of both
+        loading.remove(packedId, future);
+        future.complete(value);
+    }
+
+    private void fail(int packedId, CompletableFuture<V> future, Throwable e) {
+        failures.increment();
+        loading.remove(packedId, future);
+        future.completeExceptionally(e);
+    }
+
+    private int weigh(int packedId, V value) {
+        int weight = weigher.applyAsInt(value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("The payload of tile " + packedId + " has a negative weight of " + weight + ".");
+        }
+        return weight;
+    }
+
+    private void record(long start) {
+        long nanos = System.nanoTime() - start;
+        loads.increment();
+        loadNanos.add(nanos);
+        maxLoadNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private void insert(int packedId, V value, int weight) {
+        if (weight > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            Node<V> n = new Node<>(packedId, value, weight);
+            Node<V> old = entries.put(packedId, n);
+            if (old != null) {
+                unlink(old);
+            }
+            link(n, PROBATION);
+            while (weights[PROBATION] + weights[PROTECTED] > maxBytes) {
+                Node<V> victim = tails[PROBATION] != null ? tails[PROBATION] : tails[PROTECTED];
+                unlink(victim);
+                entries.remove(victim.packedId, victim);
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /*
+     * Records a hit for the eviction order, unless another thread holds the lock
+     */
+    private void touch(Node<V> n) {
+        if (!lock.tryLock()) {
+            return;
+        }
+        try {
+            if (n.segment == REMOVED) {
+                return;
+            }
+            unlink(n);
+            link(n, PROTECTED);
+            while (weights[PROTECTED] > maxProtectedBytes && tails[PROTECTED] != n) {
+                Node<V> demoted = tails[PROTECTED];
+                unlink(demoted);
+                link(demoted, PROBATION);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void link(Node<V> n, int segment) {
+        n.segment = segment;
+        n.prev = null;
+        n.next = heads[segment];
+        if (n.next != null) {
+            n.next.prev = n;
+        } else {
+            tails[segment] = n;
+        }
+        heads[segment] = n;
+        weights[segment] += n.weight;
+    }
+
+    private void unlink(Node<V> n) {
+        int segment = n.segment;
+        if (segment == REMOVED) {
+            return;
+        }
+        if (n.prev != null) {
+            n.prev.next = n.next;
+        } else {
+            heads[segment] = n.next;
+        }
+        if (n.next != null) {
+            n.next.prev = n.prev;
+        } else {
+            tails[segment] = n.prev;
+        }
+        n.prev = null;
+        n.next = null;
+        n.segment = REMOVED;
+        weights[segment] -= n.weight;
+    }
+
+    /**
+     * A cached payload. The links and the segment are guarded by the lock of the cache.
+     */
+    private static final class Node<V> {
+
+        final int packedId;
+        final V value;
+        final int weight;
+        int segment;
+        Node<V> prev;
+        Node<V> next;
+
+        Node(int packedId, V value, int weight) {
+            this.packedId = packedId;
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,660 @@
+package de.rondiplomatico.nds;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Aggregates point counts and value sums per tile for all levels of the tile pyramid in a single pass.
+ *
+ * The points are counted per tile of the aggregation level (15 by default), which a primitive hash map indexes.
+ * When the map exceeds its maximum number of tiles, its tiles are sorted and spilled as a run to a temporary file, so
+ * the memory stays bounded for any number of points. {@link #emit(CellConsumer)} merges the runs and the map in
+ * morton order and rolls the tiles up to all coarser levels by their parent tile numbers, holding one open tile per
+ * level only. At most 64 sources are merged at once, so runs beyond that are first merged in
+ * groups into larger runs, which also bounds the number of open files.
+ *
+ * Instances are not thread-safe. {@link #close()} deletes the spilled runs.
+ *
+ * <pre>
+ * try (NDSTilePyramid p = new NDSTilePyramid(15)) {
+ *     p.addAll(ndsLon, ndsLat, 0, n);
+ *     NDSTilePyramid.Cells level10 = p.collect(10);
+ * }
+ * </pre>
+ *
+ * @since 15.10.2026
+ */
+public final class NDSTilePyramid implements Closeable {
+
+    /**
+     * Receives the aggregated tiles.
+     */
+    @FunctionalInterface
+    public interface CellConsumer {
+
+        /**
+         * @param packedId
+         *                     the packed Tile ID
+         * @param count
+         *                     the number of points within the tile
+         * @param sum
+         *                     the sum of the points' values
+         */
+        void accept(int packedId, long count, double sum);
+    }
+
+    /**
+     * The aggregated tiles of one level, in morton order.
+     */
+    public static final class Cells {
+
+        private int[] packedIds = new int[16];
+        private long[] counts = new long[16];
+        private double[] sums = new double[16];
+        private int size;
+
+        private Cells() {
+        }
+
+        private void add(int packedId, long count, double sum) {
+            if (size == packedIds.length) {
+                packedIds = Arrays.copyOf(packedIds, 2 * size);
+                counts = Arrays.copyOf(counts, 2 * size);
+                sums = Arrays.copyOf(sums, 2 * size);
+            }
+            packedIds[size] = packedId;
+            counts[size] = count;
+            sums[size++] = sum;
+        }
+
+        /**
+         * @return the number of tiles with points
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param i
+         * @return the packed Tile ID of the i-th tile
+         */
+        public int getPackedId(int i) {
+            return packedIds[check(i)];
+        }
+
+        /**
+         * @param i
+         * @return the number of points in the i-th tile
+         */
+        public long getCount(int i) {
+            return counts[check(i)];
+        }
+
+        /**
+         * @param i
+         * @return the sum of the values in the i-th tile
+         */
+        public double getSum(int i) {
+            return sums[check(i)];
+        }
+
+        private int check(int i) {
+            if (i < 0 || i >= size) {
+                throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+            }
+            return i;
+        }
+    }
+
+    /**
+     * The default maximum number of tiles held in memory before spilling
+     */
+    public static final int DEFAULT_MAX_TILES = 1 << 20;
+
+    /*
+     * The bytes of a spilled tile: tile number, count and sum
+     */
+    private static final int RECORD_SIZE = 20;
+
+    /*
+     * The points converted per block by the bulk methods
+     */
+    private static final int BLOCK = 1024;
+
+    /*
+     * The maximum number of sources merged at once, each with an open file and a read buffer
+     */
+    static final int MERGE_FAN_IN = 64;
+
+    /*
+     * The buffer size of the spilled runs
+     */
+    private static final int RUN_BUFFER = 1 << 16;
+
+    private static final String[] GEOJSON_NAMES = { "count", "sum" };
+
+    private final int level;
+    private final int maxTiles;
+    private final Path spillDir;
+
+    /*
+     * The tiles of the aggregation level in memory, as tile numbers, counts and sums in order of insertion, indexed by
+     * their packed Tile IDs
+     */
+    private final IntIntMap index;
+    private int[] numbers;
+    private long[] counts;
+    private double[] sums;
+    private int size;
+
+    private final List<Path> runs = new ArrayList<>();
+    private final int[] block = new int[BLOCK];
+    private long points;
+
+    /**
+     * Creates a pyramid with at most {@link #DEFAULT_MAX_TILES} tiles in memory, which spills to the temporary
+     * directory.
+     *
+     * @param level
+     *                  the aggregation level, i.e. the finest level of the pyramid. Must be in range 0..15
+     */
+    public NDSTilePyramid(int level) {
+        this(level, DEFAULT_MAX_TILES, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Creates a pyramid.
+     *
+     * @param level
+     *                     the aggregation level, i.e. the finest level of the pyramid. Must be in range 0..15
+     * @param maxTiles
+     *                     the maximum number of tiles held in memory before spilling, at least 1. The memory is about 50
+     *                     bytes per tile.
+     * @param spillDir
+     *                     the directory for the spilled runs
+     */
+    public NDSTilePyramid(int level, int maxTiles, Path spillDir) {
+        this.level = NDSTiles.checkLevel(level);
+        if (maxTiles < 1 || maxTiles > 1 << 29) {
+            throw new IllegalArgumentException("The maximum number of tiles " + maxTiles + " exceeds the range [1, 2^29].");
+        }
+        this.maxTiles = maxTiles;
+        this.spillDir = spillDir;
+        int capacity = Math.min(1024, maxTiles);
+        index = new IntIntMap(capacity);
+        numbers = new int[capacity];
+        counts = new long[capacity];
+        sums = new double[capacity];
+    }
+
+    /**
+     * @return the aggregation level
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * @return the number of added points
+     */
+    public long getPointCount() {
+        return points;
+    }
+
+    /**
+     * @return the number of runs spilled to disk, which {@link #emit(CellConsumer)} merges into fewer runs if needed
+     */
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Adds a point with value zero.
+     *
+     * @param ndsLon
+     *                   the NDS longitude
+     * @param ndsLat
+     *                   the NDS latitude
+     */
+    public void add(int ndsLon, int ndsLat) {
+        add(ndsLon, ndsLat, 0);
+    }
+
+    /**
+     * Adds a point with a value.
+     *
+     * @param ndsLon
+     *                   the NDS longitude
+     * @param ndsLat
+     *                   the NDS latitude
+     * @param value
+     *                   the value to sum up
+     */
+    public void add(int ndsLon, int ndsLat, double value) {
+        aggregate(NDSTiles.packedId(level, ndsLon, ndsLat), 1, value);
+    }
+
+    /**
+     * Adds points with value zero.
+     *
+     * @param ndsLon
+     *                   the NDS longitudes
+     * @param ndsLat
+     *                   the NDS latitudes
+     * @param offset
+     * @param length
+     */
+    public void addAll(int[] ndsLon, int[] ndsLat, int offset, int length) {
+        addAll(ndsLon, ndsLat, null, offset, length);
+    }
+
+    /**
+     * Adds points with values.
+     *
+     * @param ndsLon
+     *                   the NDS longitudes
+     * @param ndsLat
+     *                   the NDS latitudes
+     * @param values
+     *                   the values to sum up, null for zeros
+     * @param offset
+     * @param length
+     */
+    public void addAll(int[] ndsLon, int[] ndsLat, double[] values, int offset, int length) {
+        NDSBatch.checkRange(ndsLon.length, offset, length);
+        NDSBatch.checkRange(ndsLat.length, offset, length);
+        if (values != null) {
+            NDSBatch.checkRange(values.length, offset, length);
+        }
+        for (int pos = offset; pos < offset + length; pos += BLOCK) {
+            int n = Math.min(BLOCK, offset + length - pos);
+            NDSBatch.packedIds(level, ndsLon, ndsLat, pos, block, 0, n);
+            for (int i = 0; i < n; i++) {
+                aggregate(block[i], 1, values == null ? 0 : values[pos + i]);
+            }
+        }
+    }
+
+    /**
+     * Adds a pre-aggregated tile of the aggregation level.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID of the aggregation level
+     * @param count
+     *                     the number of points, not negative
+     * @param sum
+     *                     the sum of the values
+     */
+    public void addTile(int packedId, long count, double sum) {
+        if (NDSTiles.levelOf(packedId) != level) {
+            throw new IllegalArgumentException("The packed Tile ID " + packedId + " is not of the aggregation level " + level);
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("The count must not be negative, got " + count);
+        }
+        aggregate(packedId, count, sum);
+    }
+
+    /**
+     * Passes the aggregated tiles of all levels from the aggregation level up to level 0 to an action.
+     *
+     * The tiles of each level are passed in morton order. The levels are interleaved such that each tile is passed
+     * after all its descendants. The aggregated tiles are not modified, so this may be called repeatedly and new points
+     * may be added afterwards. If there are 64 runs or more, they are merged into fewer runs first.
+     *
+     * @param action
+     * @throws UncheckedIOException
+     *                                  if a spilled run can not be read or written
+     */
+    public void emit(CellConsumer action) {
+        long[] openCount = new long[level];
+        double[] openSum = new double[level];
+        int[] openNr = new int[level];
+        Arrays.fill(openNr, -1);
+
+        List<Source> sources = new ArrayList<>();
+        try {
+            // One source is the map
+            mergeRuns(MERGE_FAN_IN - 1);
+            sources.add(new MemorySource(numbers, counts, sums, size));
+            for (Path run : runs) {
+                sources.add(new RunSource(run));
+            }
+            merge(sources, (nr, count, sum) -> {
+                action.accept(NDSTiles.packedIdOf(level, nr), count, sum);
+
+                // Rolls up, closing the open tiles of the coarser levels which do not contain this tile
+                for (int l = level - 1; l >= 0; l--) {
+                    int parent = nr >>> 2 * (level - l);
+                    if (openNr[l] != parent) {
+                        if (openNr[l] >= 0) {
+                            action.accept(NDSTiles.packedIdOf(l, openNr[l]), openCount[l], openSum[l]);
+                        }
+                        openNr[l] = parent;
+                        openCount[l] = 0;
+                        openSum[l] = 0;
+                    }
+                    openCount[l] += count;
+                    openSum[l] += sum;
+                }
+            });
+            for (int l = level - 1; l >= 0; l--) {
+                if (openNr[l] >= 0) {
+                    action.accept(NDSTiles.packedIdOf(l, openNr[l]), openCount[l], openSum[l]);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (Source s : sources) {
+                s.close();
+            }
+        }
+    }
+
+    /**
+     * Collects the aggregated tiles of one level.
+     *
+     * @param level
+     *                  Must be in range 0..{@link #getLevel()}
+     * @return the tiles of the level
+     */
+    public Cells collect(int level) {
+        checkLevel(level);
+        Cells cells = new Cells();
+        emit((id, count, sum) -> {
+            if (NDSTiles.levelOf(id) == level) {
+                cells.add(id, count, sum);
+            }
+        });
+        return cells;
+    }
+
+    /**
+     * Collects the aggregated tiles of all levels at once.
+     *
+     * @return the tiles per level, indexed by level
+     */
+    public Cells[] collectAll() {
+        Cells[] res = new Cells[level + 1];
+        for (int l = 0; l <= level; l++) {
+            res[l] = new Cells();
+        }
+        emit((id, count, sum) -> res[NDSTiles.levelOf(id)].add(id, count, sum));
+        return res;
+    }
+
+    /**
+     * Writes the aggregated tiles of one level as "Polygon" features with the properties "count" and "sum".
+     *
+     * @param level
+     *                   Must be in range 0..{@link #getLevel()}
+     * @param writer
+     *                   the writer, e.g. within a feature collection
+     */
+    public void writeGeoJSON(int level, GeoJsonWriter writer) {
+        checkLevel(level);
+        double[] values = new double[2];
+        emit((id, count, sum) -> {
+            if (NDSTiles.levelOf(id) == level) {
+                values[0] = count;
+                values[1] = sum;
+                writer.tile(id, GEOJSON_NAMES, values);
+            }
+        });
+    }
+
+    /**
+     * Deletes the spilled runs and removes all points.
+     */
+    @Override
+    public void close() {
+        UncheckedIOException error = null;
+        for (Path run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                error = new UncheckedIOException(e);
+            }
+        }
+        runs.clear();
+        index.clear();
+        size = 0;
+        points = 0;
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "NDSTilePyramid(level=" + level + ", points=" + points + ", tiles in memory=" + size + ", runs=" + runs.size() + ")";
+    }
+
+    private void checkLevel(int l) {
+        if (l < 0 || l > level) {
+            throw new IllegalArgumentException("The level " + l + " exceeds the range [0, " + level + "].");
+        }
+    }
+
+    private void aggregate(int packedId, long count, double value) {
+        int i = index.get(packedId, -1);
+        if (i < 0) {
+            if (size == maxTiles) {
+                spill();
+            }
+            if (size == numbers.length) {
+                int n = (int) Math.min(maxTiles, 2L * size);
+                numbers = Arrays.copyOf(numbers, n);
+                counts = Arrays.copyOf(counts, n);
+                sums = Arrays.copyOf(sums, n);
+            }
+            i = size++;
+            index.put(packedId, i);
+            numbers[i] = NDSTiles.tileNumberOf(packedId);
+            counts[i] = 0;
+            sums[i] = 0;
+        }
+        counts[i] += count;
+        sums[i] += value;
+        points += count;
+    }
+
+    /*
+     * Writes the tiles of the map as sorted run and clears the map
+     */
+    private void spill() {
+        try {
+            runs.add(write(Collections.singletonList(new MemorySource(numbers, counts, sums, size))));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        index.clear();
+        size = 0;
+    }
+
+    /*
+     * Merges the oldest runs in groups of MERGE_FAN_IN into new runs, until at most maxRuns runs are left. As the new
+     * runs are appended, each tile is rewritten about log(runs) / log(MERGE_FAN_IN) times.
+     */
+    private void mergeRuns(int maxRuns) throws IOException {
+        while (runs.size() > maxRuns) {
+            List<Path> group = runs.subList(0, Math.min(MERGE_FAN_IN, runs.size()));
+            List<Source> sources = new ArrayList<>();
+            Path merged;
+            try {
+                for (Path run : group) {
+                    sources.add(new RunSource(run));
+                }
+                merged = write(sources);
+            } finally {
+                for (Source s : sources) {
+                    s.close();
+                }
+            }
+            for (Path run : group) {
+                Files.deleteIfExists(run);
+            }
+            group.clear();
+            runs.add(merged);
+        }
+    }
+
+    /*
+     * Writes the merged tiles of sources to a new run
+     */
+    private Path write(List<Source> sources) throws IOException {
+        Path run = Files.createTempFile(spillDir, "nds-pyramid", ".run");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), RUN_BUFFER))) {
+            merge(sources, (nr, count, sum) -> {
+                out.writeInt(nr);
+                out.writeLong(count);
+                out.writeDouble(sum);
+            });
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(run);
+            throw e;
+        }
+        return run;
+    }
+
+    /*
+     * Merges sorted sources in order of the tile numbers, summing up the tiles present in several sources
+     */
+    private static void merge(List<Source> sources, TileSink sink) throws IOException {
+        PriorityQueue<Source> queue = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> Integer.compare(a.nr, b.nr));
+        for (Source s : sources) {
+            if (s.next()) {
+                queue.add(s);
+            }
+        }
+        while (!queue.isEmpty()) {
+            Source s = queue.poll();
+            int nr = s.nr;
+            long count = s.count;
+            double sum = s.sum;
+            if (s.next()) {
+                queue.add(s);
+            }
+            while (!queue.isEmpty() && queue.peek().nr == nr) {
+                s = queue.poll();
+                count += s.count;
+                sum += s.sum;
+                if (s.next()) {
+                    queue.add(s);
+                }
+            }
+            sink.accept(nr, count, sum);
+        }
+    }
+
+    /**
+     * Receives the merged tiles of the aggregation level.
+     */
+    @FunctionalInterface
+    private interface TileSink {
+        void accept(int nr, long count, double sum) throws IOException;
+    }
+
+    /**
+     * A sorted source of aggregated tiles for the merge.
+     */
+    private abstract static class Source {
+        int nr;
+        long count;
+        double sum;
+
+        abstract boolean next() throws IOException;
+
+        void close() {
+            // Nothing to release
+        }
+    }
+
+    /**
+     * The tiles in memory, in order of their tile numbers.
+     */
+    private static final class MemorySource extends Source {
+
+        private final long[] order;
+        private final long[] counts;
+        private final double[] sums;
+        private int pos;
+
+        MemorySource(int[] numbers, long[] counts, double[] sums, int size) {
+            this.counts = counts;
+            this.sums = sums;
+            // Sorts the tile numbers, which are not negative, with their indices in the lower bits
+            order = new long[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = (long) numbers[i] << 32 | i;
+            }
+            Arrays.sort(order);
+        }
+
+        @Override
+        boolean next() {
+            if (pos == order.length) {
+                return false;
+            }
+            int s = (int) order[pos++];
+            nr = (int) (order[pos - 1] >>> 32);
+            count = counts[s];
+            sum = sums[s];
+            return true;
+        }
+    }
+
+    /**
+     * The tiles of a spilled run.
+     */
+    private static final class RunSource extends Source {
+
+        private final DataInputStream in;
+        private long remaining;
+
+        RunSource(Path run) throws IOException {
+            remaining = Files.size(run) / RECORD_SIZE;
+            in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), RUN_BUFFER));
+        }
+
+        @Override
+        boolean next() throws IOException {
+            if (remaining == 0) {
+                return false;
+            }
+            remaining--;
+            try {
+                nr = in.readInt();
+                count = in.readLong();
+                sum = in.readDouble();
+            } catch (EOFException e) {
+                throw new IOException("The spilled run is truncated.", e);
+            }
+            return true;
+        }
+
+        @Override
+        void close() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // Reading is complete
+            }
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package de.rondiplomatico.nds;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Computes the tiles of a level touched by polylines and polygons given as primitive NDS coordinate arrays.
+ *
+ * The tile grid of a level consists of the columns/rows of the longitudes/latitudes shifted right by 31-level, i.e.
+ * the tiles have the same extent as given by {@link NDSTile#getBBox()}. Lines are considered to be continuous, and a
+ * tile is touched if it contains at least one point of the line, where every point belongs to exactly one tile (see
+ * {@link NDSTile#contains(NDSCoordinate)}). All computations are exact integer arithmetic.
+ *
+ * Consecutive vertices are connected along the shorter way, so lines crossing the antimeridian at 180 degrees
+ * longitude are supported. Polygons must not enclose a pole.
+ *
+ * The packed Tile IDs are returned sorted ascending (= morton order) and without duplicates.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSTileRaster {
+
+    /**
+     * The parts of the polygon coverage.
+     */
+    public enum Part {
+        /**
+         * All tiles touched by the polygon
+         */
+        ALL,
+        /**
+         * The tiles touched by the polygon's boundary
+         */
+        BOUNDARY,
+        /**
+         * The tiles completely within the polygon, not touched by the boundary
+         */
+        INTERIOR
+    }
+
+    private NDSTileRaster() {
+        // Static methods only
+    }
+
+    /**
+     * Computes the tiles touched by a polyline.
+     *
+     * Each segment walks the tile grid column by column (DDA-style), computing the rows touched within each column.
+     *
+     * @param level
+     *                   Must be in range 0..15
+     * @param lon
+     *                   the NDS longitudes of the vertices
+     * @param lat
+     *                   the NDS latitudes of the vertices
+     * @param offset
+     *                   the first vertex position
+     * @param length
+     *                   the number of vertices
+     * @return the sorted packed Tile IDs
+     */
+    public static int[] polyline(int level, int[] lon, int[] lat, int offset, int length) {
+        int shift = 31 - NDSTiles.checkLevel(level);
+        check(lon, lat, offset, length);
+        if (length == 0) {
+            return new int[0];
+        }
+        LongList cells = new LongList();
+        if (length == 1) {
+            cells.add(cell(lat[offset] >> shift, lon[offset] >> shift));
+        }
+        long x = lon[offset];
+        for (int i = offset + 1; i < offset + length; i++) {
+            // The int difference wraps around, which gives the shorter way
+            long next = x + (lon[i] - lon[i - 1]);
+            segment(x, lat[i - 1], next, lat[i], shift, cells);
+            x = next;
+        }
+        return toPackedIds(level, cells.sort());
+    }
+
+    /**
+     * Computes the tiles touched by a polygon.
+     *
+     * The boundary tiles are computed like for {@link #polyline(int, int[], int[], int, int)} with the closing
+     * segment. The interior tiles are filled by a scanline pass along the center line of each tile row, using the
+     * even-odd rule. For large polygons, the rows are filled in parallel (see {@link NDSBatch#getParallelThreshold()}).
+     *
+     * @param level
+     *                   Must be in range 0..15
+     * @param lon
+     *                   the NDS longitudes of the vertices
+     * @param lat
+     *                   the NDS latitudes of the vertices
+     * @param offset
+     *                   the first vertex position
+     * @param length
+     *                   the number of vertices, at least 3. The ring is closed implicitly.
+     * @param part
+     *                   the tiles to return
+     * @return the sorted packed Tile IDs
+     */
+    public static int[] polygon(int level, int[] lon, int[] lat, int offset, int length, Part part) {
+        int shift = 31 - NDSTiles.checkLevel(level);
+        check(lon, lat, offset, length);
+        if (length < 3) {
+            throw new IllegalArgumentException("A polygon needs at least 3 vertices, got " + length);
+        }
+        long[] x = new long[length + 1];
+        int[] y = new int[length + 1];
+        x[0] = lon[offset];
+        y[0] = lat[offset];
+        for (int i = 1; i <= length; i++) {
+            int j = offset + i % length;
+            x[i] = x[i - 1] + (lon[j] - lon[offset + i - 1]);
+            y[i] = lat[j];
+        }
+        if (x[length] != x[0]) {
+            throw new IllegalArgumentException("The polygon encloses a pole, which is not supported.");
+        }
+
+        LongList cells = new LongList();
+        for (int i = 0; i < length; i++) {
+            segment(x[i], y[i], x[i + 1], y[i + 1], shift, cells);
+        }
+        long[] boundaryCells = cells.sort();
+        int[] boundary = toPackedIds(level, boundaryCells);
+        if (part == Part.BOUNDARY) {
+            return boundary;
+        }
+        int[] interior = difference(interior(level, shift, x, y, boundaryCells), boundary);
+        return part == Part.INTERIOR ? interior : union(boundary, interior);
+    }
+
+    /*
+     * Adds the cells touched by the segment. The longitudes may exceed the int range for segments crossing the
+     * antimeridian, but differ by at most 2^31.
+     */
+    private static void segment(long x0, long y0, long x1, long y1, int shift, LongList cells) {
+        if (x0 > x1) {
+            long t = x0;
+            x0 = x1;
+            x1 = t;
+            t = y0;
+            y0 = y1;
+            y1 = t;
+        }
+        long dx = x1 - x0;
+        long dy = y1 - y0;
+        long last = x1 >> shift;
+        for (long c = x0 >> shift; c <= last; c++) {
+            /*
+             * The segment's longitudes within the column are [a, b), or [a, b] within the last column. The latitude
+             * at x is y0 + floorDiv((x - x0) * dy, dx) plus a fraction < 1, which gives the same row.
+             */
+            boolean open = c < last;
+            long a = Math.max(x0, c << shift);
+            long b = open ? (c + 1) << shift : x1;
+            long rowA = y0 >> shift;
+            long rowB = y1 >> shift;
+            if (dx != 0) {
+                rowA = (y0 + Math.floorDiv((a - x0) * dy, dx)) >> shift;
+                long n = (b - x0) * dy;
+                long yb = y0 + Math.floorDiv(n, dx);
+                rowB = yb >> shift;
+                if (open && dy > 0 && Math.floorMod(n, dx) == 0 && (yb & (1L << shift) - 1) == 0) {
+                    // The segment leaves the column exactly at the bottom of rowB
+                    rowB--;
+                }
+            }
+            for (long r = Math.min(rowA, rowB); r <= Math.max(rowA, rowB); r++) {
+                cells.add(cell((int) r, (int) c));
+            }
+        }
+    }
+
+    /*
+     * Computes the cells between pairs of boundary crossings of the tile rows' center lines, which are not boundary
+     * cells themselves. Returns their sorted packed Tile IDs.
+     */
+    private static int[] interior(int level, int shift, long[] x, int[] y, long[] boundary) {
+        long size = 1L << shift;
+        long half = size >> 1;
+        LongList crossings = new LongList();
+        for (int i = 0; i + 1 < x.length; i++) {
+            long xa = x[i];
+            long ya = y[i];
+            long xb = x[i + 1];
+            long yb = y[i + 1];
+            if (ya == yb) {
+                continue;
+            }
+            if (ya > yb) {
+                long t = xa;
+                xa = xb;
+                xb = t;
+                t = ya;
+                ya = yb;
+                yb = t;
+            }
+            // The rows whose center line r * size + half is within [ya, yb)
+            long first = -Math.floorDiv(half - ya, size);
+            long last = -Math.floorDiv(half - yb, size) - 1;
+            for (long r = first; r <= last; r++) {
+                long xc = xa + Math.floorDiv(((r << shift) + half - ya) * (xb - xa), yb - ya);
+                crossings.add(cell((int) r, (int) (xc >> shift)));
+            }
+        }
+        long[] cross = crossings.sortWithDuplicates();
+
+        // The spans of columns (from, to) between the crossings, and the number of non-boundary cells within
+        int spans = cross.length / 2;
+        int[] offsets = new int[spans + 1];
+        int[] first = new int[spans];
+        for (int s = 0; s < spans; s++) {
+            long from = cross[2 * s];
+            long to = cross[2 * s + 1];
+            int lo = lowerBound(boundary, from + 1);
+            int hi = lowerBound(boundary, to);
+            first[s] = lo;
+            offsets[s + 1] = offsets[s] + (int) (to - from - 1) - (hi - lo);
+        }
+        int n = offsets[spans];
+
+        int[] res = new int[n];
+        IntStream fill = IntStream.range(0, spans);
+        if (n >= NDSBatch.getParallelThreshold()) {
+            fill = fill.parallel();
+        }
+        fill.forEach(s -> {
+            int row = row(cross[2 * s]);
+            int to = column(cross[2 * s + 1]);
+            int b = first[s];
+            int pos = offsets[s];
+            for (int c = column(cross[2 * s]) + 1; c < to; c++) {
+                if (b < boundary.length && boundary[b] == cell(row, c)) {
+                    b++;
+                } else {
+                    res[pos++] = NDSTiles.packedIdOfCell(level, c, row);
+                }
+            }
+        });
+        if (n >= NDSBatch.getParallelThreshold()) {
+            Arrays.parallelSort(res);
+        } else {
+            Arrays.sort(res);
+        }
+        return distinct(res, n);
+    }
+
+    /*
+     * Cells are encoded as row in the upper and column in the lower 32 bits, such that their natural order is by row
+     * and column.
+     */
+
+    private static long cell(int row, int column) {
+        return (long) row << 32 | (column ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+    }
+
+    private static int row(long cell) {
+        return (int) (cell >> 32);
+    }
+
+    private static int column(long cell) {
+        return (int) cell ^ Integer.MIN_VALUE;
+    }
+
+    private static int[] toPackedIds(int level, long[] cells) {
+        int[] res = new int[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            res[i] = NDSTiles.packedIdOfCell(level, column(cells[i]), row(cells[i]));
+        }
+        Arrays.sort(res);
+        return distinct(res, res.length);
+    }
+
+    private static int lowerBound(long[] a, long key) {
+        int lo = 0;
+        int hi = a.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /*
+     * Operations on sorted arrays
+     */
+
+    private static int[] distinct(int[] a, int length) {
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            if (n == 0 || a[n - 1] != a[i]) {
+                a[n++] = a[i];
+            }
+        }
+        return n == a.length ? a : Arrays.copyOf(a, n);
+    }
+
+    private static int[] difference(int[] a, int[] b) {
+        int n = 0;
+        int j = 0;
+        for (int i = 0; i < a.length; i++) {
+            while (j < b.length && b[j] < a[i]) {
+                j++;
+            }
+            if (j == b.length || b[j] != a[i]) {
+                a[n++] = a[i];
+            }
+        }
+        return n == a.length ? a : Arrays.copyOf(a, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] res = new int[a.length + b.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length || j < b.length) {
+            res[n++] = j == b.length || i < a.length && a[i] < b[j] ? a[i++] : b[j++];
+        }
+        return res;
+    }
+
+    private static void check(int[] lon, int[] lat, int offset, int length) {
+        NDSBatch.checkRange(lon.length, offset, length);
+        NDSBatch.checkRange(lat.length, offset, length);
+        NDSBatch.checkNDS(lat, offset, length);
+    }
+
+    /**
+     * A minimal growable long array.
+     */
+    private static final class LongList {
+
+        private long[] values = new long[64];
+        private int size;
+
+        void add(long v) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            values[size++] = v;
+        }
+
+        /*
+         * Returns the sorted distinct values
+         */
+        long[] sort() {
+            Arrays.sort(values, 0, size);
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (n == 0 || values[n - 1] != values[i]) {
+                    values[n++] = values[i];
+                }
+            }
+            return Arrays.copyOf(values, n);
+        }
+
+        long[] sortWithDuplicates() {
+            Arrays.sort(values, 0, size);
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
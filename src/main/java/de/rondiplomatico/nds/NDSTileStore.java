@@ -0,0 +1,393 @@
+package de.rondiplomatico.nds;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * An append-only local store of binary tile payloads keyed by packed Tile ID, read from memory mapped files.
+ *
+ * A store is a directory with two files:
+ * <ul>
+ * <li>the data file {@value #DATA_FILE}, holding the blobs one after another</li>
+ * <li>the index file {@value #INDEX_FILE}, holding the header (24 bytes): magic "NDST" (int), version (short), a
+ * reserved short, the number of entries (long) and the length of the data file in use (long), followed by one entry
+ * per tile (16 bytes), sorted by packed Tile ID: packed Tile ID (int), blob length (int) and blob offset within the data
+ * file (long). All numbers are little endian.</li>
+ * </ul>
+ *
+ * {@link #build(Path, Iterator)} appends blobs to the data file and atomically replaces the index, so that a store
+ * opened before keeps reading the previous version. Blobs are never overwritten, a later blob of a tile replaces the
+ * earlier one within the index.
+ *
+ * Opening a store maps both files without reading them, so it takes about constant time regardless of the store size.
+ * The data file is mapped in overlapping segments of 2 GB starting every {@code 2^30} bytes, so that each blob lies
+ * within one segment. Lookups binary search the mapped index and return read-only views of the mapped blobs without
+ * copying. As tile numbers are the most significant bits of the morton codes within the tile, the tiles of a level are
+ * sorted by morton code, and the tiles within a morton code interval are read by one index scan. A store is immutable
+ * after opening and safe for concurrent use by multiple threads without locking. As Java can not unmap files
+ * explicitly, the mappings are released by the garbage collector after {@link #close()}.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSTileStore implements Closeable {
+
+    /**
+     * Receives the blobs of tiles.
+     */
+    @FunctionalInterface
+    public interface BlobConsumer {
+
+        /**
+         * @param packedId
+         *                     the packed Tile ID
+         * @param blob
+         *                     a read-only view of the blob, from position zero to its length
+         */
+        void accept(int packedId, ByteBuffer blob);
+    }
+
+    /**
+     * The name of the data file within the store directory
+     */
+    public static final String DATA_FILE = "tiles.dat";
+
+    /**
+     * The name of the index file within the store directory
+     */
+    public static final String INDEX_FILE = "tiles.idx";
+
+    /*
+     * Data segments start every 2^SEGMENT_SHIFT bytes and overlap by the maximum blob length
+     */
+    private static final int SEGMENT_SHIFT = 30;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    /**
+     * The maximum length of a blob in bytes (1 GB)
+     */
+    public static final int MAX_BLOB_LENGTH = Integer.MAX_VALUE - (1 << SEGMENT_SHIFT);
+
+    static final int MAGIC = 0x5453444E; // "NDST", little endian
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 24;
+    static final int ENTRY_SIZE = 16;
+
+    /**
+     * The maximum number of tiles of a store, limited by mapping the index at once
+     */
+    public static final int MAX_TILES = (Integer.MAX_VALUE - HEADER_SIZE) / ENTRY_SIZE;
+
+    private final FileChannel indexChannel;
+    private final FileChannel dataChannel;
+    private final ByteBuffer index;
+    private final ByteBuffer[] segments;
+    private final int count;
+    private final long dataLength;
+
+    private NDSTileStore(FileChannel indexChannel, FileChannel dataChannel, ByteBuffer index, ByteBuffer[] segments, int count, long dataLength) {
+        this.indexChannel = indexChannel;
+        this.dataChannel = dataChannel;
+        this.index = index;
+        this.segments = segments;
+        this.count = count;
+        this.dataLength = dataLength;
+    }
+
+    /**
+     * Opens a store.
+     *
+     * @param directory
+     *                      the store directory
+     * @return the store
+     * @throws IOException
+     *                         if the files can not be read or are no valid store
+     */
+    public static NDSTileStore open(Path directory) throws IOException {
+        FileChannel indexChannel = FileChannel.open(directory.resolve(INDEX_FILE), StandardOpenOption.READ);
+        FileChannel dataChannel = null;
+        try {
+            long length = indexChannel.size();
+            if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+                throw new IOException("The index of the tile store " + directory + " has the invalid size " + length + ".");
+            }
+            ByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+            if (index.getInt(0) != MAGIC) {
+                throw new IOException("The directory " + directory + " holds no tile store index.");
+            }
+            if (index.getShort(4) != VERSION) {
+                throw new IOException("The tile store " + directory + " has the unsupported version " + index.getShort(4) + ".");
+            }
+            long count = index.getLong(8);
+            long dataLength = index.getLong(16);
+            if (count < 0 || HEADER_SIZE + count * ENTRY_SIZE != length || dataLength < 0) {
+                throw new IOException("The index of the tile store " + directory + " is corrupt.");
+            }
+            dataChannel = FileChannel.open(directory.resolve(DATA_FILE), StandardOpenOption.READ);
+            if (dataChannel.size() < dataLength) {
+                throw new IOException("The data file of the tile store " + directory + " is shorter than the index requires.");
+            }
+            ByteBuffer[] segments = new ByteBuffer[(int) (dataLength + SEGMENT_MASK >>> SEGMENT_SHIFT)];
+            for (int s = 0; s < segments.length; s++) {
+                long start = (long) s << SEGMENT_SHIFT;
+                segments[s] = dataChannel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(Integer.MAX_VALUE, dataLength - start));
+            }
+            return new NDSTileStore(indexChannel, dataChannel, index, segments, (int) count, dataLength);
+        } catch (IOException | RuntimeException e) {
+            indexChannel.close();
+            if (dataChannel != null) {
+                dataChannel.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Appends tile blobs to a store and replaces its index, or creates a new store.
+     *
+     * The blobs are written in the order of the iterator and need not be sorted. If a tile occurs more than once, the
+     * last blob replaces the earlier ones. The store must not be built by more than one process or thread at a time,
+     * while it may be read concurrently.
+     *
+     * @param directory
+     *                      the store directory, created if missing
+     * @param tiles
+     *                      the packed Tile IDs and blobs, from the position to the limit of each buffer
+     * @return the number of tiles of the store
+     * @throws IOException
+     */
+    public static int build(Path directory, Iterator<? extends Map.Entry<Integer, ByteBuffer>> tiles) throws IOException {
+        Files.createDirectories(directory);
+        Entries entries = new Entries();
+        long offset = 0;
+        if (Files.exists(directory.resolve(INDEX_FILE))) {
+            try (NDSTileStore store = open(directory)) {
+                for (int e = 0; e < store.count; e++) {
+                    int pos = HEADER_SIZE + e * ENTRY_SIZE;
+                    entries.add(store.index.getInt(pos), store.index.getLong(pos + 8), store.index.getInt(pos + 4));
+                }
+                offset = store.dataLength;
+            }
+        }
+        try (FileChannel data = FileChannel.open(directory.resolve(DATA_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Drops the blobs of an interrupted build, which no index refers to
+            data.truncate(offset);
+            data.position(offset);
+            while (tiles.hasNext()) {
+                Map.Entry<Integer, ByteBuffer> tile = tiles.next();
+                int packedId = tile.getKey();
+                NDSTiles.checkLevel(NDSTiles.levelOf(packedId));
+                ByteBuffer blob = tile.getValue().duplicate();
+                int length = blob.remaining();
+                if (length > MAX_BLOB_LENGTH) {
+                    throw new IllegalArgumentException("The blob of tile " + packedId + " exceeds the maximum length of " + MAX_BLOB_LENGTH + " bytes.");
+                }
+                if (entries.size == MAX_TILES) {
+                    throw new IllegalArgumentException("The tile store exceeds the maximum number of " + MAX_TILES + " tiles.");
+                }
+                while (blob.hasRemaining()) {
+                    data.write(blob);
+                }
+                entries.add(packedId, offset, length);
+                offset += length;
+            }
+            data.force(false);
+        }
+        return entries.write(directory, offset);
+    }
+
+    /**
+     * @return the number of tiles
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @return the number of bytes of the data file in use
+     */
+    public long getDataLength() {
+        return dataLength;
+    }
+
+    /**
+     * @param packedId
+     * @return true, if the store holds a blob of the tile
+     */
+    public boolean contains(int packedId) {
+        int e = lowerBound(packedId);
+        return e < count && packedIdAt(e) == packedId;
+    }
+
+    /**
+     * Looks up the blob of a tile.
+     *
+     * @param packedId
+     * @return a read-only view of the blob, from position zero to its length, or null if there is no blob of the tile
+     */
+    public ByteBuffer get(int packedId) {
+        int e = lowerBound(packedId);
+        return e < count && packedIdAt(e) == packedId ? blob(e) : null;
+    }
+
+    /**
+     * Passes the blobs of the tiles of a level, which contain a morton code within an interval, to a consumer, sorted
+     * by morton code.
+     *
+     * Use {@link NDSMortonRanges#decompose(NDSBBox, int)} for the tiles within a bounding box.
+     *
+     * @param level
+     *                       the tile level
+     * @param minMorton
+     *                       the minimum morton code, inclusive
+     * @param maxMorton
+     *                       the maximum morton code, inclusive
+     * @param consumer
+     * @return the number of tiles passed
+     */
+    public int forEachInRange(int level, long minMorton, long maxMorton, BlobConsumer consumer) {
+        NDSTiles.checkLevel(level);
+        if (minMorton < 0 || minMorton > maxMorton) {
+            throw new IllegalArgumentException("The morton code interval [" + minMorton + ", " + maxMorton + "] is invalid.");
+        }
+        int shift = 32 + 2 * (NDSTile.MAX_LEVEL - level);
+        int to = NDSTiles.packedIdOf(level, (int) (maxMorton >> shift));
+        int n = 0;
+        for (int e = lowerBound(NDSTiles.packedIdOf(level, (int) (minMorton >> shift))); e < count && packedIdAt(e) <= to; e++) {
+            consumer.accept(packedIdAt(e), blob(e));
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Passes the blobs of all tiles to a consumer, sorted by packed Tile ID.
+     *
+     * @param consumer
+     */
+    public void forEach(BlobConsumer consumer) {
+        for (int e = 0; e < count; e++) {
+            consumer.accept(packedIdAt(e), blob(e));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            indexChannel.close();
+        } finally {
+            dataChannel.close();
+        }
+    }
+
+    private int packedIdAt(int e) {
+        return index.getInt(HEADER_SIZE + e * ENTRY_SIZE);
+    }
+
+    /*
+     * The first entry with a packed Tile ID greater or equal to the given one
+     */
+    private int lowerBound(int packedId) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = lo + hi >>> 1;
+            if (packedIdAt(mid) < packedId) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private ByteBuffer blob(int e) {
+        int pos = HEADER_SIZE + e * ENTRY_SIZE;
+        int length = index.getInt(pos + 4);
+        long offset = index.getLong(pos + 8);
+        if (length == 0) {
+            // There may be no segment at the end of the data
+            return ByteBuffer.allocate(0).asReadOnlyBuffer();
+        }
+        // The duplicate shares the mapping, but not the position and limit of the segment
+        ByteBuffer b = segments[(int) (offset >>> SEGMENT_SHIFT)].duplicate();
+        int start = (int) (offset & SEGMENT_MASK);
+        b.position(start);
+        b.limit(start + length);
+        return b.slice();
+    }
+
+    /**
+     * The index entries of a build, in the order of the blobs.
+     */
+    private static final class Entries {
+
+        private int[] ids = new int[1024];
+        private long[] offsets = new long[1024];
+        private int[] lengths = new int[1024];
+        private int size;
+
+        void add(int packedId, long offset, int length) {
+            if (size == ids.length) {
+                int capacity = (int) Math.min(MAX_TILES, 2L * size);
+                ids = Arrays.copyOf(ids, capacity);
+                offsets = Arrays.copyOf(offsets, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            ids[size] = packedId;
+            offsets[size] = offset;
+            lengths[size++] = length;
+        }
+
+        /*
+         * Writes the index sorted by packed Tile ID, with the last entry of each tile, and replaces the current index
+         */
+        int write(Path directory, long dataLength) throws IOException {
+            // The packed Tile ID in the upper, the entry in the lower bits, so that the last entry of a tile sorts last
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (long) ids[i] << 32 | i;
+            }
+            Arrays.parallelSort(keys);
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (i + 1 == size || keys[i + 1] >> 32 != keys[i] >> 32) {
+                    keys[n++] = keys[i];
+                }
+            }
+            Path tmp = directory.resolve(INDEX_FILE + ".tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buf = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+                buf.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(n).putLong(dataLength);
+                for (int k = 0; k < n; k++) {
+                    if (buf.remaining() < ENTRY_SIZE) {
+                        flush(out, buf);
+                    }
+                    int i = (int) keys[k];
+                    buf.putInt(ids[i]).putInt(lengths[i]).putLong(offsets[i]);
+                }
+                flush(out, buf);
+                out.force(false);
+            }
+            Files.move(tmp, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return n;
+        }
+
+        private static void flush(FileChannel out, ByteBuffer buf) throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                out.write(buf);
+            }
+            buf.clear();
+        }
+    }
+}
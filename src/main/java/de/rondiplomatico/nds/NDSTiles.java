@@ -0,0 +1,427 @@
+package de.rondiplomatico.nds;
+
+/**
+ * Static, allocation-free functions of the NDS Tile scheme operating on primitive NDS coordinates and packed Tile
+ * IDs.
+ *
+ * All functions compute exactly the same values as the respective {@link NDSTile} and {@link NDSCoordinate} methods,
+ * but do not create any objects on the way. This makes them suitable for hot loops processing millions of
+ * coordinates.
+ *
+ * @see NDSTile
+ * @see NDS Format Specification, Version 2.5.4, §7.3.1.
+ *
+ * @since 15.10.2026
+ */
+public final class NDSTiles {
+
+    /**
+     * The result of the non-throwing functions for invalid input. No valid packed Tile ID is zero, as each has a level
+     * bit set.
+     */
+    public static final int INVALID_PACKED_ID = 0;
+
+    private NDSTiles() {
+        // Static methods only
+    }
+
+    /**
+     * Computes the number of the tile of the specified level containing the specified coordinate.
+     *
+     * @param level
+     *                   Must be in range 0..15
+     * @param ndsLon
+     *                   the NDS longitude
+     * @param ndsLat
+     *                   the NDS latitude
+     * @return int the tile number
+     * @see NDSTile#NDSTile(int, NDSCoordinate)
+     */
+    public static int tileNumber(int level, int ndsLon, int ndsLat) {
+        checkLevel(level);
+        checkLatitude(ndsLat);
+        /*
+         * The tile number is identical to the (2*level+1) most-significant bits of
+         * the Morton code of the coordinate.
+         */
+        return (int) (MortonCodec.encode(ndsLon, ndsLat) >> 32 + (NDSTile.MAX_LEVEL - level) * 2);
+    }
+
+    /**
+     * Computes the packed Tile ID of the tile of the specified level containing the specified coordinate.
+     *
+     * @param level
+     *                   Must be in range 0..15
+     * @param ndsLon
+     *                   the NDS longitude
+     * @param ndsLat
+     *                   the NDS latitude
+     * @return int the packed Tile ID
+     * @see NDSFormatSpecification: 7.3.3 Generating Packed Tile IDs
+     */
+    public static int packedId(int level, int ndsLon, int ndsLat) {
+        return tileNumber(level, ndsLon, ndsLat) + (1 << (16 + level));
+    }
+
+    /**
+     * Computes the packed Tile ID of the tile of the specified level containing the specified WGS84 coordinate.
+     *
+     * @param level
+     *                  Must be in range 0..15
+     * @param lon
+     *                  the longitude within [-180, 180]
+     * @param lat
+     *                  the latitude within [-90, 90]
+     * @return int the packed Tile ID
+     * @see NDSTile#NDSTile(int, WGS84Coordinate)
+     */
+    public static int packedIdFromWgs84(int level, double lon, double lat) {
+        return packedId(level, NDSCoordinate.fromWGS84Longitude(lon), NDSCoordinate.fromWGS84Latitude(lat));
+    }
+
+    /**
+     * Computes the packed Tile ID of the tile of the specified level containing the specified coordinate, without
+     * throwing for an invalid latitude.
+     *
+     * @param level
+     *                   Must be in range 0..15
+     * @param ndsLon
+     *                   the NDS longitude
+     * @param ndsLat
+     *                   the NDS latitude
+     * @return int the packed Tile ID, or {@link #INVALID_PACKED_ID} if the latitude is invalid
+     */
+    public static int tryPackedId(int level, int ndsLon, int ndsLat) {
+        checkLevel(level);
+        if (ndsLat < NDSCoordinate.MIN_LATITUDE || ndsLat > NDSCoordinate.MAX_LATITUDE) {
+            return INVALID_PACKED_ID;
+        }
+        return (int) (MortonCodec.encode(ndsLon, ndsLat) >> 32 + (NDSTile.MAX_LEVEL - level) * 2) + (1 << (16 + level));
+    }
+
+    /**
+     * Computes the packed Tile ID of the tile of the specified level containing the specified WGS84 coordinate,
+     * without throwing for invalid coordinates.
+     *
+     * @param level
+     *                  Must be in range 0..15
+     * @param lon
+     *                  the longitude
+     * @param lat
+     *                  the latitude
+     * @return int the packed Tile ID, or {@link #INVALID_PACKED_ID} if a value is NaN or out of range
+     * @see NDSBatch#tryPackedIdsFromWgs84(int, double[], double[], int, int[], int, int, long[], NDSRejects)
+     */
+    public static int tryPackedIdFromWgs84(int level, double lon, double lat) {
+        checkLevel(level);
+        // The comparisons are false for NaN
+        if (!(lon >= -180 && lon <= 180 && lat >= -90 && lat <= 90)) {
+            return INVALID_PACKED_ID;
+        }
+        int ndsLon = NDSCoordinate.floorToInt(lon / 360.0 * NDSCoordinate.LONGITUDE_RANGE);
+        int ndsLat = NDSCoordinate.floorToInt(lat / 180.0 * NDSCoordinate.LATITUDE_RANGE);
+        return (int) (MortonCodec.encode(ndsLon, ndsLat) >> 32 + (NDSTile.MAX_LEVEL - level) * 2) + (1 << (16 + level));
+    }
+
+    /**
+     * Composes the packed Tile ID from a level and tile number.
+     *
+     * @param level
+     * @param tileNumber
+     * @return int the packed Tile ID
+     */
+    public static int packedIdOf(int level, int tileNumber) {
+        return tileNumber + (1 << (16 + level));
+    }
+
+    /**
+     * Extracts the level of a packed Tile ID.
+     *
+     * The level is encoded by the most significant bit set, at position 16 + level. As the tile numbers of a level
+     * have at most 2*level+1 bits, no tile number bit can be more significant than the level bit.
+     *
+     * @param packedId
+     * @return int the level, or -1 if the packed Tile ID has no level bit
+     */
+    public static int levelOf(int packedId) {
+        return Math.max(-1, NDSTile.MAX_LEVEL - Integer.numberOfLeadingZeros(packedId));
+    }
+
+    /**
+     * Extracts the tile number of a packed Tile ID.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID
+     * @return int the tile number
+     */
+    public static int tileNumberOf(int packedId) {
+        return packedId ^ Integer.highestOneBit(packedId);
+    }
+
+    /**
+     * Checks if the tile denoted by the packed Tile ID contains a certain coordinate.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID
+     * @param ndsLon
+     *                     the NDS longitude
+     * @param ndsLat
+     *                     the NDS latitude
+     * @return true, if the coordinate is contained in the tile
+     * @see NDSTile#contains(NDSCoordinate)
+     */
+    public static boolean contains(int packedId, int ndsLon, int ndsLat) {
+        int level = levelOf(packedId);
+        return tileNumberOf(packedId) == (int) (MortonCodec.encode(ndsLon, ndsLat) >> 32 + (NDSTile.MAX_LEVEL - level) * 2);
+    }
+
+    /**
+     * Writes the bounding box of a tile into the destination array.
+     *
+     * The four values are written in the order of the {@link NDSBBox} constructor: north, east, south, west.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID
+     * @param dest
+     *                     The destination array
+     * @param offset
+     *                     The position of the north value within the destination array
+     * @see NDSTile#getBBox()
+     */
+    public static void bbox(int packedId, int[] dest, int offset) {
+        int level = checkLevel(levelOf(packedId));
+        int nr = tileNumberOf(packedId);
+        dest[offset] = north(level, nr);
+        dest[offset + 1] = east(level, nr);
+        dest[offset + 2] = south(level, nr);
+        dest[offset + 3] = west(level, nr);
+    }
+
+    /**
+     * Writes the center of a tile into the destination array, as longitude followed by latitude.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID
+     * @param dest
+     *                     The destination array
+     * @param offset
+     *                     The position of the longitude value within the destination array
+     * @see NDSTile#getCenter()
+     */
+    public static void center(int packedId, int[] dest, int offset) {
+        int level = checkLevel(levelOf(packedId));
+        int nr = tileNumberOf(packedId);
+        dest[offset] = centerLongitude(level, nr);
+        dest[offset + 1] = centerLatitude(level, nr);
+    }
+
+    /**
+     * Computes the packed Tile ID of an ancestor of a tile.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID
+     * @param levels
+     *                     the number of levels to go up, within [0, level of the tile]
+     * @return int the packed Tile ID of the ancestor
+     */
+    public static int parent(int packedId, int levels) {
+        int level = checkLevel(levelOf(packedId));
+        if (levels < 0 || levels > level) {
+            throw new IllegalArgumentException("Can not go up " + levels + " levels from a tile on level " + level + ".");
+        }
+        return packedIdOf(level - levels, tileNumberOf(packedId) >>> 2 * levels);
+    }
+
+    /**
+     * Writes the packed Tile IDs of the four children of a tile into the destination array, in morton order (south
+     * west, south east, north west, north east).
+     *
+     * @param packedId
+     *                     A valid packed Tile ID with a level below 15
+     * @param dest
+     *                     The destination array
+     * @param offset
+     *                     The position of the first child within the destination array
+     */
+    public static void children(int packedId, int[] dest, int offset) {
+        int level = checkLevel(levelOf(packedId));
+        if (level == NDSTile.MAX_LEVEL) {
+            throw new IllegalArgumentException("Tiles on level " + level + " have no children.");
+        }
+        int first = packedIdOf(level + 1, tileNumberOf(packedId) << 2);
+        dest[offset] = first;
+        dest[offset + 1] = first + 1;
+        dest[offset + 2] = first + 2;
+        dest[offset + 3] = first + 3;
+    }
+
+    /**
+     * Computes the packed Tile ID of the tile dx columns east and dy rows north of a tile.
+     *
+     * The columns wrap around at the antimeridian, while the rows are clamped at the poles, i.e. the northern neighbour
+     * of a tile in the northernmost row is the tile itself. On level 0, the two hemisphere tiles are each others
+     * eastern and western neighbours.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID
+     * @param dx
+     *                     the number of columns to go east (negative: west)
+     * @param dy
+     *                     the number of rows to go north (negative: south)
+     * @return int the packed Tile ID of the neighbour
+     */
+    public static int neighbour(int packedId, int dx, int dy) {
+        int level = checkLevel(levelOf(packedId));
+        int nr = tileNumberOf(packedId);
+        int row = clampRow(level, (long) row(level, nr) + dy);
+        return packedIdOfCell(level, MortonCodec.compact(nr) + dx, row);
+    }
+
+    /**
+     * Writes the packed Tile IDs of all tiles within k columns and k rows of a tile into the destination array,
+     * including the tile itself.
+     *
+     * The tiles are written row by row from south to north and west to east within each row, starting with the
+     * south-western tile. Wrapping at the antimeridian and clamping at the poles are applied as with
+     * {@link #neighbour(int, int, int)}, but each tile is written only once. Hence, at most (2k+1)^2 values are
+     * written.
+     *
+     * @param packedId
+     *                     A valid packed Tile ID
+     * @param k
+     *                     the distance, at least 0
+     * @param dest
+     *                     The destination array
+     * @param offset
+     *                     The position of the first tile within the destination array
+     * @return int the number of tiles written
+     */
+    public static int kRing(int packedId, int k, int[] dest, int offset) {
+        int level = checkLevel(levelOf(packedId));
+        if (k < 0) {
+            throw new IllegalArgumentException("The k-ring distance " + k + " must not be negative.");
+        }
+        int nr = tileNumberOf(packedId);
+        int row = row(level, nr);
+        int south = clampRow(level, (long) row - k);
+        int north = clampRow(level, (long) row + k);
+        int column = MortonCodec.compact(nr);
+        int columns = 1 << level + 1;
+        int west;
+        int width;
+        if (2L * k + 1 >= columns) {
+            // All columns, starting at the (unsigned) column 0
+            west = 0;
+            width = columns;
+        } else {
+            west = column - k;
+            width = 2 * k + 1;
+        }
+        int n = offset;
+        for (int r = south; r <= north; r++) {
+            for (int c = 0; c < width; c++) {
+                dest[n++] = packedIdOfCell(level, west + c, r);
+            }
+        }
+        return n - offset;
+    }
+
+    /*
+     * The bounding box values.
+     *
+     * For level 0 there are two tiles, each covering a hemisphere.
+     * Otherwise, the south west corner is given by the tile number as most significant morton code bits.
+     */
+
+    static int north(int level, int nr) {
+        if (level == 0) {
+            return NDSCoordinate.MAX_LATITUDE;
+        }
+        int swLat = MortonCodec.decodeLat(southWestAsMorton(level, nr));
+        return (int) (swLat + Math.floor(NDSCoordinate.LATITUDE_RANGE / (1L << level))) + (swLat < 0 ? 1 : 0);
+    }
+
+    static int east(int level, int nr) {
+        if (level == 0) {
+            return nr == 0 ? NDSCoordinate.MAX_LONGITUDE : 0;
+        }
+        int swLon = MortonCodec.decodeLon(southWestAsMorton(level, nr));
+        return (int) (swLon + Math.floor(NDSCoordinate.LONGITUDE_RANGE / (1L << level + 1))) + (swLon < 0 ? 1 : 0);
+    }
+
+    static int south(int level, int nr) {
+        if (level == 0) {
+            return NDSCoordinate.MIN_LATITUDE;
+        }
+        return MortonCodec.decodeLat(southWestAsMorton(level, nr));
+    }
+
+    static int west(int level, int nr) {
+        if (level == 0) {
+            return nr == 0 ? 0 : NDSCoordinate.MIN_LONGITUDE;
+        }
+        return MortonCodec.decodeLon(southWestAsMorton(level, nr));
+    }
+
+    /*
+     * The center values, same computation as for the bounding box, but for the next lower level
+     */
+
+    static int centerLongitude(int level, int nr) {
+        if (level == 0) {
+            return nr == 0 ? NDSCoordinate.MAX_LONGITUDE / 2 : NDSCoordinate.MIN_LONGITUDE / 2;
+        }
+        int swLon = MortonCodec.decodeLon(southWestAsMorton(level, nr));
+        return (int) (swLon + Math.floor(NDSCoordinate.LONGITUDE_RANGE / (1L << level + 2))) + (swLon < 0 ? 1 : 0);
+    }
+
+    static int centerLatitude(int level, int nr) {
+        if (level == 0) {
+            return 0;
+        }
+        int swLat = MortonCodec.decodeLat(southWestAsMorton(level, nr));
+        return (int) (swLat + Math.floor(NDSCoordinate.LATITUDE_RANGE / (1L << level + 1))) + (swLat < 0 ? 1 : 0);
+    }
+
+    /*
+     * The packed Tile ID of the tile in the specified column and row, i.e. of the longitudes/latitudes shifted right by
+     * 31-level. Columns wrap around at the antimeridian.
+     */
+    static int packedIdOfCell(int level, int column, int row) {
+        long x = MortonCodec.spread(column & (1 << level + 1) - 1);
+        long y = MortonCodec.spread(row & (1 << level) - 1);
+        return (int) (x | y << 1) + (1 << (16 + level));
+    }
+
+    /*
+     * The signed row of a tile number, i.e. the latitude shifted right by 31-level. There is only one row on level 0.
+     */
+    static int row(int level, int nr) {
+        return level == 0 ? 0 : MortonCodec.compact(nr >>> 1) << 32 - level >> 32 - level;
+    }
+
+    static int clampRow(int level, long row) {
+        if (level == 0) {
+            return 0;
+        }
+        return (int) Math.max(-(1L << level - 1), Math.min((1L << level - 1) - 1, row));
+    }
+
+    static long southWestAsMorton(int level, int nr) {
+        return (long) nr << 32 + (NDSTile.MAX_LEVEL - level) * 2;
+    }
+
+    static int checkLevel(int level) {
+        if (level < 0 || level > NDSTile.MAX_LEVEL) {
+            throw new IllegalArgumentException("The Tile level " + level + " exceeds the range [0, 15].");
+        }
+        return level;
+    }
+
+    static void checkLatitude(int lat) {
+        if (lat < NDSCoordinate.MIN_LATITUDE || NDSCoordinate.MAX_LATITUDE < lat) {
+            throw new IllegalArgumentException("Latitude value " + lat + " exceeds allowed range [-2^30; 2^30] [" + NDSCoordinate.MIN_LATITUDE + ","
+                            + NDSCoordinate.MAX_LATITUDE + "].");
+        }
+    }
+}
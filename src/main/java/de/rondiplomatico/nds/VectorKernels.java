@@ -0,0 +1,36 @@
+package de.rondiplomatico.nds;
+
+/**
+ * Placeholder for the explicit vector kernels of {@link NDSBatch}.
+ *
+ * The actual implementation based on the jdk.incubator.vector API is located in src/main/java17 and replaces this
+ * class in the multi-release jar when running on Java 17+.
+ *
+ * @since 15.10.2026
+ */
+final class VectorKernels {
+
+    private VectorKernels() {
+        // Static methods only
+    }
+
+    static boolean isAvailable() {
+        return false;
+    }
+
+    static void toNDS(double[] lon, double[] lat, int srcOffset, int[] ndsLon, int[] ndsLat, int destOffset, int length) {
+        NDSBatch.toNDSKernel(lon, lat, srcOffset, ndsLon, ndsLat, destOffset, length);
+    }
+
+    static void toWGS84(int[] ndsLon, int[] ndsLat, int srcOffset, double[] lon, double[] lat, int destOffset, int length) {
+        NDSBatch.toWGS84Kernel(ndsLon, ndsLat, srcOffset, lon, lat, destOffset, length);
+    }
+
+    static void mortonCodes(int[] ndsLon, int[] ndsLat, int srcOffset, long[] dest, int destOffset, int length) {
+        NDSBatch.mortonCodesKernel(ndsLon, ndsLat, srcOffset, dest, destOffset, length);
+    }
+
+    static void packedIds(int level, int[] ndsLon, int[] ndsLat, int srcOffset, int[] dest, int destOffset, int length) {
+        NDSBatch.packedIdsKernel(level, ndsLon, ndsLat, srcOffset, dest, destOffset, length);
+    }
+}
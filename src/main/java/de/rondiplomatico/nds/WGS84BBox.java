@@ -26,18 +26,7 @@ public class WGS84BBox {
      * @return
      */
     public String toGeoJSON() {
-        return "{\"type\": \"Feature\",\r\n" +
-                        "      \"properties\": {},\r\n" +
-                        "      \"geometry\": {\r\n" +
-                        "        \"type\": \"Polygon\",\r\n" +
-                        "        \"coordinates\": [[\r\n" +
-                        "          [" + west + "," + south + "],\r\n" +
-                        "          [" + east + "," + south + "],\r\n" +
-                        "          [" + east + "," + north + "],\r\n" +
-                        "          [" + west + "," + north + "],\r\n" +
-                        "          [" + west + "," + south + "]]\r\n" +
-                        "        ]\r\n" +
-                        "      }}";
+        return GeoJsonWriter.toGeoJSON(w -> w.bbox(this));
     }
 
 }
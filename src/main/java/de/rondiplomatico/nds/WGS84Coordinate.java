@@ -47,13 +47,6 @@ public class WGS84Coordinate {
      * @return
      */
     public String toGeoJSON() {
-        return "{\"type\": \"Feature\",\r\n" +
-                        "      \"properties\": {},\r\n" +
-                        "      \"geometry\": {\r\n" +
-                        "        \"type\": \"Point\",\r\n" +
-                        "        \"coordinates\": [\r\n" +
-                        "          " + longitude + "," + latitude + "\r\n" +
-                        "        ]\r\n" +
-                        "      }},";
+        return GeoJsonWriter.toGeoJSON(w -> w.point(this));
     }
 }
\ No newline at end of file
@@ -0,0 +1,104 @@
+package de.rondiplomatico.nds;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Explicit vector kernels of {@link NDSBatch} based on the jdk.incubator.vector API.
+ *
+ * Requires the JVM option "--add-modules jdk.incubator.vector"; otherwise loading this class fails and
+ * {@link NDSBatch} falls back to the scalar kernels.
+ *
+ * Every kernel processes as many full vectors as possible and hands the remaining elements to the scalar kernel. All
+ * floating point operations are the same IEEE operations as in the scalar kernels, so the results are identical.
+ *
+ * @since 15.10.2026
+ */
+final class VectorKernels {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    /*
+     * Int species with the same number of lanes as the double/long species
+     */
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED.withShape(VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    private static final long MASK_32 = 0x00000000FFFFFFFFL;
+    private static final long MASK_16 = 0x0000FFFF0000FFFFL;
+    private static final long MASK_8 = 0x00FF00FF00FF00FFL;
+    private static final long MASK_4 = 0x0F0F0F0F0F0F0F0FL;
+    private static final long MASK_2 = 0x3333333333333333L;
+    private static final long MASK_1 = 0x5555555555555555L;
+
+    private VectorKernels() {
+        // Static methods only
+    }
+
+    static boolean isAvailable() {
+        return INTS.length() == DOUBLES.length() && INTS.length() == LONGS.length();
+    }
+
+    static void toNDS(double[] lon, double[] lat, int srcOffset, int[] ndsLon, int[] ndsLat, int destOffset, int length) {
+        /*
+         * Without AVX-512 the double to long lane conversions needed for the floor operation are not intrinsified,
+         * which makes an explicit vector version slower than the scalar kernel.
+         */
+        NDSBatch.toNDSKernel(lon, lat, srcOffset, ndsLon, ndsLat, destOffset, length);
+    }
+
+    static void toWGS84(int[] ndsLon, int[] ndsLat, int srcOffset, double[] lon, double[] lat, int destOffset, int length) {
+        int n = DOUBLES.loopBound(length);
+        for (int i = 0; i < n; i += DOUBLES.length()) {
+            DoubleVector x = toDouble(IntVector.fromArray(INTS, ndsLon, srcOffset + i));
+            x.div(NDSCoordinate.MIN_LONGITUDE).mul(-180.0D).blend(x.div(NDSCoordinate.MAX_LONGITUDE).mul(180.0D), x.compare(VectorOperators.GE, 0))
+                            .intoArray(lon, destOffset + i);
+            DoubleVector y = toDouble(IntVector.fromArray(INTS, ndsLat, srcOffset + i));
+            y.div(NDSCoordinate.MIN_LATITUDE).mul(-90.0D).blend(y.div(NDSCoordinate.MAX_LATITUDE).mul(90.0D), y.compare(VectorOperators.GE, 0))
+                            .intoArray(lat, destOffset + i);
+        }
+        NDSBatch.toWGS84Kernel(ndsLon, ndsLat, srcOffset + n, lon, lat, destOffset + n, length - n);
+    }
+
+    static void mortonCodes(int[] ndsLon, int[] ndsLat, int srcOffset, long[] dest, int destOffset, int length) {
+        int n = LONGS.loopBound(length);
+        for (int i = 0; i < n; i += LONGS.length()) {
+            encode(ndsLon, ndsLat, srcOffset + i).intoArray(dest, destOffset + i);
+        }
+        NDSBatch.mortonCodesKernel(ndsLon, ndsLat, srcOffset + n, dest, destOffset + n, length - n);
+    }
+
+    static void packedIds(int level, int[] ndsLon, int[] ndsLat, int srcOffset, int[] dest, int destOffset, int length) {
+        int shift = 32 + (NDSTile.MAX_LEVEL - level) * 2;
+        int levelBit = 1 << (16 + level);
+        int n = LONGS.loopBound(length);
+        for (int i = 0; i < n; i += LONGS.length()) {
+            IntVector nr = (IntVector) encode(ndsLon, ndsLat, srcOffset + i).lanewise(VectorOperators.ASHR, shift).convertShape(VectorOperators.L2I, INTS, 0);
+            nr.add(levelBit).intoArray(dest, destOffset + i);
+        }
+        NDSBatch.packedIdsKernel(level, ndsLon, ndsLat, srcOffset + n, dest, destOffset + n, length - n);
+    }
+
+    private static DoubleVector toDouble(IntVector v) {
+        return (DoubleVector) v.convertShape(VectorOperators.I2D, DOUBLES, 0);
+    }
+
+    private static LongVector encode(int[] ndsLon, int[] ndsLat, int offset) {
+        LongVector lon = (LongVector) IntVector.fromArray(INTS, ndsLon, offset).convertShape(VectorOperators.I2L, LONGS, 0);
+        LongVector lat = (LongVector) IntVector.fromArray(INTS, ndsLat, offset).convertShape(VectorOperators.I2L, LONGS, 0);
+        // For 31-bit signed integers the 32st bit needs to be copied to the 31st bit in case of negative numbers.
+        LongVector latSign = lat.lanewise(VectorOperators.LSHR, 63).lanewise(VectorOperators.LSHL, 61);
+        return spread(lon.and(MASK_32)).or(spread(lat.and(Integer.MAX_VALUE)).lanewise(VectorOperators.LSHL, 1)).or(latSign);
+    }
+
+    private static LongVector spread(LongVector x) {
+        x = x.or(x.lanewise(VectorOperators.LSHL, 16)).and(MASK_16);
+        x = x.or(x.lanewise(VectorOperators.LSHL, 8)).and(MASK_8);
+        x = x.or(x.lanewise(VectorOperators.LSHL, 4)).and(MASK_4);
+        x = x.or(x.lanewise(VectorOperators.LSHL, 2)).and(MASK_2);
+        return x.or(x.lanewise(VectorOperators.LSHL, 1)).and(MASK_1);
+    }
+}
@@ -0,0 +1,279 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.function.LongSupplier;
+
+import org.junit.Test;
+
+/**
+ * Asserts the allocation budgets of the hot paths, so that boxing or temporary objects can not creep back in
+ * unnoticed.
+ *
+ * Each call is repeated {@link #CALLS} times per round, {@link #BATCH_CALLS} times for the batch functions, and the
+ * bytes allocated by the current thread are taken from
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}. The first rounds warm up the JIT, whose escape
+ * analysis removes temporary objects only once a method is compiled. A call passes as soon as one measured round stays
+ * within the budget, and fails naming the call and its bytes per call of the best round otherwise. On JVMs without
+ * the allocation counters, the budgets are not checked.
+ *
+ * The scalar functions must not allocate at all. The batch functions may allocate a small constant per call, but
+ * nothing per element, so their budget is far below a single byte per element of the batches measured. With the
+ * metrics or JFR events enabled, as by the "test-metrics" surefire execution, the batch functions may additionally
+ * allocate their {@link NDSMetrics} timer and its event.
+ *
+ * @since 15.10.2026
+ */
+public class AllocationBudgetTest {
+
+    private static final int CALLS = 10000;
+    private static final int BATCH_CALLS = 500;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MAX_ROUNDS = 50;
+
+    /*
+     * The per call budget of the batch functions, the capturing lambda of their kernel unless the JIT removes it
+     */
+    private static final long BATCH_BUDGET = 48;
+    /*
+     * The per call budget of the validating batch functions, which also allocate the reject counts of their chunk
+     */
+    private static final long VALIDATING_BUDGET = 96;
+    /*
+     * The additional per call budget of the batch functions with the metrics enabled, the timer and its JFR event
+     */
+    private static final long METRICS_BUDGET = 128;
+    private static final int BATCH = 4096;
+
+    private static final int N = 1024;
+    private static final int LEVEL = 13;
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private final int[] ndsLon = new int[N];
+    private final int[] ndsLat = new int[N];
+    private final double[] lon = new double[N];
+    private final double[] lat = new double[N];
+    private final long[] codes = new long[N];
+    private final int[] ids = new int[N];
+    private int next;
+    private long sink;
+
+    public AllocationBudgetTest() {
+        Random rnd = new Random(1);
+        for (int i = 0; i < N; i++) {
+            lon[i] = 9.18 + rnd.nextDouble() - 0.5;
+            lat[i] = 48.78 + rnd.nextDouble() - 0.5;
+            ndsLon[i] = NDSCoordinate.fromWGS84Longitude(lon[i]);
+            ndsLat[i] = NDSCoordinate.fromWGS84Latitude(lat[i]);
+            codes[i] = MortonCodec.encode(ndsLon[i], ndsLat[i]);
+            ids[i] = NDSTiles.packedId(LEVEL, ndsLon[i], ndsLat[i]);
+        }
+    }
+
+    @Test
+    public void testMortonCodes() {
+        assertBudget("MortonCodec.encode", 0, () -> {
+            int i = next();
+            return MortonCodec.encode(ndsLon[i], ndsLat[i]);
+        });
+        assertBudget("MortonCodec.decodeLon", 0, () -> MortonCodec.decodeLon(codes[next()]));
+        assertBudget("MortonCodec.decodeLat", 0, () -> MortonCodec.decodeLat(codes[next()]));
+        NDSCoordinate c = new NDSCoordinate(ndsLon[0], ndsLat[0]);
+        assertBudget("NDSCoordinate.getMortonCode", 0, c::getMortonCode);
+    }
+
+    @Test
+    public void testTileIds() {
+        assertBudget("NDSTiles.packedId", 0, () -> {
+            int i = next();
+            return NDSTiles.packedId(LEVEL, ndsLon[i], ndsLat[i]);
+        });
+        assertBudget("NDSTiles.tileNumber", 0, () -> {
+            int i = next();
+            return NDSTiles.tileNumber(LEVEL, ndsLon[i], ndsLat[i]);
+        });
+        assertBudget("NDSTiles.packedIdFromWgs84", 0, () -> {
+            int i = next();
+            return NDSTiles.packedIdFromWgs84(LEVEL, lon[i], lat[i]);
+        });
+        assertBudget("NDSTiles.tryPackedIdFromWgs84", 0, () -> {
+            int i = next();
+            return NDSTiles.tryPackedIdFromWgs84(LEVEL, lon[i], lat[i]);
+        });
+        assertBudget("NDSTiles.parent", 0, () -> NDSTiles.parent(ids[next()], 3));
+        assertBudget("NDSTiles.neighbour", 0, () -> NDSTiles.neighbour(ids[next()], 1, -1));
+        int[] dest = new int[25];
+        assertBudget("NDSTiles.children", 0, () -> {
+            NDSTiles.children(ids[next()], dest, 0);
+            return dest[3];
+        });
+        assertBudget("NDSTiles.kRing", 0, () -> NDSTiles.kRing(ids[next()], 2, dest, 0));
+        assertBudget("NDSTiles.bbox", 0, () -> {
+            NDSTiles.bbox(ids[next()], dest, 0);
+            return dest[0];
+        });
+    }
+
+    @Test
+    public void testContains() {
+        assertBudget("NDSTiles.contains", 0, () -> {
+            int i = next();
+            return NDSTiles.contains(ids[i], ndsLon[i], ndsLat[i]) ? 1 : 0;
+        });
+        NDSTileSet set = NDSTileSet.of(ids);
+        assertBudget("NDSTileSet.contains(int, int)", 0, () -> {
+            int i = next();
+            return set.contains(ndsLon[i] + 4096, ndsLat[i]) ? 1 : 0;
+        });
+        assertBudget("NDSTileSet.contains(int)", 0, () -> set.contains(NDSTiles.parent(ids[next()], 1)) ? 1 : 0);
+        long[] ranges = NDSMortonRanges.decompose(new NDSBBox(ndsLat[0] + (1 << 22), ndsLon[0] + (1 << 22), ndsLat[0], ndsLon[0]), 64);
+        assertBudget("NDSMortonRanges.contains", 0, () -> NDSMortonRanges.contains(ranges, codes[next()]) ? 1 : 0);
+
+        NDSRouteCorridor corridor = new NDSRouteCorridor(LEVEL, 500, 10000);
+        corridor.route(ndsLon, ndsLat, 0, 16, (id, entered) -> {
+        });
+        assertBudget("NDSRouteCorridor.contains", 0, () -> corridor.contains(ids[next()]) ? 1 : 0);
+
+        int size = 1 << 31 - LEVEL;
+        NDSGeofenceIndex index = NDSGeofenceIndex.builder(LEVEL)
+                        .addPolygon(new int[] { ndsLon[0], ndsLon[0] + 40 * size, ndsLon[0] }, new int[] { ndsLat[0], ndsLat[0], ndsLat[0] + 40 * size }, 0, 3)
+                        .build();
+        assertBudget("NDSGeofenceIndex.firstContaining", 0, () -> {
+            int i = next();
+            return index.firstContaining(ndsLon[i], ndsLat[i]);
+        });
+        assertBudget("NDSGeofenceIndex.contains", 0, () -> {
+            int i = next();
+            return index.contains(0, ndsLon[i], ndsLat[i]) ? 1 : 0;
+        });
+    }
+
+    @Test
+    public void testBatches() {
+        double[] srcLon = new double[BATCH];
+        double[] srcLat = new double[BATCH];
+        int[] batchLon = new int[BATCH];
+        int[] batchLat = new int[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            srcLon[i] = lon[i % N];
+            srcLat[i] = lat[i % N];
+            batchLon[i] = ndsLon[i % N];
+            batchLat[i] = ndsLat[i % N];
+        }
+        int[] destLon = new int[BATCH];
+        int[] destLat = new int[BATCH];
+        int[] destIds = new int[BATCH];
+        double[] destDouble = new double[BATCH];
+        double[] destDouble2 = new double[BATCH];
+        long[] destCodes = new long[BATCH];
+        long[] valid = new long[BATCH / 64];
+        NDSRejects rejects = new NDSRejects();
+        ByteBuffer buffer = ByteBuffer.allocate(BATCH * NDSTileOffsets.MAX_VARINT_COORDINATE_LENGTH);
+        int tile = NDSTiles.packedId(8, batchLon[0], batchLat[0]);
+
+        assertBatchBudget("NDSBatch.toNDS", () -> {
+            NDSBatch.toNDS(srcLon, srcLat, 0, destLon, destLat, 0, BATCH);
+            return destLon[7];
+        });
+        assertBatchBudget("NDSBatch.toWGS84", () -> {
+            NDSBatch.toWGS84(batchLon, batchLat, 0, destDouble, destDouble2, 0, BATCH);
+            return (long) destDouble[7];
+        });
+        assertBatchBudget("NDSBatch.mortonCodes", () -> {
+            NDSBatch.mortonCodes(batchLon, batchLat, 0, destCodes, 0, BATCH);
+            return destCodes[7];
+        });
+        assertBatchBudget("NDSBatch.packedIds", () -> {
+            NDSBatch.packedIds(LEVEL, batchLon, batchLat, 0, destIds, 0, BATCH);
+            return destIds[7];
+        });
+        assertBatchBudget("NDSBatch.packedIdsFromWgs84", () -> {
+            NDSBatch.packedIdsFromWgs84(LEVEL, srcLon, srcLat, 0, destIds, 0, BATCH);
+            return destIds[7];
+        });
+        assertBatchBudget("NDSBatch.tryToNDS", VALIDATING_BUDGET, () -> NDSBatch.tryToNDS(srcLon, srcLat, 0, destLon, destLat, 0, BATCH, valid, rejects));
+        assertBatchBudget("NDSBatch.tryPackedIdsFromWgs84", VALIDATING_BUDGET,
+                        () -> NDSBatch.tryPackedIdsFromWgs84(LEVEL, srcLon, srcLat, 0, destIds, 0, BATCH, valid, rejects));
+        assertBatchBudget("NDSBatch.tryPackedIds", VALIDATING_BUDGET, () -> NDSBatch.tryPackedIds(LEVEL, batchLon, batchLat, 0, destIds, 0, BATCH, valid, null));
+        assertBatchBudget("NDSDistance.haversine", () -> {
+            NDSDistance.haversine(batchLon[0], batchLat[0], batchLon, batchLat, 0, destDouble, 0, BATCH);
+            return (long) destDouble[7];
+        });
+        assertBatchBudget("NDSTileOffsets.encodeVarint", () -> {
+            buffer.clear();
+            NDSTileOffsets.encodeVarint(tile, batchLon, batchLat, 0, BATCH, buffer);
+            return buffer.position();
+        });
+        assertBatchBudget("NDSTileOffsets.decodeVarint", () -> {
+            buffer.flip();
+            NDSTileOffsets.decodeVarint(tile, buffer, destLon, destLat, 0, BATCH);
+            return destLat[7];
+        });
+    }
+
+    private int next() {
+        return next++ & N - 1;
+    }
+
+    private void assertBatchBudget(String method, LongSupplier call) {
+        assertBatchBudget(method, BATCH_BUDGET, call);
+    }
+
+    private void assertBatchBudget(String method, long budget, LongSupplier call) {
+        boolean instrumented = NDSMetrics.isEnabled() || NDSMetrics.isJfrEnabled();
+        assertBudget(method + " of " + BATCH + " elements", instrumented ? budget + METRICS_BUDGET : budget, BATCH_CALLS, call);
+    }
+
+    private void assertBudget(String method, long budget, LongSupplier call) {
+        assertBudget(method, budget, CALLS, call);
+    }
+
+    /*
+     * Fails if the call allocates more than the budget per call in all rounds after the warm-up
+     */
+    private void assertBudget(String method, long budget, int calls, LongSupplier call) {
+        if (THREADS == null) {
+            return;
+        }
+        long thread = Thread.currentThread().getId();
+        // The allocation of the measurement itself
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            long before = THREADS.getThreadAllocatedBytes(thread);
+            overhead = Math.min(overhead, THREADS.getThreadAllocatedBytes(thread) - before);
+        }
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < MAX_ROUNDS && (r < WARMUP_ROUNDS || best > budget * calls); r++) {
+            long before = THREADS.getThreadAllocatedBytes(thread);
+            long s = 0;
+            for (int i = 0; i < calls; i++) {
+                s += call.getAsLong();
+            }
+            long bytes = THREADS.getThreadAllocatedBytes(thread) - before - overhead;
+            sink += s;
+            if (r >= WARMUP_ROUNDS) {
+                best = Math.min(best, bytes);
+            }
+        }
+        if (best > budget * calls) {
+            fail(String.format("%s allocates %.1f bytes per call, exceeding its budget of %d bytes per call.", method, (double) best / calls, budget));
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
@@ -0,0 +1,160 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Tests the GeoJsonWriter class and the toGeoJSON methods delegating to it.
+ *
+ * @since 15.10.2026
+ */
+public class GeoJsonWriterTest {
+
+    private static final String POINT = "{\"type\":\"Feature\",\"properties\":{},\"geometry\":{\"type\":\"Point\",\"coordinates\":[13.5,-0.25]}}";
+
+    @Test
+    public void testFeatures() {
+        assertEquals(POINT, new WGS84Coordinate(13.5, -0.25).toGeoJSON());
+        assertEquals(new NDSCoordinate(13.5, -0.25).toWGS84().toGeoJSON(), new NDSCoordinate(13.5, -0.25).toGeoJSON());
+        assertEquals("{\"type\":\"Feature\",\"properties\":{},\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[[-1,2],[3,2],[3,4],[-1,4],[-1,2]]]}}",
+                        new WGS84BBox(4, 3, 2, -1).toGeoJSON());
+        assertEquals(new NDSTile(539636700).getBBox().toGeoJSON(), new NDSTile(539636700).toGeoJSON());
+        assertEquals("{\"type\":\"Feature\",\"properties\":{},\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[[0,-90],[180,-90],[180,90],[0,90],[0,-90]]]}}",
+                        new NDSTile(0, 0).toGeoJSON());
+        // Not rounded to the default precision
+        assertEquals(POINT.replace("13.5,-0.25", "0.1234567891234,-1.0E-10"), new WGS84Coordinate(0.1234567891234, -1E-10).toGeoJSON());
+        WGS84Coordinate c = new NDSCoordinate(13.5, -0.25).toWGS84();
+        assertEquals(POINT.replace("13.5,-0.25", c.getLongitude() + "," + c.getLatitude()), new NDSCoordinate(13.5, -0.25).toGeoJSON());
+    }
+
+    @Test
+    public void testFeatureCollection() {
+        StringBuilder sb = new StringBuilder();
+        new GeoJsonWriter(sb).precision(2)
+                        .properties(GeoJsonWriter.Property.PACKED_ID, GeoJsonWriter.Property.LEVEL, GeoJsonWriter.Property.TILE_NUMBER)
+                        .beginFeatureCollection()
+                        .point(13.5, -0.25)
+                        .tile(NDSTiles.packedIdOf(1, 5))
+                        .endFeatureCollection()
+                        .flush();
+        assertEquals("{\"type\":\"FeatureCollection\",\"features\":[" + POINT + ",{\"type\":\"Feature\",\"properties\":{\"packedId\":" + NDSTiles.packedIdOf(1, 5)
+                        + ",\"level\":1,\"tileNumber\":5},\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[[-90,0],[0,0],[0,90],[-90,90],[-90,0]]]}}]}",
+                        sb.toString());
+
+        sb.setLength(0);
+        new GeoJsonWriter(sb).properties(GeoJsonWriter.Property.LEVEL).point(13.5, -0.25).point(13.5, -0.25).flush();
+        assertEquals(POINT + "\n" + POINT, sb.toString());
+    }
+
+    @Test
+    public void testTileValues() {
+        StringBuilder sb = new StringBuilder();
+        new GeoJsonWriter(sb).properties(GeoJsonWriter.Property.LEVEL).tile(NDSTiles.packedIdOf(1, 5), new String[] { "count", "sum" }, new double[] { 12, -0.5 })
+                        .flush();
+        assertEquals("{\"type\":\"Feature\",\"properties\":{\"level\":1,\"count\":12,\"sum\":-0.5},\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[[-90,0],[0,0],[0,90],[-90,90],[-90,0]]]}}",
+                        sb.toString());
+
+        sb.setLength(0);
+        new GeoJsonWriter(sb).tile(NDSTiles.packedIdOf(1, 5), new String[] { "n" }, new double[] { 3 }).flush();
+        assertTrue(sb.toString().contains("\"properties\":{\"n\":3}"));
+
+        // Large sums, whose scaling by the precision would overflow a long
+        sb.setLength(0);
+        new GeoJsonWriter(sb).tile(NDSTiles.packedIdOf(1, 5), new String[] { "sum", "neg", "big", "max" },
+                        new double[] { 1.5e10 + 0.25, -(1L << 40) - 0.5, 0x1p61 + 4096, -1e19 }).flush();
+        assertTrue(sb.toString(), sb.toString().contains("\"properties\":{\"sum\":15000000000.25,\"neg\":-1099511627776.5,\"big\":2305843009213698048,\"max\":-1.0E19}"));
+        sb.setLength(0);
+        new GeoJsonWriter(sb).precision(GeoJsonWriter.MAX_PRECISION).tile(NDSTiles.packedIdOf(1, 5), new String[] { "sum" }, new double[] { 5e6 + 0.25 }).flush();
+        assertTrue(sb.toString(), sb.toString().contains("\"sum\":5000000.25}"));
+
+        try {
+            new GeoJsonWriter(sb).tile(NDSTiles.packedIdOf(1, 5), new String[] { "n" }, new double[0]);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testNumbers() {
+        assertEquals("[1.235,-0.001]", coordinates(1.23456789, -0.00051, 3));
+        assertEquals("[0,0]", coordinates(-0.0001, 0.0004, 3));
+        assertEquals("[180,-90]", coordinates(179.9999999999, -89.9999999999, 9));
+        assertEquals("[-180,90]", coordinates(-180, 90, 0));
+        assertEquals("[12.000000000001,0.000000000001]", coordinates(12.000000000001, 0.000000000001, 12));
+        assertEquals("[0.5,-10.05]", coordinates(0.5, -10.05, 9));
+    }
+
+    @Test
+    public void testTargets() {
+        int[] ids = new int[10000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = NDSTiles.packedIdOf(13, 2765788 + 37 * i);
+        }
+        StringBuilder sb = new StringBuilder();
+        new GeoJsonWriter(sb).beginFeatureCollection().tiles(ids, 0, ids.length).endFeatureCollection().flush();
+        String expected = sb.toString();
+        assertTrue(expected.length() > 100000);
+        int depth = 0;
+        for (int i = 0; i < expected.length(); i++) {
+            depth += expected.charAt(i) == '{' || expected.charAt(i) == '[' ? 1 : expected.charAt(i) == '}' || expected.charAt(i) == ']' ? -1 : 0;
+            assertTrue(depth >= 0);
+        }
+        assertEquals(0, depth);
+
+        StringWriter sw = new StringWriter();
+        GeoJsonWriter w = new GeoJsonWriter(sw).beginFeatureCollection();
+        w.tiles(NDSTileSet.of(ids)).endFeatureCollection().close();
+        assertEquals(expected, sw.toString());
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        w = new GeoJsonWriter(bos).beginFeatureCollection();
+        for (int id : ids) {
+            w.tile(new NDSTile(id));
+        }
+        w.endFeatureCollection().flush();
+        assertEquals(expected, new String(bos.toByteArray(), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        GeoJsonWriter w = new GeoJsonWriter(new StringBuilder());
+        try {
+            w.precision(13);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            w.point(Double.NaN, 0);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            w.endFeatureCollection();
+            fail("IllegalStateException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalStateException);
+        }
+        try {
+            w.beginFeatureCollection().beginFeatureCollection();
+            fail("IllegalStateException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalStateException);
+        }
+    }
+
+    private static String coordinates(double lon, double lat, int precision) {
+        StringBuilder sb = new StringBuilder();
+        new GeoJsonWriter(sb).precision(precision).point(lon, lat).flush();
+        return sb.substring(sb.indexOf("\"coordinates\":") + 14, sb.length() - 2);
+    }
+}
@@ -0,0 +1,105 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the IntIntMap class against a HashMap.
+ *
+ * @since 15.10.2026
+ */
+public class IntIntMapTest {
+
+    @Test
+    public void testAgainstHashMap() {
+        Random rnd = new Random(1);
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200000; i++) {
+            // Few distinct keys, so that removals and reinsertions within probe sequences are frequent
+            int key = rnd.nextInt(3000) - 1500;
+            if (key == 0) {
+                continue;
+            }
+            int old = expected.getOrDefault(key, 0);
+            switch (rnd.nextInt(5)) {
+            case 0:
+                map.put(key, i);
+                expected.put(key, i);
+                break;
+            case 1:
+                assertEquals(old, map.getAndAdd(key, 3));
+                expected.put(key, old + 3);
+                break;
+            case 2:
+                assertEquals(old - 1, map.addAndGet(key, -1));
+                expected.put(key, old - 1);
+                break;
+            case 3:
+                assertEquals(old, map.replace(key, 7));
+                if (expected.containsKey(key)) {
+                    expected.put(key, 7);
+                }
+                break;
+            default:
+                assertEquals(old, map.remove(key));
+                expected.remove(key);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (int key = -1500; key < 1500; key++) {
+            if (key != 0) {
+                assertEquals(expected.containsKey(key), map.containsKey(key));
+                assertEquals(expected.getOrDefault(key, -1).intValue(), map.get(key, -1));
+            }
+        }
+        int[] keys = expected.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        assertEquals(Arrays.toString(keys), Arrays.toString(map.sortedKeys()));
+        List<Integer> visited = new ArrayList<>();
+        map.forEachKey(visited::add);
+        assertEquals(expected.size(), visited.size());
+        assertTrue(expected.keySet().containsAll(visited));
+
+        map.clear();
+        assertEquals(0, map.size());
+        assertFalse(map.containsKey(keys[0]));
+        assertEquals(0, map.getAndAdd(keys[0], 1));
+        assertEquals(1, map.get(keys[0], -1));
+    }
+
+    @Test
+    public void testPackedIds() {
+        // Packed Tile IDs of level 15 are negative, and those of neighbouring tiles differ in the low bits only
+        IntIntMap map = new IntIntMap(4);
+        int base = NDSTiles.packedIdOf(15, 12345678);
+        for (int i = 0; i < 10000; i++) {
+            map.put(base + i, i);
+        }
+        assertEquals(10000, map.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, map.get(base + i, -1));
+        }
+        assertEquals(-1, map.get(NDSTiles.packedIdOf(14, 12345678), -1));
+    }
+
+    @Test
+    public void testInvalidSize() {
+        try {
+            new IntIntMap(-1);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the MortonCodec class.
+ *
+ * The codec is checked against the original bit-by-bit loops of {@link NDSCoordinate}, which are kept here as
+ * reference implementation.
+ *
+ * @since 15.10.2026
+ */
+public class MortonCodecTest {
+
+    private static final int RANDOM_SAMPLES = 2000000;
+
+    @Test
+    public void testSpecCases() {
+        // Values of Table 8-2, Section "7.2.1 Coding of Coordinates", NDS Spec 2.5.4
+        assertEquals(579221254078012839L, MortonCodec.encode(27374451, 582901293));
+        assertEquals(5973384896724652798L, MortonCodec.encode(-883384626, 485440671));
+        assertEquals(8983442095026671932L, MortonCodec.encode(-514888362, -273788154));
+        assertEquals(4354955230616876489L, MortonCodec.encode(1804055545, -403936054));
+        assertEquals(585611620934393888L, MortonCodec.encode(0, 614454724));
+        assertEquals(5782627506097029136L, MortonCodec.encode(-935944956, 0));
+
+        assertEquals(-883384626, MortonCodec.decodeLon(5973384896724652798L));
+        assertEquals(485440671, MortonCodec.decodeLat(5973384896724652798L));
+        assertEquals(-514888362, MortonCodec.decodeLon(8983442095026671932L));
+        assertEquals(-273788154, MortonCodec.decodeLat(8983442095026671932L));
+    }
+
+    @Test
+    public void testEncodeMatchesLoop() {
+        // All combinations of single-bit and all-but-one-bit values, plus the range limits
+        int[] values = new int[2 * 32 + 6];
+        for (int i = 0; i < 32; i++) {
+            values[2 * i] = 1 << i;
+            values[2 * i + 1] = ~(1 << i);
+        }
+        values[64] = 0;
+        values[65] = -1;
+        values[66] = NDSCoordinate.MAX_LONGITUDE;
+        values[67] = NDSCoordinate.MIN_LONGITUDE;
+        values[68] = NDSCoordinate.MAX_LATITUDE;
+        values[69] = NDSCoordinate.MIN_LATITUDE;
+        for (int lon : values) {
+            for (int lat : values) {
+                assertEncode(lon, lat);
+            }
+        }
+
+        Random rnd = new Random(1);
+        for (int i = 0; i < RANDOM_SAMPLES; i++) {
+            assertEncode(rnd.nextInt(), rnd.nextInt());
+        }
+    }
+
+    @Test
+    public void testDecodeMatchesLoop() {
+        for (int i = 0; i < 64; i++) {
+            for (int j = 0; j < 64; j++) {
+                assertDecode(1L << i | 1L << j);
+                assertDecode(~(1L << i | 1L << j));
+            }
+        }
+        assertDecode(0L);
+        assertDecode(-1L);
+        assertDecode(Long.MAX_VALUE);
+        assertDecode(Long.MIN_VALUE);
+
+        Random rnd = new Random(2);
+        for (int i = 0; i < RANDOM_SAMPLES; i++) {
+            assertDecode(rnd.nextLong());
+        }
+    }
+
+    @Test
+    public void testRoundTrip() {
+        Random rnd = new Random(3);
+        for (int i = 0; i < RANDOM_SAMPLES; i++) {
+            int lon = rnd.nextInt();
+            int lat = rnd.nextInt() >> 1;
+            long code = MortonCodec.encode(lon, lat);
+            assertEquals(lon, MortonCodec.decodeLon(code));
+            assertEquals(lat, MortonCodec.decodeLat(code));
+            assertEquals(code, new NDSCoordinate(code).getMortonCode());
+        }
+    }
+
+    private static void assertEncode(int lon, int lat) {
+        assertEquals("Morton code of lon=" + lon + ", lat=" + lat, referenceEncode(lon, lat), MortonCodec.encode(lon, lat));
+    }
+
+    private static void assertDecode(long code) {
+        int[] ref = referenceDecode(code);
+        assertEquals("Longitude of morton code " + code, ref[0], MortonCodec.decodeLon(code));
+        assertEquals("Latitude of morton code " + code, ref[1], MortonCodec.decodeLat(code));
+    }
+
+    /*
+     * The original loop of NDSCoordinate.getMortonCode()
+     */
+    private static long referenceEncode(int longitude, int latitude) {
+        long res = 0L;
+        for (int pos = 0; pos < 31; pos++) {
+            if ((longitude & 1 << pos) > 0) {
+                res |= 1L << (2 * pos);
+            }
+            if (pos < 31 && (latitude & 1 << pos) > 0) {
+                res |= 1L << (2 * pos + 1);
+            }
+        }
+        if (longitude < 0) {
+            res |= 1L << 62;
+        }
+        if (latitude < 0) {
+            res |= 1L << 61;
+        }
+        return res;
+    }
+
+    /*
+     * The original loop of NDSCoordinate(long)
+     */
+    private static int[] referenceDecode(long ndsMortonCoordinates) {
+        int lat = 0;
+        int lon = 0;
+        for (int pos = 0; pos < 32; ++pos) {
+            if (pos < 31 && (ndsMortonCoordinates & 1L << (pos * 2 + 1)) != 0L) {
+                lat |= 1 << pos;
+            }
+            if ((ndsMortonCoordinates & 1L << (pos * 2)) != 0L) {
+                lon |= 1 << pos;
+            }
+        }
+        if ((lat & 1 << 30) > 0) {
+            lat |= 1 << 31;
+        }
+        return new int[] { lon, lat };
+    }
+}
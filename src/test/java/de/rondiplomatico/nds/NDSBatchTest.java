@@ -0,0 +1,223 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSBatch conversions against the scalar NDSCoordinate and NDSTile paths.
+ *
+ * @since 15.10.2026
+ */
+public class NDSBatchTest {
+
+    private static final int N = 10007;
+
+    private final double[] lon = new double[N];
+    private final double[] lat = new double[N];
+
+    public NDSBatchTest() {
+        Random rnd = new Random(1);
+        for (int i = 0; i < N; i++) {
+            lon[i] = rnd.nextDouble() * 360.0 - 180.0;
+            lat[i] = rnd.nextDouble() * 180.0 - 90.0;
+        }
+        // Range limits and values around zero
+        double[][] special = { { -180, -90 }, { 180, 90 }, { 0, 0 }, { -0.0, -0.0 }, { -1E-12, 1E-12 }, { 1E-12, -1E-12 }, { 179.9999999, -89.9999999 } };
+        for (int i = 0; i < special.length; i++) {
+            lon[i] = special[i][0];
+            lat[i] = special[i][1];
+        }
+    }
+
+    @Test
+    public void testVectorized() {
+        // Only the "test-vector" execution of the java17 profile runs with the vector kernels
+        assertEquals(Boolean.getBoolean("nds.test.vectorized"), NDSBatch.isVectorized());
+    }
+
+    @Test
+    public void testConversionsMatchScalar() {
+        assertConversions(0, N);
+        assertConversions(3, 17);
+    }
+
+    @Test
+    public void testParallelConversionsMatchScalar() {
+        int threshold = NDSBatch.getParallelThreshold();
+        try {
+            NDSBatch.setParallelThreshold(100);
+            assertConversions(0, N);
+            assertConversions(5, N - 5);
+        } finally {
+            NDSBatch.setParallelThreshold(threshold);
+        }
+    }
+
+    @Test
+    public void testInvalidInput() {
+        double[] l = lon.clone();
+        l[42] = 180.5;
+        try {
+            NDSBatch.toNDS(l, lat, 0, new int[N], new int[N], 0, N);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        // Not part of the processed range
+        NDSBatch.toNDS(l, lat, 43, new int[N], new int[N], 0, 100);
+
+        try {
+            NDSBatch.packedIds(3, new int[2], new int[] { 0, NDSCoordinate.MIN_LATITUDE - 1 }, 0, new int[2], 0, 2);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            NDSBatch.packedIds(16, new int[2], new int[2], 0, new int[2], 0, 2);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            NDSBatch.mortonCodes(new int[10], new int[10], 5, new long[10], 0, 6);
+            fail("ArrayIndexOutOfBoundsException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof ArrayIndexOutOfBoundsException);
+        }
+    }
+
+    @Test
+    public void testTryConversions() {
+        assertTryConversions(0, N);
+        assertTryConversions(7, 130);
+        int threshold = NDSBatch.getParallelThreshold();
+        try {
+            NDSBatch.setParallelThreshold(100);
+            assertTryConversions(0, N);
+            assertTryConversions(3, N - 3);
+        } finally {
+            NDSBatch.setParallelThreshold(threshold);
+        }
+    }
+
+    /*
+     * Checks the validating conversions against the scalar ones, on a copy of the input with about 5% garbage
+     */
+    private void assertTryConversions(int offset, int length) {
+        double[] l = lon.clone();
+        double[] b = lat.clone();
+        Random rnd = new Random(2);
+        double[] garbage = { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 180.0001, -180.5, 90.5, -1000 };
+        long[] expected = new long[NDSRejects.Reason.values().length];
+        for (int i = 0; i < N; i++) {
+            if (rnd.nextInt(20) == 0) {
+                double g = garbage[rnd.nextInt(garbage.length)];
+                if (rnd.nextBoolean()) {
+                    l[i] = g;
+                } else {
+                    b[i] = g;
+                }
+            }
+        }
+        for (int i = offset; i < offset + length; i++) {
+            if (Double.isNaN(l[i]) || Double.isNaN(b[i])) {
+                expected[NDSRejects.Reason.NOT_A_NUMBER.ordinal()]++;
+            } else if (l[i] < -180 || l[i] > 180) {
+                expected[NDSRejects.Reason.LONGITUDE_RANGE.ordinal()]++;
+            } else if (b[i] < -90 || b[i] > 90) {
+                expected[NDSRejects.Reason.LATITUDE_RANGE.ordinal()]++;
+            }
+        }
+
+        int level = 13;
+        int[] ids = new int[length];
+        int[] ndsLon = new int[length];
+        int[] ndsLat = new int[length];
+        long[] valid = new long[(length + 63) / 64];
+        long[] valid2 = new long[valid.length];
+        Arrays.fill(valid, -1);
+        NDSRejects rejects = new NDSRejects();
+        int count = NDSBatch.tryPackedIdsFromWgs84(level, l, b, offset, ids, 0, length, valid, rejects);
+        assertEquals(count, NDSBatch.tryToNDS(l, b, offset, ndsLon, ndsLat, 0, length, valid2, null));
+        assertEquals(Arrays.toString(valid), Arrays.toString(valid2));
+        for (NDSRejects.Reason r : NDSRejects.Reason.values()) {
+            assertEquals(r.toString(), expected[r.ordinal()], rejects.getCount(r));
+        }
+        assertEquals((long) length - count, rejects.getTotal());
+
+        int[] ids2 = new int[length];
+        // The rejected coordinates have been converted to (0, 0), which is valid
+        assertEquals(length, NDSBatch.tryPackedIds(level, ndsLon, ndsLat, 0, ids2, 0, length, null, null));
+        for (int i = 0; i < length; i++) {
+            boolean ok = (valid[i / 64] >>> i % 64 & 1) == 1;
+            int expectedId = NDSTiles.tryPackedIdFromWgs84(level, l[offset + i], b[offset + i]);
+            assertEquals(expectedId != NDSTiles.INVALID_PACKED_ID, ok);
+            assertEquals(expectedId, ids[i]);
+            if (ok) {
+                assertEquals(expectedId, ids2[i]);
+                assertEquals(NDSTiles.packedIdFromWgs84(level, l[offset + i], b[offset + i]), ids[i]);
+                assertEquals(NDSCoordinate.fromWGS84Longitude(l[offset + i]), ndsLon[i]);
+                assertEquals(NDSCoordinate.fromWGS84Latitude(b[offset + i]), ndsLat[i]);
+            } else {
+                assertEquals(0, ndsLon[i]);
+                assertEquals(0, ndsLat[i]);
+            }
+        }
+        // The bits after the last coordinate are cleared
+        if (length % 64 != 0) {
+            assertEquals(0L, valid[valid.length - 1] >>> length % 64);
+        }
+
+        // NDS latitudes out of range
+        int[] badLat = { 0, NDSCoordinate.MAX_LATITUDE + 1, NDSCoordinate.MIN_LATITUDE - 1, Integer.MIN_VALUE, NDSCoordinate.MIN_LATITUDE };
+        int[] badIds = new int[badLat.length];
+        rejects.reset();
+        assertEquals(2, NDSBatch.tryPackedIds(level, new int[badLat.length], badLat, 0, badIds, 0, badLat.length, valid, rejects));
+        assertEquals(3L, rejects.getCount(NDSRejects.Reason.LATITUDE_RANGE));
+        assertEquals(0b10001L, valid[0]);
+        assertEquals(NDSTiles.INVALID_PACKED_ID, badIds[1]);
+    }
+
+    private void assertConversions(int offset, int length) {
+        int[] ndsLon = new int[length + 1];
+        int[] ndsLat = new int[length + 1];
+        NDSBatch.toNDS(lon, lat, offset, ndsLon, ndsLat, 1, length);
+
+        double[] wgsLon = new double[length];
+        double[] wgsLat = new double[length];
+        NDSBatch.toWGS84(ndsLon, ndsLat, 1, wgsLon, wgsLat, 0, length);
+
+        long[] morton = new long[length];
+        NDSBatch.mortonCodes(ndsLon, ndsLat, 1, morton, 0, length);
+
+        int level = 13;
+        int[] ids = new int[length];
+        NDSBatch.packedIds(level, ndsLon, ndsLat, 1, ids, 0, length);
+        int[] wgsIds = new int[length];
+        NDSBatch.packedIdsFromWgs84(level, lon, lat, offset, wgsIds, 0, length);
+
+        for (int i = 0; i < length; i++) {
+            NDSCoordinate c = new NDSCoordinate(lon[offset + i], lat[offset + i]);
+            assertEquals("Longitude at " + i, c.getLongitude(), ndsLon[1 + i]);
+            assertEquals("Latitude at " + i, c.getLatitude(), ndsLat[1 + i]);
+            WGS84Coordinate w = c.toWGS84();
+            assertEquals(Double.doubleToRawLongBits(w.getLongitude()), Double.doubleToRawLongBits(wgsLon[i]));
+            assertEquals(Double.doubleToRawLongBits(w.getLatitude()), Double.doubleToRawLongBits(wgsLat[i]));
+            assertEquals(c.getMortonCode(), morton[i]);
+            assertEquals(new NDSTile(level, c).packedId(), ids[i]);
+            assertEquals(new NDSTile(level, new WGS84Coordinate(lon[offset + i], lat[offset + i])).packedId(), wgsIds[i]);
+        }
+        for (int l = 0; l <= NDSTile.MAX_LEVEL; l++) {
+            NDSBatch.packedIds(l, ndsLon, ndsLat, 1, ids, 0, length);
+            for (int i = 0; i < length; i++) {
+                assertEquals(new NDSTile(l, new NDSCoordinate(ndsLon[1 + i], ndsLat[1 + i])).packedId(), ids[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.rondiplomatico.nds.NDSBinaryFormat.Content;
+
+/**
+ * Tests the NDSBinaryWriter and NDSBinaryReader classes by round trips through temporary files.
+ *
+ * @since 15.10.2026
+ */
+public class NDSBinaryReaderTest {
+
+    @Test
+    public void testTiles() throws IOException {
+        Random rnd = new Random(1);
+        int[] ids = new int[20000];
+        for (int i = 0; i < ids.length; i++) {
+            int level = i % 3 == 0 ? NDSTile.MAX_LEVEL : rnd.nextInt(NDSTile.MAX_LEVEL);
+            ids[i] = NDSTiles.packedId(level, rnd.nextInt(), rnd.nextInt() >> 1);
+        }
+        ids[0] = NDSTiles.packedIdOf(0, 0);
+        ids[1] = NDSTiles.packedIdOf(15, 0);
+        // Sorted, with duplicates of the coarse levels
+        Arrays.sort(ids);
+        Path file = Files.createTempFile("tiles", ".nds");
+        try {
+            try (NDSBinaryWriter w = NDSBinaryWriter.tiles(file, 100)) {
+                w.tiles(ids, 0, 10000);
+                for (int i = 10000; i < ids.length; i++) {
+                    w.tile(ids[i]);
+                }
+            }
+            try (NDSBinaryReader r = NDSBinaryReader.open(file)) {
+                assertEquals(Content.TILES, r.getContent());
+                assertEquals((long) ids.length, r.size());
+                assertEquals(200, r.getBlockCount());
+                assertTrue(Files.size(file) < 3L * ids.length + 100 * 64);
+
+                int[] read = new int[ids.length];
+                int[] n = new int[1];
+                r.forEachTile(id -> read[n[0]++] = id);
+                assertArrayEquals(ids, read);
+                n[0] = 0;
+                r.tiles().forEachRemaining((int id) -> read[n[0]++] = id);
+                assertArrayEquals(ids, read);
+
+                // Block morton ranges
+                for (int b = 0, i = 0; b < r.getBlockCount(); b++) {
+                    for (int j = 0; j < r.getBlockSize(b); j++, i++) {
+                        long sw = NDSTiles.southWestAsMorton(NDSTiles.levelOf(ids[i]), NDSTiles.tileNumberOf(ids[i]));
+                        assertTrue(r.getBlockMinMorton(b) <= sw);
+                        assertTrue(NDSBinaryFormat.lastMortonOfTile(NDSTiles.levelOf(ids[i]), NDSTiles.tileNumberOf(ids[i])) <= r.getBlockMaxMorton(b));
+                    }
+                }
+
+                // Seek and binary search
+                for (int i = 0; i < 2000; i++) {
+                    int id = i % 2 == 0 ? ids[rnd.nextInt(ids.length)] : rnd.nextInt();
+                    int pos = 0;
+                    while (pos < ids.length && ids[pos] < id) {
+                        pos++;
+                    }
+                    assertEquals(pos < ids.length && ids[pos] == id, r.containsTile(id));
+                    PrimitiveIterator.OfInt it = r.tiles(id);
+                    for (int j = pos; j < Math.min(ids.length, pos + 150); j++) {
+                        assertEquals(ids[j], it.nextInt());
+                    }
+                    assertEquals(pos + 150 < ids.length, it.hasNext());
+                }
+                assertFalse(r.tiles(Integer.MAX_VALUE).hasNext());
+                assertEquals(ids[0], r.tiles(Integer.MIN_VALUE).nextInt());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCoordinates() throws IOException {
+        Random rnd = new Random(2);
+        int[] lon = new int[10000];
+        int[] lat = new int[lon.length];
+        for (int i = 0; i < lon.length; i++) {
+            // Tracks with small steps, jumps and antimeridian crossings
+            lon[i] = i % 1000 == 0 ? rnd.nextInt() : lon[i - 1] + rnd.nextInt(1 << 16) - (1 << 15);
+            lat[i] = i % 1000 == 0 ? rnd.nextInt() >> 1 : Math.max(NDSCoordinate.MIN_LATITUDE, Math.min(NDSCoordinate.MAX_LATITUDE, lat[i - 1] + rnd.nextInt(1 << 16) - (1 << 15)));
+        }
+        lon[1] = NDSCoordinate.MAX_LONGITUDE;
+        lon[2] = NDSCoordinate.MIN_LONGITUDE;
+        lat[1] = NDSCoordinate.MAX_LATITUDE;
+        lat[2] = NDSCoordinate.MIN_LATITUDE;
+        Path file = Files.createTempFile("coordinates", ".nds");
+        try {
+            try (NDSBinaryWriter w = NDSBinaryWriter.coordinates(file, 64)) {
+                w.coordinates(lon, lat, 0, lon.length);
+            }
+            try (NDSBinaryReader r = NDSBinaryReader.open(file)) {
+                assertEquals(Content.COORDINATES, r.getContent());
+                assertEquals((long) lon.length, r.size());
+                int[] readLon = new int[lon.length];
+                int[] readLat = new int[lon.length];
+                int[] n = new int[1];
+                r.forEachCoordinate((x, y) -> {
+                    readLon[n[0]] = x;
+                    readLat[n[0]++] = y;
+                });
+                assertArrayEquals(lon, readLon);
+                assertArrayEquals(lat, readLat);
+
+                for (int i = 0; i < 200; i++) {
+                    int lat1 = rnd.nextInt() >> 1;
+                    int lat2 = rnd.nextInt() >> 1 + rnd.nextInt(8);
+                    // Includes bounding boxes crossing the antimeridian
+                    NDSBBox bbox = new NDSBBox(Math.max(lat1, lat2), rnd.nextInt() >> rnd.nextInt(8), Math.min(lat1, lat2), rnd.nextInt());
+                    StringBuilder expected = new StringBuilder();
+                    for (int j = 0; j < lon.length; j++) {
+                        boolean inLon = bbox.getWest() <= bbox.getEast() ? bbox.getWest() <= lon[j] && lon[j] <= bbox.getEast()
+                                        : bbox.getWest() <= lon[j] || lon[j] <= bbox.getEast();
+                        if (inLon && bbox.getSouth() <= lat[j] && lat[j] <= bbox.getNorth()) {
+                            expected.append(lon[j]).append(',').append(lat[j]).append(';');
+                        }
+                    }
+                    StringBuilder actual = new StringBuilder();
+                    r.forEachCoordinate(bbox, (x, y) -> actual.append(x).append(',').append(y).append(';'));
+                    assertEquals(expected.toString(), actual.toString());
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testInvalid() throws IOException {
+        Path file = Files.createTempFile("invalid", ".nds");
+        try {
+            try (NDSBinaryWriter w = NDSBinaryWriter.tiles(file)) {
+                w.tile(539636700);
+                try {
+                    w.tile(539636699);
+                    fail("IllegalArgumentException expected");
+                } catch (Exception e) {
+                    assertTrue(e instanceof IllegalArgumentException);
+                }
+                try {
+                    w.coordinate(0, 0);
+                    fail("IllegalStateException expected");
+                } catch (Exception e) {
+                    assertTrue(e instanceof IllegalStateException);
+                }
+            }
+            try (NDSBinaryReader r = NDSBinaryReader.open(file)) {
+                assertEquals(1L, r.size());
+                assertTrue(r.containsTile(539636700));
+                try {
+                    r.forEachCoordinate((x, y) -> fail());
+                    fail("IllegalStateException expected");
+                } catch (Exception e) {
+                    assertTrue(e instanceof IllegalStateException);
+                }
+            }
+
+            // Empty files
+            NDSBinaryWriter.coordinates(file).close();
+            try (NDSBinaryReader r = NDSBinaryReader.open(file)) {
+                assertEquals(0L, r.size());
+                assertEquals(0, r.getBlockCount());
+                r.forEachCoordinate((x, y) -> fail());
+            }
+
+            // Truncated files
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+            try {
+                NDSBinaryReader.open(file).close();
+                fail("IOException expected");
+            } catch (IOException e) {
+                // Expected
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testCompression() throws IOException {
+        int[] ids = NDSTileCover.stream(new WGS84BBox(55.1, 15.1, 47.2, 5.8), 15).toArray();
+        Path file = Files.createTempFile("compression", ".nds");
+        try {
+            try (NDSBinaryWriter w = NDSBinaryWriter.tiles(file)) {
+                w.tiles(ids, 0, ids.length);
+            }
+            long[] sum = new long[1];
+            try (NDSBinaryReader r = NDSBinaryReader.open(file)) {
+                assertEquals((long) ids.length, r.size());
+                r.forEachTile(id -> sum[0] += id);
+            }
+            long expected = 0;
+            for (int id : ids) {
+                expected += id;
+            }
+            assertEquals(expected, sum[0]);
+            // The sorted tiles of a region take about a byte each, a quarter of an int[]
+            long size = Files.size(file);
+            assertTrue(size + " bytes for " + ids.length + " tiles", size < ids.length * 9L / 8);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void assertArrayEquals(int[] expected, int[] actual) {
+        assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+    }
+}
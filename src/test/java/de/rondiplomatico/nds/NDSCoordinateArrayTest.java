@@ -0,0 +1,163 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSCoordinateArray class against sorting NDSCoordinate objects.
+ *
+ * @since 15.10.2026
+ */
+public class NDSCoordinateArrayTest {
+
+    @Test
+    public void testSortByMorton() {
+        assertSorted(20000, 1);
+        // Clustered coordinates leave most of the high digits equal
+        assertSorted(5000, 2);
+    }
+
+    @Test
+    public void testParallelSortByMorton() {
+        int threshold = NDSBatch.getParallelThreshold();
+        try {
+            NDSBatch.setParallelThreshold(100);
+            assertSorted(30011, 1);
+            assertSorted(3, 1);
+            assertSorted(30011, 2);
+        } finally {
+            NDSBatch.setParallelThreshold(threshold);
+        }
+    }
+
+    @Test
+    public void testTileRuns() {
+        NDSCoordinateArray a = random(10000, 3);
+        a.sortByMorton();
+        for (int level = 0; level <= NDSTile.MAX_LEVEL; level += 3) {
+            NDSCoordinateArray.TileRuns runs = a.tileRuns(level);
+            int expectedFrom = 0;
+            int previous = Integer.MIN_VALUE;
+            while (runs.next()) {
+                assertEquals(expectedFrom, runs.getFrom());
+                assertTrue(runs.getTo() > runs.getFrom());
+                NDSTile tile = new NDSTile(runs.getPackedId());
+                assertEquals(level, tile.getLevel());
+                assertTrue(tile.getTileNumber() != previous);
+                for (int i = runs.getFrom(); i < runs.getTo(); i++) {
+                    assertTrue(tile.contains(a.get(i)));
+                }
+                previous = tile.getTileNumber();
+                expectedFrom = runs.getTo();
+            }
+            assertEquals(a.size(), expectedFrom);
+        }
+        assertFalse(new NDSCoordinateArray().tileRuns(5).next());
+    }
+
+    @Test
+    public void testAdd() {
+        NDSCoordinateArray a = new NDSCoordinateArray(0, true);
+        assertTrue(a.isSortedByMorton());
+        a.add(new NDSCoordinate(10, 10));
+        a.add(20, 20);
+        assertTrue(a.isSortedByMorton());
+        a.add(5, 5, 42);
+        assertFalse(a.isSortedByMorton());
+        a.addAll(new int[] { 1, 2, 3 }, new int[] { 4, 5, 6 }, 1, 2);
+        assertEquals(5, a.size());
+        assertEquals(42, a.getPayload(2));
+        assertEquals(4, a.getPayload(4));
+        assertEquals(3, a.getLongitude(4));
+        assertEquals(6, a.getLatitude(4));
+        assertEquals(new NDSCoordinate(3, 6).getMortonCode(), a.getMortonCode(4));
+        int[] lons = new int[6];
+        a.getLongitudes(lons, 1);
+        assertEquals("[0, 10, 20, 5, 2, 3]", Arrays.toString(lons));
+
+        a.sortByMorton();
+        assertTrue(a.isSortedByMorton());
+        int[] lats = new int[5];
+        a.getLatitudes(lats, 0);
+        assertEquals("[5, 6, 5, 10, 20]", Arrays.toString(lats));
+        assertEquals(42, a.getPayload(2));
+        try {
+            a.tileRuns(16);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+
+        a.clear();
+        assertEquals(0, a.size());
+        try {
+            a.getLongitude(0);
+            fail("IndexOutOfBoundsException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IndexOutOfBoundsException);
+        }
+        try {
+            a.add(0, NDSCoordinate.MAX_LATITUDE + 1);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            new NDSCoordinateArray().getPayload(0);
+            fail("IllegalStateException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalStateException);
+        }
+        NDSCoordinateArray b = new NDSCoordinateArray();
+        b.add(3, 3);
+        b.add(1, 1);
+        try {
+            b.tileRuns(10);
+            fail("IllegalStateException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalStateException);
+        }
+    }
+
+    /*
+     * Sorts the coordinates both as array and as objects with a stable sort, and compares the orders via the payloads
+     */
+    private static void assertSorted(int n, long seed) {
+        NDSCoordinateArray a = random(n, seed);
+        NDSCoordinate[] coords = new NDSCoordinate[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            coords[i] = a.get(i);
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Long.compare(coords[x].getMortonCode(), coords[y].getMortonCode()));
+        a.sortByMorton();
+        assertTrue(a.isSortedByMorton());
+        assertEquals(n, a.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(order[i].intValue(), a.getPayload(i));
+            assertEquals(coords[order[i]], a.get(i));
+        }
+    }
+
+    private static NDSCoordinateArray random(int n, long seed) {
+        Random rnd = new Random(seed);
+        NDSCoordinateArray a = new NDSCoordinateArray(1, true);
+        for (int i = 0; i < n; i++) {
+            if (seed == 2) {
+                // Clustered around a point, with duplicates
+                a.add(123456789 + rnd.nextInt(1000), -98765432 + rnd.nextInt(1000));
+            } else {
+                a.add(rnd.nextInt(), rnd.nextInt() >> 1);
+            }
+        }
+        return a;
+    }
+}
@@ -0,0 +1,218 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSDistance class.
+ *
+ * @since 15.10.2026
+ */
+public class NDSDistanceTest {
+
+    @Test
+    public void testHaversine() {
+        // Stuttgart to Munich, about 190.5 km
+        assertEquals(190500, distance(9.18, 48.78, 11.58, 48.14), 500);
+        // A quarter of the equator and across the antimeridian
+        assertEquals(Math.PI / 2 * NDSDistance.EARTH_RADIUS, distance(0, 0, 90, 0), 0.05);
+        assertEquals(distance(179.5, 10, -179.5, 10), distance(-0.5, 10, 0.5, 10), 1e-6);
+        assertEquals(0, distance(13, 52, 13, 52), 0);
+        assertEquals(distance(9.18, 48.78, 11.58, 48.14),
+                        NDSDistance.haversine(new NDSCoordinate(9.18, 48.78), new NDSCoordinate(11.58, 48.14)), 0);
+    }
+
+    @Test
+    public void testHaversineReference() {
+        Random rnd = new Random(1);
+        for (int i = 0; i < 100000; i++) {
+            int lon1 = rnd.nextInt();
+            int lat1 = rnd.nextInt(NDSCoordinate.MAX_LATITUDE) * (rnd.nextBoolean() ? 1 : -1);
+            // Half of the distances below some kilometers, where the rounding matters most
+            int lon2 = i % 2 == 0 ? lon1 + rnd.nextInt(1 << 20) : rnd.nextInt();
+            int lat2 = i % 2 == 0 ? Math.max(NDSCoordinate.MIN_LATITUDE, Math.min(NDSCoordinate.MAX_LATITUDE, lat1 + rnd.nextInt(1 << 20) - (1 << 19)))
+                            : rnd.nextInt(NDSCoordinate.MAX_LATITUDE) * (rnd.nextBoolean() ? 1 : -1);
+            assertEquals(reference(lon1, lat1, lon2, lat2), NDSDistance.haversine(lon1, lat1, lon2, lat2), 0.1);
+        }
+    }
+
+    @Test
+    public void testEquirectangular() {
+        // The documented error bounds
+        assertTrue(maxRelativeError(80, 10000, false) < 1e-5);
+        assertTrue(maxRelativeError(80, 100000, false) < 5e-4);
+        assertTrue(maxRelativeError(80, 1000, true) < 2e-4);
+        assertTrue(maxRelativeError(80, 10000, true) < 2e-3);
+        // Exact along meridians and across the antimeridian
+        assertEquals(distance(10, 40, 10, 41), NDSDistance.equirectangular(NDSCoordinate.fromWGS84Longitude(10), NDSCoordinate.fromWGS84Latitude(40),
+                        NDSCoordinate.fromWGS84Longitude(10), NDSCoordinate.fromWGS84Latitude(41)), 1e-6);
+        assertEquals(NDSDistance.equirectangular(NDSCoordinate.MAX_LONGITUDE, 0, NDSCoordinate.MIN_LONGITUDE, 0), NDSDistance.EARTH_RADIUS * NDSDistance.RADIANS,
+                        1e-9);
+    }
+
+    @Test
+    public void testBearing() {
+        int lon = NDSCoordinate.fromWGS84Longitude(9.18);
+        int lat = NDSCoordinate.fromWGS84Latitude(48.78);
+        assertEquals(0, NDSDistance.bearing(lon, lat, lon, lat + 1000), 1e-9);
+        assertEquals(180, NDSDistance.bearing(lon, lat, lon, lat - 1000), 1e-9);
+        assertEquals(90, NDSDistance.bearing(0, 0, 1000, 0), 1e-9);
+        assertEquals(270, NDSDistance.bearing(0, 0, -1000, 0), 1e-9);
+        assertEquals(45, NDSDistance.bearing(0, 0, 1000, 1000), 1e-6);
+        assertEquals(0, NDSDistance.bearing(lon, lat, lon, lat), 0);
+        // Across the antimeridian, and Stuttgart to Munich east-south-east
+        assertEquals(90, NDSDistance.bearing(NDSCoordinate.MAX_LONGITUDE, 0, NDSCoordinate.MIN_LONGITUDE, 0), 1e-9);
+        assertEquals(111, NDSDistance.bearing(lon, lat, NDSCoordinate.fromWGS84Longitude(11.58), NDSCoordinate.fromWGS84Latitude(48.14)), 0.5);
+        // Against the reference
+        Random rnd = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            int lon1 = rnd.nextInt();
+            int lat1 = rnd.nextInt(NDSCoordinate.MAX_LATITUDE) * (rnd.nextBoolean() ? 1 : -1);
+            int lon2 = rnd.nextInt();
+            int lat2 = rnd.nextInt(NDSCoordinate.MAX_LATITUDE) * (rnd.nextBoolean() ? 1 : -1);
+            double phi1 = Math.toRadians(NDSCoordinate.toWGS84Latitude(lat1));
+            double phi2 = Math.toRadians(NDSCoordinate.toWGS84Latitude(lat2));
+            double dLambda = Math.toRadians(NDSCoordinate.toWGS84Longitude(lon2) - NDSCoordinate.toWGS84Longitude(lon1));
+            double expected = Math.toDegrees(Math.atan2(Math.sin(dLambda) * Math.cos(phi2),
+                            Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(dLambda)));
+            double actual = NDSDistance.bearing(lon1, lat1, lon2, lat2);
+            assertTrue(actual >= 0 && actual < 360);
+            assertEquals(0, Math.IEEEremainder(expected - actual, 360), 1e-4);
+        }
+    }
+
+    @Test
+    public void testBBoxLowerBound() {
+        Random rnd = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            int west = rnd.nextInt();
+            int east = west + rnd.nextInt(1 << 28);
+            if (east < west) {
+                east = NDSCoordinate.MAX_LONGITUDE;
+            }
+            int south = rnd.nextInt(NDSCoordinate.MAX_LATITUDE) - (1 << 29);
+            int north = Math.min(NDSCoordinate.MAX_LATITUDE, south + rnd.nextInt(1 << 27));
+            NDSBBox bbox = new NDSBBox(north, east, south, west);
+            int lon = rnd.nextInt();
+            int lat = rnd.nextInt(NDSCoordinate.MAX_LATITUDE) * (rnd.nextBoolean() ? 1 : -1);
+            double bound = NDSDistance.toBBox(lon, lat, bbox);
+
+            // Below the distance to any point within and reached at the boundary
+            double min = Double.POSITIVE_INFINITY;
+            for (int s = 0; s <= 64; s++) {
+                int x = (int) (west + ((long) east - west) * s / 64);
+                int y = (int) (south + ((long) north - south) * s / 64);
+                min = Math.min(min, Math.min(NDSDistance.haversine(lon, lat, x, south), NDSDistance.haversine(lon, lat, x, north)));
+                min = Math.min(min, Math.min(NDSDistance.haversine(lon, lat, west, y), NDSDistance.haversine(lon, lat, east, y)));
+                assertTrue(bound <= NDSDistance.haversine(lon, lat, x, y) + 1e-6);
+            }
+            assertTrue(bound <= min + 1e-6);
+            if (west <= lon && lon <= east && south <= lat && lat <= north) {
+                assertEquals(0, bound, 0);
+            }
+        }
+    }
+
+    @Test
+    public void testBatch() {
+        int n = 1001;
+        int[] lon = new int[n + 3];
+        int[] lat = new int[n + 3];
+        Random rnd = new Random(1);
+        for (int i = 0; i < lon.length; i++) {
+            lon[i] = NDSCoordinate.fromWGS84Longitude(9.18 + rnd.nextGaussian());
+            lat[i] = NDSCoordinate.fromWGS84Latitude(48.78 + rnd.nextGaussian());
+        }
+        int qLon = NDSCoordinate.fromWGS84Longitude(9.2);
+        int qLat = NDSCoordinate.fromWGS84Latitude(48.8);
+        int threshold = NDSBatch.getParallelThreshold();
+        try {
+            for (int t : new int[] { threshold, 100 }) {
+                NDSBatch.setParallelThreshold(t);
+                double[] haversine = new double[n + 2];
+                double[] equirectangular = new double[n + 2];
+                NDSDistance.haversine(qLon, qLat, lon, lat, 3, haversine, 2, n);
+                NDSDistance.equirectangular(qLon, qLat, lon, lat, 3, equirectangular, 2, n);
+                assertEquals(0, haversine[1], 0);
+                for (int i = 0; i < n; i++) {
+                    assertEquals(NDSDistance.haversine(qLon, qLat, lon[i + 3], lat[i + 3]), haversine[i + 2], 0);
+                    assertEquals(haversine[i + 2], equirectangular[i + 2], haversine[i + 2] * 0.02);
+                }
+            }
+        } finally {
+            NDSBatch.setParallelThreshold(threshold);
+        }
+        try {
+            NDSDistance.haversine(qLon, qLat, lon, lat, 4, new double[n], 0, n);
+            fail("ArrayIndexOutOfBoundsException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof ArrayIndexOutOfBoundsException);
+        }
+        try {
+            NDSDistance.equirectangular(qLon, qLat, lon, lat, 0, new double[n], 1, n);
+            fail("ArrayIndexOutOfBoundsException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof ArrayIndexOutOfBoundsException);
+        }
+    }
+
+    /*
+     * The maximum relative error of the equirectangular approximation for random distances and directions
+     */
+    private static double maxRelativeError(double maxLatitude, double maxMeters, boolean batch) {
+        Random rnd = new Random(1);
+        double max = 0;
+        double[] res = new double[1];
+        for (int i = 0; i < 20000; i++) {
+            double lat1 = (rnd.nextDouble() * 2 - 1) * maxLatitude;
+            double lon1 = rnd.nextDouble() * 360 - 180;
+            double phi1 = Math.toRadians(lat1);
+            double bearing = rnd.nextDouble() * 2 * Math.PI;
+            double delta = (0.5 + rnd.nextDouble() / 2) * maxMeters / NDSDistance.EARTH_RADIUS;
+            // The destination point on the sphere
+            double phi2 = Math.asin(Math.sin(phi1) * Math.cos(delta) + Math.cos(phi1) * Math.sin(delta) * Math.cos(bearing));
+            double lambda2 = Math.toRadians(lon1)
+                            + Math.atan2(Math.sin(bearing) * Math.sin(delta) * Math.cos(phi1), Math.cos(delta) - Math.sin(phi1) * Math.sin(phi2));
+            double lat2 = Math.toDegrees(phi2);
+            if (Math.abs(lat2) > maxLatitude) {
+                continue;
+            }
+            double lon2 = Math.IEEEremainder(Math.toDegrees(lambda2), 360);
+            int x1 = NDSCoordinate.fromWGS84Longitude(lon1);
+            int y1 = NDSCoordinate.fromWGS84Latitude(lat1);
+            int x2 = NDSCoordinate.fromWGS84Longitude(Math.max(-180, Math.min(180 - 1e-7, lon2)));
+            int y2 = NDSCoordinate.fromWGS84Latitude(lat2);
+            double exact = NDSDistance.haversine(x1, y1, x2, y2);
+            if (batch) {
+                NDSDistance.equirectangular(x1, y1, new int[] { x2 }, new int[] { y2 }, 0, res, 0, 1);
+            } else {
+                res[0] = NDSDistance.equirectangular(x1, y1, x2, y2);
+            }
+            max = Math.max(max, Math.abs(res[0] - exact) / exact);
+        }
+        return max;
+    }
+
+    /*
+     * The great-circle distance with the Vincenty formula on WGS84 degrees, which is well-conditioned for all distances
+     */
+    private static double reference(int lon1, int lat1, int lon2, int lat2) {
+        double phi1 = Math.toRadians(NDSCoordinate.toWGS84Latitude(lat1));
+        double phi2 = Math.toRadians(NDSCoordinate.toWGS84Latitude(lat2));
+        double dLambda = Math.toRadians(NDSCoordinate.toWGS84Longitude(lon2) - NDSCoordinate.toWGS84Longitude(lon1));
+        double a = Math.cos(phi2) * Math.sin(dLambda);
+        double b = Math.cos(phi1) * Math.sin(phi2) - Math.sin(phi1) * Math.cos(phi2) * Math.cos(dLambda);
+        double c = Math.sin(phi1) * Math.sin(phi2) + Math.cos(phi1) * Math.cos(phi2) * Math.cos(dLambda);
+        return NDSDistance.EARTH_RADIUS * Math.atan2(Math.sqrt(a * a + b * b), c);
+    }
+
+    private static double distance(double lon1, double lat1, double lon2, double lat2) {
+        return NDSDistance.haversine(NDSCoordinate.fromWGS84Longitude(lon1), NDSCoordinate.fromWGS84Latitude(lat1), NDSCoordinate.fromWGS84Longitude(lon2),
+                        NDSCoordinate.fromWGS84Latitude(lat2));
+    }
+}
@@ -0,0 +1,219 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSGeofenceIndex class against ray casting over all polygons.
+ *
+ * @since 15.10.2026
+ */
+public class NDSGeofenceIndexTest {
+
+    private static final int LEVEL = 13;
+    private static final int CENTER_LON = NDSCoordinate.fromWGS84Longitude(9.18);
+    private static final int CENTER_LAT = NDSCoordinate.fromWGS84Latitude(48.78);
+
+    @Test
+    public void testSquareWithHole() {
+        // A square of 10 x 10 tiles with a hole of 4 x 4 tiles, both aligned to the tiles
+        int size = 1 << 31 - LEVEL;
+        int west = CENTER_LON >> 31 - LEVEL << 31 - LEVEL;
+        int south = CENTER_LAT >> 31 - LEVEL << 31 - LEVEL;
+        NDSGeofenceIndex index = NDSGeofenceIndex.builder(LEVEL)
+                        .addPolygon(new int[] { west, west + 10 * size, west + 10 * size, west }, new int[] { south, south, south + 10 * size, south + 10 * size }, 0, 4)
+                        .addHole(new int[] { west + 3 * size, west + 7 * size, west + 7 * size, west + 3 * size },
+                                        new int[] { south + 3 * size, south + 3 * size, south + 7 * size, south + 7 * size }, 0, 4)
+                        .build();
+        assertEquals(1, index.size());
+        assertEquals(LEVEL, index.getLevel());
+        // The 11 x 11 tiles touching the outer ring, without the 3 x 3 tiles strictly within the hole
+        assertEquals(11 * 11 - 3 * 3, index.getTileCount());
+        assertEquals(index.getTileCount(), index.getEntryCount());
+
+        assertEquals(0, index.firstContaining(west + size / 2, south + size / 2));
+        assertEquals(0, index.firstContaining(west + 2 * size, south + 8 * size + 17));
+        assertEquals(-1, index.firstContaining(west + 5 * size, south + 5 * size));
+        assertEquals(-1, index.firstContaining(west - 1, south + 5 * size));
+        assertEquals(-1, index.firstContaining(west + 20 * size, south));
+        assertTrue(index.contains(0, west + 1, south + 1));
+        assertFalse(index.contains(0, west + 4 * size, south + 4 * size));
+    }
+
+    @Test
+    public void testAgainstRayCasting() {
+        Random rnd = new Random(1);
+        NDSGeofenceIndex.Builder builder = NDSGeofenceIndex.builder(LEVEL);
+        for (int p = 0; p < 200; p++) {
+            int lon = CENTER_LON + rnd.nextInt(1 << 25) - (1 << 24);
+            int lat = CENTER_LAT + rnd.nextInt(1 << 25) - (1 << 24);
+            int radius = 1000 + rnd.nextInt(rnd.nextInt(5) == 0 ? 1 << 23 : 1 << 20);
+            int[][] ring = star(rnd, lon, lat, radius, 3 + rnd.nextInt(40));
+            builder.addPolygon(ring[0], ring[1], 0, ring[0].length);
+            if (rnd.nextInt(4) == 0) {
+                int[][] hole = star(rnd, lon, lat, radius / 4, 3 + rnd.nextInt(10));
+                builder.addHole(hole[0], hole[1], 0, hole[0].length);
+            }
+        }
+        NDSGeofenceIndex index = builder.build();
+        assertEquals(200, index.size());
+
+        int n = 20000;
+        int[] lon = new int[n];
+        int[] lat = new int[n];
+        for (int i = 0; i < n; i++) {
+            lon[i] = CENTER_LON + rnd.nextInt(1 << 26) - (1 << 25);
+            lat[i] = CENTER_LAT + rnd.nextInt(1 << 26) - (1 << 25);
+        }
+        int found = 0;
+        for (int i = 0; i < n; i++) {
+            List<Integer> expected = new ArrayList<>();
+            for (int p = 0; p < index.size(); p++) {
+                if (index.contains(p, lon[i], lat[i])) {
+                    expected.add(p);
+                }
+            }
+            List<Integer> actual = new ArrayList<>();
+            assertEquals(expected.size(), index.forEachContaining(lon[i], lat[i], actual::add));
+            assertEquals(expected, actual);
+            assertEquals(expected.isEmpty() ? -1 : expected.get(0), index.firstContaining(lon[i], lat[i]));
+            found += expected.isEmpty() ? 0 : 1;
+        }
+        assertTrue(found > n / 10);
+
+        // Batches, in parallel
+        int threshold = NDSBatch.getParallelThreshold();
+        try {
+            NDSBatch.setParallelThreshold(100);
+            int[] dest = new int[n + 1];
+            index.firstContaining(lon, lat, 1, dest, 0, n - 1);
+            for (int i = 1; i < n; i++) {
+                assertEquals(index.firstContaining(lon[i], lat[i]), dest[i - 1]);
+            }
+            assertEquals(0, dest[n - 1]);
+        } finally {
+            NDSBatch.setParallelThreshold(threshold);
+        }
+    }
+
+    @Test
+    public void testCoarseLevels() {
+        // A triangle across the equator, within the eastern tile of level 0
+        int q = 1 << 29;
+        NDSGeofenceIndex index = NDSGeofenceIndex.builder(0).addPolygon(new int[] { q, 2 * q, q }, new int[] { -q, 0, q }, 0, 3).build();
+        assertEquals(1, index.getTileCount());
+        assertEquals(1, index.getEntryCount());
+        assertEquals(0, index.firstContaining(q + 1000, 0));
+        assertEquals(0, index.firstContaining(q + 1000, -q + 2000));
+        assertEquals(-1, index.firstContaining(q - 1000, 0));
+        assertEquals(-1, index.firstContaining(-q, 0));
+
+        // A polygon spanning all latitudes and both hemispheres, whose tiles are all boundary tiles
+        int[] lon = { -3 * q, 3 * q, 3 * q, -3 * q };
+        int[] lat = { NDSCoordinate.MIN_LATITUDE, NDSCoordinate.MIN_LATITUDE, NDSCoordinate.MAX_LATITUDE, NDSCoordinate.MAX_LATITUDE };
+        for (int level = 0; level <= 1; level++) {
+            index = NDSGeofenceIndex.builder(level).addPolygon(lon, lat, 0, 4).build();
+            assertEquals(2 << 2 * level, index.getTileCount());
+            assertEquals(index.getTileCount(), index.getEntryCount());
+            assertEquals(0, index.firstContaining(0, 0));
+            assertEquals(0, index.firstContaining(-3 * q + 1, NDSCoordinate.MIN_LATITUDE + 1));
+            assertEquals(0, index.firstContaining(3 * q - 1, NDSCoordinate.MAX_LATITUDE - 1));
+            assertEquals(-1, index.firstContaining(4 * q - 1, 0));
+        }
+
+        // Random polygons all over the globe
+        Random rnd = new Random(1);
+        for (int level = 0; level <= 1; level++) {
+            NDSGeofenceIndex.Builder builder = NDSGeofenceIndex.builder(level);
+            for (int p = 0; p < 50; p++) {
+                int radius = 1 << 20 + rnd.nextInt(9);
+                int cLon = rnd.nextInt(NDSCoordinate.MAX_LONGITUDE - 2 * radius) - NDSCoordinate.MAX_LONGITUDE / 2 + radius;
+                int cLat = rnd.nextInt(NDSCoordinate.MAX_LATITUDE - 2 * radius) * 2 - NDSCoordinate.MAX_LATITUDE + 2 * radius;
+                int[][] ring = star(rnd, cLon, cLat, radius, 3 + rnd.nextInt(20));
+                builder.addPolygon(ring[0], ring[1], 0, ring[0].length);
+            }
+            index = builder.build();
+            for (int i = 0; i < 20000; i++) {
+                int x = rnd.nextInt();
+                int y = rnd.nextInt() >> 1;
+                List<Integer> expected = new ArrayList<>();
+                for (int p = 0; p < index.size(); p++) {
+                    if (index.contains(p, x, y)) {
+                        expected.add(p);
+                    }
+                }
+                List<Integer> actual = new ArrayList<>();
+                assertEquals(expected.size(), index.forEachContaining(x, y, actual::add));
+                assertEquals(expected, actual);
+            }
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        int[] lon = { 0, 1000, 0 };
+        int[] lat = { 0, 0, 1000 };
+        try {
+            NDSGeofenceIndex.builder(16);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        NDSGeofenceIndex.Builder builder = NDSGeofenceIndex.builder(LEVEL);
+        try {
+            builder.addHole(lon, lat, 0, 3);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected, no polygon yet
+        }
+        try {
+            builder.addPolygon(lon, lat, 1, 2);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        try {
+            builder.addPolygon(lon, new int[] { 0, 0, NDSCoordinate.MIN_LATITUDE - 1 }, 0, 3);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, builder.size());
+        }
+        try {
+            NDSGeofenceIndex.builder(15).addPolygon(new int[] { -(1 << 30), 1 << 30, 0 }, new int[] { 0, 0, 1 << 29 }, 0, 3).build();
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected, too many tiles
+        }
+        NDSGeofenceIndex index = builder.addPolygon(lon, lat, 0, 3).build();
+        try {
+            index.contains(1, 0, 0);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        assertEquals(-1, NDSGeofenceIndex.builder(LEVEL).build().firstContaining(0, 0));
+    }
+
+    /*
+     * A star shaped ring with random radii at increasing angles
+     */
+    private static int[][] star(Random rnd, int lon, int lat, int radius, int n) {
+        int[] ndsLon = new int[n];
+        int[] ndsLat = new int[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * (i + rnd.nextDouble() * 0.9) / n;
+            double r = radius * (0.3 + 0.7 * rnd.nextDouble());
+            ndsLon[i] = lon + (int) (Math.cos(angle) * r);
+            ndsLat[i] = lat + (int) (Math.sin(angle) * r);
+        }
+        return new int[][] { ndsLon, ndsLat };
+    }
+}
@@ -0,0 +1,140 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests the NDSMetrics class. The instrumented paths are tested if enabled by the system properties, as they are by
+ * the "test-metrics" surefire execution.
+ *
+ * @since 15.10.2026
+ */
+public class NDSMetricsTest {
+
+    @Test
+    public void testRegistry() {
+        NDSMetrics.Registry registry = new NDSMetrics.Registry();
+        registry.add(NDSMetrics.Counter.TILES, 3);
+        registry.add(NDSMetrics.Counter.TILES, 2);
+        registry.rejected(NDSRejects.Reason.NOT_A_NUMBER, 7);
+        registry.operation(NDSMetrics.Operation.COVER, 10, 100);
+        registry.operation(NDSMetrics.Operation.COVER, 30, 50);
+        NDSMetrics.Snapshot s = registry.snapshot();
+        assertEquals(5L, s.getCount(NDSMetrics.Counter.TILES));
+        assertEquals(0L, s.getCount(NDSMetrics.Counter.WGS84_TO_NDS));
+        assertEquals(7L, s.getRejects(NDSRejects.Reason.NOT_A_NUMBER));
+        assertEquals(2L, s.getOperations(NDSMetrics.Operation.COVER));
+        assertEquals(40L, s.getSize(NDSMetrics.Operation.COVER));
+        assertEquals(30L, s.getMaxSize(NDSMetrics.Operation.COVER));
+        assertEquals(150L, s.getNanos(NDSMetrics.Operation.COVER));
+        assertEquals(0L, s.getOperations(NDSMetrics.Operation.BATCH));
+
+        Map<String, Long> map = s.toMap();
+        int expected = NDSMetrics.Counter.values().length + NDSRejects.Reason.values().length + 4 * NDSMetrics.Operation.values().length;
+        assertEquals(expected, map.size());
+        assertEquals(Long.valueOf(5), map.get("counter.TILES"));
+        assertEquals(Long.valueOf(7), map.get("rejects.NOT_A_NUMBER"));
+        assertEquals(Long.valueOf(30), map.get("operation.COVER.maxSize"));
+        assertEquals("counter.WGS84_TO_NDS", map.keySet().iterator().next());
+        assertTrue(s.toString().contains("operation.COVER.nanos=150"));
+
+        registry.reset();
+        for (long v : registry.snapshot().toMap().values()) {
+            assertEquals(0L, v);
+        }
+    }
+
+    @Test
+    public void testInstrumentation() throws IOException {
+        if (!NDSMetrics.isEnabled()) {
+            // Nothing is counted
+            new NDSCoordinate(9.18, 48.78);
+            assertEquals(0L, NDSMetrics.snapshot().getCount(NDSMetrics.Counter.WGS84_TO_NDS));
+            return;
+        }
+        NDSMetrics.Snapshot before = NDSMetrics.snapshot();
+        NDSCoordinate c = new NDSCoordinate(9.18, 48.78);
+        c.toWGS84();
+        new NDSTile(13, 5);
+        NDSTileCache cache = new NDSTileCache(16);
+        cache.get(NDSTiles.packedIdOf(13, 5));
+        cache.get(NDSTiles.packedIdOf(13, 5));
+        double[] lon = { 9.18, Double.NaN, 200, 9.18 };
+        double[] lat = { 48.78, 48.78, 48.78, 91 };
+        int[] ids = new int[4];
+        assertEquals(1, NDSBatch.tryPackedIdsFromWgs84(13, lon, lat, 0, ids, 0, 4, null, null));
+        int[] tiles = new int[1];
+        NDSBBox bbox = new NDSBBox(c.getLatitude() + (1 << 20), c.getLongitude() + (1 << 20), c.getLatitude(), c.getLongitude());
+        long covered = NDSTileCover.count(bbox, 13);
+        NDSTileCover.forEach(bbox, 13, id -> tiles[0] = id);
+        NDSTilePartition.of(13, new int[] { 0, 1, 2 }, new int[] { 0, 1, 2 }, 0, 3);
+        new GeoJsonWriter(new StringWriter()).beginFeatureCollection().tiles(new int[] { tiles[0], tiles[0] }, 0, 2).endFeatureCollection();
+        NDSMetrics.Snapshot after = NDSMetrics.snapshot();
+
+        assertEquals(1L, delta(before, after, "counter.WGS84_TO_NDS"));
+        assertEquals(1L, delta(before, after, "counter.NDS_TO_WGS84"));
+        // The tile constructed and the cache miss
+        assertEquals(2L, delta(before, after, "counter.TILES"));
+        assertEquals(1L, delta(before, after, "counter.TILE_CACHE_HITS"));
+        assertEquals(1L, delta(before, after, "counter.TILE_CACHE_MISSES"));
+        assertEquals(2L, delta(before, after, "counter.GEOJSON_FEATURES"));
+        assertEquals(1L, delta(before, after, "rejects.NOT_A_NUMBER"));
+        assertEquals(1L, delta(before, after, "rejects.LONGITUDE_RANGE"));
+        assertEquals(1L, delta(before, after, "rejects.LATITUDE_RANGE"));
+        // The validating conversion and the packed Tile IDs of the partition
+        assertEquals(2L, delta(before, after, "operation.BATCH.count"));
+        assertEquals(7L, delta(before, after, "operation.BATCH.size"));
+        assertEquals(1L, delta(before, after, "operation.COVER.count"));
+        assertEquals(covered, delta(before, after, "operation.COVER.size"));
+        assertEquals(1L, delta(before, after, "operation.PARTITION.count"));
+        assertEquals(3L, delta(before, after, "operation.PARTITION.size"));
+        assertEquals(1L, delta(before, after, "operation.SERIALISATION.count"));
+        assertEquals(2L, delta(before, after, "operation.SERIALISATION.size"));
+        assertTrue(delta(before, after, "operation.COVER.nanos") > 0);
+        assertTrue(after.getMaxSize(NDSMetrics.Operation.COVER) >= covered);
+    }
+
+    @Test
+    public void testJfr() throws IOException {
+        if (!NDSMetrics.isJfrEnabled()) {
+            return;
+        }
+        Path file = Files.createTempFile("metrics", ".jfr");
+        try {
+            NDSBBox bbox = new NDSBBox(1 << 20, 1 << 20, 0, 0);
+            try (Recording recording = new Recording()) {
+                recording.enable("de.rondiplomatico.nds.Operation");
+                recording.start();
+                NDSTileCover.forEach(bbox, 12, id -> {
+                });
+                recording.stop();
+                recording.dump(file);
+            }
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertEquals(1, events.size());
+            RecordedEvent e = events.get(0);
+            assertEquals("COVER", e.getString("operation"));
+            assertEquals(NDSTileCover.count(bbox, 12), e.getLong("size"));
+            assertTrue(!e.getDuration().isNegative());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static long delta(NDSMetrics.Snapshot before, NDSMetrics.Snapshot after, String name) {
+        return after.toMap().get(name) - before.toMap().get(name);
+    }
+}
@@ -0,0 +1,139 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSMortonRanges class.
+ *
+ * @since 15.10.2026
+ */
+public class NDSMortonRangesTest {
+
+    @Test
+    public void testSmallBoxesExact() {
+        Random rnd = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            int west = i % 2 == 0 ? rnd.nextInt() : rnd.nextInt(64) - 32;
+            int south = i % 3 == 0 ? rnd.nextInt() >> 1 : rnd.nextInt(64) - 32;
+            NDSBBox bbox = new NDSBBox(south + rnd.nextInt(40), west + rnd.nextInt(40), south, west);
+            if (bbox.getEast() < west || bbox.getNorth() < south || bbox.getNorth() > NDSCoordinate.MAX_LATITUDE) {
+                continue;
+            }
+            long[] ranges = NDSMortonRanges.decompose(bbox, Integer.MAX_VALUE);
+            assertWellFormed(ranges, Integer.MAX_VALUE);
+            long area = (long) (bbox.getEast() - west + 1) * (bbox.getNorth() - south + 1);
+            assertEquals(area, NDSMortonRanges.size(ranges));
+            for (int r = 0; r < ranges.length; r += 2) {
+                for (long k = 0; k <= ranges[r + 1] - ranges[r]; k++) {
+                    NDSCoordinate c = new NDSCoordinate(ranges[r] + k);
+                    assertTrue(west <= c.getLongitude() && c.getLongitude() <= bbox.getEast());
+                    assertTrue(south <= c.getLatitude() && c.getLatitude() <= bbox.getNorth());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMaxRanges() {
+        Random rnd = new Random(2);
+        for (int i = 0; i < 100; i++) {
+            int lon1 = rnd.nextInt();
+            int lon2 = rnd.nextInt() >> rnd.nextInt(20);
+            int lat1 = rnd.nextInt() >> 1;
+            int lat2 = rnd.nextInt() >> 1 + rnd.nextInt(20);
+            // Includes bounding boxes crossing the antimeridian
+            NDSBBox bbox = new NDSBBox(Math.max(lat1, lat2), lon2, Math.min(lat1, lat2), lon1);
+            long size = Long.MAX_VALUE;
+            for (int max : new int[] { 1, 2, 3, 8, 64, 1000 }) {
+                long[] ranges = NDSMortonRanges.decompose(bbox, max);
+                assertWellFormed(ranges, max);
+                long s = NDSMortonRanges.size(ranges);
+                assertTrue(s <= size);
+                size = s;
+                for (int j = 0; j < 100; j++) {
+                    NDSCoordinate c = randomWithin(rnd, bbox);
+                    assertTrue(NDSMortonRanges.contains(ranges, c.getMortonCode()));
+                }
+                assertTrue(NDSMortonRanges.contains(ranges, new NDSCoordinate(bbox.getWest(), bbox.getSouth()).getMortonCode()));
+                assertTrue(NDSMortonRanges.contains(ranges, new NDSCoordinate(bbox.getEast(), bbox.getNorth()).getMortonCode()));
+            }
+        }
+    }
+
+    @Test
+    public void testSingleRange() {
+        // Within one quadrant, a single range spans from the south-western to the north-eastern corner
+        NDSBBox bbox = new NDSBBox(1000000, 2000000, 3000, 4000);
+        long[] ranges = NDSMortonRanges.decompose(bbox, 1);
+        assertEquals(2, ranges.length);
+        assertEquals(new NDSCoordinate(4000, 3000).getMortonCode(), ranges[0]);
+        assertEquals(new NDSCoordinate(2000000, 1000000).getMortonCode(), ranges[1]);
+    }
+
+    @Test
+    public void testTileBBox() {
+        Random rnd = new Random(3);
+        for (int i = 0; i < 100; i++) {
+            int level = 1 + rnd.nextInt(15);
+            NDSTile t = new NDSTile(level, new NDSCoordinate(rnd.nextInt(Integer.MAX_VALUE), rnd.nextInt(NDSCoordinate.MAX_LATITUDE)));
+            long[] ranges = NDSMortonRanges.decompose(t.getBBox(), 1000);
+            long min = t.getBBox().southWest().getMortonCode();
+            assertEquals(2, ranges.length);
+            assertEquals(min, ranges[0]);
+            assertEquals(min + (1L << 62 - 2 * level) - 1, ranges[1]);
+        }
+    }
+
+    @Test
+    public void testWorld() {
+        long[] ranges = NDSMortonRanges.decompose(
+                        new NDSBBox(NDSCoordinate.MAX_LATITUDE, NDSCoordinate.MAX_LONGITUDE, NDSCoordinate.MIN_LATITUDE, NDSCoordinate.MIN_LONGITUDE), 10);
+        assertEquals(2, ranges.length);
+        assertEquals(0L, ranges[0]);
+        assertEquals(Long.MAX_VALUE, ranges[1]);
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        try {
+            NDSMortonRanges.decompose(NDSBBox.EAST_HEMISPHERE, 0);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            NDSMortonRanges.decompose(new NDSBBox(0, 10, 10, 0), 10);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+    }
+
+    private static void assertWellFormed(long[] ranges, int max) {
+        assertTrue(ranges.length > 0);
+        assertTrue(ranges.length / 2 <= max);
+        for (int i = 0; i < ranges.length; i += 2) {
+            assertTrue(ranges[i] <= ranges[i + 1]);
+            if (i > 0) {
+                // Sorted and not adjacent
+                assertTrue(ranges[i - 1] + 1 < ranges[i]);
+            }
+        }
+    }
+
+    private static NDSCoordinate randomWithin(Random rnd, NDSBBox bbox) {
+        long width = (long) bbox.getEast() - bbox.getWest();
+        if (width < 0) {
+            width += 1L << 32;
+        }
+        int lon = (int) (bbox.getWest() + (long) (rnd.nextDouble() * (width + 1)));
+        int lat = (int) (bbox.getSouth() + (long) (rnd.nextDouble() * ((long) bbox.getNorth() - bbox.getSouth() + 1)));
+        return new NDSCoordinate(lon, lat);
+    }
+}
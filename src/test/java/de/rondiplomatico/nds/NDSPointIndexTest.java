@@ -0,0 +1,153 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSPointIndex class against brute force scans.
+ *
+ * @since 15.10.2026
+ */
+public class NDSPointIndexTest {
+
+    private static final int N = 20011;
+
+    private final int[] lon = new int[N];
+    private final int[] lat = new int[N];
+
+    public NDSPointIndexTest() {
+        Random rnd = new Random(1);
+        for (int i = 0; i < N; i++) {
+            // Half clustered around Stuttgart, half all over the world
+            double x = i % 2 == 0 ? 9.18 + rnd.nextGaussian() * 0.1 : rnd.nextDouble() * 360 - 180;
+            double y = i % 2 == 0 ? 48.78 + rnd.nextGaussian() * 0.1 : rnd.nextDouble() * 180 - 90;
+            lon[i] = NDSCoordinate.fromWGS84Longitude(x);
+            lat[i] = NDSCoordinate.fromWGS84Latitude(y);
+        }
+        // Duplicates and points around the antimeridian and the poles
+        lon[3] = lon[2];
+        lat[3] = lat[2];
+        lon[5] = NDSCoordinate.MAX_LONGITUDE;
+        lat[5] = 0;
+        lon[7] = NDSCoordinate.MIN_LONGITUDE;
+        lat[7] = 10;
+        lat[9] = NDSCoordinate.MAX_LATITUDE;
+        lat[11] = NDSCoordinate.MIN_LATITUDE;
+    }
+
+    @Test
+    public void testWithin() {
+        NDSPointIndex index = NDSPointIndex.of(lon, lat, 0, N);
+        assertEquals(N, index.size());
+        int[][] queries = { { lon[0], lat[0] }, { lon[1], lat[1] }, { NDSCoordinate.MAX_LONGITUDE, 5 }, { 0, NDSCoordinate.MAX_LATITUDE },
+                        { NDSCoordinate.fromWGS84Longitude(9.2), NDSCoordinate.fromWGS84Latitude(48.8) } };
+        for (int[] q : queries) {
+            for (double meters : new double[] { 0, 100, 2000, 50000, 1500000, 25000000 }) {
+                int[] expected = bruteForceWithin(q[0], q[1], meters);
+                int[] actual = index.within(q[0], q[1], meters);
+                Arrays.sort(actual);
+                assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+            }
+        }
+        // The distances are passed along
+        index.forEachWithin(lon[0], lat[0], 5000, (id, d) -> assertEquals(NDSDistance.haversine(lon[0], lat[0], lon[id], lat[id]), d, 1e-6));
+        assertEquals(2, index.within(lon[2], lat[2], 0).length);
+    }
+
+    @Test
+    public void testNearest() {
+        NDSPointIndex index = NDSPointIndex.of(lon, lat, 0, N);
+        Random rnd = new Random(2);
+        int[] ids = new int[100];
+        double[] distances = new double[100];
+        for (int q = 0; q < 50; q++) {
+            int qLon = q % 2 == 0 ? lon[rnd.nextInt(N)] + rnd.nextInt(100000) : rnd.nextInt();
+            int qLat = rnd.nextInt(NDSCoordinate.MAX_LATITUDE);
+            for (int k : new int[] { 1, 7, 100 }) {
+                double[] expected = bruteForceDistances(qLon, qLat);
+                assertEquals(k, index.nearest(qLon, qLat, k, ids, distances));
+                for (int i = 0; i < k; i++) {
+                    assertEquals(expected[i], distances[i], 1e-6);
+                    assertEquals(distances[i], NDSDistance.haversine(qLon, qLat, lon[ids[i]], lat[ids[i]]), 1e-6);
+                }
+                // Within a radius
+                double meters = expected[k / 2];
+                int n = index.nearest(qLon, qLat, k, meters, ids, distances);
+                int expectedCount = 0;
+                while (expectedCount < k && expected[expectedCount] <= meters) {
+                    expectedCount++;
+                }
+                assertEquals(expectedCount, n);
+            }
+        }
+    }
+
+    @Test
+    public void testInputs() {
+        NDSCoordinate[] coords = new NDSCoordinate[100];
+        NDSCoordinateArray array = new NDSCoordinateArray(100, true);
+        for (int i = 0; i < 100; i++) {
+            coords[i] = new NDSCoordinate(lon[i], lat[i]);
+            array.add(lon[i], lat[i], 1000 + i);
+        }
+        int[] ids = new int[3];
+        double[] distances = new double[3];
+        assertEquals(3, NDSPointIndex.of(coords).nearest(lon[42], lat[42], 3, ids, distances));
+        assertEquals(42, ids[0]);
+        assertEquals(3, NDSPointIndex.of(array).nearest(lon[42], lat[42], 3, ids, distances));
+        assertEquals(1042, ids[0]);
+        assertEquals(3, NDSPointIndex.of(lon, lat, 40, 10).nearest(lon[42], lat[42], 3, ids, distances));
+        assertEquals(42, ids[0]);
+        assertEquals(0, NDSPointIndex.of(lon, lat, 40, 0).nearest(lon[42], lat[42], 3, ids, distances));
+        assertEquals(0, NDSPointIndex.of(coords).nearest(lon[42], lat[42], 0, ids, distances));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        NDSPointIndex index = NDSPointIndex.of(lon, lat, 0, 100);
+        try {
+            index.within(0, 0, -1);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            index.within(0, NDSCoordinate.MAX_LATITUDE + 1, 1);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            index.nearest(0, 0, 4, new int[3], new double[4]);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+    }
+
+    private int[] bruteForceWithin(int qLon, int qLat, double meters) {
+        int[] res = new int[N];
+        int n = 0;
+        for (int i = 0; i < N; i++) {
+            if (NDSDistance.haversine(qLon, qLat, lon[i], lat[i]) <= meters) {
+                res[n++] = i;
+            }
+        }
+        return Arrays.copyOf(res, n);
+    }
+
+    private double[] bruteForceDistances(int qLon, int qLat) {
+        double[] res = new double[N];
+        for (int i = 0; i < N; i++) {
+            res[i] = NDSDistance.haversine(qLon, qLat, lon[i], lat[i]);
+        }
+        Arrays.sort(res);
+        return res;
+    }
+}
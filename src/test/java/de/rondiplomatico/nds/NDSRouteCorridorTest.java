@@ -0,0 +1,207 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSRouteCorridor class against corridors computed from scratch and against sampled distances.
+ *
+ * @since 15.10.2026
+ */
+public class NDSRouteCorridorTest {
+
+    private static final int LEVEL = 13;
+
+    @Test
+    public void testWholeRoute() {
+        int[][] route = randomRoute(new Random(1), 300, 48.78, 9.18);
+        for (double width : new double[] { 0, 150, 2000 }) {
+            NDSRouteCorridor corridor = new NDSRouteCorridor(LEVEL, width, Double.POSITIVE_INFINITY);
+            Set<Integer> tiles = new HashSet<>();
+            corridor.route(route[0], route[1], 0, route[0].length, (id, entered) -> assertTrue(entered && tiles.add(id)));
+            assertEquals(tiles.size(), corridor.size());
+            assertEquals(route[0].length - 1, corridor.getEnd());
+            for (int id : tiles) {
+                assertTrue(corridor.contains(id));
+            }
+
+            // All points within the width of the route are within the corridor's tiles
+            Random rnd = new Random(2);
+            for (int s = 0; s < route[0].length - 1; s++) {
+                for (int i = 0; i < 10; i++) {
+                    double t = rnd.nextDouble();
+                    int lon = (int) (route[0][s] + t * (route[0][s + 1] - route[0][s]));
+                    int lat = (int) (route[1][s] + t * (route[1][s + 1] - route[1][s]));
+                    double bearing = rnd.nextDouble() * 2 * Math.PI;
+                    double d = rnd.nextDouble() * width / NDSDistance.EARTH_RADIUS / NDSDistance.RADIANS;
+                    lat += (int) (Math.cos(bearing) * d);
+                    lon += (int) (Math.sin(bearing) * d / Math.cos(lat * NDSDistance.RADIANS));
+                    assertTrue(corridor.contains(NDSTiles.packedId(LEVEL, lon, lat)));
+                }
+            }
+            // The corridor's tiles are within the width of the route, up to the sampling of the route
+            int[] bbox = new int[4];
+            for (int id : tiles) {
+                NDSTiles.bbox(id, bbox, 0);
+                NDSBBox box = new NDSBBox(bbox[0], bbox[1], bbox[2], bbox[3]);
+                double min = Double.MAX_VALUE;
+                for (int s = 0; s < route[0].length - 1; s++) {
+                    for (int i = 0; i <= 20; i++) {
+                        int lon = (int) (route[0][s] + i / 20.0 * (route[0][s + 1] - route[0][s]));
+                        int lat = (int) (route[1][s] + i / 20.0 * (route[1][s + 1] - route[1][s]));
+                        min = Math.min(min, NDSDistance.toBBox(lon, lat, box));
+                    }
+                }
+                assertTrue(min + " > " + width, min <= width * 1.01 + 10);
+            }
+        }
+    }
+
+    @Test
+    public void testAdvance() {
+        Random rnd = new Random(3);
+        int[][] route = randomRoute(rnd, 500, 60.0, 10.0);
+        NDSRouteCorridor corridor = new NDSRouteCorridor(LEVEL, 300, 5000);
+        Set<Integer> tiles = new HashSet<>();
+        corridor.route(route[0], route[1], 0, route[0].length, (id, entered) -> assertTrue(entered && tiles.add(id)));
+        int progress = 0;
+        while (progress < corridor.getSegments()) {
+            progress = Math.min(corridor.getSegments(), progress + rnd.nextInt(rnd.nextInt(10) == 0 ? 100 : 4));
+            Set<Integer> entered = new HashSet<>();
+            Set<Integer> left = new HashSet<>();
+            corridor.advance(progress, (id, in) -> {
+                assertTrue(in ? tiles.add(id) && entered.add(id) : tiles.remove(id) && left.add(id));
+                // The tiles entering are reported first
+                assertFalse(in && !left.isEmpty());
+            });
+            assertEquals(progress, corridor.getProgress());
+            assertEquals(expected(route, progress, 300, 5000), sorted(tiles));
+            assertEquals(sorted(tiles), Arrays.toString(corridor.toArray()));
+        }
+        assertEquals(0, corridor.size());
+        assertEquals(0, tiles.size());
+    }
+
+    @Test
+    public void testReroute() {
+        Random rnd = new Random(4);
+        int[][] route = randomRoute(rnd, 200, 48.78, 9.18);
+        NDSRouteCorridor corridor = new NDSRouteCorridor(LEVEL, 500, 10000);
+        Set<Integer> tiles = new HashSet<>();
+        NDSRouteCorridor.ChangeConsumer mirror = (id, in) -> assertTrue(in ? tiles.add(id) : tiles.remove(id));
+        corridor.route(route[0], route[1], 0, route[0].length, mirror);
+        corridor.advance(50, mirror);
+
+        // A detour from the current position joining the old route again
+        int[][] detour = randomRoute(rnd, 40, NDSCoordinate.toWGS84Latitude(route[1][50]), NDSCoordinate.toWGS84Longitude(route[0][50]));
+        int[] lon = new int[250];
+        int[] lat = new int[250];
+        System.arraycopy(detour[0], 0, lon, 10, 40);
+        System.arraycopy(detour[1], 0, lat, 10, 40);
+        System.arraycopy(route[0], 100, lon, 50, 100);
+        System.arraycopy(route[1], 100, lat, 50, 100);
+        corridor.route(lon, lat, 10, 140, mirror);
+        assertEquals(0, corridor.getProgress());
+        int[][] rerouted = { Arrays.copyOfRange(lon, 10, 150), Arrays.copyOfRange(lat, 10, 150) };
+        assertEquals(expected(rerouted, 0, 500, 10000), sorted(tiles));
+        corridor.advance(60, mirror);
+        assertEquals(expected(rerouted, 60, 500, 10000), sorted(tiles));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        try {
+            new NDSRouteCorridor(16, 100, 1000);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        try {
+            new NDSRouteCorridor(LEVEL, -1, 1000);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        try {
+            new NDSRouteCorridor(LEVEL, 100, 0);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        NDSRouteCorridor corridor = new NDSRouteCorridor(LEVEL, 100, 1000);
+        NDSRouteCorridor.ChangeConsumer none = (id, in) -> {
+        };
+        try {
+            corridor.route(new int[] { 0 }, new int[] { 0 }, 0, 1, none);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        try {
+            corridor.route(new int[] { 0, 0 }, new int[] { 0, NDSCoordinate.MAX_LATITUDE + 1 }, 0, 2, none);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, corridor.getSegments());
+        }
+        corridor.route(new int[] { 0, 1000, 2000 }, new int[] { 0, 0, 0 }, 0, 3, none);
+        corridor.advance(1, none);
+        try {
+            corridor.advance(0, none);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected, no way back
+        }
+        try {
+            corridor.advance(3, none);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    /*
+     * The corridor computed from scratch
+     */
+    private static String expected(int[][] route, int progress, double width, double ahead) {
+        NDSRouteCorridor fresh = new NDSRouteCorridor(LEVEL, width, ahead);
+        fresh.route(route[0], route[1], 0, route[0].length, (id, in) -> {
+        });
+        if (progress > 0) {
+            fresh.advance(progress, (id, in) -> {
+            });
+        }
+        return Arrays.toString(fresh.toArray());
+    }
+
+    private static String sorted(Set<Integer> tiles) {
+        int[] res = tiles.stream().mapToInt(Integer::intValue).sorted().toArray();
+        return Arrays.toString(res);
+    }
+
+    /*
+     * A route of segments of 20 to 2000 meters with changing headings
+     */
+    private static int[][] randomRoute(Random rnd, int n, double lat, double lon) {
+        int[] ndsLon = new int[n];
+        int[] ndsLat = new int[n];
+        ndsLon[0] = NDSCoordinate.fromWGS84Longitude(lon);
+        ndsLat[0] = NDSCoordinate.fromWGS84Latitude(lat);
+        double heading = rnd.nextDouble() * 2 * Math.PI;
+        for (int i = 1; i < n; i++) {
+            heading += rnd.nextGaussian() * 0.5;
+            double d = (20 + rnd.nextDouble() * 1980) / NDSDistance.EARTH_RADIUS / NDSDistance.RADIANS;
+            ndsLat[i] = ndsLat[i - 1] + (int) (Math.cos(heading) * d);
+            ndsLon[i] = ndsLon[i - 1] + (int) (Math.sin(heading) * d / Math.cos(ndsLat[i - 1] * NDSDistance.RADIANS));
+        }
+        return new int[][] { ndsLon, ndsLat };
+    }
+}
@@ -0,0 +1,131 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSTileCache class and the memoization of tile geometry.
+ *
+ * @since 15.10.2026
+ */
+public class NDSTileCacheTest {
+
+    @Test
+    public void testGet() {
+        NDSTileCache cache = new NDSTileCache(100);
+        assertEquals(128, cache.getCapacity());
+        assertEquals(0.0, cache.getHitRate(), 0);
+
+        NDSTile t = cache.get(545357048);
+        assertEquals(new NDSTile(545357048), t);
+        assertSame(t, cache.get(545357048));
+        assertSame(t, cache.get(545357048));
+        assertEquals(2L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+        assertEquals(2.0 / 3, cache.getHitRate(), 1E-12);
+
+        cache.clear();
+        assertEquals(0L, cache.getHits());
+        assertEquals(0L, cache.getMisses());
+        assertNotSame(t, cache.get(545357048));
+
+        try {
+            cache.get(0);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            new NDSTileCache(1);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testBounded() {
+        NDSTileCache cache = new NDSTileCache(64);
+        // All level 13 tiles of a 64x64 area, twice
+        for (int round = 0; round < 2; round++) {
+            for (int nr = 0; nr < 4096; nr++) {
+                int id = NDSTiles.packedIdOf(13, nr);
+                assertEquals(id, cache.get(id).packedId());
+            }
+        }
+        // Only few of the tiles survive until the second round
+        assertTrue(cache.getHits() <= cache.getCapacity());
+        assertEquals(8192L, cache.getHits() + cache.getMisses());
+
+        // One pair of slots keeps the two most recently inserted tiles
+        NDSTileCache pair = new NDSTileCache(2);
+        assertEquals(2, pair.getCapacity());
+        NDSTile t = pair.get(NDSTiles.packedIdOf(0, 1));
+        NDSTile u = pair.get(NDSTiles.packedIdOf(0, 0));
+        assertSame(t, pair.get(NDSTiles.packedIdOf(0, 1)));
+        assertSame(u, pair.get(NDSTiles.packedIdOf(0, 0)));
+        pair.get(NDSTiles.packedIdOf(1, 0));
+        assertSame(u, pair.get(NDSTiles.packedIdOf(0, 0)));
+        assertNotSame(t, pair.get(NDSTiles.packedIdOf(0, 1)));
+    }
+
+    @Test
+    public void testMemoized() {
+        NDSTile t = NDSTile.of(545357048);
+        assertSame(t, NDSTile.of(545357048));
+        assertSame(t.getBBox(), t.getBBox());
+        assertSame(t.getCenter(), t.getCenter());
+        assertEquals(new NDSTile(545357048).getBBox(), t.getBBox());
+        assertEquals(new NDSTile(545357048).getCenter(), t.getCenter());
+        // The memoized values do not take part in equality or the string representation
+        assertEquals(new NDSTile(545357048), t);
+        assertEquals(new NDSTile(545357048).hashCode(), t.hashCode());
+        assertEquals(new NDSTile(545357048).toString(), t.toString());
+
+        assertSame(NDSBBox.EAST_HEMISPHERE, NDSTile.of(NDSTiles.packedIdOf(0, 0)).getBBox());
+        assertSame(NDSBBox.WEST_HEMISPHERE, NDSTile.of(NDSTiles.packedIdOf(0, 1)).getBBox());
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        NDSTileCache cache = new NDSTileCache(256);
+        int[] ids = new int[1000];
+        Random rnd = new Random(3);
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = NDSTiles.packedIdOf(1 + rnd.nextInt(NDSTile.MAX_LEVEL), rnd.nextInt(1 << 10));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int f = 0; f < futures.length; f++) {
+                int seed = f;
+                futures[f] = pool.submit(() -> {
+                    Random r = new Random(seed);
+                    for (int i = 0; i < 20000; i++) {
+                        int id = ids[r.nextInt(ids.length)];
+                        NDSTile t = cache.get(id);
+                        assertEquals(id, t.packedId());
+                        assertEquals(new NDSTile(id).getBBox(), t.getBBox());
+                    }
+                });
+            }
+            for (Future<?> f : futures) {
+                f.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(160000L, cache.getHits() + cache.getMisses());
+    }
+}
@@ -0,0 +1,153 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSTileCover class against a brute force check of all tiles.
+ *
+ * @since 15.10.2026
+ */
+public class NDSTileCoverTest {
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random rnd = new Random(1);
+        for (int i = 0; i < 300; i++) {
+            int level = i % 8;
+            int lon1 = rnd.nextInt();
+            int lon2 = rnd.nextInt() >> rnd.nextInt(12);
+            int lat1 = rnd.nextInt() >> 1;
+            int lat2 = rnd.nextInt() >> 1 + rnd.nextInt(12);
+            // Includes bounding boxes crossing the antimeridian
+            NDSBBox bbox = new NDSBBox(Math.max(lat1, lat2), lon2, Math.min(lat1, lat2), lon1);
+            assertCover(bbox, level);
+        }
+        assertCover(new NDSBBox(NDSCoordinate.MAX_LATITUDE, NDSCoordinate.MAX_LONGITUDE, NDSCoordinate.MIN_LATITUDE, NDSCoordinate.MIN_LONGITUDE), 5);
+        assertCover(new NDSBBox(0, 0, 0, 0), 5);
+        assertCover(new NDSBBox(-1, -1, -1, -1), 5);
+    }
+
+    @Test
+    public void testLevelZero() {
+        assertArrayEquals(new int[] { NDSTiles.packedIdOf(0, 0) }, NDSTileCover.stream(NDSBBox.EAST_HEMISPHERE, 0).toArray());
+        // The western hemisphere includes the prime meridian of the eastern tile
+        assertArrayEquals(new int[] { NDSTiles.packedIdOf(0, 0), NDSTiles.packedIdOf(0, 1) }, NDSTileCover.stream(NDSBBox.WEST_HEMISPHERE, 0).toArray());
+        assertArrayEquals(new int[] { NDSTiles.packedIdOf(0, 1) }, NDSTileCover.stream(new NDSBBox(1000, -5, -1000, -1000), 0).toArray());
+        // Across the antimeridian
+        assertArrayEquals(new int[] { NDSTiles.packedIdOf(0, 0), NDSTiles.packedIdOf(0, 1) },
+                          NDSTileCover.stream(new NDSBBox(1000, NDSCoordinate.MIN_LONGITUDE + 5, -1000, NDSCoordinate.MAX_LONGITUDE - 5), 0).toArray());
+        assertEquals(2L, NDSTileCover.count(new NDSBBox(1000, NDSCoordinate.MIN_LONGITUDE + 5, -1000, NDSCoordinate.MAX_LONGITUDE - 5), 0));
+    }
+
+    @Test
+    public void testTileBBoxContainsTile() {
+        Random rnd = new Random(2);
+        for (int i = 0; i < 1000; i++) {
+            NDSTile t = new NDSTile(1 + rnd.nextInt(15), new NDSCoordinate(rnd.nextInt(), rnd.nextInt() >> 1));
+            NDSBBox bbox = t.getBBox();
+            int[] ids = NDSTileCover.stream(bbox, t.getLevel()).toArray();
+            assertTrue(contains(ids, t.packedId()));
+            assertTrue(ids.length <= 4);
+            // Shrunk bounding box covers exactly the tile
+            NDSBBox inner = new NDSBBox(bbox.getNorth() - 1, bbox.getEast() - 1, bbox.getSouth() + 1, bbox.getWest() + 1);
+            assertArrayEquals(new int[] { t.packedId() }, NDSTileCover.stream(inner, t.getLevel()).toArray());
+        }
+    }
+
+    @Test
+    public void testSplittingAndOrder() {
+        // Germany
+        WGS84BBox germany = new WGS84BBox(55.1, 15.1, 47.2, 5.8);
+        int level = 11;
+        int[] seq = NDSTileCover.stream(germany, level).toArray();
+        int[] par = NDSTileCover.stream(germany, level).parallel().toArray();
+        assertArrayEquals(seq, par);
+        assertEquals((long) seq.length, NDSTileCover.stream(germany, level).parallel().count());
+        for (int i = 1; i < seq.length; i++) {
+            assertTrue(NDSTiles.tileNumberOf(seq[i - 1]) < NDSTiles.tileNumberOf(seq[i]));
+        }
+
+        NDSBBox box = new NDSBBox(NDSCoordinate.fromWGS84Latitude(55.1), NDSCoordinate.fromWGS84Longitude(15.1), NDSCoordinate.fromWGS84Latitude(47.2),
+                        NDSCoordinate.fromWGS84Longitude(5.8));
+        PrimitiveIterator.OfInt it = NDSTileCover.iterator(box, level);
+        for (int id : seq) {
+            assertEquals(id, it.nextInt());
+        }
+        assertTrue(!it.hasNext());
+
+        // Level 15 packed ids are negative, but still sorted
+        int[] l15 = NDSTileCover.stream(new NDSBBox(1 << 20, 1 << 20, -(1 << 20), -(1 << 20)), 15).toArray();
+        assertEquals(NDSTileCover.count(new NDSBBox(1 << 20, 1 << 20, -(1 << 20), -(1 << 20)), 15), (long) l15.length);
+        assertArrayEquals(l15, IntStream.of(l15).sorted().toArray());
+        assertArrayEquals(l15, NDSTileCover.stream(new NDSBBox(1 << 20, 1 << 20, -(1 << 20), -(1 << 20)), 15).parallel().toArray());
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        try {
+            NDSTileCover.stream(new NDSBBox(0, 10, 10, 0), 3);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            NDSTileCover.stream(NDSBBox.EAST_HEMISPHERE, 16);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+    }
+
+    /*
+     * JUnit 4.1 has no int[] overload of assertArrayEquals
+     */
+    private static void assertArrayEquals(int[] expected, int[] actual) {
+        assertArrayEquals(null, expected, actual);
+    }
+
+    private static void assertArrayEquals(String message, int[] expected, int[] actual) {
+        assertEquals(message, Arrays.toString(expected), Arrays.toString(actual));
+    }
+
+    private static boolean contains(int[] a, int v) {
+        return IntStream.of(a).anyMatch(x -> x == v);
+    }
+
+    private static void assertCover(NDSBBox bbox, int level) {
+        int[] expected = bruteForce(bbox, level);
+        int[] actual = NDSTileCover.stream(bbox, level).toArray();
+        assertArrayEquals("Cover of " + bbox + " on level " + level, expected, actual);
+        assertEquals((long) expected.length, NDSTileCover.count(bbox, level));
+        assertArrayEquals(expected, NDSTileCover.stream(bbox, level).parallel().toArray());
+    }
+
+    /*
+     * Checks every tile of the level for an overlap of its coordinate range with the bounding box
+     */
+    private static int[] bruteForce(NDSBBox bbox, int level) {
+        int shift = 31 - level;
+        long size = 1L << shift;
+        return IntStream.range(0, 1 << 2 * level + 1).filter(nr -> {
+            long west = (long) NDSTiles.west(level, nr) >> shift << shift;
+            long south = level == 0 ? NDSCoordinate.MIN_LATITUDE : NDSTiles.south(level, nr);
+            long north = level == 0 ? NDSCoordinate.MAX_LATITUDE : south + size - 1;
+            boolean lon = bbox.getWest() <= bbox.getEast() ? overlaps(west, west + size - 1, bbox.getWest(), bbox.getEast())
+                            : overlaps(west, west + size - 1, bbox.getWest(), NDSCoordinate.MAX_LONGITUDE)
+                                            || overlaps(west, west + size - 1, NDSCoordinate.MIN_LONGITUDE, bbox.getEast());
+            return lon && overlaps(south, north, bbox.getSouth(), bbox.getNorth());
+        }).map(nr -> NDSTiles.packedIdOf(level, nr)).toArray();
+    }
+
+    private static boolean overlaps(long lo1, long hi1, long lo2, long hi2) {
+        return lo1 <= hi2 && lo2 <= hi1;
+    }
+}
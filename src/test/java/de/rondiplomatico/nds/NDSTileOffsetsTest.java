@@ -0,0 +1,226 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSTileOffsets class by round trips through heap, direct and memory mapped buffers.
+ *
+ * @since 15.10.2026
+ */
+public class NDSTileOffsetsTest {
+
+    @Test
+    public void testFixedWidth() {
+        assertEquals(4, NDSTileOffsets.fixedWidth(0));
+        assertEquals(4, NDSTileOffsets.fixedWidth(8));
+        assertEquals(3, NDSTileOffsets.fixedWidth(9));
+        assertEquals(3, NDSTileOffsets.fixedWidth(13));
+        assertEquals(3, NDSTileOffsets.fixedWidth(15));
+        Random rnd = new Random(1);
+        for (int level = 0; level <= NDSTile.MAX_LEVEL; level++) {
+            for (int i = 0; i < 20; i++) {
+                // Polylines within the tile and on its edges
+                int id = NDSTiles.packedId(level, rnd.nextInt(), rnd.nextInt() >> 1);
+                int[] bbox = new int[4];
+                NDSTiles.bbox(id, bbox, 0);
+                int n = 50;
+                int[] lon = new int[n];
+                int[] lat = new int[n];
+                for (int j = 0; j < n; j++) {
+                    lon[j] = j == 0 ? bbox[3] : j == 1 ? bbox[1] : (int) (bbox[3] + (long) (rnd.nextDouble() * ((long) bbox[1] - bbox[3])));
+                    lat[j] = j == 0 ? bbox[2] : j == 1 ? bbox[0] : (int) (bbox[2] + (long) (rnd.nextDouble() * ((long) bbox[0] - bbox[2])));
+                }
+                assertRoundTrip(id, NDSTileOffsets.fixedWidth(level), lon, lat, ByteBuffer.allocate(1000));
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTrips() throws IOException {
+        Random rnd = new Random(1);
+        int n = 5000;
+        int[] lon = new int[n];
+        int[] lat = new int[n];
+        int id = NDSTiles.packedIdFromWgs84(13, 9.18, 48.78);
+        int[] bbox = new int[4];
+        NDSTiles.bbox(id, bbox, 0);
+        lon[0] = bbox[3] + 1000;
+        lat[0] = bbox[2] + 1000;
+        for (int i = 1; i < n; i++) {
+            // A random walk, partly beyond the tile, with some jumps across the world
+            lon[i] = i % 1000 == 0 ? rnd.nextInt() : lon[i - 1] + rnd.nextInt(2001) - 1000;
+            lat[i] = i % 1000 == 0 ? rnd.nextInt(NDSCoordinate.MAX_LATITUDE) : lat[i - 1] + rnd.nextInt(2001) - 1000;
+        }
+        lon[n - 1] = NDSCoordinate.MIN_LONGITUDE;
+        lat[n - 1] = NDSCoordinate.MIN_LATITUDE;
+
+        ByteBuffer heap = ByteBuffer.allocate(n * (NDSTileOffsets.MAX_VARINT_COORDINATE_LENGTH + 8) + 3);
+        ByteBuffer direct = ByteBuffer.allocateDirect(n * NDSTileOffsets.MAX_VARINT_COORDINATE_LENGTH + 3).order(ByteOrder.LITTLE_ENDIAN);
+        assertRoundTrip(id, 4, lon, lat, heap);
+        assertRoundTrip(id, 4, lon, lat, direct);
+        assertRoundTrip(id, 0, lon, lat, heap);
+        assertRoundTrip(id, 0, lon, lat, direct);
+        // Small steps take about two bytes per value
+        heap.clear();
+        NDSTileOffsets.encodeVarint(id, lon, lat, 1, 999, heap);
+        assertTrue(heap.position() < 4 * 999);
+
+        // Decoding from a memory mapped file
+        heap.clear();
+        heap.position(3);
+        NDSTileOffsets.encodeVarint(id, lon, lat, 0, n, heap);
+        NDSTileOffsets.encodeFixed(id, 4, lon, lat, 0, n, heap);
+        heap.flip();
+        Path file = Files.createTempFile("offsets", ".bin");
+        try {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(heap);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                mapped.position(3);
+                int[] lon2 = new int[n + 1];
+                int[] lat2 = new int[n + 1];
+                NDSTileOffsets.decodeVarint(id, mapped, lon2, lat2, 1, n);
+                assertEquals(Arrays.toString(lon), Arrays.toString(Arrays.copyOfRange(lon2, 1, n + 1)));
+                assertEquals(Arrays.toString(lat), Arrays.toString(Arrays.copyOfRange(lat2, 1, n + 1)));
+                NDSTileOffsets.decodeFixed(id, 4, mapped, lon2, lat2, 0, n);
+                assertEquals(Arrays.toString(lon), Arrays.toString(Arrays.copyOf(lon2, n)));
+                assertEquals(Arrays.toString(lat), Arrays.toString(Arrays.copyOf(lat2, n)));
+                assertEquals(0, mapped.remaining());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        int id = NDSTiles.packedIdFromWgs84(13, 9.18, 48.78);
+        int[] bbox = new int[4];
+        NDSTiles.bbox(id, bbox, 0);
+        int[] lon = { bbox[3], bbox[3] + (1 << 23) };
+        int[] lat = { bbox[2], bbox[2] };
+        ByteBuffer buf = ByteBuffer.allocate(100);
+        try {
+            NDSTileOffsets.encodeFixed(id, 3, lon, lat, 0, 2, buf);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, buf.position());
+        }
+        try {
+            NDSTileOffsets.encodeFixed(id, 5, lon, lat, 0, 1, buf);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        try {
+            NDSTileOffsets.decodeFixed(1, 4, buf, lon, lat, 0, 1);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected, no valid packed Tile ID
+        }
+        try {
+            NDSTileOffsets.encodeVarint(id, lon, lat, 1, 2, buf);
+            fail("ArrayIndexOutOfBoundsException expected");
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // Expected
+        }
+
+        // Buffers too short
+        buf.limit(7);
+        try {
+            NDSTileOffsets.encodeFixed(id, 4, lon, lat, 0, 1, buf);
+            fail("BufferOverflowException expected");
+        } catch (BufferOverflowException e) {
+            assertEquals(0, buf.position());
+        }
+        buf.limit(5);
+        try {
+            NDSTileOffsets.encodeVarint(id, lon, lat, 0, 2, buf);
+            fail("BufferOverflowException expected");
+        } catch (BufferOverflowException e) {
+            assertEquals(0, buf.position());
+        }
+        buf.limit(100);
+        NDSTileOffsets.encodeVarint(id, lon, lat, 0, 2, buf);
+        assertEquals(7, buf.position());
+        buf.flip();
+        buf.limit(5);
+        try {
+            NDSTileOffsets.decodeVarint(id, buf, lon, lat, 0, 2);
+            fail("BufferUnderflowException expected");
+        } catch (BufferUnderflowException e) {
+            assertEquals(0, buf.position());
+        }
+        try {
+            NDSTileOffsets.decodeFixed(id, 3, buf, lon, lat, 0, 1);
+            fail("BufferUnderflowException expected");
+        } catch (BufferUnderflowException e) {
+            assertEquals(0, buf.position());
+        }
+
+        // A varint of more than 32 bits
+        ByteBuffer malformed = ByteBuffer.wrap(new byte[] { -1, -1, -1, -1, -1, 1, 0 });
+        try {
+            NDSTileOffsets.decodeVarint(id, malformed, lon, lat, 0, 1);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, malformed.position());
+        }
+        // Five bytes with more than 32 value bits, but without continuation
+        malformed = ByteBuffer.wrap(new byte[] { -1, -1, -1, -1, 0x10, 0 });
+        try {
+            NDSTileOffsets.decodeVarint(id, malformed, lon, lat, 0, 1);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(0, malformed.position());
+        }
+        // The largest 32 bit varint, a longitude delta of -2^31
+        ByteBuffer largest = ByteBuffer.wrap(new byte[] { -1, -1, -1, -1, 0x0F, 0 });
+        NDSTileOffsets.decodeVarint(id, largest, lon, lat, 0, 1);
+        assertEquals(6, largest.position());
+        assertEquals(NDSTiles.west(NDSTiles.levelOf(id), NDSTiles.tileNumberOf(id)) + Integer.MIN_VALUE, lon[0]);
+    }
+
+    private static void assertRoundTrip(int id, int width, int[] lon, int[] lat, ByteBuffer buf) {
+        int n = lon.length;
+        buf.clear();
+        buf.put((byte) 42);
+        if (width == 0) {
+            NDSTileOffsets.encodeVarint(id, lon, lat, 0, n, buf);
+        } else {
+            NDSTileOffsets.encodeFixed(id, width, lon, lat, 0, n, buf);
+            assertEquals(1 + 2L * width * n, (long) buf.position());
+        }
+        int end = buf.position();
+        buf.flip();
+        assertEquals(42L, (long) buf.get());
+        int[] lon2 = new int[n + 2];
+        int[] lat2 = new int[n + 2];
+        if (width == 0) {
+            NDSTileOffsets.decodeVarint(id, buf, lon2, lat2, 2, n);
+        } else {
+            NDSTileOffsets.decodeFixed(id, width, buf, lon2, lat2, 2, n);
+        }
+        assertEquals(end, buf.position());
+        assertEquals(Arrays.toString(lon), Arrays.toString(Arrays.copyOfRange(lon2, 2, n + 2)));
+        assertEquals(Arrays.toString(lat), Arrays.toString(Arrays.copyOfRange(lat2, 2, n + 2)));
+    }
+}
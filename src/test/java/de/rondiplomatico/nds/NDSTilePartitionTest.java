@@ -0,0 +1,138 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSTilePartition class against grouping with the stream API.
+ *
+ * @since 15.10.2026
+ */
+public class NDSTilePartitionTest {
+
+    private static final int N = 20011;
+
+    private final double[] lon = new double[N];
+    private final double[] lat = new double[N];
+
+    public NDSTilePartitionTest() {
+        Random rnd = new Random(1);
+        for (int i = 0; i < N; i++) {
+            // Clustered, so that the tiles have several points
+            lon[i] = 8 + rnd.nextGaussian();
+            lat[i] = 50 + rnd.nextGaussian();
+        }
+        lon[0] = -180;
+        lat[0] = -90;
+        lon[1] = 180;
+        lat[1] = 90;
+    }
+
+    @Test
+    public void testPartition() {
+        assertPartition(13);
+        assertPartition(0);
+        assertPartition(15);
+    }
+
+    @Test
+    public void testParallelPartition() {
+        int threshold = NDSBatch.getParallelThreshold();
+        try {
+            NDSBatch.setParallelThreshold(100);
+            assertPartition(13);
+            assertPartition(7);
+        } finally {
+            NDSBatch.setParallelThreshold(threshold);
+        }
+    }
+
+    @Test
+    public void testInputs() {
+        int level = 11;
+        NDSTilePartition expected = NDSTilePartition.ofWgs84(level, lon, lat, 0, N);
+        int[] ndsLon = new int[N];
+        int[] ndsLat = new int[N];
+        NDSBatch.toNDS(lon, lat, 0, ndsLon, ndsLat, 0, N);
+        assertEquals(expected, NDSTilePartition.of(level, ndsLon, ndsLat, 0, N));
+
+        NDSCoordinateArray coords = new NDSCoordinateArray(N, false);
+        coords.addAll(ndsLon, ndsLat, 0, N);
+        assertEquals(expected, NDSTilePartition.of(level, coords));
+
+        assertEquals(expected, NDSTilePartition.of(level, IntStream.range(0, N).mapToObj(i -> new WGS84Coordinate(lon[i], lat[i]))));
+        assertEquals(expected, IntStream.range(0, N).parallel().mapToObj(i -> new WGS84Coordinate(lon[i], lat[i])).collect(NDSTilePartition.collector(level)));
+
+        int[] ids = new int[N];
+        NDSBatch.packedIds(level, ndsLon, ndsLat, 0, ids, 0, N);
+        assertEquals(expected, NDSTilePartition.ofPackedIds(ids, 0, N));
+
+        // Offsets give the indices in the input arrays
+        NDSTilePartition p = NDSTilePartition.ofWgs84(level, lon, lat, 100, 10);
+        assertEquals(10, p.size());
+        int[] all = new int[10];
+        int[] n = new int[1];
+        p.forEach((id, indices, from, to) -> {
+            for (int i = from; i < to; i++) {
+                all[n[0]++] = indices[i];
+            }
+        });
+        Arrays.sort(all);
+        assertEquals(Arrays.toString(IntStream.range(100, 110).toArray()), Arrays.toString(all));
+    }
+
+    @Test
+    public void testEmptyAndInvalid() {
+        NDSTilePartition p = NDSTilePartition.ofWgs84(13, lon, lat, 0, 0);
+        assertEquals(0, p.size());
+        assertEquals(0, p.getTileCount());
+        assertEquals(-1, p.bucketOf(NDSTiles.packedIdOf(13, 0)));
+        assertTrue(p.toTileSet().isEmpty());
+
+        try {
+            NDSTilePartition.ofPackedIds(new int[] { NDSTiles.packedIdOf(3, 1), 0 }, 0, 2);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            NDSTilePartition.collector(16);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+    }
+
+    private void assertPartition(int level) {
+        Map<Integer, List<Integer>> expected = IntStream.range(0, N).boxed()
+                        .collect(Collectors.groupingBy(i -> new NDSTile(level, new WGS84Coordinate(lon[i], lat[i])).packedId(), TreeMap::new, Collectors.toList()));
+        NDSTilePartition p = NDSTilePartition.ofWgs84(level, lon, lat, 0, N);
+        assertEquals(N, p.size());
+        assertEquals(expected.size(), p.getTileCount());
+        int b = 0;
+        for (Map.Entry<Integer, List<Integer>> e : expected.entrySet()) {
+            assertEquals(e.getKey().intValue(), p.getPackedId(b));
+            assertEquals(b, p.bucketOf(e.getKey()));
+            assertEquals(e.getValue().size(), p.getBucketSize(b));
+            List<Integer> actual = new ArrayList<>();
+            for (int i : p.getIndices(b)) {
+                actual.add(i);
+            }
+            assertEquals(e.getValue(), actual);
+            b++;
+        }
+        assertEquals((long) expected.size(), p.toTileSet().size());
+    }
+}
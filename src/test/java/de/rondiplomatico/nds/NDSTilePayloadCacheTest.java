@@ -0,0 +1,239 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSTilePayloadCache class.
+ *
+ * @since 15.10.2026
+ */
+public class NDSTilePayloadCacheTest {
+
+    private static final int LEVEL = 13;
+
+    @Test
+    public void testGet() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        NDSTilePayloadCache<byte[]> cache = new NDSTilePayloadCache<>(1000, b -> b.length, id -> {
+            loads.incrementAndGet();
+            return new byte[100];
+        }, Runnable::run);
+        int id = tile(0, 0);
+        byte[] first = cache.get(id).get();
+        assertSame(first, cache.get(id).get());
+        assertSame(first, cache.getIfPresent(id));
+        assertNull(cache.getIfPresent(tile(1, 0)));
+        assertEquals(1, loads.get());
+        assertEquals(2L, cache.getHits());
+        assertEquals(2L, cache.getMisses());
+        assertEquals(0.5, cache.getHitRate(), 0);
+        assertEquals(1L, cache.getLoads());
+        assertTrue(cache.getAverageLoadNanos() > 0);
+        assertTrue(cache.getMaxLoadNanos() > 0);
+        assertEquals(1, cache.size());
+        assertEquals(100L, cache.getWeightedSize());
+
+        cache.invalidate(id);
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.getWeightedSize());
+        cache.get(id).get();
+        assertEquals(2, loads.get());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.getHits() + cache.getMisses() + cache.getLoads());
+        try {
+            cache.get(1);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected, no valid packed Tile ID
+        }
+    }
+
+    @Test
+    public void testConcurrentLoads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            NDSTilePayloadCache<String> cache = new NDSTilePayloadCache<>(1000, String::length, id -> {
+                loads.incrementAndGet();
+                release.await();
+                return "tile" + id;
+            }, pool);
+            int id = tile(3, 4);
+            CompletableFuture<String> f1 = cache.get(id);
+            CompletableFuture<String> f2 = cache.get(id);
+            assertFalse(cache.prefetch(id));
+            // Lookups from other threads join the same load
+            CompletableFuture<String> f3 = CompletableFuture.supplyAsync(() -> cache.get(id), pool).get();
+            assertSame(f1, f2);
+            assertSame(f1, f3);
+            assertFalse(f1.isDone());
+            release.countDown();
+            assertEquals("tile" + id, f1.get(10, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+            assertEquals(3L, cache.getMisses());
+            assertTrue(cache.get(id).isDone());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailures() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        NDSTilePayloadCache<String> cache = new NDSTilePayloadCache<>(1000, String::length, id -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IOException("Storage unavailable");
+            }
+            return id == tile(0, 0) ? null : "payload";
+        }, Runnable::run);
+        try {
+            cache.get(tile(1, 1)).get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertEquals(1L, cache.getLoadFailures());
+        assertEquals(0, cache.size());
+        // Failures and missing payloads are not cached
+        assertEquals("payload", cache.get(tile(1, 1)).get());
+        assertNull(cache.get(tile(0, 0)).get());
+        assertNull(cache.get(tile(0, 0)).get());
+        assertEquals(4, calls.get());
+        // Payloads heavier than the cache
+        NDSTilePayloadCache<byte[]> small = new NDSTilePayloadCache<>(10, b -> b.length, id -> new byte[11], Runnable::run);
+        assertEquals(11, small.get(tile(0, 0)).get().length);
+        assertEquals(0, small.size());
+        // Rejected loads
+        NDSTilePayloadCache<String> rejecting = new NDSTilePayloadCache<>(10, String::length, id -> "x", r -> {
+            throw new java.util.concurrent.RejectedExecutionException();
+        });
+        assertTrue(rejecting.get(tile(0, 0)).isCompletedExceptionally());
+        assertTrue(rejecting.get(tile(0, 0)).isCompletedExceptionally());
+        // Failing and negative weights fail the load, which can be retried
+        AtomicInteger weighs = new AtomicInteger();
+        NDSTilePayloadCache<String> weighing = new NDSTilePayloadCache<>(1000, s -> {
+            int w = weighs.incrementAndGet();
+            if (w == 1) {
+                throw new IllegalStateException("Corrupt payload");
+            }
+            return w == 2 ? -1 : s.length();
+        }, id -> "payload", Runnable::run);
+        assertTrue(weighing.get(tile(0, 0)).isCompletedExceptionally());
+        assertTrue(weighing.get(tile(0, 0)).isCompletedExceptionally());
+        assertEquals(2L, weighing.getLoadFailures());
+        assertEquals(0, weighing.size());
+        assertEquals(0L, weighing.getWeightedSize());
+        assertTrue(weighing.prefetch(tile(0, 0)));
+        assertEquals("payload", weighing.getIfPresent(tile(0, 0)));
+        assertEquals(7L, weighing.getWeightedSize());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        NDSTilePayloadCache<byte[]> cache = new NDSTilePayloadCache<>(1000, b -> b.length, id -> new byte[100], Runnable::run);
+        // Tiles used repeatedly
+        for (int i = 0; i < 5; i++) {
+            cache.get(tile(i, 0)).get();
+            cache.get(tile(i, 0)).get();
+        }
+        // A scan of tiles passed once does not evict them
+        for (int i = 0; i < 100; i++) {
+            cache.get(tile(i, 10)).get();
+            assertTrue(cache.getWeightedSize() <= 1000);
+        }
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cache.getIfPresent(tile(i, 0)) != null);
+        }
+        assertEquals(10, cache.size());
+        assertEquals(95L, cache.getEvictions());
+        // The protected segment is bounded, so repeated use of many tiles evicts the least recently used
+        for (int i = 0; i < 20; i++) {
+            cache.get(tile(i, 20)).get();
+            cache.get(tile(i, 20)).get();
+        }
+        assertNull(cache.getIfPresent(tile(0, 0)));
+        assertEquals(1000L, cache.getWeightedSize());
+    }
+
+    @Test
+    public void testPrefetch() throws Exception {
+        Set<Integer> loaded = new HashSet<>();
+        NDSTilePayloadCache<byte[]> cache = new NDSTilePayloadCache<>(1 << 20, b -> b.length, id -> {
+            loaded.add(id);
+            return new byte[1];
+        }, Runnable::run);
+        int lon = NDSCoordinate.fromWGS84Longitude(9.18);
+        int lat = NDSCoordinate.fromWGS84Latitude(48.78);
+        int center = NDSTiles.packedId(LEVEL, lon, lat);
+        // The 3x3 tiles around, and the tiles to the east over 4 tile heights, about 6 columns at this latitude
+        int n = cache.prefetch(lon, lat, 90, LEVEL, 1, 4);
+        assertEquals(loaded.size(), n);
+        assertEquals((long) n, cache.getPrefetches());
+        assertEquals(0L, cache.getMisses());
+        for (int dx = -2; dx <= 8; dx++) {
+            for (int dy = -2; dy <= 2; dy++) {
+                boolean around = Math.abs(dx) <= 1 && Math.abs(dy) <= 1;
+                if (around || dy == 0 && dx >= 0 && dx <= 5) {
+                    assertTrue(loaded.contains(NDSTiles.neighbour(center, dx, dy)));
+                } else if (dy != 0 || dx < 0 || dx > 7) {
+                    assertFalse(loaded.contains(NDSTiles.neighbour(center, dx, dy)));
+                }
+            }
+        }
+        // Nothing new to load, and the tiles are hits
+        assertEquals(0, cache.prefetch(lon, lat, 90, LEVEL, 1, 4));
+        assertTrue(cache.get(NDSTiles.neighbour(center, 5, 0)).isDone());
+        assertEquals(1L, cache.getHits());
+
+        // Heading south west over one tile height, without neighbours
+        loaded.clear();
+        cache.clear();
+        n = cache.prefetch(lon, lat, 225, LEVEL, 0, 1);
+        assertEquals(loaded.size(), n);
+        assertTrue(n >= 2);
+        assertTrue(loaded.contains(center));
+        int within = 0;
+        for (int dx = -2; dx <= 0; dx++) {
+            for (int dy = -1; dy <= 0; dy++) {
+                within += loaded.contains(NDSTiles.neighbour(center, dx, dy)) ? 1 : 0;
+            }
+        }
+        assertEquals(n, within);
+        try {
+            cache.prefetch(lon, lat, 0, LEVEL, -1, 0);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+        try {
+            cache.prefetch(lon, lat, 0, LEVEL, 0, -1);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    private static int tile(int dx, int dy) {
+        return NDSTiles.neighbour(NDSTiles.packedIdFromWgs84(LEVEL, 9.18, 48.78), dx, dy);
+    }
+}
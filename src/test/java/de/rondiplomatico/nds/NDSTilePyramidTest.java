@@ -0,0 +1,214 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSTilePyramid class against aggregating each level separately.
+ *
+ * @since 15.10.2026
+ */
+public class NDSTilePyramidTest {
+
+    private static final int N = 20011;
+
+    private final int[] lon = new int[N];
+    private final int[] lat = new int[N];
+    private final double[] values = new double[N];
+
+    public NDSTilePyramidTest() {
+        Random rnd = new Random(1);
+        double[] wgsLon = new double[N];
+        double[] wgsLat = new double[N];
+        for (int i = 0; i < N; i++) {
+            // Clustered, so that the tiles have several points
+            wgsLon[i] = Math.max(-180, Math.min(180, 8 + rnd.nextGaussian() * 20));
+            wgsLat[i] = Math.max(-90, Math.min(90, 50 + rnd.nextGaussian() * 10));
+            values[i] = rnd.nextInt(100) / 4.0;
+        }
+        wgsLon[0] = -180;
+        wgsLat[0] = -90;
+        wgsLon[1] = 180;
+        wgsLat[1] = 90;
+        NDSBatch.toNDS(wgsLon, wgsLat, 0, lon, lat, 0, N);
+    }
+
+    @Test
+    public void testInMemory() {
+        try (NDSTilePyramid p = new NDSTilePyramid(13)) {
+            p.addAll(lon, lat, values, 0, N);
+            assertEquals((long) N, p.getPointCount());
+            assertEquals(0, p.getRunCount());
+            assertPyramid(p, 13);
+        }
+    }
+
+    @Test
+    public void testSpilling() throws IOException {
+        Path dir = Files.createTempDirectory("nds-pyramid-test");
+        try {
+            try (NDSTilePyramid p = new NDSTilePyramid(15, 500, dir)) {
+                for (int i = 0; i < N; i++) {
+                    p.add(lon[i], lat[i], values[i]);
+                }
+                assertTrue(p.getRunCount() > 1);
+                assertEquals((long) p.getRunCount(), Files.list(dir).count());
+                assertPyramid(p, 15);
+                // Emitting does not consume
+                assertPyramid(p, 15);
+            }
+            assertEquals(0L, Files.list(dir).count());
+        } finally {
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void testMergePasses() throws IOException {
+        Path dir = Files.createTempDirectory("nds-pyramid-test");
+        try {
+            try (NDSTilePyramid p = new NDSTilePyramid(15, 40, dir)) {
+                p.addAll(lon, lat, values, 0, N);
+                int runs = p.getRunCount();
+                assertTrue(runs > 4 * NDSTilePyramid.MERGE_FAN_IN);
+                assertPyramid(p, 15);
+                // Merged into fewer runs than the fan in, along with the map
+                assertTrue(p.getRunCount() < NDSTilePyramid.MERGE_FAN_IN);
+                assertEquals((long) p.getRunCount(), Files.list(dir).count());
+                assertPyramid(p, 15);
+                p.addAll(lon, lat, values, 0, N);
+                assertTrue(p.getRunCount() > NDSTilePyramid.MERGE_FAN_IN);
+                assertEquals(2L * N, p.collect(0).getCount(0) + p.collect(0).getCount(1));
+            }
+            assertEquals(0L, Files.list(dir).count());
+        } finally {
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void testSingleTileMemory() throws IOException {
+        Path dir = Files.createTempDirectory("nds-pyramid-test");
+        try (NDSTilePyramid p = new NDSTilePyramid(9, 1, dir)) {
+            p.addAll(lon, lat, 0, 1000);
+            p.addTile(NDSTiles.packedId(9, lon[5], lat[5]), 3, 1.5);
+            NDSTilePyramid.Cells level9 = p.collect(9);
+            long count = 0;
+            double sum = 0;
+            for (int i = 0; i < level9.size(); i++) {
+                count += level9.getCount(i);
+                sum += level9.getSum(i);
+            }
+            assertEquals(1003L, count);
+            assertEquals(1.5, sum, 0);
+            NDSTilePyramid.Cells level0 = p.collect(0);
+            assertEquals(1003L, level0.getCount(0) + (level0.size() > 1 ? level0.getCount(1) : 0));
+        } finally {
+            for (Object f : Files.list(dir).toArray()) {
+                Files.delete((Path) f);
+            }
+            Files.delete(dir);
+        }
+    }
+
+    @Test
+    public void testGeoJSON() {
+        try (NDSTilePyramid p = new NDSTilePyramid(4)) {
+            p.add(lon[5], lat[5], 2);
+            p.add(lon[5], lat[5], 0.5);
+            StringBuilder sb = new StringBuilder();
+            GeoJsonWriter w = new GeoJsonWriter(sb).beginFeatureCollection();
+            p.writeGeoJSON(2, w);
+            w.endFeatureCollection().flush();
+
+            StringBuilder expected = new StringBuilder();
+            new GeoJsonWriter(expected).beginFeatureCollection()
+                            .tile(NDSTiles.packedId(2, lon[5], lat[5]), new String[] { "count", "sum" }, new double[] { 2, 2.5 })
+                            .endFeatureCollection()
+                            .flush();
+            assertEquals(expected.toString(), sb.toString());
+            assertTrue(sb.indexOf("\"count\":2,\"sum\":2.5") > 0);
+        }
+    }
+
+    @Test
+    public void testEmptyAndInvalid() {
+        try (NDSTilePyramid p = new NDSTilePyramid(15)) {
+            p.emit((id, count, sum) -> fail("No tiles expected"));
+            assertEquals(0, p.collectAll()[0].size());
+            try {
+                p.collect(16);
+                fail("IllegalArgumentException expected");
+            } catch (Exception e) {
+                assertTrue(e instanceof IllegalArgumentException);
+            }
+            try {
+                p.addTile(NDSTiles.packedIdOf(14, 0), 1, 0);
+                fail("IllegalArgumentException expected");
+            } catch (Exception e) {
+                assertTrue(e instanceof IllegalArgumentException);
+            }
+            try {
+                p.addAll(lon, lat, new double[3], 0, 4);
+                fail("ArrayIndexOutOfBoundsException expected");
+            } catch (Exception e) {
+                assertTrue(e instanceof ArrayIndexOutOfBoundsException);
+            }
+        }
+        try {
+            new NDSTilePyramid(16);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+    }
+
+    private void assertPyramid(NDSTilePyramid p, int level) {
+        List<Map<Integer, double[]>> expected = new ArrayList<>();
+        for (int l = 0; l <= level; l++) {
+            Map<Integer, double[]> m = new TreeMap<>((a, b) -> Integer.compare(NDSTiles.tileNumberOf(a), NDSTiles.tileNumberOf(b)));
+            for (int i = 0; i < N; i++) {
+                double[] cs = m.computeIfAbsent(NDSTiles.packedId(l, lon[i], lat[i]), k -> new double[2]);
+                cs[0]++;
+                cs[1] += values[i];
+            }
+            expected.add(m);
+        }
+
+        NDSTilePyramid.Cells[] actual = p.collectAll();
+        assertEquals(level + 1, actual.length);
+        for (int l = 0; l <= level; l++) {
+            NDSTilePyramid.Cells cells = actual[l];
+            assertEquals(expected.get(l).size(), cells.size());
+            int i = 0;
+            for (Map.Entry<Integer, double[]> e : expected.get(l).entrySet()) {
+                assertEquals(e.getKey().intValue(), cells.getPackedId(i));
+                assertEquals((long) e.getValue()[0], cells.getCount(i));
+                assertEquals(e.getValue()[1], cells.getSum(i), 1e-9);
+                i++;
+            }
+        }
+
+        // Each tile comes after its descendants
+        Map<Integer, Integer> position = new HashMap<>();
+        p.emit((id, count, sum) -> position.put(id, position.size()));
+        for (Map.Entry<Integer, Integer> e : position.entrySet()) {
+            if (NDSTiles.levelOf(e.getKey()) > 0) {
+                assertTrue(position.get(NDSTiles.parent(e.getKey(), 1)) > e.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import de.rondiplomatico.nds.NDSTileRaster.Part;
+
+/**
+ * Tests the NDSTileRaster class.
+ *
+ * @since 15.10.2026
+ */
+public class NDSTileRasterTest {
+
+    @Test
+    public void testPolylineSampled() {
+        Random rnd = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            int level = 2 + i % 8;
+            int n = 2 + rnd.nextInt(4);
+            int[] lon = new int[n];
+            int[] lat = new int[n];
+            lon[0] = rnd.nextInt();
+            lat[0] = rnd.nextInt() >> 1;
+            for (int j = 1; j < n; j++) {
+                lon[j] = lon[j - 1] + (rnd.nextInt() >> 4 + rnd.nextInt(8));
+                lat[j] = clampLatitude((long) lat[j - 1] + (rnd.nextInt() >> 4 + rnd.nextInt(8)));
+            }
+            int[] ids = NDSTileRaster.polyline(level, lon, lat, 0, n);
+            assertSortedDistinct(ids);
+            for (int j = 1; j < n; j++) {
+                long x0 = lon[j - 1];
+                long x1 = x0 + (lon[j] - lon[j - 1]);
+                // Every sampled point of the segment is within a touched tile
+                for (int k = 0; k <= 1000; k++) {
+                    double t = k / 1000.0;
+                    int x = (int) (long) Math.floor(x0 + t * (x1 - x0));
+                    int y = (int) Math.floor(lat[j - 1] + t * ((long) lat[j] - lat[j - 1]));
+                    assertTrue(Arrays.binarySearch(ids, NDSTiles.packedId(level, x, y)) >= 0);
+                }
+            }
+            // Every touched tile is close to the polyline
+            for (int id : ids) {
+                assertTrue(touches(id, lon, lat, n, false));
+            }
+        }
+    }
+
+    @Test
+    public void testPolylineExact() {
+        int level = 4;
+        int size = 1 << 27;
+        // Along the bottom edge of a row, ending exactly at a tile corner
+        int[] ids = NDSTileRaster.polyline(level, new int[] { 0, 3 * size }, new int[] { size, size }, 0, 2);
+        assertArrayEquals(cells(level, new int[] { 0, 1, 2, 3 }, new int[] { 1, 1, 1, 1 }), ids);
+        // Diagonal through the tile corners touches only the diagonal tiles
+        ids = NDSTileRaster.polyline(level, new int[] { 0, 2 * size }, new int[] { 0, 2 * size }, 0, 2);
+        assertArrayEquals(cells(level, new int[] { 0, 1, 2 }, new int[] { 0, 1, 2 }), ids);
+        // The other diagonal: the points of the lower tiles' top edges belong to the upper tiles
+        ids = NDSTileRaster.polyline(level, new int[] { 0, 2 * size }, new int[] { 2 * size, 0 }, 0, 2);
+        assertArrayEquals(cells(level, new int[] { 0, 1, 2, 0, 1 }, new int[] { 2, 1, 0, 1, 0 }), ids);
+        // Vertical line and single point
+        ids = NDSTileRaster.polyline(level, new int[] { -1, -1 }, new int[] { -1, size }, 0, 2);
+        assertArrayEquals(cells(level, new int[] { -1, -1, -1 }, new int[] { -1, 0, 1 }), ids);
+        ids = NDSTileRaster.polyline(level, new int[] { 5 }, new int[] { 5 }, 0, 1);
+        assertArrayEquals(new int[] { NDSTiles.packedId(level, 5, 5) }, ids);
+        assertEquals(0, NDSTileRaster.polyline(level, new int[0], new int[0], 0, 0).length);
+    }
+
+    @Test
+    public void testAntimeridian() {
+        int level = 3;
+        int[] ids = NDSTileRaster.polyline(level, new int[] { NDSCoordinate.MAX_LONGITUDE - 10, NDSCoordinate.MIN_LONGITUDE + 10 }, new int[] { 0, 0 }, 0, 2);
+        assertArrayEquals(cells(level, new int[] { 7, -8 }, new int[] { 0, 0 }), ids);
+
+        // A rectangle across the antimeridian covers the same tiles as its bounding box
+        int w = NDSCoordinate.MAX_LONGITUDE - 100000000;
+        int e = NDSCoordinate.MIN_LONGITUDE + 300000000;
+        int[] lon = { w, e, e, w };
+        int[] lat = { -200000000, -200000000, 100000000, 100000000 };
+        for (int l = 0; l < 8; l++) {
+            assertArrayEquals(NDSTileCover.stream(new NDSBBox(lat[2], e, lat[0], w), l).toArray(), NDSTileRaster.polygon(l, lon, lat, 0, 4, Part.ALL));
+        }
+    }
+
+    @Test
+    public void testRectangle() {
+        Random rnd = new Random(2);
+        for (int i = 0; i < 200; i++) {
+            int level = i % 10;
+            int shift = 31 - level;
+            int w = rnd.nextInt() >> 2;
+            int s = rnd.nextInt() >> 2;
+            int e = w + (rnd.nextInt(Integer.MAX_VALUE) >> rnd.nextInt(8));
+            int n = s + (rnd.nextInt(Integer.MAX_VALUE) >> 2 + rnd.nextInt(8));
+            int[] lon = { w, e, e, w };
+            int[] lat = { s, s, n, n };
+            int[] all = NDSTileRaster.polygon(level, lon, lat, 0, 4, Part.ALL);
+            assertArrayEquals(NDSTileCover.stream(new NDSBBox(n, e, s, w), level).toArray(), all);
+            // Only tiles strictly within the boundary rows and columns are interior
+            int[] interior = IntStream.of(all).filter(id -> {
+                int[] bbox = new int[4];
+                NDSTiles.bbox(id, bbox, 0);
+                int c = bbox[3] >> shift;
+                int r = bbox[2] >> shift;
+                return level > 0 && (w >> shift) < c && c < (e >> shift) && (s >> shift) < r && r < (n >> shift);
+            }).toArray();
+            assertArrayEquals(interior, NDSTileRaster.polygon(level, lon, lat, 0, 4, Part.INTERIOR));
+            int[] boundary = NDSTileRaster.polygon(level, lon, lat, 0, 4, Part.BOUNDARY);
+            assertEquals(all.length, boundary.length + interior.length);
+            assertArrayEquals(NDSTileRaster.polyline(level, new int[] { w, e, e, w, w }, new int[] { s, s, n, n, s }, 0, 5), boundary);
+        }
+    }
+
+    @Test
+    public void testStarPolygons() {
+        Random rnd = new Random(3);
+        int threshold = NDSBatch.getParallelThreshold();
+        try {
+            for (int i = 0; i < 50; i++) {
+                int level = 4 + i % 6;
+                int n = 3 + rnd.nextInt(30);
+                int[] lon = new int[n];
+                int[] lat = new int[n];
+                int cx = rnd.nextInt();
+                int cy = rnd.nextInt() >> 2;
+                for (int j = 0; j < n; j++) {
+                    double angle = 2 * Math.PI * j / n;
+                    double radius = (0.2 + rnd.nextDouble()) * (1 << 28);
+                    lon[j] = cx + (int) (radius * Math.cos(angle));
+                    lat[j] = clampLatitude(cy + (long) (radius * Math.sin(angle)));
+                }
+                NDSBatch.setParallelThreshold(threshold);
+                int[] all = NDSTileRaster.polygon(level, lon, lat, 0, n, Part.ALL);
+                int[] boundary = NDSTileRaster.polygon(level, lon, lat, 0, n, Part.BOUNDARY);
+                int[] interior = NDSTileRaster.polygon(level, lon, lat, 0, n, Part.INTERIOR);
+                assertSortedDistinct(all);
+                assertEquals(all.length, boundary.length + interior.length);
+                for (int id : interior) {
+                    assertTrue(Arrays.binarySearch(all, id) >= 0);
+                    assertTrue(Arrays.binarySearch(boundary, id) < 0);
+                    assertTrue(!touches(id, lon, lat, n, true));
+                    int[] c = new int[2];
+                    NDSTiles.center(id, c, 0);
+                    assertTrue(inside(c[0], c[1], lon, lat, n));
+                }
+                for (int id : boundary) {
+                    assertTrue(touches(id, lon, lat, n, true));
+                }
+                // Random points within the polygon are covered
+                for (int j = 0; j < 200; j++) {
+                    int x = cx + (rnd.nextInt() >> 3);
+                    int y = clampLatitude(cy + (long) (rnd.nextInt() >> 3));
+                    if (inside(x, y, lon, lat, n)) {
+                        assertTrue(Arrays.binarySearch(all, NDSTiles.packedId(level, x, y)) >= 0);
+                    }
+                }
+                NDSBatch.setParallelThreshold(1);
+                assertArrayEquals(all, NDSTileRaster.polygon(level, lon, lat, 0, n, Part.ALL));
+            }
+        } finally {
+            NDSBatch.setParallelThreshold(threshold);
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        try {
+            NDSTileRaster.polygon(3, new int[] { 0, 1 }, new int[] { 0, 1 }, 0, 2, Part.ALL);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            // Encloses the north pole
+            NDSTileRaster.polygon(3, new int[] { 0, 1 << 30, Integer.MIN_VALUE, -(1 << 30) }, new int[] { 1 << 29, 1 << 29, 1 << 29, 1 << 29 }, 0, 4, Part.ALL);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            NDSTileRaster.polyline(3, new int[] { 0, 1 }, new int[] { 0, Integer.MAX_VALUE }, 0, 2);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            NDSTileRaster.polyline(16, new int[] { 0, 1 }, new int[] { 0, 1 }, 0, 2);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static int clampLatitude(long lat) {
+        return (int) Math.max(NDSCoordinate.MIN_LATITUDE, Math.min(NDSCoordinate.MAX_LATITUDE, lat));
+    }
+
+    private static int[] cells(int level, int[] columns, int[] rows) {
+        int shift = 31 - level;
+        return IntStream.range(0, columns.length).map(i -> NDSTiles.packedId(level, columns[i] << shift, rows[i] << shift)).sorted().toArray();
+    }
+
+    /*
+     * Checks if any segment of the polyline/ring intersects the tile area, enlarged by a small tolerance
+     */
+    private static boolean touches(int id, int[] lon, int[] lat, int n, boolean closed) {
+        int level = NDSTiles.levelOf(id);
+        int shift = 31 - level;
+        int[] bbox = new int[4];
+        NDSTiles.bbox(id, bbox, 0);
+        double west = bbox[3] >> shift << shift;
+        double south = level == 0 ? NDSCoordinate.MIN_LATITUDE : bbox[2];
+        double east = west + (1L << shift);
+        double north = level == 0 ? NDSCoordinate.MAX_LATITUDE : south + (1L << shift);
+        for (int j = 1; j < (closed ? n + 1 : n); j++) {
+            long x0 = lon[j - 1];
+            long x1 = x0 + (lon[j % n] - lon[j - 1]);
+            for (long wrap : new long[] { -(1L << 32), 0, 1L << 32 }) {
+                if (clip(x0 + wrap, lat[j - 1], x1 + wrap, lat[j % n], west - 0.5, south - 0.5, east + 0.5, north + 0.5)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /*
+     * Liang-Barsky segment/rectangle intersection
+     */
+    private static boolean clip(double x0, double y0, double x1, double y1, double xmin, double ymin, double xmax, double ymax) {
+        double t0 = 0;
+        double t1 = 1;
+        double[] p = { x0 - x1, x1 - x0, y0 - y1, y1 - y0 };
+        double[] q = { x0 - xmin, xmax - x0, y0 - ymin, ymax - y0 };
+        for (int i = 0; i < 4; i++) {
+            if (p[i] == 0) {
+                if (q[i] < 0) {
+                    return false;
+                }
+            } else {
+                double t = q[i] / p[i];
+                if (p[i] < 0) {
+                    t0 = Math.max(t0, t);
+                } else {
+                    t1 = Math.min(t1, t);
+                }
+            }
+        }
+        return t0 <= t1;
+    }
+
+    /*
+     * Even-odd point in polygon test (the test polygons do not cross the antimeridian)
+     */
+    private static boolean inside(long x, long y, int[] lon, int[] lat, int n) {
+        long[] ux = new long[n];
+        ux[0] = lon[0];
+        for (int j = 1; j < n; j++) {
+            ux[j] = ux[j - 1] + (lon[j] - lon[j - 1]);
+        }
+        boolean in = false;
+        for (int k = 0; k < 3; k++) {
+            long px = x + (k - 1) * (1L << 32);
+            boolean c = false;
+            for (int i = 0, j = n - 1; i < n; j = i++) {
+                if (lat[i] > y != lat[j] > y && px < (double) (ux[j] - ux[i]) * (y - lat[i]) / ((long) lat[j] - lat[i]) + ux[i]) {
+                    c = !c;
+                }
+            }
+            in |= c;
+        }
+        return in;
+    }
+
+    private static void assertSortedDistinct(int[] ids) {
+        for (int i = 1; i < ids.length; i++) {
+            assertTrue(ids[i - 1] < ids[i]);
+        }
+    }
+
+    /*
+     * JUnit 4.1 has no int[] overload of assertArrayEquals
+     */
+    private static void assertArrayEquals(int[] expected, int[] actual) {
+        assertEquals(Arrays.toString(expected), Arrays.toString(actual));
+    }
+}
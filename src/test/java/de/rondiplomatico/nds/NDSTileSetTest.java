@@ -0,0 +1,205 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSTileSet class against the areas of the tile sets as bit sets of fine tiles.
+ *
+ * @since 15.10.2026
+ */
+public class NDSTileSetTest {
+
+    /*
+     * The level of the bit sets
+     */
+    private static final int FINE = 5;
+
+    @Test
+    public void testNormalization() {
+        int parent = NDSTiles.packedIdOf(3, 17);
+        int[] children = new int[4];
+        NDSTiles.children(parent, children, 0);
+        NDSTileSet set = NDSTileSet.of(children[2], parent, children[0], parent, NDSTiles.packedIdOf(4, 1));
+        assertEquals(2L, set.size());
+        assertEquals(1, set.size(3));
+        assertEquals(1, set.size(4));
+        assertEquals("[" + NDSTiles.packedIdOf(4, 1) + ", " + parent + "]", Arrays.toString(set.toArray()));
+
+        NDSTileSet four = NDSTileSet.of(children);
+        assertEquals(4L, four.size());
+        assertEquals(NDSTileSet.of(parent), four.compact());
+        assertEquals(four, NDSTileSet.of(parent).expand(4));
+        assertEquals(NDSTileSet.of(parent), NDSTileSet.ofLevel(4, 68, 69, 70, 71).compact());
+        assertTrue(NDSTileSet.EMPTY.isEmpty());
+        assertEquals(NDSTileSet.EMPTY, four.difference(NDSTileSet.of(parent)));
+    }
+
+    @Test
+    public void testSetOperations() {
+        Random rnd = new Random(1);
+        for (int i = 0; i < 500; i++) {
+            NDSTileSet a = randomSet(rnd);
+            NDSTileSet b = randomSet(rnd);
+            BitSet fa = area(a);
+            BitSet fb = area(b);
+
+            BitSet expected = (BitSet) fa.clone();
+            expected.or(fb);
+            assertSet(expected, a.union(b));
+
+            expected = (BitSet) fa.clone();
+            expected.and(fb);
+            assertSet(expected, a.intersection(b));
+
+            expected = (BitSet) fa.clone();
+            expected.andNot(fb);
+            NDSTileSet diff = a.difference(b);
+            assertSet(expected, diff);
+            assertEquals(diff.compact(), a.compact().difference(b.compact()).compact());
+
+            assertEquals(a, a.union(a));
+            assertEquals(a, a.intersection(a));
+            assertTrue(a.difference(a).isEmpty());
+        }
+    }
+
+    @Test
+    public void testCompactAndExpand() {
+        Random rnd = new Random(2);
+        for (int i = 0; i < 500; i++) {
+            NDSTileSet a = randomSet(rnd);
+            BitSet fa = area(a);
+            NDSTileSet c = a.compact();
+            assertSet(fa, c);
+            assertTrue(c.size() <= a.size());
+            assertEquals(c, c.compact());
+            assertEquals(c, a.expand(FINE).compact());
+            // No four children remain
+            c.forEach(id -> {
+                if (NDSTiles.levelOf(id) > 0) {
+                    int[] siblings = new int[4];
+                    NDSTiles.children(NDSTiles.parent(id, 1), siblings, 0);
+                    int complete = 0;
+                    for (int s : siblings) {
+                        complete += c.intersection(NDSTileSet.of(s)).equals(NDSTileSet.of(s)) ? 1 : 0;
+                    }
+                    assertTrue(complete < 4);
+                }
+            });
+
+            // Expanding to a coarser level gives the ancestors
+            NDSTileSet coarse = a.expand(2);
+            assertEquals(coarse.size(), (long) coarse.size(2));
+            a.forEach(id -> assertTrue(coarse.contains(id)));
+            coarse.forEach(id -> assertFalse(a.intersection(NDSTileSet.of(id)).isEmpty()));
+        }
+        try {
+            NDSTileSet.of(NDSTiles.packedIdOf(0, 0), NDSTiles.packedIdOf(0, 1)).expand(15);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testContains() {
+        Random rnd = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            NDSTileSet a = randomSet(rnd);
+            BitSet fa = area(a);
+            // Tiles of all levels up to the bit set level
+            for (int level = 0; level <= FINE; level++) {
+                for (int nr = 0; nr < 2 << 2 * level; nr++) {
+                    int shift = 2 * (FINE - level);
+                    boolean expected = fa.nextClearBit(nr << shift) >= nr + 1 << shift;
+                    assertEquals(expected, a.contains(NDSTiles.packedIdOf(level, nr)));
+                }
+            }
+            // Finer tiles and points
+            for (int j = 0; j < 100; j++) {
+                NDSCoordinate c = new NDSCoordinate(rnd.nextInt(), rnd.nextInt() >> 1);
+                boolean expected = fa.get(new NDSTile(FINE, c).getTileNumber());
+                assertEquals(expected, a.contains(c));
+                assertEquals(expected, a.contains(new NDSTile(FINE + 1 + rnd.nextInt(NDSTile.MAX_LEVEL - FINE), c)));
+            }
+        }
+        NDSTileSet barcelona = NDSTileSet.of(539636700);
+        assertTrue(barcelona.contains(new NDSCoordinate(24772607, 493486079)));
+        assertTrue(barcelona.contains(-2103231037));
+        assertFalse(barcelona.contains(NDSTiles.parent(539636700, 1)));
+    }
+
+    @Test
+    public void testLevelFifteen() {
+        int[] ids = { NDSTiles.packedIdOf(15, 0), NDSTiles.packedIdOf(15, Integer.MAX_VALUE), -2103231037 };
+        NDSTileSet set = NDSTileSet.of(ids);
+        assertEquals(3L, set.size());
+        assertTrue(set.contains(-1, -1));
+        assertFalse(set.contains(NDSCoordinate.MAX_LONGITUDE, NDSCoordinate.MAX_LATITUDE));
+        assertTrue(set.contains(new NDSTile(-2103231037)));
+        assertEquals(set, NDSTileSet.ofLevel(15, 0, Integer.MAX_VALUE, NDSTiles.tileNumberOf(-2103231037)));
+        assertEquals(set, set.union(NDSTileSet.of(ids[1])));
+        assertEquals(NDSTileSet.of(ids[2]), set.intersection(NDSTileSet.of(539636700)));
+        assertEquals(2L, set.difference(NDSTileSet.of(539636700)).size());
+        try {
+            NDSTileSet.of(34);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            NDSTileSet.ofLevel(2, 32);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+    }
+
+    /*
+     * A set of random tiles on levels 0..FINE, mostly clustered in the same quarter of the world
+     */
+    private static NDSTileSet randomSet(Random rnd) {
+        int[] ids = new int[rnd.nextInt(40)];
+        for (int i = 0; i < ids.length; i++) {
+            int level = rnd.nextInt(100) < 3 ? rnd.nextInt(2) : 2 + rnd.nextInt(FINE - 1);
+            int nr = rnd.nextInt(2 << 2 * level);
+            if (level > 1 && rnd.nextBoolean()) {
+                nr &= (1 << 2 * level - 2) - 1;
+            }
+            ids[i] = NDSTiles.packedIdOf(level, nr);
+        }
+        return NDSTileSet.of(ids);
+    }
+
+    private static BitSet area(NDSTileSet set) {
+        BitSet res = new BitSet();
+        set.forEach(id -> {
+            int shift = 2 * (FINE - NDSTiles.levelOf(id));
+            int nr = NDSTiles.tileNumberOf(id);
+            // The set must be disjoint
+            assertTrue(res.nextSetBit(nr << shift) < 0 || res.nextSetBit(nr << shift) >= nr + 1 << shift);
+            res.set(nr << shift, nr + 1 << shift);
+        });
+        return res;
+    }
+
+    private static void assertSet(BitSet expected, NDSTileSet actual) {
+        assertEquals(expected, area(actual));
+        int[] ids = actual.toArray();
+        assertEquals(actual.size(), (long) ids.length);
+        for (int i = 1; i < ids.length; i++) {
+            int shift = 2 * (FINE - NDSTiles.levelOf(ids[i]));
+            int prevShift = 2 * (FINE - NDSTiles.levelOf(ids[i - 1]));
+            assertTrue(NDSTiles.tileNumberOf(ids[i - 1]) << prevShift < NDSTiles.tileNumberOf(ids[i]) << shift);
+        }
+    }
+}
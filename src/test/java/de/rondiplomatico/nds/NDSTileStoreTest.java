@@ -0,0 +1,305 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+/**
+ * Tests the NDSTileStore class by builds into temporary directories.
+ *
+ * @since 15.10.2026
+ */
+public class NDSTileStoreTest {
+
+    @Test
+    public void testBuildAndGet() throws IOException {
+        Random rnd = new Random(1);
+        List<Map.Entry<Integer, ByteBuffer>> tiles = new ArrayList<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 5000; i++) {
+            int level = i % 3 == 0 ? NDSTile.MAX_LEVEL : rnd.nextInt(NDSTile.MAX_LEVEL);
+            int id = NDSTiles.packedId(level, rnd.nextInt(), rnd.nextInt() >> 1);
+            // Duplicates replace the earlier blobs, some blobs are empty
+            int length = i % 100 == 0 ? 0 : rnd.nextInt(300);
+            tiles.add(new SimpleImmutableEntry<>(id, blob(id, length)));
+            expected.put(id, length);
+        }
+        tiles.add(new SimpleImmutableEntry<>(tiles.get(7).getKey(), blob(tiles.get(7).getKey(), 1000)));
+        expected.put(tiles.get(7).getKey(), 1000);
+
+        Path dir = Files.createTempDirectory("store");
+        try {
+            assertEquals(expected.size(), NDSTileStore.build(dir, tiles.iterator()));
+            try (NDSTileStore store = NDSTileStore.open(dir)) {
+                assertEquals(expected.size(), store.size());
+                for (Map.Entry<Integer, Integer> e : expected.entrySet()) {
+                    assertTrue(store.contains(e.getKey()));
+                    assertBlob(e.getKey(), e.getValue(), store.get(e.getKey()));
+                }
+                int missing = NDSTiles.packedIdOf(NDSTile.MAX_LEVEL, 0);
+                while (expected.containsKey(missing)) {
+                    missing++;
+                }
+                assertFalse(store.contains(missing));
+                assertNull(store.get(missing));
+                assertTrue(store.get(tiles.get(1).getKey()).isReadOnly());
+
+                // All tiles, sorted by packed Tile ID
+                List<Integer> ids = new ArrayList<>();
+                store.forEach((id, blob) -> {
+                    ids.add(id);
+                    assertBlob(id, expected.get(id), blob);
+                });
+                assertEquals(new ArrayList<>(expected.keySet()), ids);
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testAppend() throws IOException {
+        int a = NDSTiles.packedIdFromWgs84(13, 9.18, 48.78);
+        int b = NDSTiles.packedIdFromWgs84(13, 11.58, 48.14);
+        int c = NDSTiles.packedIdFromWgs84(15, 13.4, 52.52);
+        Path dir = Files.createTempDirectory("store");
+        try {
+            assertEquals(2, NDSTileStore.build(dir, Arrays.asList(entry(a, 10), entry(b, 20)).iterator()));
+            try (NDSTileStore before = NDSTileStore.open(dir)) {
+                assertEquals(3, NDSTileStore.build(dir, Arrays.asList(entry(b, 25), entry(c, 30)).iterator()));
+                // The store opened before still reads the previous version
+                assertEquals(2, before.size());
+                assertBlob(b, 20, before.get(b));
+                assertNull(before.get(c));
+                try (NDSTileStore after = NDSTileStore.open(dir)) {
+                    assertEquals(3, after.size());
+                    assertEquals(85L, after.getDataLength());
+                    assertBlob(a, 10, after.get(a));
+                    assertBlob(b, 25, after.get(b));
+                    assertBlob(c, 30, after.get(c));
+                }
+            }
+            // Nothing to append, and blobs of an interrupted build are dropped
+            Files.write(dir.resolve(NDSTileStore.DATA_FILE), new byte[7], StandardOpenOption.APPEND);
+            assertEquals(3, NDSTileStore.build(dir, Collections.<Map.Entry<Integer, ByteBuffer>> emptyIterator()));
+            assertEquals(85L, Files.size(dir.resolve(NDSTileStore.DATA_FILE)));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testRange() throws IOException {
+        List<Map.Entry<Integer, ByteBuffer>> tiles = new ArrayList<>();
+        int level = 13;
+        // The level 13 tiles around Stuttgart and their level 12 parents
+        NDSTileCover.forEach(new NDSBBox(NDSCoordinate.fromWGS84Latitude(49), NDSCoordinate.fromWGS84Longitude(9.5), NDSCoordinate.fromWGS84Latitude(48.5),
+                        NDSCoordinate.fromWGS84Longitude(8.8)), level, id -> {
+                            tiles.add(entry(id, 4));
+                            tiles.add(entry(NDSTiles.parent(id, 1), 4));
+                        });
+        Collections.shuffle(tiles, new Random(1));
+        Path dir = Files.createTempDirectory("store");
+        try {
+            NDSTileStore.build(dir, tiles.iterator());
+            try (NDSTileStore store = NDSTileStore.open(dir)) {
+                NDSBBox bbox = new NDSBBox(NDSCoordinate.fromWGS84Latitude(48.8), NDSCoordinate.fromWGS84Longitude(9.2), NDSCoordinate.fromWGS84Latitude(48.7),
+                                NDSCoordinate.fromWGS84Longitude(9.1));
+                long[] ranges = NDSMortonRanges.decompose(bbox, 8);
+                for (int r = 0; r < ranges.length; r += 2) {
+                    long min = ranges[r];
+                    long max = ranges[r + 1];
+                    List<Integer> expected = new ArrayList<>();
+                    tiles.stream().map(Map.Entry::getKey).filter(id -> NDSTiles.levelOf(id) == level).distinct().sorted().forEach(id -> {
+                        int nr = NDSTiles.tileNumberOf(id);
+                        if (NDSTiles.southWestAsMorton(level, nr) <= max && min <= NDSBinaryFormat.lastMortonOfTile(level, nr)) {
+                            expected.add(id);
+                        }
+                    });
+                    List<Integer> actual = new ArrayList<>();
+                    assertEquals(expected.size(), store.forEachInRange(level, min, max, (id, blob) -> {
+                        actual.add(id);
+                        assertBlob(id, 4, blob);
+                    }));
+                    assertEquals(expected, actual);
+                    assertFalse(actual.isEmpty());
+                }
+                // All tiles of the level
+                assertEquals(tiles.size() / 2, store.forEachInRange(level, 0, Long.MAX_VALUE, (id, blob) -> assertEquals(level, NDSTiles.levelOf(id))));
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        int n = 20000;
+        List<Map.Entry<Integer, ByteBuffer>> tiles = new ArrayList<>();
+        for (int nr = 0; nr < n; nr++) {
+            tiles.add(entry(NDSTiles.packedIdOf(NDSTile.MAX_LEVEL, nr * 7919), nr % 64));
+        }
+        Path dir = Files.createTempDirectory("store");
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            NDSTileStore.build(dir, tiles.iterator());
+            try (NDSTileStore store = NDSTileStore.open(dir)) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < 4; t++) {
+                    Random rnd = new Random(t);
+                    futures.add(pool.submit(() -> {
+                        for (int i = 0; i < 50000; i++) {
+                            int nr = rnd.nextInt(n);
+                            int id = NDSTiles.packedIdOf(NDSTile.MAX_LEVEL, nr * 7919);
+                            assertBlob(id, nr % 64, store.get(id));
+                        }
+                    }));
+                }
+                for (Future<?> f : futures) {
+                    f.get();
+                }
+            }
+        } finally {
+            pool.shutdown();
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testLargeOffsets() throws IOException {
+        // A sparse data file of more than 2 GB with a blob across the first segment boundary
+        int a = NDSTiles.packedIdOf(13, 1);
+        int b = NDSTiles.packedIdOf(13, 2);
+        long offsetA = (1L << 30) - 3;
+        long offsetB = (1L << 31) + 50;
+        long dataLength = offsetB + 20;
+        Path dir = Files.createTempDirectory("store");
+        try {
+            try (FileChannel data = FileChannel.open(dir.resolve(NDSTileStore.DATA_FILE), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE,
+                            StandardOpenOption.SPARSE)) {
+                data.write(blob(a, 10), offsetA);
+                data.write(blob(b, 20), offsetB);
+            }
+            ByteBuffer index = ByteBuffer.allocate(NDSTileStore.HEADER_SIZE + 2 * NDSTileStore.ENTRY_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            index.putInt(NDSTileStore.MAGIC).putShort(NDSTileStore.VERSION).putShort((short) 0).putLong(2).putLong(dataLength);
+            index.putInt(a).putInt(10).putLong(offsetA).putInt(b).putInt(20).putLong(offsetB);
+            Files.write(dir.resolve(NDSTileStore.INDEX_FILE), index.array());
+            try (NDSTileStore store = NDSTileStore.open(dir)) {
+                assertBlob(a, 10, store.get(a));
+                assertBlob(b, 20, store.get(b));
+            }
+            // Appends after the end of the data in use
+            int c = NDSTiles.packedIdOf(13, 3);
+            NDSTileStore.build(dir, Arrays.asList(entry(c, 5)).iterator());
+            try (NDSTileStore store = NDSTileStore.open(dir)) {
+                assertEquals(dataLength + 5, store.getDataLength());
+                assertBlob(b, 20, store.get(b));
+                assertBlob(c, 5, store.get(c));
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test
+    public void testInvalid() throws IOException {
+        Path dir = Files.createTempDirectory("store");
+        try {
+            try {
+                NDSTileStore.build(dir, Arrays.asList(entry(1, 3)).iterator());
+                fail("IllegalArgumentException expected");
+            } catch (IllegalArgumentException e) {
+                // Expected, no valid packed Tile ID
+            }
+            try {
+                NDSTileStore.open(dir);
+                fail("IOException expected");
+            } catch (IOException e) {
+                // Expected, no index
+            }
+            int id = NDSTiles.packedIdOf(10, 42);
+            NDSTileStore.build(dir, Arrays.asList(entry(id, 3)).iterator());
+            try (NDSTileStore store = NDSTileStore.open(dir)) {
+                try {
+                    store.forEachInRange(10, 5, 4, (i, blob) -> fail());
+                    fail("IllegalArgumentException expected");
+                } catch (IllegalArgumentException e) {
+                    // Expected
+                }
+                try {
+                    store.forEachInRange(16, 0, 4, (i, blob) -> fail());
+                    fail("IllegalArgumentException expected");
+                } catch (IllegalArgumentException e) {
+                    // Expected
+                }
+            }
+            // A truncated data file
+            Files.write(dir.resolve(NDSTileStore.DATA_FILE), new byte[2]);
+            try {
+                NDSTileStore.open(dir);
+                fail("IOException expected");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("shorter"));
+            }
+            Files.write(dir.resolve(NDSTileStore.INDEX_FILE), new byte[30]);
+            try {
+                NDSTileStore.open(dir);
+                fail("IOException expected");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("no tile store"));
+            }
+        } finally {
+            delete(dir);
+        }
+    }
+
+    private static Map.Entry<Integer, ByteBuffer> entry(int id, int length) {
+        return new SimpleImmutableEntry<>(id, blob(id, length));
+    }
+
+    private static ByteBuffer blob(int id, int length) {
+        byte[] b = new byte[length];
+        for (int i = 0; i < length; i++) {
+            b[i] = (byte) (id * 31 + i * length);
+        }
+        return ByteBuffer.wrap(b);
+    }
+
+    private static void assertBlob(int id, int length, ByteBuffer actual) {
+        assertEquals(0L, (long) actual.position());
+        assertEquals(blob(id, length), actual);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path f : (Iterable<Path>) files::iterator) {
+                Files.delete(f);
+            }
+        }
+        Files.delete(dir);
+    }
+}
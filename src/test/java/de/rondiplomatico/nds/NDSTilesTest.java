@@ -0,0 +1,276 @@
+package de.rondiplomatico.nds;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests the static NDSTiles functions against the NDSTile and NDSCoordinate classes.
+ *
+ * @since 15.10.2026
+ */
+public class NDSTilesTest {
+
+    private static final int SAMPLES = 20000;
+
+    @Test
+    public void testFixedData() {
+        // Barcelona area
+        assertEquals(13, NDSTiles.levelOf(539636700));
+        assertEquals(2765788, NDSTiles.tileNumberOf(539636700));
+        assertEquals(539636700, NDSTiles.packedId(13, 24772607, 493486079));
+        assertEquals(-2103231037, NDSTiles.packedId(15, 24772607, 493486079));
+        assertEquals(NDSTiles.packedIdOf(10, 675564), NDSTiles.packedIdFromWgs84(10, 30, -34));
+
+        int[] bbox = new int[5];
+        NDSTiles.bbox(539636700, bbox, 1);
+        assertEquals(new NDSBBox(493617151, 24903679, 493355008, 24641536), new NDSBBox(bbox[1], bbox[2], bbox[3], bbox[4]));
+
+        int[] center = new int[2];
+        NDSTiles.center(539636700, center, 0);
+        assertEquals(new NDSCoordinate(24772607, 493486079), new NDSCoordinate(center[0], center[1]));
+    }
+
+    @Test
+    public void testLevelOf() {
+        assertEquals(-1, NDSTiles.levelOf(0));
+        assertEquals(-1, NDSTiles.levelOf(34));
+        assertEquals(-1, NDSTiles.levelOf((1 << 16) - 1));
+        assertEquals(0, NDSTiles.levelOf(1 << 16));
+        assertEquals(14, NDSTiles.levelOf(Integer.MAX_VALUE));
+        assertEquals(15, NDSTiles.levelOf(Integer.MIN_VALUE));
+        assertEquals(15, NDSTiles.levelOf(-1));
+
+        Random rnd = new Random(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            int id = rnd.nextInt();
+            assertEquals("Level of " + id, referenceLevel(id), NDSTiles.levelOf(id));
+            id >>>= rnd.nextInt(32);
+            assertEquals("Level of " + id, referenceLevel(id), NDSTiles.levelOf(id));
+        }
+    }
+
+    @Test
+    public void testMatchesNDSTile() {
+        Random rnd = new Random(2);
+        int[] bbox = new int[4];
+        int[] center = new int[2];
+        for (int i = 0; i < SAMPLES; i++) {
+            double lon = rnd.nextDouble() * 360.0 - 180.0;
+            double lat = rnd.nextDouble() * 180.0 - 90.0;
+            NDSCoordinate c = new NDSCoordinate(lon, lat);
+            for (int level = 0; level <= NDSTile.MAX_LEVEL; level++) {
+                NDSTile t = new NDSTile(level, c);
+                int id = NDSTiles.packedId(level, c.getLongitude(), c.getLatitude());
+                assertEquals(t.getTileNumber(), NDSTiles.tileNumber(level, c.getLongitude(), c.getLatitude()));
+                assertEquals(t.packedId(), id);
+                assertEquals(t.packedId(), NDSTiles.packedIdFromWgs84(level, lon, lat));
+                assertEquals(level, NDSTiles.levelOf(id));
+                assertEquals(t.getTileNumber(), NDSTiles.tileNumberOf(id));
+                assertTrue(NDSTiles.contains(id, c.getLongitude(), c.getLatitude()));
+
+                NDSTiles.bbox(id, bbox, 0);
+                assertEquals(t.getBBox(), new NDSBBox(bbox[0], bbox[1], bbox[2], bbox[3]));
+                NDSTiles.center(id, center, 0);
+                assertEquals(t.getCenter(), new NDSCoordinate(center[0], center[1]));
+            }
+        }
+    }
+
+    @Test
+    public void testContains() {
+        int id = 539636700;
+        NDSBBox b = new NDSTile(id).getBBox();
+        assertTrue(NDSTiles.contains(id, b.getEast(), b.getNorth()));
+        assertTrue(NDSTiles.contains(id, b.getWest(), b.getSouth()));
+        assertFalse(NDSTiles.contains(id, b.getEast() + 30, b.getNorth() + 30));
+        assertFalse(NDSTiles.contains(id, b.getWest() - 30, b.getSouth() - 30));
+    }
+
+    @Test
+    public void testLevelZero() {
+        int[] bbox = new int[4];
+        NDSTiles.bbox(NDSTiles.packedIdOf(0, 0), bbox, 0);
+        assertEquals(NDSBBox.EAST_HEMISPHERE, new NDSBBox(bbox[0], bbox[1], bbox[2], bbox[3]));
+        NDSTiles.bbox(NDSTiles.packedIdOf(0, 1), bbox, 0);
+        assertEquals(NDSBBox.WEST_HEMISPHERE, new NDSBBox(bbox[0], bbox[1], bbox[2], bbox[3]));
+    }
+
+    @Test
+    public void testParentAndChildren() {
+        Random rnd = new Random(3);
+        int[] children = new int[4];
+        for (int i = 0; i < SAMPLES; i++) {
+            NDSCoordinate c = new NDSCoordinate(rnd.nextInt(), rnd.nextInt() >> 1);
+            int level = rnd.nextInt(NDSTile.MAX_LEVEL + 1);
+            int id = new NDSTile(level, c).packedId();
+            int levels = rnd.nextInt(level + 1);
+            assertEquals(new NDSTile(level - levels, c).packedId(), NDSTiles.parent(id, levels));
+            if (level < NDSTile.MAX_LEVEL) {
+                NDSTiles.children(id, children, 0);
+                NDSCoordinate[] centers = new NDSCoordinate[4];
+                for (int k = 0; k < 4; k++) {
+                    NDSTile child = new NDSTile(children[k]);
+                    assertEquals(level + 1, child.getLevel());
+                    assertEquals(id, NDSTiles.parent(children[k], 1));
+                    centers[k] = child.getCenter();
+                    assertEquals(id, new NDSTile(level, centers[k]).packedId());
+                }
+                // Morton order within the parent; at level 1 the new row bit is the sign bit
+                assertTrue(centers[0].getLongitude() < centers[1].getLongitude() && centers[0].getLatitude() == centers[1].getLatitude());
+                assertTrue(centers[2].getLongitude() < centers[3].getLongitude() && centers[2].getLatitude() == centers[3].getLatitude());
+                assertTrue(level == 0 ^ centers[0].getLatitude() < centers[2].getLatitude());
+            }
+        }
+    }
+
+    @Test
+    public void testNeighbour() {
+        Random rnd = new Random(4);
+        for (int i = 0; i < SAMPLES; i++) {
+            NDSCoordinate c = new NDSCoordinate(rnd.nextInt(), rnd.nextInt() >> 1);
+            int level = 1 + rnd.nextInt(NDSTile.MAX_LEVEL);
+            NDSTile t = new NDSTile(level, c);
+            int dx = rnd.nextInt(7) - 3;
+            int dy = rnd.nextInt(7) - 3;
+            if (i % 10 == 0) {
+                dx = rnd.nextInt();
+                dy = rnd.nextInt();
+            }
+            // The tile containing the center moved by dx tile widths and dy tile heights
+            NDSCoordinate center = t.getCenter();
+            long size = 1L << 31 - level;
+            int lon = (int) (center.getLongitude() + dx * size);
+            int lat = (int) Math.max(NDSCoordinate.MIN_LATITUDE, Math.min(NDSCoordinate.MAX_LATITUDE, center.getLatitude() + dy * size));
+            assertEquals(new NDSTile(level, new NDSCoordinate(lon, lat)).packedId(), NDSTiles.neighbour(t.packedId(), dx, dy));
+        }
+        // Antimeridian and poles
+        int east = NDSTiles.packedId(8, NDSCoordinate.MAX_LONGITUDE, NDSCoordinate.MAX_LATITUDE);
+        int west = NDSTiles.packedId(8, NDSCoordinate.MIN_LONGITUDE, NDSCoordinate.MAX_LATITUDE);
+        assertEquals(west, NDSTiles.neighbour(east, 1, 0));
+        assertEquals(east, NDSTiles.neighbour(west, -1, 0));
+        assertEquals(east, NDSTiles.neighbour(east, 0, 1));
+        assertEquals(NDSTiles.packedId(8, NDSCoordinate.MIN_LONGITUDE, NDSCoordinate.MIN_LATITUDE), NDSTiles.neighbour(west, 0, -1000));
+        // Level 0
+        assertEquals(NDSTiles.packedIdOf(0, 1), NDSTiles.neighbour(NDSTiles.packedIdOf(0, 0), 1, 0));
+        assertEquals(NDSTiles.packedIdOf(0, 1), NDSTiles.neighbour(NDSTiles.packedIdOf(0, 0), -1, 0));
+        assertEquals(NDSTiles.packedIdOf(0, 0), NDSTiles.neighbour(NDSTiles.packedIdOf(0, 0), 2, 1));
+    }
+
+    @Test
+    public void testKRing() {
+        Random rnd = new Random(5);
+        int[] ring = new int[41 * 41];
+        for (int i = 0; i < 2000; i++) {
+            int level = rnd.nextInt(NDSTile.MAX_LEVEL + 1);
+            int id = NDSTiles.packedId(level, rnd.nextInt(), rnd.nextInt() >> 1);
+            int k = rnd.nextInt(level < 4 ? 20 : 4);
+            int n = NDSTiles.kRing(id, k, ring, 0);
+            Set<Integer> expected = new HashSet<>();
+            for (int dx = -k; dx <= k; dx++) {
+                for (int dy = -k; dy <= k; dy++) {
+                    expected.add(NDSTiles.neighbour(id, dx, dy));
+                }
+            }
+            Set<Integer> actual = new HashSet<>();
+            for (int j = 0; j < n; j++) {
+                actual.add(ring[j]);
+            }
+            assertEquals(n, actual.size());
+            assertEquals(expected, actual);
+        }
+        assertEquals(1, NDSTiles.kRing(539636700, 0, ring, 0));
+        assertEquals(539636700, ring[0]);
+        assertEquals(9, NDSTiles.kRing(539636700, 1, ring, 0));
+        assertEquals(539636700, ring[4]);
+        assertEquals(2, NDSTiles.kRing(NDSTiles.packedIdOf(0, 1), 3, ring, 0));
+    }
+
+    @Test
+    public void testTryPackedId() {
+        assertEquals(NDSTiles.packedId(13, 123456789, -98765432), NDSTiles.tryPackedId(13, 123456789, -98765432));
+        assertEquals(NDSTiles.packedIdFromWgs84(13, 8.5, 49.1), NDSTiles.tryPackedIdFromWgs84(13, 8.5, 49.1));
+        assertEquals(NDSTiles.packedIdFromWgs84(0, 180, -90), NDSTiles.tryPackedIdFromWgs84(0, 180, -90));
+        assertEquals(NDSTiles.INVALID_PACKED_ID, NDSTiles.tryPackedId(13, 0, NDSCoordinate.MAX_LATITUDE + 1));
+        assertEquals(NDSTiles.INVALID_PACKED_ID, NDSTiles.tryPackedId(13, 0, Integer.MIN_VALUE));
+        assertEquals(NDSTiles.INVALID_PACKED_ID, NDSTiles.tryPackedIdFromWgs84(13, Double.NaN, 0));
+        assertEquals(NDSTiles.INVALID_PACKED_ID, NDSTiles.tryPackedIdFromWgs84(13, 0, Double.NaN));
+        assertEquals(NDSTiles.INVALID_PACKED_ID, NDSTiles.tryPackedIdFromWgs84(13, 180.1, 0));
+        assertEquals(NDSTiles.INVALID_PACKED_ID, NDSTiles.tryPackedIdFromWgs84(13, 0, Double.NEGATIVE_INFINITY));
+        // The level is an argument, not data
+        try {
+            NDSTiles.tryPackedId(16, 0, 0);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        try {
+            NDSTiles.packedId(16, 0, 0);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            NDSTiles.packedId(3, 0, NDSCoordinate.MAX_LATITUDE + 1);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            NDSTiles.packedIdFromWgs84(3, 200, 0);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            NDSTiles.bbox(34, new int[4], 0);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            NDSTiles.parent(539636700, 14);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            NDSTiles.children(-2103231037, new int[4], 0);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+        try {
+            NDSTiles.kRing(539636700, -1, new int[9], 0);
+            fail("IllegalArgumentException expected");
+        } catch (Exception e) {
+            assertTrue(e instanceof IllegalArgumentException);
+        }
+    }
+
+    /*
+     * The former loop of NDSTile.extractLevel
+     */
+    private static int referenceLevel(int packedId) {
+        for (int lvl = NDSTile.MAX_LEVEL; lvl > -1; lvl--) {
+            int lvl_bit = 1 << 16 + lvl;
+            if ((packedId & lvl_bit) > 0) {
+                return lvl;
+            }
+            if (packedId < 0 && lvl == NDSTile.MAX_LEVEL)
+                return NDSTile.MAX_LEVEL;
+        }
+        return -1;
+    }
+}